@@ -0,0 +1,106 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import com.google.mlkit.vision.barcode.common.Barcode;
+
+/**
+ * Narrows the barcode formats of a scan session down to the formats actually seen.
+ *
+ * Formats are handled as a bit mask of the ML Kit `Barcode.FORMAT_*` constants.
+ * Until the warm-up window has passed and at least one format was seen, all formats are active.
+ * Afterwards every n-th frame is a probe frame that is scanned for all formats to catch new ones.
+ */
+public class AdaptiveFormatSelector {
+
+    public static final int DEFAULT_WARM_UP_FRAMES = 30;
+    public static final int DEFAULT_PROBE_INTERVAL_FRAMES = 15;
+
+    private final int warmUpFrames;
+    private final int probeIntervalFrames;
+
+    private int frameCount = 0;
+    private int framesSinceProbe = 0;
+    private int seenFormats = 0;
+    private int activeFormats = 0;
+    private boolean isNarrowed = false;
+
+    public AdaptiveFormatSelector() {
+        this(DEFAULT_WARM_UP_FRAMES, DEFAULT_PROBE_INTERVAL_FRAMES);
+    }
+
+    public AdaptiveFormatSelector(int warmUpFrames, int probeIntervalFrames) {
+        this.warmUpFrames = warmUpFrames;
+        this.probeIntervalFrames = probeIntervalFrames;
+    }
+
+    /**
+     * Returns the bit of the format of a decoded barcode, or 0 for `Barcode.FORMAT_UNKNOWN` (-1) and any other value
+     * that is not a single known format, which would otherwise set every bit of the mask.
+     */
+    public static int getFormatBit(int format) {
+        if (format <= 0 || (format & ~Barcode.FORMAT_ALL_FORMATS) != 0 || Integer.bitCount(format) != 1) {
+            return 0;
+        }
+        return format;
+    }
+
+    /**
+     * Must be called once per frame before it is processed.
+     *
+     * @return Whether or not the frame must be scanned for all formats.
+     */
+    public boolean nextFrame() {
+        frameCount++;
+        if (!isNarrowed) {
+            return true;
+        }
+        framesSinceProbe++;
+        if (framesSinceProbe < probeIntervalFrames) {
+            return false;
+        }
+        framesSinceProbe = 0;
+        return true;
+    }
+
+    /**
+     * Must be called once per processed frame.
+     *
+     * @param formats Bit mask of the formats of the decoded barcodes.
+     * @return Whether or not the active formats changed.
+     */
+    public boolean handleFormats(int formats) {
+        seenFormats |= formats;
+        if (!isNarrowed) {
+            if (frameCount < warmUpFrames || seenFormats == 0) {
+                return false;
+            }
+            isNarrowed = true;
+            activeFormats = seenFormats;
+            return true;
+        }
+        if ((seenFormats & ~activeFormats) == 0) {
+            return false;
+        }
+        activeFormats |= seenFormats;
+        return true;
+    }
+
+    public boolean isNarrowed() {
+        return isNarrowed;
+    }
+
+    /**
+     * Returns the active formats or an empty array if all formats are active.
+     */
+    public int[] getActiveFormats() {
+        if (!isNarrowed) {
+            return new int[] {};
+        }
+        int[] formats = new int[Integer.bitCount(activeFormats)];
+        int remaining = activeFormats;
+        for (int i = 0; i < formats.length; i++) {
+            formats[i] = Integer.lowestOneBit(remaining);
+            remaining &= remaining - 1;
+        }
+        return formats;
+    }
+}
@@ -0,0 +1,156 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import androidx.camera.core.CameraControl;
+
+/**
+ * Steps the zoom ratio of the camera towards small or distant barcodes.
+ *
+ * Fed with the bounding boxes of barcode candidates found by `analyze()`.
+ * All coordinates are in the upright frame coordinate system of ML Kit.
+ */
+public class AutoZoomController {
+
+    /**
+     * The fraction of the frame (longest side) a barcode should occupy.
+     */
+    public static final float DEFAULT_TARGET_FRACTION = 0.3f;
+    /**
+     * The largest zoom ratio factor applied in a single step.
+     */
+    public static final float DEFAULT_MAX_STEP_FACTOR = 1.5f;
+    public static final long DEFAULT_MIN_STEP_INTERVAL_MILLIS = 250;
+    public static final long DEFAULT_RELAX_DELAY_MILLIS = 1000;
+
+    @NonNull
+    private final CameraControl cameraControl;
+
+    private final float minZoomRatio;
+    private final float maxZoomRatio;
+
+    private float targetFraction = DEFAULT_TARGET_FRACTION;
+    private float maxStepFactor = DEFAULT_MAX_STEP_FACTOR;
+    private long minStepIntervalMillis = DEFAULT_MIN_STEP_INTERVAL_MILLIS;
+    private long relaxDelayMillis = DEFAULT_RELAX_DELAY_MILLIS;
+
+    private float baseZoomRatio;
+    private float zoomRatio;
+    private long lastStepAtMillis = Long.MIN_VALUE;
+    private long lastReadAtMillis = Long.MIN_VALUE;
+    private boolean isRelaxPending = false;
+
+    public AutoZoomController(@NonNull CameraControl cameraControl, float zoomRatio, float minZoomRatio, float maxZoomRatio) {
+        this.cameraControl = cameraControl;
+        this.minZoomRatio = minZoomRatio;
+        this.maxZoomRatio = maxZoomRatio;
+        this.baseZoomRatio = clamp(zoomRatio);
+        this.zoomRatio = this.baseZoomRatio;
+    }
+
+    public void setTargetFraction(float targetFraction) {
+        this.targetFraction = targetFraction;
+    }
+
+    public void setMaxStepFactor(float maxStepFactor) {
+        this.maxStepFactor = maxStepFactor;
+    }
+
+    public void setMinStepIntervalMillis(long minStepIntervalMillis) {
+        this.minStepIntervalMillis = minStepIntervalMillis;
+    }
+
+    public void setRelaxDelayMillis(long relaxDelayMillis) {
+        this.relaxDelayMillis = relaxDelayMillis;
+    }
+
+    /**
+     * Sets the zoom ratio the controller returns to after a read,
+     * e.g. when the zoom ratio was changed using `setZoomRatio(...)`.
+     */
+    public void setBaseZoomRatio(float zoomRatio) {
+        this.baseZoomRatio = clamp(zoomRatio);
+        this.zoomRatio = this.baseZoomRatio;
+        this.isRelaxPending = false;
+    }
+
+    public float getZoomRatio() {
+        return zoomRatio;
+    }
+
+    /**
+     * Called for a barcode that was located but not (yet) decoded.
+     */
+    public void handleCandidate(
+        int frameWidth,
+        int frameHeight,
+        int boxLeft,
+        int boxTop,
+        int boxWidth,
+        int boxHeight,
+        long timestampMillis
+    ) {
+        if (frameWidth <= 0 || frameHeight <= 0 || boxWidth <= 0 || boxHeight <= 0) {
+            return;
+        }
+        isRelaxPending = false;
+        if (!isStepAllowed(timestampMillis)) {
+            return;
+        }
+        float fraction = Math.max((float) boxWidth / frameWidth, (float) boxHeight / frameHeight);
+        if (fraction >= targetFraction) {
+            return;
+        }
+        float factor = Math.min(targetFraction / fraction, maxStepFactor);
+        // Zooming scales around the center, so the barcode must still fit in the frame afterwards
+        float centerX = (boxLeft + boxWidth / 2f) / frameWidth;
+        float centerY = (boxTop + boxHeight / 2f) / frameHeight;
+        float extent = Math.max(
+            Math.abs(centerX - 0.5f) + (float) boxWidth / frameWidth / 2f,
+            Math.abs(centerY - 0.5f) + (float) boxHeight / frameHeight / 2f
+        );
+        if (extent > 0f) {
+            factor = Math.min(factor, 0.5f / extent);
+        }
+        if (factor <= 1f) {
+            return;
+        }
+        applyZoomRatio(zoomRatio * factor, timestampMillis);
+    }
+
+    /**
+     * Called when a barcode was decoded.
+     */
+    public void handleRead(long timestampMillis) {
+        lastReadAtMillis = timestampMillis;
+        isRelaxPending = zoomRatio != baseZoomRatio;
+    }
+
+    /**
+     * Called for an analyzed frame without any barcode.
+     */
+    public void handleEmptyFrame(long timestampMillis) {
+        if (!isRelaxPending || timestampMillis - lastReadAtMillis < relaxDelayMillis) {
+            return;
+        }
+        isRelaxPending = false;
+        applyZoomRatio(baseZoomRatio, timestampMillis);
+    }
+
+    private boolean isStepAllowed(long timestampMillis) {
+        return lastStepAtMillis == Long.MIN_VALUE || timestampMillis - lastStepAtMillis >= minStepIntervalMillis;
+    }
+
+    private void applyZoomRatio(float zoomRatio, long timestampMillis) {
+        float clampedZoomRatio = clamp(zoomRatio);
+        if (clampedZoomRatio == this.zoomRatio) {
+            return;
+        }
+        this.zoomRatio = clampedZoomRatio;
+        this.lastStepAtMillis = timestampMillis;
+        cameraControl.setZoomRatio(clampedZoomRatio);
+    }
+
+    private float clamp(float zoomRatio) {
+        return Math.max(minZoomRatio, Math.min(maxZoomRatio, zoomRatio));
+    }
+}
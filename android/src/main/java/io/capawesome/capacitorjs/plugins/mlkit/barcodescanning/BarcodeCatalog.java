@@ -0,0 +1,229 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Compact, immutable index of known barcode values.
+ *
+ * The catalog file contains one entry per line: the barcode value, optionally followed by
+ * a tab and a metadata string (e.g. a SKU or a small JSON object).
+ *
+ * Values are only stored as 64-bit hashes in a sorted array, guarded by a Bloom filter
+ * so that most unknown values are rejected without a binary search.
+ * Two different values share a hash with a probability of about `n / 2^64`.
+ */
+public class BarcodeCatalog {
+
+    private static final int BLOOM_FILTER_BITS_PER_ENTRY = 10;
+    private static final int BLOOM_FILTER_HASH_COUNT = 4;
+
+    private final long[] hashes;
+
+    // Metadata of entry `i` is `metadata[metadataOffsets[i]..metadataOffsets[i + 1])`
+    private final int[] metadataOffsets;
+    private final byte[] metadata;
+
+    private final long[] bloomFilter;
+    private final long bloomFilterBitCount;
+
+    private BarcodeCatalog(long[] hashes, int[] metadataOffsets, byte[] metadata) {
+        this.hashes = hashes;
+        this.metadataOffsets = metadataOffsets;
+        this.metadata = metadata;
+        this.bloomFilterBitCount = Math.max(64, (long) hashes.length * BLOOM_FILTER_BITS_PER_ENTRY);
+        this.bloomFilter = new long[(int) ((bloomFilterBitCount + 63) / 64)];
+        for (long hash : hashes) {
+            addToBloomFilter(hash);
+        }
+    }
+
+    @NonNull
+    public static BarcodeCatalog load(@NonNull InputStream inputStream) throws IOException {
+        long[] hashes = new long[1024];
+        int[] metadataStarts = new int[1024];
+        int[] metadataEnds = new int[1024];
+        byte[] metadata = new byte[4096];
+        int count = 0;
+        int metadataSize = 0;
+
+        byte[] value = new byte[256];
+        int valueLength = 0;
+        boolean isInMetadata = false;
+        int metadataStart = 0;
+        byte[] buffer = new byte[64 * 1024];
+        int bufferLength;
+        do {
+            bufferLength = inputStream.read(buffer);
+            // A trailing line break is appended at the end of the stream to complete the last line
+            int end = bufferLength == -1 ? 1 : bufferLength;
+            for (int i = 0; i < end; i++) {
+                byte character = bufferLength == -1 ? (byte) '\n' : buffer[i];
+                if (character == '\n' || character == '\r') {
+                    if (valueLength > 0) {
+                        if (count == hashes.length) {
+                            hashes = Arrays.copyOf(hashes, count * 2);
+                            metadataStarts = Arrays.copyOf(metadataStarts, count * 2);
+                            metadataEnds = Arrays.copyOf(metadataEnds, count * 2);
+                        }
+                        hashes[count] = hash(value, valueLength);
+                        metadataStarts[count] = isInMetadata ? metadataStart : metadataSize;
+                        metadataEnds[count] = metadataSize;
+                        count++;
+                    }
+                    valueLength = 0;
+                    isInMetadata = false;
+                } else if (isInMetadata) {
+                    if (metadataSize == metadata.length) {
+                        metadata = Arrays.copyOf(metadata, metadataSize * 2);
+                    }
+                    metadata[metadataSize++] = character;
+                } else if (character == '\t') {
+                    isInMetadata = true;
+                    metadataStart = metadataSize;
+                } else {
+                    if (valueLength == value.length) {
+                        value = Arrays.copyOf(value, valueLength * 2);
+                    }
+                    value[valueLength++] = character;
+                }
+            }
+        } while (bufferLength != -1);
+
+        // Sort the entries by hash and lay out their metadata in the same order
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        sort(hashes, order, 0, count - 1);
+        long[] sortedHashes = Arrays.copyOf(hashes, count);
+        int[] metadataOffsets = new int[count + 1];
+        byte[] sortedMetadata = new byte[metadataSize];
+        int offset = 0;
+        for (int i = 0; i < count; i++) {
+            int entry = order[i];
+            int length = metadataEnds[entry] - metadataStarts[entry];
+            System.arraycopy(metadata, metadataStarts[entry], sortedMetadata, offset, length);
+            metadataOffsets[i] = offset;
+            offset += length;
+        }
+        metadataOffsets[count] = offset;
+        return new BarcodeCatalog(sortedHashes, metadataOffsets, sortedMetadata);
+    }
+
+    public int size() {
+        return hashes.length;
+    }
+
+    /**
+     * Returns the index of the entry with the value or `-1` if the value is unknown.
+     */
+    public int indexOf(@NonNull String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(bytes, bytes.length);
+        if (!mightContain(hash)) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(hashes, hash);
+        return index < 0 ? -1 : index;
+    }
+
+    /**
+     * Returns the metadata of the entry or `null` if the entry has none.
+     */
+    @Nullable
+    public String getMetadata(int index) {
+        int start = metadataOffsets[index];
+        int end = metadataOffsets[index + 1];
+        if (start == end) {
+            return null;
+        }
+        return new String(metadata, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    private void addToBloomFilter(long hash) {
+        long hash1 = hash;
+        long hash2 = Long.rotateLeft(hash, 32) | 1;
+        for (int i = 0; i < BLOOM_FILTER_HASH_COUNT; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bloomFilterBitCount);
+            bloomFilter[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private boolean mightContain(long hash) {
+        long hash1 = hash;
+        long hash2 = Long.rotateLeft(hash, 32) | 1;
+        for (int i = 0; i < BLOOM_FILTER_HASH_COUNT; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bloomFilterBitCount);
+            if ((bloomFilter[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a followed by the MurmurHash3 finalizer.
+     */
+    private static long hash(byte[] bytes, int length) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < length; i++) {
+            hash ^= bytes[i] & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Sorts `hashes[low..high]` and applies the same permutation to `order`.
+     */
+    private static void sort(long[] hashes, int[] order, int low, int high) {
+        while (high - low > 16) {
+            long pivot = hashes[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (hashes[i] < pivot) {
+                    i++;
+                }
+                while (hashes[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(hashes, order, i++, j--);
+                }
+            }
+            // Recurse into the smaller part to bound the stack depth
+            if (j - low < high - i) {
+                sort(hashes, order, low, j);
+                low = i;
+            } else {
+                sort(hashes, order, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            for (int j = i; j > low && hashes[j - 1] > hashes[j]; j--) {
+                swap(hashes, order, j - 1, j);
+            }
+        }
+    }
+
+    private static void swap(long[] hashes, int[] order, int i, int j) {
+        long hash = hashes[i];
+        hashes[i] = hashes[j];
+        hashes[j] = hash;
+        int entry = order[i];
+        order[i] = order[j];
+        order[j] = entry;
+    }
+}
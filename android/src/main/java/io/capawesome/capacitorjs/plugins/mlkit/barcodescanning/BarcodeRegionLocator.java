@@ -0,0 +1,106 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds regions of a (downscaled) luma image that may contain a barcode.
+ *
+ * The image is divided into square cells and the cells with a high average gradient are marked,
+ * which is the case for the dense edges of barcodes (but also of text).
+ * Adjacent marked cells are merged into regions, which are ranked by their total gradient.
+ */
+public class BarcodeRegionLocator {
+
+    public static final int DEFAULT_CELL_SIZE = 8;
+    public static final int DEFAULT_MIN_CELL_GRADIENT = 16;
+
+    private final int cellSize;
+    private final int minCellGradient;
+
+    public BarcodeRegionLocator() {
+        this(DEFAULT_CELL_SIZE, DEFAULT_MIN_CELL_GRADIENT);
+    }
+
+    /**
+     * @param minCellGradient The minimum average of the horizontal plus vertical luma difference of a cell.
+     */
+    public BarcodeRegionLocator(int cellSize, int minCellGradient) {
+        this.cellSize = cellSize;
+        this.minCellGradient = minCellGradient;
+    }
+
+    /**
+     * @param luma The luma samples, row by row without padding.
+     * @return Up to `maxRegions` regions as left, top, right and bottom, the most distinct region first.
+     */
+    @NonNull
+    public List<int[]> locate(@NonNull byte[] luma, int width, int height, int maxRegions) {
+        int columns = (width - 1) / cellSize;
+        int rows = (height - 1) / cellSize;
+        if (columns <= 0 || rows <= 0 || maxRegions <= 0) {
+            return new ArrayList<>();
+        }
+        long[] cellGradients = new long[columns * rows];
+        int minCellGradientSum = minCellGradient * cellSize * cellSize;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                long gradientSum = 0;
+                for (int y = row * cellSize; y < (row + 1) * cellSize; y++) {
+                    int index = y * width + column * cellSize;
+                    for (int x = 0; x < cellSize; x++, index++) {
+                        int value = luma[index] & 0xFF;
+                        gradientSum += Math.abs((luma[index + 1] & 0xFF) - value) + Math.abs((luma[index + width] & 0xFF) - value);
+                    }
+                }
+                cellGradients[row * columns + column] = gradientSum >= minCellGradientSum ? gradientSum : 0;
+            }
+        }
+
+        List<long[]> regions = new ArrayList<>();
+        int[] stack = new int[cellGradients.length];
+        for (int cell = 0; cell < cellGradients.length; cell++) {
+            if (cellGradients[cell] == 0) {
+                continue;
+            }
+            // Flood fill over the 8 neighbours, visited cells are cleared
+            long[] region = new long[] { Long.MAX_VALUE, Long.MAX_VALUE, 0, 0, 0 };
+            int stackSize = 0;
+            stack[stackSize++] = cell;
+            region[4] += cellGradients[cell];
+            cellGradients[cell] = 0;
+            while (stackSize > 0) {
+                int current = stack[--stackSize];
+                int column = current % columns;
+                int row = current / columns;
+                region[0] = Math.min(region[0], column);
+                region[1] = Math.min(region[1], row);
+                region[2] = Math.max(region[2], column + 1);
+                region[3] = Math.max(region[3], row + 1);
+                for (int neighbourRow = Math.max(0, row - 1); neighbourRow <= Math.min(rows - 1, row + 1); neighbourRow++) {
+                    for (int neighbourColumn = Math.max(0, column - 1); neighbourColumn <= Math.min(columns - 1, column + 1); neighbourColumn++) {
+                        int neighbour = neighbourRow * columns + neighbourColumn;
+                        if (cellGradients[neighbour] != 0) {
+                            region[4] += cellGradients[neighbour];
+                            cellGradients[neighbour] = 0;
+                            stack[stackSize++] = neighbour;
+                        }
+                    }
+                }
+            }
+            regions.add(region);
+        }
+
+        Collections.sort(regions, (a, b) -> Long.compare(b[4], a[4]));
+        List<int[]> result = new ArrayList<>(Math.min(maxRegions, regions.size()));
+        for (int i = 0; i < regions.size() && result.size() < maxRegions; i++) {
+            long[] region = regions.get(i);
+            result.add(
+                new int[] { (int) region[0] * cellSize, (int) region[1] * cellSize, (int) region[2] * cellSize, (int) region[3] * cellSize }
+            );
+        }
+        return result;
+    }
+}
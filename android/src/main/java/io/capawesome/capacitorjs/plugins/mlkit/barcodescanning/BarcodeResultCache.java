@@ -0,0 +1,403 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of the barcodes found in image files, keyed by a `ContentFingerprint` of the file,
+ * the requested formats and the decoder engine.
+ *
+ * The latest results are held in memory as an LRU. All results are backed by an append-only log file:
+ * a header (magic, version) followed by length-prefixed records. A record with a negative barcode count
+ * invalidates all earlier records of its fingerprint. Records after the last complete one
+ * (e.g. because the app crashed) are discarded on open. The log is compacted on open once most of it
+ * is invalidated, and when it holds more than the maximum number of entries, the oldest ones are dropped.
+ *
+ * Thread-safe.
+ */
+public class BarcodeResultCache implements Closeable {
+
+    public static final String FILE_NAME = "barcode-results.cache";
+    public static final int DEFAULT_MEMORY_CAPACITY = 256;
+    public static final int DEFAULT_MAX_DISK_ENTRY_COUNT = 10_000;
+
+    private static final int MAGIC = 0x42535243; // "BSRC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int TOMBSTONE = -1;
+
+    /**
+     * Identifies the results of one file's content for one set of formats and one decoder engine.
+     */
+    public static final class Key {
+
+        private final long fingerprint;
+        private final int formatMask;
+        private final int decoderEngine;
+
+        public Key(long fingerprint, int formatMask, int decoderEngine) {
+            this.fingerprint = fingerprint;
+            this.formatMask = formatMask;
+            this.decoderEngine = decoderEngine;
+        }
+
+        public long getFingerprint() {
+            return fingerprint;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) object;
+            return fingerprint == key.fingerprint && formatMask == key.formatMask && decoderEngine == key.decoderEngine;
+        }
+
+        @Override
+        public int hashCode() {
+            return (Long.hashCode(fingerprint) * 31 + formatMask) * 31 + decoderEngine;
+        }
+    }
+
+    @NonNull
+    private final File file;
+
+    private final int maxDiskEntryCount;
+
+    @NonNull
+    private RandomAccessFile randomAccessFile;
+
+    private final LinkedHashMap<Key, List<DecodedBarcode>> memoryEntries;
+
+    // Offsets of the live records in the log file
+    private final HashMap<Key, Long> diskOffsets = new HashMap<>();
+    private int deadRecordCount = 0;
+
+    private long memoryHitCount = 0;
+    private long diskHitCount = 0;
+    private long missCount = 0;
+
+    public BarcodeResultCache(@NonNull File file) throws IOException {
+        this(file, DEFAULT_MEMORY_CAPACITY, DEFAULT_MAX_DISK_ENTRY_COUNT);
+    }
+
+    public BarcodeResultCache(@NonNull File file, int memoryCapacity, int maxDiskEntryCount) throws IOException {
+        this.file = file;
+        this.maxDiskEntryCount = maxDiskEntryCount;
+        this.memoryEntries =
+            new LinkedHashMap<Key, List<DecodedBarcode>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, List<DecodedBarcode>> eldest) {
+                    return size() > memoryCapacity;
+                }
+            };
+        File directory = file.getParentFile();
+        if (directory != null && !directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Could not create result cache directory.");
+        }
+        this.randomAccessFile = new RandomAccessFile(file, "rw");
+        open();
+        if (deadRecordCount > diskOffsets.size()) {
+            compact(0);
+        }
+    }
+
+    /**
+     * Returns the cached barcodes or `null` if the key is not cached.
+     */
+    @Nullable
+    public synchronized List<DecodedBarcode> get(@NonNull Key key) throws IOException {
+        List<DecodedBarcode> barcodes = memoryEntries.get(key);
+        if (barcodes != null) {
+            memoryHitCount++;
+            return barcodes;
+        }
+        Long offset = diskOffsets.get(key);
+        if (offset == null) {
+            missCount++;
+            return null;
+        }
+        barcodes = readBarcodes(offset);
+        memoryEntries.put(key, barcodes);
+        diskHitCount++;
+        return barcodes;
+    }
+
+    public synchronized void put(@NonNull Key key, @NonNull List<DecodedBarcode> barcodes) throws IOException {
+        List<DecodedBarcode> unmodifiableBarcodes = Collections.unmodifiableList(new ArrayList<>(barcodes));
+        memoryEntries.put(key, unmodifiableBarcodes);
+        long offset = appendRecord(key, unmodifiableBarcodes);
+        if (diskOffsets.put(key, offset) != null) {
+            deadRecordCount++;
+        }
+        if (diskOffsets.size() > maxDiskEntryCount) {
+            compact(diskOffsets.size() - maxDiskEntryCount * 3 / 4);
+        }
+    }
+
+    /**
+     * Removes the results of all formats and decoder engines of a fingerprint and returns the number of removed entries.
+     */
+    public synchronized int invalidate(long fingerprint) throws IOException {
+        memoryEntries.keySet().removeIf(key -> key.fingerprint == fingerprint);
+        int removedCount = 0;
+        Iterator<Key> iterator = diskOffsets.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().fingerprint == fingerprint) {
+                iterator.remove();
+                removedCount++;
+            }
+        }
+        if (removedCount > 0) {
+            appendRecord(new Key(fingerprint, 0, 0), null);
+            deadRecordCount += removedCount + 1;
+        }
+        return removedCount;
+    }
+
+    public synchronized void clear() throws IOException {
+        memoryEntries.clear();
+        diskOffsets.clear();
+        deadRecordCount = 0;
+        randomAccessFile.setLength(0);
+        writeHeader();
+    }
+
+    /**
+     * Drops the in-memory entries, the results stay available from disk.
+     */
+    public synchronized void trimMemory() {
+        memoryEntries.clear();
+    }
+
+    public synchronized int size() {
+        return diskOffsets.size();
+    }
+
+    public synchronized long getMemoryHitCount() {
+        return memoryHitCount;
+    }
+
+    public synchronized long getDiskHitCount() {
+        return diskHitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        randomAccessFile.close();
+    }
+
+    private void open() throws IOException {
+        long length = randomAccessFile.length();
+        if (length < HEADER_SIZE) {
+            randomAccessFile.setLength(0);
+            writeHeader();
+            return;
+        }
+        randomAccessFile.seek(0);
+        if (randomAccessFile.readInt() != MAGIC || randomAccessFile.readInt() != VERSION) {
+            // Written by another version, the results are recomputed
+            randomAccessFile.setLength(0);
+            writeHeader();
+            return;
+        }
+        long offset = HEADER_SIZE;
+        int recordCount = 0;
+        while (offset + 4 + 20 <= length) {
+            randomAccessFile.seek(offset);
+            int recordLength = randomAccessFile.readInt();
+            if (recordLength < 20 || offset + 4 + recordLength > length) {
+                break;
+            }
+            Key key = new Key(randomAccessFile.readLong(), randomAccessFile.readInt(), randomAccessFile.readInt());
+            int barcodeCount = randomAccessFile.readInt();
+            if (barcodeCount == TOMBSTONE) {
+                diskOffsets.keySet().removeIf(liveKey -> liveKey.fingerprint == key.fingerprint);
+            } else {
+                diskOffsets.put(key, offset);
+            }
+            offset += 4 + recordLength;
+            recordCount++;
+        }
+        // Anything after the last complete record is discarded
+        randomAccessFile.setLength(offset);
+        deadRecordCount = recordCount - diskOffsets.size();
+    }
+
+    private void writeHeader() throws IOException {
+        randomAccessFile.seek(0);
+        randomAccessFile.writeInt(MAGIC);
+        randomAccessFile.writeInt(VERSION);
+    }
+
+    /**
+     * @param barcodes The barcodes or `null` for a tombstone.
+     */
+    private long appendRecord(Key key, @Nullable List<DecodedBarcode> barcodes) throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        DataOutputStream outputStream = new DataOutputStream(byteArrayOutputStream);
+        outputStream.writeInt(0); // Record length
+        outputStream.writeLong(key.fingerprint);
+        outputStream.writeInt(key.formatMask);
+        outputStream.writeInt(key.decoderEngine);
+        if (barcodes == null) {
+            outputStream.writeInt(TOMBSTONE);
+        } else {
+            outputStream.writeInt(barcodes.size());
+            for (DecodedBarcode barcode : barcodes) {
+                writeBarcode(outputStream, barcode);
+            }
+        }
+        outputStream.flush();
+        byte[] record = byteArrayOutputStream.toByteArray();
+        int recordLength = record.length - 4;
+        record[0] = (byte) (recordLength >>> 24);
+        record[1] = (byte) (recordLength >>> 16);
+        record[2] = (byte) (recordLength >>> 8);
+        record[3] = (byte) recordLength;
+        long offset = randomAccessFile.length();
+        randomAccessFile.seek(offset);
+        randomAccessFile.write(record);
+        return offset;
+    }
+
+    private List<DecodedBarcode> readBarcodes(long offset) throws IOException {
+        randomAccessFile.seek(offset);
+        byte[] record = new byte[randomAccessFile.readInt()];
+        randomAccessFile.readFully(record);
+        DataInputStream inputStream = new DataInputStream(new ByteArrayInputStream(record));
+        inputStream.skipBytes(16);
+        int barcodeCount = inputStream.readInt();
+        List<DecodedBarcode> barcodes = new ArrayList<>(barcodeCount);
+        for (int i = 0; i < barcodeCount; i++) {
+            barcodes.add(readBarcode(inputStream));
+        }
+        return Collections.unmodifiableList(barcodes);
+    }
+
+    /**
+     * Rewrites the log with the live records only, without the `dropCount` oldest ones.
+     */
+    private void compact(int dropCount) throws IOException {
+        List<Map.Entry<Key, Long>> entries = new ArrayList<>(diskOffsets.entrySet());
+        entries.sort((entry, otherEntry) -> Long.compare(entry.getValue(), otherEntry.getValue()));
+        File compactedFile = new File(file.getPath() + ".tmp");
+        HashMap<Key, Long> compactedOffsets = new HashMap<>();
+        try (RandomAccessFile compactedRandomAccessFile = new RandomAccessFile(compactedFile, "rw")) {
+            compactedRandomAccessFile.setLength(0);
+            compactedRandomAccessFile.writeInt(MAGIC);
+            compactedRandomAccessFile.writeInt(VERSION);
+            for (int i = Math.max(0, dropCount); i < entries.size(); i++) {
+                Map.Entry<Key, Long> entry = entries.get(i);
+                randomAccessFile.seek(entry.getValue());
+                byte[] record = new byte[randomAccessFile.readInt()];
+                randomAccessFile.readFully(record);
+                compactedOffsets.put(entry.getKey(), compactedRandomAccessFile.getFilePointer());
+                compactedRandomAccessFile.writeInt(record.length);
+                compactedRandomAccessFile.write(record);
+            }
+        }
+        randomAccessFile.close();
+        if (!compactedFile.renameTo(file)) {
+            randomAccessFile = new RandomAccessFile(file, "rw");
+            throw new IOException("Could not replace result cache.");
+        }
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        for (int i = 0; i < Math.max(0, dropCount) && i < entries.size(); i++) {
+            memoryEntries.remove(entries.get(i).getKey());
+        }
+        diskOffsets.clear();
+        diskOffsets.putAll(compactedOffsets);
+        deadRecordCount = 0;
+    }
+
+    private static void writeBarcode(DataOutputStream outputStream, DecodedBarcode barcode) throws IOException {
+        outputStream.writeInt(barcode.getFormat());
+        outputStream.writeInt(barcode.getValueType());
+        writeBytes(outputStream, barcode.getRawValue() == null ? null : barcode.getRawValue().getBytes(StandardCharsets.UTF_8));
+        writeBytes(outputStream, barcode.getDisplayValue() == null ? null : barcode.getDisplayValue().getBytes(StandardCharsets.UTF_8));
+        writeBytes(outputStream, barcode.getRawBytes());
+        writeInts(outputStream, barcode.getBounds());
+        writeInts(outputStream, barcode.getCornerPointCoordinates());
+    }
+
+    private static DecodedBarcode readBarcode(DataInputStream inputStream) throws IOException {
+        int format = inputStream.readInt();
+        int valueType = inputStream.readInt();
+        byte[] rawValue = readBytes(inputStream);
+        byte[] displayValue = readBytes(inputStream);
+        byte[] rawBytes = readBytes(inputStream);
+        int[] bounds = readInts(inputStream);
+        int[] cornerPointCoordinates = readInts(inputStream);
+        return new DecodedBarcode(
+            format,
+            valueType,
+            rawValue == null ? null : new String(rawValue, StandardCharsets.UTF_8),
+            displayValue == null ? null : new String(displayValue, StandardCharsets.UTF_8),
+            rawBytes,
+            bounds,
+            cornerPointCoordinates
+        );
+    }
+
+    private static void writeBytes(DataOutputStream outputStream, @Nullable byte[] bytes) throws IOException {
+        outputStream.writeInt(bytes == null ? -1 : bytes.length);
+        if (bytes != null) {
+            outputStream.write(bytes);
+        }
+    }
+
+    @Nullable
+    private static byte[] readBytes(DataInputStream inputStream) throws IOException {
+        int length = inputStream.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        inputStream.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeInts(DataOutputStream outputStream, @Nullable int[] values) throws IOException {
+        outputStream.writeInt(values == null ? -1 : values.length);
+        if (values != null) {
+            for (int value : values) {
+                outputStream.writeInt(value);
+            }
+        }
+    }
+
+    @Nullable
+    private static int[] readInts(DataInputStream inputStream) throws IOException {
+        int length = inputStream.readInt();
+        if (length < 0) {
+            return null;
+        }
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = inputStream.readInt();
+        }
+        return values;
+    }
+}
@@ -11,61 +11,136 @@ import android.graphics.Color;
 import android.graphics.Point;
 import android.media.Image;
 import android.net.Uri;
+import android.os.Build;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.os.ParcelFileDescriptor;
 import android.provider.Settings;
+import android.system.Os;
+import android.util.Size;
 import android.view.Display;
 import android.view.WindowManager;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.camera.camera2.interop.Camera2Interop;
 import androidx.camera.core.Camera;
+import androidx.camera.core.CameraInfo;
 import androidx.camera.core.CameraSelector;
 import androidx.camera.core.ImageAnalysis;
 import androidx.camera.core.ImageProxy;
 import androidx.camera.core.Preview;
+import androidx.camera.core.ZoomState;
 import androidx.camera.lifecycle.ProcessCameraProvider;
 import androidx.camera.view.PreviewView;
 import androidx.core.content.ContextCompat;
 import androidx.lifecycle.LifecycleOwner;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Logger;
 import com.getcapacitor.PermissionState;
 import com.getcapacitor.PluginCall;
-import com.google.android.gms.common.moduleinstall.InstallStatusListener;
 import com.google.android.gms.common.moduleinstall.ModuleInstall;
 import com.google.android.gms.common.moduleinstall.ModuleInstallClient;
 import com.google.android.gms.common.moduleinstall.ModuleInstallRequest;
 import com.google.android.gms.common.moduleinstall.ModuleInstallStatusUpdate;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.mlkit.vision.barcode.BarcodeScannerOptions;
-import com.google.mlkit.vision.barcode.BarcodeScanning;
 import com.google.mlkit.vision.barcode.common.Barcode;
 import com.google.mlkit.vision.codescanner.GmsBarcodeScanner;
-import com.google.mlkit.vision.codescanner.GmsBarcodeScannerOptions;
-import com.google.mlkit.vision.codescanner.GmsBarcodeScanning;
 import com.google.mlkit.vision.common.InputImage;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.DumpFlightRecorderOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.LoadCatalogOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.PollBarcodesOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.QueryScanHistoryOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.ReadBarcodesFromDataOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.ReadBarcodesFromPdfOptions;
 import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.SetZoomRatioOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.StartFrameRecordingOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.WatchFolderOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.DumpFlightRecorderResult;
 import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.GetMaxZoomRatioResult;
 import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.GetMinZoomRatioResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.GetResultCacheStatsResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.GetScanMetricsResult;
 import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.GetZoomRatioResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.LoadCatalogResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.PollBarcodesResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.QueryScanHistoryResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.ReadBarcodesFromPdfResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.StartFrameRecordingResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.StopFrameRecordingResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.interfaces.EmptyResultCallback;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.interfaces.NonEmptyResultCallback;
 
 // Modified SDK: Import for custom changes
 import android.graphics.ImageFormat;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
-import java.nio.ByteBuffer;
 import java.io.ByteArrayOutputStream;
 import android.graphics.Matrix;
 import android.graphics.Rect;
 import android.graphics.YuvImage;
 import android.util.Base64;
 import android.util.Log;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class BarcodeScanner implements ImageAnalysis.Analyzer {
 
+    public static final String SCAN_HISTORY_DIRECTORY_NAME = "barcode-scanning-history";
+    public static final String FLIGHT_RECORDER_DIRECTORY_NAME = "barcode-scanning-flight-recorder";
+    public static final String FRAME_RECORDING_DIRECTORY_NAME = "barcode-scanning-frames";
+    public static final String RESULT_CACHE_DIRECTORY_NAME = "barcode-scanning-results";
+    public static final String WATCH_FOLDER_DIRECTORY_NAME = "barcode-scanning-watch-folders";
+    /**
+     * Frames are skipped while this many recorded frames are waiting to be written.
+     */
+    public static final int MAX_PENDING_RECORDED_FRAME_COUNT = 3;
+    /**
+     * Target resolution of the analysis in conveyor mode and once the session is degraded to
+     * `MemoryDegradation.LEVEL_REDUCE_RESOLUTION` or `ThermalGovernor.LEVEL_REDUCE_RESOLUTION`.
+     */
+    public static final Size REDUCED_ANALYSIS_RESOLUTION = new Size(320, 240);
+    public static final String TRACE_SECTION_INFERENCE = "BarcodeScanner#inference";
+    public static final String TRACE_SECTION_ENCODE = "BarcodeScanner#encode";
+    public static final String TRACE_SECTION_EMIT = "BarcodeScanner#emit";
+    public static final int PDF_WORKER_COUNT = Math.max(1, Math.min(3, Runtime.getRuntime().availableProcessors() / 2));
+    public static final int WATCH_FOLDER_WORKER_COUNT = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() / 2));
+    /**
+     * The barcodes of the last analyzed frame are delivered again at most this often for unchanged frames.
+     */
+    public static final long REUSED_RESULT_INTERVAL_MILLIS = 500;
+
     @NonNull
     private final BarcodeScannerPlugin plugin;
 
     private final Point displaySize;
 
     @Nullable
-    private com.google.mlkit.vision.barcode.BarcodeScanner barcodeScannerInstance;
+    private DecoderEngine decoderEngine;
+
+    /**
+     * Scans for all formats while the formats of `decoderEngine` are narrowed.
+     */
+    @Nullable
+    private DecoderEngine probeDecoderEngine;
+
+    @Nullable
+    private AdaptiveFormatSelector adaptiveFormatSelector;
 
     @Nullable
     private Camera camera;
@@ -76,17 +151,187 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
     @Nullable
     private PreviewView previewView;
 
+    @Nullable
+    private Preview preview;
+
+    @Nullable
+    private ImageAnalysis imageAnalysis;
+
     @Nullable
     private ScanSettings scanSettings;
 
     @Nullable
     private ModuleInstallProgressListener moduleInstallProgressListener;
 
+    @NonNull
+    private final ScanMetrics scanMetrics = new ScanMetrics();
+
+    /**
+     * All scan history operations run on this executor.
+     */
+    @NonNull
+    private final ExecutorService scanHistoryExecutor = Executors.newSingleThreadExecutor();
+
+    @Nullable
+    private ScanHistory scanHistory;
+
+    @NonNull
+    private final ExecutorService catalogExecutor = Executors.newSingleThreadExecutor();
+
+    @Nullable
+    private volatile BarcodeCatalog barcodeCatalog;
+
+    /**
+     * Renders and scans the pages of PDF documents.
+     */
+    @NonNull
+    private final ExecutorService pdfExecutor = Executors.newFixedThreadPool(PDF_WORKER_COUNT);
+
+    @Nullable
+    private FrameQualityGate frameQualityGate;
+
+    @Nullable
+    private FrameChangeDetector frameChangeDetector;
+
+    /**
+     * The barcodes of the last analyzed frame, reused for unchanged frames.
+     */
+    @Nullable
+    private List<DecodedBarcode> lastDecodedBarcodes;
+
+    /**
+     * The cropped images of the last analyzed frame by barcode index, reused for unchanged frames.
+     */
+    @Nullable
+    private String[] lastQrImages;
+
+    /**
+     * The timestamp of the last frame whose barcodes were delivered, analyzed or reused.
+     */
+    private long lastDeliveredTimestampNanos;
+
+    /**
+     * Kept after the scan session is stopped, so that it can still be dumped.
+     */
+    @Nullable
+    private volatile FlightRecorder flightRecorder;
+
+    @NonNull
+    private final ExecutorService flightRecorderExecutor = Executors.newSingleThreadExecutor();
+
+    /**
+     * Only accessed by the frame recording executor, except for the analyzer which reads it.
+     */
+    @Nullable
+    private volatile FrameRecordingWriter frameRecordingWriter;
+
+    private final ExecutorService frameRecordingExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicInteger pendingRecordedFrameCount = new AtomicInteger();
+    private final AtomicInteger skippedRecordedFrameCount = new AtomicInteger();
+
+    /**
+     * Opens, reads and writes the result cache, so the main thread never waits for the disk.
+     */
+    private final ExecutorService resultCacheExecutor = Executors.newSingleThreadExecutor();
+
+    /**
+     * Opened on first use, only accessed on the result cache executor.
+     */
+    @Nullable
+    private BarcodeResultCache resultCache;
+
+    /**
+     * Waits for queued results, so neither the plugin thread nor the main thread is blocked by `pollBarcodes`.
+     */
+    private final ExecutorService pollExecutor = Executors.newSingleThreadExecutor();
+
+    /**
+     * Calls the native scan listeners in order, so they never block the analyzer.
+     */
+    private final ExecutorService nativeScanListenerExecutor = Executors.newSingleThreadExecutor();
+
+    private final List<NativeScanListener> nativeScanListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The NV21 buffers of `readBarcodesFromData`, images of the same dimensions reuse the same buffer.
+     */
+    private final ByteArrayPool imageDataBufferPool = new ByteArrayPool();
+
+    /**
+     * The Base64-decoded data of `readBarcodesFromData`, returned as soon as it is converted or decoded into a bitmap.
+     */
+    private final ByteArrayPool decodedDataBufferPool = new ByteArrayPool();
+
+    /**
+     * Starts and stops the folder watcher, which opens and closes its processed file index.
+     */
+    private final ExecutorService folderWatcherExecutor = Executors.newSingleThreadExecutor();
+
+    /**
+     * Only accessed on the folder watcher executor.
+     */
+    @Nullable
+    private FolderWatcher folderWatcher;
+
+    /**
+     * The queue of the current scan session in poll delivery mode.
+     * It is closed when the scan stops but can still be drained until the next scan starts.
+     */
+    @Nullable
+    private volatile ResultQueue<JSObject> resultQueue;
+
+    @Nullable
+    private AutoZoomController autoZoomController;
+
+    @Nullable
+    private FocusMeteringController focusMeteringController;
+
     private boolean isTorchEnabled = false;
 
+    private final MemoryDegradation memoryDegradation = new MemoryDegradation();
+
+    @Nullable
+    private ThermalGovernor thermalGovernor;
+
+    @Nullable
+    private ThermalSource thermalSource;
+
+    @Nullable
+    private MotionSource motionSource;
+
+    @Nullable
+    private MotionEstimator motionEstimator;
+
+    /**
+     * The target resolution of the bound image analysis or `null` for the default.
+     */
+    @Nullable
+    private Size analysisResolution;
+
+    /**
+     * The capture request options of the preview and the image analysis in conveyor mode.
+     */
+    @Nullable
+    private ConveyorCaptureOptions conveyorCaptureOptions;
+
+    /**
+     * Engines are not closed while they decode a frame.
+     */
+    private final DecoderEngineCloser decoderEngineCloser = new DecoderEngineCloser();
+
+    /**
+     * Frames and other asynchronous work capture the generation of the session and are discarded once it is stale.
+     * The other session fields are only accessed on the main thread.
+     */
+    private final ScanSession scanSession = new ScanSession();
+
+    @NonNull
+    private final GoogleBarcodeScannerModuleManager googleBarcodeScannerModuleManager;
+
     public BarcodeScanner(BarcodeScannerPlugin plugin) {
         this.plugin = plugin;
         this.displaySize = this.getDisplaySize();
+        this.googleBarcodeScannerModuleManager = new GoogleBarcodeScannerModuleManager(plugin.getContext());
     }
 
     /**
@@ -95,34 +340,54 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
     public void startScan(ScanSettings scanSettings, StartScanResultCallback callback) {
         // Stop the camera if running
         stopScan();
+        long generation = scanSession.start();
         // Hide WebView background
         hideWebViewBackground();
 
         this.scanSettings = scanSettings;
-
-        BarcodeScannerOptions options = buildBarcodeScannerOptions(scanSettings);
-        barcodeScannerInstance = BarcodeScanning.getClient(options);
-
-        ImageAnalysis imageAnalysis = new ImageAnalysis.Builder().setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST).build();
-        imageAnalysis.setAnalyzer(ContextCompat.getMainExecutor(plugin.getContext()), this);
+        scanMetrics.reset();
+        memoryDegradation.reset();
+
+        createDecoderEngines(scanSettings);
+        frameQualityGate = createFrameQualityGate(scanSettings);
+        frameChangeDetector = createFrameChangeDetector(scanSettings);
+        lastDecodedBarcodes = null;
+        lastQrImages = null;
+        flightRecorder = scanSettings.flightRecorder ? new FlightRecorder() : null;
+        if (scanSettings.thermalGovernor) {
+            thermalSource = new PowerManagerThermalSource(plugin.getContext());
+            thermalGovernor = new ThermalGovernor(thermalSource, createThermalPolicy(scanSettings));
+        }
+        if (scanSettings.motionSkipping) {
+            motionSource = new SensorManagerMotionSource(plugin.getContext());
+            motionEstimator = new MotionEstimator(scanSettings.maxAngularVelocity, scanSettings.maxLinearAcceleration);
+            motionSource.start(motionEstimator);
+            scanMetrics.startMotionSensor(motionSource.getPowerMilliamps(), System.nanoTime());
+        }
+        resultQueue =
+            scanSettings.deliveryMode == ScanSettings.DELIVERY_MODE_POLL
+                ? new ResultQueue<>(scanSettings.resultQueueCapacity, scanSettings.resultQueueOverflowPolicy)
+                : null;
 
         ListenableFuture<ProcessCameraProvider> cameraProviderFuture = ProcessCameraProvider.getInstance(plugin.getContext());
         cameraProviderFuture.addListener(
             () -> {
                 try {
+                    if (scanSession.getGeneration() != generation) {
+                        // Stopped or restarted while waiting for the camera provider
+                        callback.error(new Exception(BarcodeScannerPlugin.ERROR_SCAN_CANCELED));
+                        return;
+                    }
                     processCameraProvider = cameraProviderFuture.get();
 
-                    CameraSelector cameraSelector = new CameraSelector.Builder().requireLensFacing(this.scanSettings.lensFacing).build();
-
                     previewView = plugin.getActivity().findViewById(R.id.preview_view);
                     previewView.setScaleType(PreviewView.ScaleType.FILL_CENTER);
 
-                    Preview preview = new Preview.Builder().build();
-                    preview.setSurfaceProvider(previewView.getSurfaceProvider());
+                    createUseCases();
 
                     // Start the camera
-                    camera =
-                        processCameraProvider.bindToLifecycle((LifecycleOwner) plugin.getContext(), cameraSelector, preview, imageAnalysis);
+                    bindCamera();
+                    scanSession.markRunning(generation);
 
                     callback.success();
                 } catch (Exception exception) {
@@ -133,10 +398,69 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
         );
     }
 
+    /**
+     * Applies new settings to the running scan session without restarting the camera.
+     *
+     * Must run on UI thread.
+     */
+    public void updateScanSettings(ScanSettings scanSettings, EmptyResultCallback callback) {
+        ScanSettings previousScanSettings = this.scanSettings;
+        if (previousScanSettings == null || processCameraProvider == null) {
+            callback.error(new Exception(BarcodeScannerPlugin.ERROR_NO_ACTIVE_SCAN_SESSION));
+            return;
+        }
+        this.scanSettings = scanSettings;
+
+        boolean isBarcodeScannerChanged =
+            !Arrays.equals(previousScanSettings.formats, scanSettings.formats) ||
+            previousScanSettings.adaptiveFormats != scanSettings.adaptiveFormats ||
+            previousScanSettings.decoderEngine != scanSettings.decoderEngine ||
+            previousScanSettings.twoStageDecoding != scanSettings.twoStageDecoding ||
+            previousScanSettings.coarseMaxDimension != scanSettings.coarseMaxDimension ||
+            isPotentialBarcodesEnabled(previousScanSettings) != isPotentialBarcodesEnabled(scanSettings);
+        if (isBarcodeScannerChanged) {
+            // Frames are analyzed on the UI thread, so the next frame already uses the new engine
+            createDecoderEngines(scanSettings);
+        }
+        frameQualityGate = createFrameQualityGate(scanSettings);
+        frameChangeDetector = createFrameChangeDetector(scanSettings);
+        lastDecodedBarcodes = null;
+        lastQrImages = null;
+        if (previousScanSettings.autoZoom != scanSettings.autoZoom) {
+            autoZoomController = null;
+        }
+        if (previousScanSettings.autoFocus != scanSettings.autoFocus) {
+            focusMeteringController = null;
+        }
+        if (!Objects.equals(previousScanSettings.lensFacing, scanSettings.lensFacing)) {
+            try {
+                if (conveyorCaptureOptions != null) {
+                    // The capture request options depend on the camera
+                    processCameraProvider.unbind(preview, imageAnalysis);
+                    createUseCases();
+                }
+                bindCamera();
+            } catch (Exception exception) {
+                callback.error(exception);
+                return;
+            }
+        }
+        // The rebuilt engines and use cases must not undo the memory degradation of the session
+        reapplyMemoryDegradation();
+        callback.success();
+    }
+
+    @Nullable
+    public ScanSettings getScanSettings() {
+        return scanSettings;
+    }
+
     /**
      * Must run on UI thread.
      */
     public void stopScan() {
+        // Makes all pending frames stale
+        scanSession.stop();
         showWebViewBackground();
         disableTorch();
         // Stop the camera
@@ -145,86 +469,578 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
         }
         processCameraProvider = null;
         camera = null;
-        barcodeScannerInstance = null;
+        preview = null;
+        imageAnalysis = null;
+        conveyorCaptureOptions = null;
+        decoderEngineCloser.close(decoderEngine, probeDecoderEngine);
+        decoderEngine = null;
+        probeDecoderEngine = null;
+        adaptiveFormatSelector = null;
+        frameQualityGate = null;
+        frameChangeDetector = null;
+        lastDecodedBarcodes = null;
+        lastQrImages = null;
         scanSettings = null;
+        autoZoomController = null;
+        focusMeteringController = null;
+        thermalGovernor = null;
+        if (thermalSource != null) {
+            thermalSource.close();
+            thermalSource = null;
+        }
+        if (motionSource != null) {
+            motionSource.close();
+            motionSource = null;
+            scanMetrics.stopMotionSensor(System.nanoTime());
+        }
+        motionEstimator = null;
+        ResultQueue<JSObject> resultQueue = this.resultQueue;
+        if (resultQueue != null) {
+            // Wakes up waiting polls, queued results stay available
+            resultQueue.close();
+        }
+        frameRecordingExecutor.execute(this::closeFrameRecording);
+    }
+
+    /**
+     * Stops the scan session and the folder watcher, closes the scan history, the result cache and the frame recording
+     * and shuts down the executors once their queued work is done. The instance must not be used afterwards.
+     *
+     * Must run on UI thread.
+     */
+    public void destroy() {
+        if (scanSettings != null) {
+            // Also closes the decoder engines and the sensor listeners
+            stopScan();
+        }
+        if (moduleInstallProgressListener != null) {
+            ModuleInstall.getClient(plugin.getContext()).unregisterListener(moduleInstallProgressListener);
+            moduleInstallProgressListener = null;
+        }
+        googleBarcodeScannerModuleManager.releaseScanners();
+        nativeScanListeners.clear();
+        imageDataBufferPool.clear();
+        decodedDataBufferPool.clear();
+        folderWatcherExecutor.execute(this::closeFolderWatcher);
+        scanHistoryExecutor.execute(this::closeScanHistory);
+        frameRecordingExecutor.execute(this::closeFrameRecording);
+        resultCacheExecutor.execute(this::closeResultCache);
+        ExecutorService[] executors = new ExecutorService[] {
+            scanHistoryExecutor,
+            catalogExecutor,
+            pdfExecutor,
+            flightRecorderExecutor,
+            frameRecordingExecutor,
+            resultCacheExecutor,
+            pollExecutor,
+            nativeScanListenerExecutor,
+            folderWatcherExecutor,
+        };
+        for (ExecutorService executor : executors) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Degrades the scan session step by step while the system is running low on memory
+     * and notifies the listeners about every applied step.
+     * Without a scan session, only buffers and the clients of the Google code scanner are released.
+     *
+     * Must run on UI thread.
+     */
+    public void handleTrimMemory(int trimLevel) {
+        int level = MemoryDegradation.getLevelForTrimLevel(trimLevel);
+        if (level == MemoryDegradation.LEVEL_NONE) {
+            return;
+        }
+        if (scanSettings == null) {
+            releaseBuffers();
+            if (level >= MemoryDegradation.LEVEL_RELEASE_CLIENTS) {
+                googleBarcodeScannerModuleManager.releaseScanners();
+            }
+            return;
+        }
+        int previousLevel = memoryDegradation.raise(level);
+        for (int step = previousLevel + 1; step <= level; step++) {
+            applyMemoryDegradation(step);
+            plugin.notifyScanDegradedListener(MemoryDegradation.getLevelName(step), trimLevel);
+        }
     }
 
+    /**
+     * With the result cache, only the lookup and the store run on the result cache executor,
+     * the image is fingerprinted and decoded on the calling thread like without the cache.
+     */
     public void readBarcodesFromImage(String path, ScanSettings scanSettings, ReadBarcodesFromImageResultCallback callback)
         throws Exception {
-        InputImage inputImage;
+        BarcodeResultCache.Key key = scanSettings.useResultCache ? createResultCacheKey(path, scanSettings) : null;
+        BarcodeResultCache resultCache = key == null ? null : resultCacheExecutor.submit(this::getResultCache).get();
+        if (resultCache != null) {
+            List<DecodedBarcode> cachedBarcodes = resultCacheExecutor.submit(() -> resultCache.get(key)).get();
+            if (cachedBarcodes != null) {
+                handleImageBarcodes(cachedBarcodes, path, scanSettings, callback);
+                return;
+            }
+        }
+        decodeImage(
+            path,
+            scanSettings,
+            new DecoderEngine.Callback() {
+                @Override
+                public void success(@NonNull List<DecodedBarcode> barcodes) {
+                    if (resultCache != null) {
+                        resultCacheExecutor.execute(() -> putResultCache(resultCache, key, barcodes));
+                    }
+                    handleImageBarcodes(barcodes, path, scanSettings, callback);
+                }
+
+                @Override
+                public void error(@NonNull Exception exception) {
+                    callback.error(exception);
+                }
+            }
+        );
+    }
+
+    /**
+     * Decodes an image from memory, without writing it to a file first.
+     * The Base64 data is decoded into a pooled buffer. Raw pixel data is converted into a pooled NV21 buffer,
+     * which is returned to the pool once the image is decoded.
+     * The result cache does not apply, there is no file whose content could be fingerprinted.
+     */
+    public void readBarcodesFromData(
+        ReadBarcodesFromDataOptions options,
+        ScanSettings scanSettings,
+        ReadBarcodesFromImageResultCallback callback
+    ) throws Exception {
+        String encodedData = options.getData();
+        int dataStart = ImageDataConverter.getDataStart(encodedData);
+        byte[] data;
         try {
-            inputImage = InputImage.fromFilePath(plugin.getContext(), Uri.parse(path));
-        } catch (Exception exception) {
+            data = decodedDataBufferPool.acquire(ImageDataConverter.getBase64DecodedSize(encodedData, dataStart));
+        } catch (IllegalArgumentException exception) {
+            throw new Exception(BarcodeScannerPlugin.ERROR_DATA_INVALID);
+        }
+        try {
+            ImageDataConverter.decodeBase64(encodedData, dataStart, data);
+        } catch (IllegalArgumentException exception) {
+            decodedDataBufferPool.release(data);
+            throw new Exception(BarcodeScannerPlugin.ERROR_DATA_INVALID);
+        }
+        if (options.getDataFormat() == ImageDataConverter.DATA_FORMAT_ENCODED) {
+            readBarcodesFromEncodedData(data, scanSettings, callback);
+        } else {
+            readBarcodesFromPixelData(data, options, scanSettings, callback);
+        }
+    }
+
+    /**
+     * @param data The pooled encoded image, returned to the pool once the bitmap is decoded.
+     */
+    private void readBarcodesFromEncodedData(byte[] data, ScanSettings scanSettings, ReadBarcodesFromImageResultCallback callback)
+        throws Exception {
+        Bitmap bitmap;
+        try {
+            bitmap = BitmapFactory.decodeByteArray(data, 0, data.length);
+        } finally {
+            decodedDataBufferPool.release(data);
+        }
+        if (bitmap == null) {
             throw new Exception(BarcodeScannerPlugin.ERROR_LOAD_IMAGE_FAILED);
         }
+        InputImage inputImage = null;
+        LumaPlane lumaPlane = null;
+        if (scanSettings.decoderEngine != ScanSettings.DECODER_ENGINE_STRIP) {
+            inputImage = InputImage.fromBitmap(bitmap, 0);
+        }
+        if (scanSettings.decoderEngine != ScanSettings.DECODER_ENGINE_MLKIT) {
+            lumaPlane = createLumaPlane(bitmap);
+        }
+        try {
+            decodeInput(
+                new DecoderInput(inputImage, lumaPlane, 0),
+                scanSettings,
+                new DecoderEngine.Callback() {
+                    @Override
+                    public void success(@NonNull List<DecodedBarcode> barcodes) {
+                        bitmap.recycle();
+                        handleImageBarcodes(barcodes, null, scanSettings, callback);
+                    }
 
-        BarcodeScannerOptions options = buildBarcodeScannerOptions(scanSettings);
-        com.google.mlkit.vision.barcode.BarcodeScanner barcodeScannerInstance = BarcodeScanning.getClient(options);
-        barcodeScannerInstance
-            .process(inputImage)
-            .addOnSuccessListener(
-                barcodes -> {
-                    callback.success(barcodes);
-                }
-            )
-            .addOnFailureListener(
-                exception -> {
-                    callback.error(exception);
+                    @Override
+                    public void error(@NonNull Exception exception) {
+                        bitmap.recycle();
+                        callback.error(exception);
+                    }
                 }
             );
+        } catch (Exception exception) {
+            bitmap.recycle();
+            throw exception;
+        }
     }
 
-    public void scan(ScanSettings scanSettings, ScanResultCallback callback) {
-        GmsBarcodeScannerOptions options = buildGmsBarcodeScannerOptions(scanSettings);
-        GmsBarcodeScanner scanner = GmsBarcodeScanning.getClient(plugin.getContext(), options);
+    /**
+     * @param data The pooled pixel data, returned to the pool once it is converted.
+     */
+    private void readBarcodesFromPixelData(
+        byte[] data,
+        ReadBarcodesFromDataOptions options,
+        ScanSettings scanSettings,
+        ReadBarcodesFromImageResultCallback callback
+    ) throws Exception {
+        int width = options.getWidth();
+        int height = options.getHeight();
+        if (data.length != ImageDataConverter.getPixelDataSize(options.getDataFormat(), width, height)) {
+            decodedDataBufferPool.release(data);
+            throw new Exception(BarcodeScannerPlugin.ERROR_DATA_SIZE_INVALID);
+        }
+        byte[] nv21 = imageDataBufferPool.acquire(ImageDataConverter.getNv21Size(width, height));
+        ImageDataConverter.convertToNv21(data, options.getDataFormat(), width, height, nv21);
+        decodedDataBufferPool.release(data);
+        InputImage inputImage = null;
+        LumaPlane lumaPlane = null;
+        if (scanSettings.decoderEngine != ScanSettings.DECODER_ENGINE_STRIP) {
+            inputImage = InputImage.fromByteArray(nv21, width, height, 0, InputImage.IMAGE_FORMAT_NV21);
+        }
+        if (scanSettings.decoderEngine != ScanSettings.DECODER_ENGINE_MLKIT) {
+            lumaPlane = new LumaPlane(ByteBuffer.wrap(nv21), width, 1, width, height);
+        }
+        try {
+            decodeInput(
+                new DecoderInput(inputImage, lumaPlane, 0),
+                scanSettings,
+                new DecoderEngine.Callback() {
+                    @Override
+                    public void success(@NonNull List<DecodedBarcode> barcodes) {
+                        imageDataBufferPool.release(nv21);
+                        handleImageBarcodes(barcodes, null, scanSettings, callback);
+                    }
 
-        scanner
-            .startScan()
-            .addOnSuccessListener(
-                barcode -> {
-                    callback.success(barcode);
-                }
-            )
-            .addOnCanceledListener(
-                () -> {
-                    callback.cancel();
-                }
-            )
-            .addOnFailureListener(
-                exception -> {
-                    callback.error(exception);
+                    @Override
+                    public void error(@NonNull Exception exception) {
+                        imageDataBufferPool.release(nv21);
+                        callback.error(exception);
+                    }
                 }
             );
+        } catch (Exception exception) {
+            imageDataBufferPool.release(nv21);
+            throw exception;
+        }
     }
 
-    public void isGoogleBarcodeScannerModuleAvailable(IsGoogleBarodeScannerModuleAvailableResultCallback callback) {
-        GmsBarcodeScanner scanner = GmsBarcodeScanning.getClient(plugin.getContext());
-        ModuleInstallClient moduleInstallClient = ModuleInstall.getClient(plugin.getContext());
-        moduleInstallClient
-            .areModulesAvailable(scanner)
-            .addOnSuccessListener(
-                response -> {
-                    boolean isAvailable = response.areModulesAvailable();
-                    callback.success(isAvailable);
-                }
-            )
-            .addOnFailureListener(
-                exception -> {
+    /**
+     * Removes the cached results of the current content of a file, or all cached results if no path is given.
+     */
+    public void invalidateResultCache(@Nullable String path, EmptyResultCallback callback) {
+        resultCacheExecutor.execute(
+            () -> {
+                try {
+                    BarcodeResultCache resultCache = getResultCache();
+                    if (resultCache == null) {
+                        throw new Exception(BarcodeScannerPlugin.ERROR_RESULT_CACHE_UNAVAILABLE);
+                    }
+                    if (path == null) {
+                        resultCache.clear();
+                    } else {
+                        resultCache.invalidate(computeContentFingerprint(path));
+                    }
+                    callback.success();
+                } catch (Exception exception) {
                     callback.error(exception);
                 }
-            );
+            }
+        );
     }
 
-    public void installGoogleBarcodeScannerModule(InstallGoogleBarcodeScannerModuleResultCallback callback) {
-        GmsBarcodeScanner scanner = GmsBarcodeScanning.getClient(plugin.getContext());
-        InstallStatusListener listener = new ModuleInstallProgressListener(this);
-        ModuleInstallRequest moduleInstallRequest = ModuleInstallRequest.newBuilder().addApi(scanner).setListener(listener).build();
-        ModuleInstallClient moduleInstallClient = ModuleInstall.getClient(plugin.getContext());
+    /**
+     * Takes the oldest queued results of the current (or last) scan session, waiting up to `waitMillis` if none are queued.
+     */
+    public void pollBarcodes(PollBarcodesOptions options, NonEmptyResultCallback<PollBarcodesResult> callback) {
+        ResultQueue<JSObject> resultQueue = this.resultQueue;
+        if (resultQueue == null) {
+            callback.error(new Exception(BarcodeScannerPlugin.ERROR_RESULT_QUEUE_NOT_ENABLED));
+            return;
+        }
+        pollExecutor.execute(
+            () -> {
+                try {
+                    List<JSObject> barcodeScannedEvents = resultQueue.poll(options.getMax(), options.getWaitMillis());
+                    callback.success(new PollBarcodesResult(barcodeScannedEvents, resultQueue.size()));
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    callback.error(exception);
+                }
+            }
+        );
+    }
+
+    public void getResultCacheStats(NonEmptyResultCallback<GetResultCacheStatsResult> callback) {
+        resultCacheExecutor.execute(
+            () -> {
+                BarcodeResultCache resultCache = getResultCache();
+                if (resultCache == null) {
+                    callback.error(new Exception(BarcodeScannerPlugin.ERROR_RESULT_CACHE_UNAVAILABLE));
+                    return;
+                }
+                callback.success(new GetResultCacheStatsResult(resultCache));
+            }
+        );
+    }
+
+    public void readBarcodesFromPdf(
+        ReadBarcodesFromPdfOptions options,
+        ScanSettings scanSettings,
+        NonEmptyResultCallback<ReadBarcodesFromPdfResult> callback
+    ) {
+        PdfBarcodeReader pdfBarcodeReader = new PdfBarcodeReader(
+            plugin.getContext().getContentResolver(),
+            Uri.parse(options.getPath()),
+            options.getPageIndexes(),
+            options.getDpi(),
+            buildBarcodeScannerOptions(scanSettings),
+            (pageIndex, barcodes) -> plugin.notifyPdfPageScannedListener(pageIndex, barcodes)
+        );
+        pdfBarcodeReader.read(pdfExecutor, PDF_WORKER_COUNT, callback);
+    }
+
+    /**
+     * Scans the images in the folder and every image that is added to it until `stopWatchingFolder` is called.
+     * Replaces the folder that is watched so far.
+     */
+    public void watchFolder(WatchFolderOptions options, ScanSettings scanSettings, EmptyResultCallback callback) {
+        folderWatcherExecutor.execute(
+            () -> {
+                try {
+                    closeFolderWatcher();
+                    File directory = resolveFolder(options.getPath());
+                    if (!directory.isDirectory()) {
+                        throw new Exception(BarcodeScannerPlugin.ERROR_FOLDER_NOT_FOUND);
+                    }
+                    File indexDirectory = new File(plugin.getContext().getFilesDir(), WATCH_FOLDER_DIRECTORY_NAME);
+                    ProcessedFileIndex processedFileIndex = new ProcessedFileIndex(
+                        new File(indexDirectory, createProcessedFileIndexName(directory))
+                    );
+                    folderWatcher =
+                        new FolderWatcher(
+                            directory,
+                            new FileObserverFolderEventSource(directory),
+                            processedFileIndex,
+                            WATCH_FOLDER_WORKER_COUNT,
+                            (file, imageCallback) -> readBarcodesFromImage(Uri.fromFile(file).toString(), scanSettings, imageCallback),
+                            new FolderWatcher.Listener() {
+                                @Override
+                                public void onImageScanned(
+                                    @NonNull File file,
+                                    @NonNull List<DecodedBarcode> barcodes,
+                                    @Nullable List<Gs1ParseResult> gs1ParseResults
+                                ) {
+                                    plugin.notifyFolderImageScannedListener(file.getPath(), barcodes, gs1ParseResults);
+                                }
+
+                                @Override
+                                public void onImageScanFailed(@NonNull File file, @NonNull Exception exception) {
+                                    plugin.notifyFolderImageScanFailedListener(file.getPath(), exception.getMessage());
+                                }
+
+                                @Override
+                                public void onIndexFailed(@NonNull Exception exception) {
+                                    Logger.error(BarcodeScannerPlugin.TAG, "Failed to update processed file index.", exception);
+                                }
+                            }
+                        );
+                    folderWatcher.start();
+                    callback.success();
+                } catch (Exception exception) {
+                    callback.error(exception);
+                }
+            }
+        );
+    }
+
+    public void stopWatchingFolder(EmptyResultCallback callback) {
+        folderWatcherExecutor.execute(
+            () -> {
+                closeFolderWatcher();
+                callback.success();
+            }
+        );
+    }
+
+    public void dumpFlightRecorder(DumpFlightRecorderOptions options, NonEmptyResultCallback<DumpFlightRecorderResult> callback) {
+        FlightRecorder flightRecorder = this.flightRecorder;
+        if (flightRecorder == null) {
+            callback.error(new Exception(BarcodeScannerPlugin.ERROR_FLIGHT_RECORDER_NOT_ENABLED));
+            return;
+        }
+        flightRecorderExecutor.execute(
+            () -> {
+                try {
+                    File directory = new File(plugin.getContext().getFilesDir(), FLIGHT_RECORDER_DIRECTORY_NAME);
+                    if (!directory.isDirectory() && !directory.mkdirs()) {
+                        throw new IOException("Failed to create directory " + directory);
+                    }
+                    boolean isBinary = options.getFormat() == DumpFlightRecorderOptions.FORMAT_BINARY;
+                    File file = new File(directory, "flight-recorder-" + System.currentTimeMillis() + (isBinary ? ".bin" : ".csv"));
+                    int recordCount;
+                    try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file))) {
+                        recordCount = isBinary ? flightRecorder.writeBinary(outputStream) : flightRecorder.writeCsv(outputStream);
+                    }
+                    callback.success(new DumpFlightRecorderResult(file.getAbsolutePath(), recordCount));
+                } catch (Exception exception) {
+                    callback.error(exception);
+                }
+            }
+        );
+    }
+
+    /**
+     * Records the raw frames of the running scan session until `stopFrameRecording` or `stopScan` is called.
+     * A previous recording is stopped.
+     */
+    public void startFrameRecording(StartFrameRecordingOptions options, NonEmptyResultCallback<StartFrameRecordingResult> callback) {
+        frameRecordingExecutor.execute(
+            () -> {
+                try {
+                    closeFrameRecording();
+                    File directory = new File(plugin.getContext().getFilesDir(), FRAME_RECORDING_DIRECTORY_NAME);
+                    if (!directory.isDirectory() && !directory.mkdirs()) {
+                        throw new IOException("Failed to create directory " + directory);
+                    }
+                    File file = new File(directory, "frames-" + System.currentTimeMillis() + ".yuv");
+                    skippedRecordedFrameCount.set(0);
+                    frameRecordingWriter = new FrameRecordingWriter(file, options.getMaxFrames());
+                    callback.success(new StartFrameRecordingResult(file.getAbsolutePath()));
+                } catch (Exception exception) {
+                    callback.error(exception);
+                }
+            }
+        );
+    }
+
+    public void stopFrameRecording(NonEmptyResultCallback<StopFrameRecordingResult> callback) {
+        frameRecordingExecutor.execute(
+            () -> {
+                FrameRecordingWriter frameRecordingWriter = this.frameRecordingWriter;
+                if (frameRecordingWriter == null) {
+                    callback.error(new Exception(BarcodeScannerPlugin.ERROR_FRAME_RECORDING_NOT_STARTED));
+                    return;
+                }
+                this.frameRecordingWriter = null;
+                try {
+                    frameRecordingWriter.close();
+                    callback.success(
+                        new StopFrameRecordingResult(
+                            frameRecordingWriter.getFile().getAbsolutePath(),
+                            frameRecordingWriter.getFrameCount(),
+                            skippedRecordedFrameCount.get()
+                        )
+                    );
+                } catch (Exception exception) {
+                    callback.error(exception);
+                }
+            }
+        );
+    }
+
+    public void queryScanHistory(QueryScanHistoryOptions options, NonEmptyResultCallback<QueryScanHistoryResult> callback) {
+        scanHistoryExecutor.execute(
+            () -> {
+                try {
+                    ScanHistoryPage page = getScanHistory()
+                        .query(options.getValue(), options.getFrom(), options.getTo(), options.getOffset(), options.getLimit());
+                    callback.success(new QueryScanHistoryResult(page));
+                } catch (Exception exception) {
+                    callback.error(exception);
+                }
+            }
+        );
+    }
+
+    public void clearScanHistory(EmptyResultCallback callback) {
+        scanHistoryExecutor.execute(
+            () -> {
+                try {
+                    getScanHistory().clear();
+                    callback.success();
+                } catch (Exception exception) {
+                    callback.error(exception);
+                }
+            }
+        );
+    }
+
+    public void loadCatalog(LoadCatalogOptions options, NonEmptyResultCallback<LoadCatalogResult> callback) {
+        catalogExecutor.execute(
+            () -> {
+                long startTime = SystemClock.elapsedRealtime();
+                try (InputStream inputStream = plugin.getContext().getContentResolver().openInputStream(Uri.parse(options.getPath()))) {
+                    if (inputStream == null) {
+                        throw new Exception(BarcodeScannerPlugin.ERROR_LOAD_CATALOG_FAILED);
+                    }
+                    BarcodeCatalog barcodeCatalog = BarcodeCatalog.load(inputStream);
+                    this.barcodeCatalog = barcodeCatalog;
+                    long loadTime = SystemClock.elapsedRealtime() - startTime;
+                    callback.success(new LoadCatalogResult(barcodeCatalog.size(), loadTime));
+                } catch (Exception exception) {
+                    callback.error(exception);
+                }
+            }
+        );
+    }
+
+    public void unloadCatalog() {
+        barcodeCatalog = null;
+    }
+
+    public void scan(ScanSettings scanSettings, ScanResultCallback callback) {
+        GmsBarcodeScanner scanner = googleBarcodeScannerModuleManager.getScanner(scanSettings.formats);
+
+        scanner
+            .startScan()
+            .addOnSuccessListener(
+                barcode -> {
+                    callback.success(barcode);
+                }
+            )
+            .addOnCanceledListener(
+                () -> {
+                    callback.cancel();
+                }
+            )
+            .addOnFailureListener(
+                exception -> {
+                    callback.error(exception);
+                }
+            );
+    }
+
+    /**
+     * Checks the availability of the Google Barcode Scanner Module in the background, so the first `scan` does not wait for it.
+     *
+     * @param isPreinstallEnabled Whether or not a missing module is installed once the device is idle.
+     */
+    public void prepareGoogleBarcodeScannerModule(boolean isPreinstallEnabled) {
+        googleBarcodeScannerModuleManager.prepare(isPreinstallEnabled);
+    }
+
+    public void isGoogleBarcodeScannerModuleAvailable(IsGoogleBarodeScannerModuleAvailableResultCallback callback) {
+        googleBarcodeScannerModuleManager.isModuleAvailable(callback);
+    }
+
+    public void installGoogleBarcodeScannerModule(InstallGoogleBarcodeScannerModuleResultCallback callback) {
+        GmsBarcodeScanner scanner = googleBarcodeScannerModuleManager.getModuleScanner();
+        ModuleInstallProgressListener listener = new ModuleInstallProgressListener(this);
+        moduleInstallProgressListener = listener;
+        ModuleInstallRequest moduleInstallRequest = ModuleInstallRequest.newBuilder().addApi(scanner).setListener(listener).build();
+        ModuleInstallClient moduleInstallClient = ModuleInstall.getClient(plugin.getContext());
         moduleInstallClient
             .installModules(moduleInstallRequest)
             .addOnSuccessListener(
                 moduleInstallResponse -> {
                     if (moduleInstallResponse.areModulesAlreadyInstalled()) {
+                        googleBarcodeScannerModuleManager.markAvailable();
                         callback.error(new Exception(BarcodeScannerPlugin.ERROR_GOOGLE_BARCODE_SCANNER_MODULE_ALREADY_INSTALLED));
                     } else {
                         callback.success();
@@ -280,6 +1096,9 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
             return;
         }
         camera.getCameraControl().setZoomRatio(zoomRatio);
+        if (autoZoomController != null) {
+            autoZoomController.setBaseZoomRatio(zoomRatio);
+        }
     }
 
     @Nullable
@@ -309,6 +1128,10 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
         return new GetMaxZoomRatioResult(maxZoomRatio);
     }
 
+    public GetScanMetricsResult getScanMetrics() {
+        return new GetScanMetricsResult(scanMetrics);
+    }
+
     public void openSettings(PluginCall call) {
         Uri uri = Uri.fromParts("package", plugin.getAppId(), null);
         Intent intent = new Intent(Settings.ACTION_APPLICATION_DETAILS_SETTINGS, uri);
@@ -344,48 +1167,296 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
         @SuppressLint("UnsafeOptInUsageError")
         Image image = imageProxy.getImage();
 
-        if (image == null || barcodeScannerInstance == null) {
+        long generation = scanSession.getGeneration();
+        if (image == null || decoderEngine == null || !scanSession.isCurrent(generation)) {
+            imageProxy.close();
+            return;
+        }
+        long receivedAt = System.nanoTime();
+        scanMetrics.recordReceivedFrame(imageProxy.getImageInfo().getTimestamp());
+        if (thermalGovernor != null && !thermalGovernor.shouldAnalyzeFrame(imageProxy.getImageInfo().getTimestamp())) {
+            scanMetrics.recordThermalThrottledFrame();
+            imageProxy.close();
+            return;
+        }
+        FlightRecorder flightRecorder = this.flightRecorder;
+        if (flightRecorder != null) {
+            flightRecorder.startFrame(imageProxy.getImageInfo().getTimestamp(), receivedAt);
+        }
+        scanMetrics.recordAnalyzedFrame(imageProxy.getImageInfo().getTimestamp());
+        int rotationDegrees = imageProxy.getImageInfo().getRotationDegrees();
+        // Frames are recorded before the quality gate, so a replay sees the same frames as the analyzer
+        Frame recordedFrame = recordFrame(image, rotationDegrees, imageProxy.getImageInfo().getTimestamp());
+        if (motionEstimator != null && isDeviceMoving(motionEstimator, imageProxy.getImageInfo().getTimestamp())) {
+            if (flightRecorder != null) {
+                flightRecorder.finishFrame(FlightRecorder.DROP_REASON_MOTION, getHeapUsed());
+            }
+            imageProxy.close();
+            return;
+        }
+        if (frameQualityGate != null && !isFrameQualitySufficient(frameQualityGate, image)) {
+            if (flightRecorder != null) {
+                flightRecorder.finishFrame(FlightRecorder.DROP_REASON_QUALITY_GATE, getHeapUsed());
+            }
+            imageProxy.close();
+            return;
+        }
+        if (frameChangeDetector != null && !isFrameChanged(frameChangeDetector, image, imageProxy.getImageInfo().getTimestamp())) {
+            handleUnchangedFrame(imageProxy, image, recordedFrame, rotationDegrees, generation, flightRecorder);
             return;
         }
 
-        InputImage inputImage = InputImage.fromMediaImage(image, imageProxy.getImageInfo().getRotationDegrees());
+        InputImage inputImage = InputImage.fromMediaImage(image, rotationDegrees);
         Point imageSize = new Point(inputImage.getWidth(), inputImage.getHeight());
-        barcodeScannerInstance
-            .process(inputImage)
-            .addOnSuccessListener(
-                barcodes -> {
-                    if (scanSettings == null) {
-                        // Scanning stopped while processing the image
-                        return;
+        LumaPlane lumaPlane = null;
+        if (image.getFormat() == ImageFormat.YUV_420_888) {
+            Image.Plane yPlane = image.getPlanes()[0];
+            lumaPlane = new LumaPlane(yPlane.getBuffer(), yPlane.getRowStride(), yPlane.getPixelStride(), image.getWidth(), image.getHeight());
+        }
+        DecoderEngine decoderEngine = this.decoderEngine;
+        if (adaptiveFormatSelector != null && adaptiveFormatSelector.nextFrame() && adaptiveFormatSelector.isNarrowed()) {
+            decoderEngine = probeDecoderEngine;
+            scanMetrics.recordProbeFrame();
+        }
+        decoderEngineCloser.startFrame(decoderEngine);
+        int traceCookie = flightRecorder == null ? 0 : (int) flightRecorder.getFrameSequence();
+        if (flightRecorder != null) {
+            flightRecorder.markInferenceStarted(System.nanoTime());
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                Trace.beginAsyncSection(TRACE_SECTION_INFERENCE, traceCookie);
+            }
+        }
+        DecoderEngine frameDecoderEngine = decoderEngine;
+        frameDecoderEngine.decode(
+            new DecoderInput(inputImage, lumaPlane, rotationDegrees, () -> !scanSession.isCurrent(generation)),
+            new DecoderEngine.Callback() {
+                @Override
+                public void success(@NonNull List<DecodedBarcode> barcodes) {
+                    try {
+                        if (flightRecorder != null) {
+                            flightRecorder.markInferenceEnded(System.nanoTime());
+                        }
+                        // Results of a stopped session are discarded before anything is cropped or serialized
+                        if (scanSession.isCurrent(generation)) {
+                            lastDecodedBarcodes = barcodes;
+                            handleAdaptiveFormats(barcodes);
+                            handleBarcodeCandidates(barcodes, imageSize, rotationDegrees);
+                            handleDecodedBarcodes(
+                                barcodes,
+                                false,
+                                imageProxy,
+                                image,
+                                recordedFrame,
+                                imageSize,
+                                rotationDegrees,
+                                generation,
+                                flightRecorder
+                            );
+                        }
+                    } finally {
+                        finishAnalysis(imageProxy, image, frameDecoderEngine, flightRecorder, traceCookie, generation, receivedAt, true);
                     }
-                    for (Barcode barcode : barcodes) {
-                        // Modified SDK: Hold the processed image and crop the QR area
-                        Rect qrBoundingBox  = barcode.getBoundingBox();
-                        String scannedImage = ""; // Full scanned image, can process directly 
-                        String cropedQrImage = getQrImage(image, qrBoundingBox);
-                        
-                        handleScannedBarcode(barcode, imageSize, scannedImage, cropedQrImage);
+                }
+
+                @Override
+                public void error(@NonNull Exception exception) {
+                    try {
+                        if (scanSession.isCurrent(generation)) {
+                            handleScanError(exception);
+                        }
+                    } finally {
+                        finishAnalysis(imageProxy, image, frameDecoderEngine, flightRecorder, traceCookie, generation, receivedAt, false);
                     }
                 }
-            )
-            .addOnFailureListener(
-                exception -> {
-                    handleScanError(exception);
+            }
+        );
+    }
+
+    /**
+     * @param isReused Whether or not the barcodes of the last analyzed frame are delivered again for an unchanged frame,
+     * in which case their cropped images are reused and they are not recorded in the scan history again.
+     */
+    private void handleDecodedBarcodes(
+        List<DecodedBarcode> barcodes,
+        boolean isReused,
+        ImageProxy imageProxy,
+        Image image,
+        @Nullable Frame recordedFrame,
+        Point imageSize,
+        int rotationDegrees,
+        long generation,
+        @Nullable FlightRecorder flightRecorder
+    ) {
+        // Converted once for all barcodes of the frame
+        Frame frame = recordedFrame;
+        ScanFrameInfo frameInfo = null;
+        boolean isWebViewDelivery = scanSettings.webViewDelivery;
+        boolean isImageSkipped = thermalGovernor != null && thermalGovernor.getLevel() >= ThermalGovernor.LEVEL_SKIP_IMAGES;
+        lastDeliveredTimestampNanos = imageProxy.getImageInfo().getTimestamp();
+        String[] qrImages = isReused ? lastQrImages : new String[barcodes.size()];
+        if (!isReused) {
+            lastQrImages = qrImages;
+        }
+        for (int i = 0; i < barcodes.size(); i++) {
+            DecodedBarcode barcode = barcodes.get(i);
+            if (barcode.getRawValue() == null) {
+                // Potential barcode which could not be decoded (only reported if auto zoom or auto focus is enabled)
+                continue;
+            }
+            Gs1ParseResult gs1ParseResult = null;
+            if (scanSettings.parseGs1) {
+                gs1ParseResult = parseGs1(barcode);
+                if (!gs1ParseResult.isValid()) {
+                    // Misread, e.g. a wrong check digit
+                    continue;
                 }
-            )
-            .addOnCompleteListener(
-                task -> {
-                    imageProxy.close();
-                    image.close();
+            }
+            CatalogMatch catalogMatch = null;
+            if (scanSettings.catalogMode != ScanSettings.CATALOG_MODE_NONE) {
+                catalogMatch = lookUpCatalog(barcode.getRawValue());
+                boolean isUnknown = catalogMatch != null && !catalogMatch.isKnown();
+                if (isUnknown && scanSettings.catalogMode == ScanSettings.CATALOG_MODE_FILTER) {
+                    continue;
                 }
-            );
+            }
+            if (!nativeScanListeners.isEmpty()) {
+                if (frameInfo == null) {
+                    frameInfo =
+                        new ScanFrameInfo(generation, imageProxy.getImageInfo().getTimestamp(), image.getWidth(), image.getHeight(), rotationDegrees);
+                }
+                notifyNativeScanListeners(barcode, frameInfo, catalogMatch, gs1ParseResult, generation);
+            }
+            if (!isWebViewDelivery) {
+                if (flightRecorder != null) {
+                    flightRecorder.markEmitted(System.nanoTime());
+                }
+                if (scanSettings.recordScanHistory && !isReused) {
+                    recordScanHistory(barcode, null);
+                }
+                continue;
+            }
+            // Modified SDK: Hold the processed image and crop the QR area
+            long encodeStartTime = System.nanoTime();
+            if (flightRecorder != null) {
+                Trace.beginSection(TRACE_SECTION_ENCODE);
+            }
+            Rect qrBoundingBox  = barcode.getBoundingBox();
+            String scannedImage = ""; // Full scanned image, can process directly 
+            String cropedQrImage;
+            if (isReused) {
+                cropedQrImage = qrImages == null || qrImages[i] == null ? "" : qrImages[i];
+            } else if (isImageSkipped) {
+                cropedQrImage = "";
+            } else if (image.getFormat() == ImageFormat.YUV_420_888) {
+                if (frame == null) {
+                    frame = createFrame(image, rotationDegrees, imageProxy.getImageInfo().getTimestamp());
+                }
+                cropedQrImage = getQrImage(frame, qrBoundingBox);
+            } else {
+                cropedQrImage = getQrImage(image, qrBoundingBox);
+            }
+            if (!isReused) {
+                qrImages[i] = cropedQrImage;
+            }
+            if (flightRecorder != null) {
+                Trace.endSection();
+                flightRecorder.addEncodeDuration(System.nanoTime() - encodeStartTime);
+                Trace.beginSection(TRACE_SECTION_EMIT);
+            }
+            
+            handleScannedBarcode(barcode, imageSize, scannedImage, cropedQrImage, catalogMatch, gs1ParseResult);
+            if (flightRecorder != null) {
+                Trace.endSection();
+                flightRecorder.markEmitted(System.nanoTime());
+            }
+            if (scanSettings.recordScanHistory && !isReused) {
+                recordScanHistory(barcode, null);
+            }
+        }
+    }
+
+    /**
+     * Skips the decoding of a frame that is nearly identical to the last analyzed frame.
+     * Unless they are suppressed, the barcodes of the last analyzed frame are delivered again with their cached cropped images,
+     * but at most every `REUSED_RESULT_INTERVAL_MILLIS`. An unchanged frame can not change the result set,
+     * so the listeners are not flooded with the same barcodes for every frame.
+     */
+    private void handleUnchangedFrame(
+        ImageProxy imageProxy,
+        Image image,
+        @Nullable Frame recordedFrame,
+        int rotationDegrees,
+        long generation,
+        @Nullable FlightRecorder flightRecorder
+    ) {
+        try {
+            List<DecodedBarcode> lastDecodedBarcodes = this.lastDecodedBarcodes;
+            boolean isReused = scanSettings.unchangedFrameResult == ScanSettings.UNCHANGED_FRAME_RESULT_REUSE;
+            long timestampNanos = imageProxy.getImageInfo().getTimestamp();
+            boolean isDue = timestampNanos - lastDeliveredTimestampNanos >= REUSED_RESULT_INTERVAL_MILLIS * 1_000_000;
+            if (isReused && isDue && lastDecodedBarcodes != null && !lastDecodedBarcodes.isEmpty()) {
+                Point imageSize = new Point(image.getWidth(), image.getHeight());
+                handleDecodedBarcodes(
+                    lastDecodedBarcodes,
+                    true,
+                    imageProxy,
+                    image,
+                    recordedFrame,
+                    imageSize,
+                    rotationDegrees,
+                    generation,
+                    flightRecorder
+                );
+            }
+        } finally {
+            if (flightRecorder != null) {
+                flightRecorder.finishFrame(FlightRecorder.DROP_REASON_UNCHANGED, getHeapUsed());
+            }
+            imageProxy.close();
+        }
+    }
+
+    private void finishAnalysis(
+        ImageProxy imageProxy,
+        Image image,
+        DecoderEngine frameDecoderEngine,
+        @Nullable FlightRecorder flightRecorder,
+        int traceCookie,
+        long generation,
+        long receivedAt,
+        boolean isSuccessful
+    ) {
+        boolean isCurrent = scanSession.isCurrent(generation);
+        if (flightRecorder != null) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                Trace.endAsyncSection(TRACE_SECTION_INFERENCE, traceCookie);
+            }
+            int dropReason = FlightRecorder.DROP_REASON_NONE;
+            if (!isSuccessful) {
+                dropReason = FlightRecorder.DROP_REASON_ERROR;
+            } else if (!isCurrent) {
+                dropReason = FlightRecorder.DROP_REASON_SESSION_STOPPED;
+            }
+            flightRecorder.finishFrame(dropReason, getHeapUsed());
+        }
+        // A frame of a stopped session may finish while a frame of the next session is analyzed
+        decoderEngineCloser.finishFrame(frameDecoderEngine);
+        imageProxy.close();
+        image.close();
+        if (isCurrent && thermalGovernor != null) {
+            long now = System.nanoTime();
+            if (thermalGovernor.handleFrameAnalyzed(now - receivedAt, now)) {
+                scanMetrics.setThermalLevel(thermalGovernor.getLevel(), thermalGovernor.getLevelChangeCount());
+                updateAnalysisResolution();
+            }
+        }
     }
 
     // Modified SDK: Process the Yuv image and return it to base64 String
     public String getQrImage(Image image, Rect qrBoundingBox){
         String base64String = null;
         if(image.getFormat() == ImageFormat.YUV_420_888){
-            base64String = convertYuvToBase64(image, qrBoundingBox);
+            base64String = getQrImage(createFrame(image, 0, image.getTimestamp()), qrBoundingBox);
         }else{
             base64String = "";
             image.close();
@@ -393,17 +1464,20 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
         return base64String;
     }
 
-    // Modified SDK: Convert YUV_420_888 to YUV image then crop and then convert it to the base64  
-    private String convertYuvToBase64(Image image, Rect qrBoundingBox) {
-        YuvImage yuvImage = imageToYuvImage(image);
-        if (yuvImage == null) {
-            Log.e("ImageConverter", "Failed to convert YUV to JPEG.");
-            return "";
-        }
+    /**
+     * Crops the barcode from a frame of any source.
+     */
+    public String getQrImage(Frame frame, Rect qrBoundingBox) {
+        return convertYuvToBase64(frame, qrBoundingBox);
+    }
+
+    // Modified SDK: Convert the NV21 frame to JPEG then crop and then convert it to the base64
+    private String convertYuvToBase64(Frame frame, Rect qrBoundingBox) {
+        YuvImage yuvImage = new YuvImage(frame.getNv21(), ImageFormat.NV21, frame.getWidth(), frame.getHeight(), null);
 
         // Convert YUV image to JPEG format and then encode it
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        yuvImage.compressToJpeg(new android.graphics.Rect(0, 0, image.getWidth(), image.getHeight()), 100, outputStream);
+        yuvImage.compressToJpeg(new android.graphics.Rect(0, 0, frame.getWidth(), frame.getHeight()), 100, outputStream);
         byte[] jpegBytes = outputStream.toByteArray();
 
         byte[] rotatedByte = rotateAndCropQRImage(jpegBytes, 90, qrBoundingBox);
@@ -412,25 +1486,24 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
         return Base64.encodeToString(rotatedByte, Base64.NO_WRAP);
     }
 
-    // Modified SDK: Method to convert Image (YUV_420_888) to YuvImage
-    private YuvImage imageToYuvImage(Image image) {
-        ByteBuffer yBuffer = image.getPlanes()[0].getBuffer();  // Y
-        ByteBuffer uBuffer = image.getPlanes()[1].getBuffer();  // U
-        ByteBuffer vBuffer = image.getPlanes()[2].getBuffer();  // V
-
-        int ySize = yBuffer.remaining();
-        int uSize = uBuffer.remaining();
-        int vSize = vBuffer.remaining();
-
-        byte[] nv21 = new byte[ySize + uSize + vSize];
-
-        // U and V are swapped
-        yBuffer.get(nv21, 0, ySize);
-        vBuffer.get(nv21, ySize, vSize);
-        uBuffer.get(nv21, ySize + vSize, uSize);
-
-        // Convert YUV_420_888 to YuvImage (compatible with JPEG compression)
-        return new YuvImage(nv21, ImageFormat.NV21, image.getWidth(), image.getHeight(), null);
+    /**
+     * Copies a `YUV_420_888` image into a frame that outlives the image.
+     */
+    private static Frame createFrame(Image image, int rotationDegrees, long timestampNanos) {
+        Image.Plane[] planes = image.getPlanes();
+        return Frame.fromYuv420(
+            planes[0].getBuffer(),
+            planes[0].getRowStride(),
+            planes[1].getBuffer(),
+            planes[2].getBuffer(),
+            planes[1].getRowStride(),
+            planes[1].getPixelStride(),
+            image.getWidth(),
+            image.getHeight(),
+            rotationDegrees,
+            timestampNanos,
+            null
+        );
     }
 
     // Modified SDK: Rotate and crop the QR code image
@@ -471,6 +1544,7 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
         @ModuleInstallStatusUpdate.InstallState int state,
         @Nullable Integer progress
     ) {
+        googleBarcodeScannerModuleManager.handleInstallState(state);
         plugin.notifyGoogleBarcodeScannerModuleInstallProgressListener(state, progress);
         boolean isTerminateState = ModuleInstallProgressListener.isTerminateState(state);
         if (isTerminateState && moduleInstallProgressListener != null) {
@@ -480,6 +1554,617 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
         }
     }
 
+    private void recordScanHistory(DecodedBarcode barcode, @Nullable String imagePath) {
+        String value = barcode.getRawValue();
+        if (value == null) {
+            return;
+        }
+        int format = barcode.getFormat();
+        long timestamp = System.currentTimeMillis();
+        scanHistoryExecutor.execute(
+            () -> {
+                try {
+                    getScanHistory().append(value, format, timestamp, imagePath);
+                } catch (Exception exception) {
+                    Logger.error(BarcodeScannerPlugin.TAG, "Failed to record scan history.", exception);
+                }
+            }
+        );
+    }
+
+    /**
+     * Must run on the scan history executor.
+     */
+    private ScanHistory getScanHistory() throws IOException {
+        if (scanHistory == null) {
+            scanHistory = new ScanHistory(new File(plugin.getContext().getFilesDir(), SCAN_HISTORY_DIRECTORY_NAME));
+        }
+        return scanHistory;
+    }
+
+    /**
+     * Must run on the scan history executor.
+     */
+    private void closeScanHistory() {
+        if (scanHistory == null) {
+            return;
+        }
+        try {
+            scanHistory.close();
+        } catch (Exception exception) {
+            Logger.error(BarcodeScannerPlugin.TAG, "Failed to close scan history.", exception);
+        }
+        // Reopened on the next access
+        scanHistory = null;
+    }
+
+    /**
+     * Decodes the image file with a new decoder engine, which is closed before the callback is called.
+     */
+    private void decodeImage(String path, ScanSettings scanSettings, DecoderEngine.Callback callback) throws Exception {
+        InputImage inputImage = null;
+        LumaPlane lumaPlane = null;
+        try {
+            if (scanSettings.decoderEngine != ScanSettings.DECODER_ENGINE_STRIP) {
+                inputImage = InputImage.fromFilePath(plugin.getContext(), Uri.parse(path));
+            }
+            if (scanSettings.decoderEngine != ScanSettings.DECODER_ENGINE_MLKIT) {
+                lumaPlane = loadLumaPlane(Uri.parse(path));
+            }
+        } catch (Exception exception) {
+            throw new Exception(BarcodeScannerPlugin.ERROR_LOAD_IMAGE_FAILED);
+        }
+
+        decodeInput(new DecoderInput(inputImage, lumaPlane, 0), scanSettings, callback);
+    }
+
+    private void decodeInput(DecoderInput decoderInput, ScanSettings scanSettings, DecoderEngine.Callback callback) {
+        DecoderEngine decoderEngine = createDecoderEngine(scanSettings, scanSettings.formats);
+        decoderEngine.decode(
+            decoderInput,
+            new DecoderEngine.Callback() {
+                @Override
+                public void success(@NonNull List<DecodedBarcode> barcodes) {
+                    decoderEngine.close();
+                    callback.success(barcodes);
+                }
+
+                @Override
+                public void error(@NonNull Exception exception) {
+                    decoderEngine.close();
+                    callback.error(exception);
+                }
+            }
+        );
+    }
+
+    /**
+     * @param path The path of the image or `null` if it was decoded from memory.
+     */
+    private void handleImageBarcodes(
+        List<DecodedBarcode> barcodes,
+        @Nullable String path,
+        ScanSettings scanSettings,
+        ReadBarcodesFromImageResultCallback callback
+    ) {
+        List<DecodedBarcode> validBarcodes = barcodes;
+        List<Gs1ParseResult> gs1ParseResults = null;
+        if (scanSettings.parseGs1) {
+            validBarcodes = new ArrayList<>();
+            gs1ParseResults = new ArrayList<>();
+            for (DecodedBarcode barcode : barcodes) {
+                Gs1ParseResult gs1ParseResult = parseGs1(barcode);
+                if (gs1ParseResult.isValid()) {
+                    validBarcodes.add(barcode);
+                    gs1ParseResults.add(gs1ParseResult);
+                }
+            }
+        }
+        if (scanSettings.recordScanHistory) {
+            for (DecodedBarcode barcode : validBarcodes) {
+                recordScanHistory(barcode, path);
+            }
+        }
+        callback.success(validBarcodes, gs1ParseResults);
+    }
+
+    /**
+     * Returns `null` if the file can not be fingerprinted, in which case it is decoded without the cache.
+     *
+     * Must run on the result cache executor.
+     */
+    @Nullable
+    private BarcodeResultCache.Key createResultCacheKey(String path, ScanSettings scanSettings) {
+        try {
+            int formatMask = 0;
+            for (int format : scanSettings.formats) {
+                formatMask |= format;
+            }
+            return new BarcodeResultCache.Key(computeContentFingerprint(path), formatMask, scanSettings.decoderEngine);
+        } catch (Exception exception) {
+            Logger.error(BarcodeScannerPlugin.TAG, "Failed to fingerprint " + path + ".", exception);
+            return null;
+        }
+    }
+
+    /**
+     * Works for file and content URIs, the modification time is taken from the file descriptor.
+     */
+    private long computeContentFingerprint(String path) throws Exception {
+        try (
+            ParcelFileDescriptor parcelFileDescriptor = plugin.getContext().getContentResolver().openFileDescriptor(Uri.parse(path), "r");
+            FileInputStream inputStream = new FileInputStream(parcelFileDescriptor.getFileDescriptor())
+        ) {
+            long modifiedTime = Os.fstat(parcelFileDescriptor.getFileDescriptor()).st_mtime;
+            return ContentFingerprint.compute(inputStream.getChannel(), modifiedTime);
+        }
+    }
+
+    /**
+     * Returns `null` if the cache can not be opened.
+     *
+     * Must run on the result cache executor.
+     */
+    @Nullable
+    private BarcodeResultCache getResultCache() {
+        if (resultCache == null) {
+            try {
+                File directory = new File(plugin.getContext().getFilesDir(), RESULT_CACHE_DIRECTORY_NAME);
+                resultCache = new BarcodeResultCache(new File(directory, BarcodeResultCache.FILE_NAME));
+            } catch (Exception exception) {
+                Logger.error(BarcodeScannerPlugin.TAG, "Failed to open result cache.", exception);
+            }
+        }
+        return resultCache;
+    }
+
+    /**
+     * Must run on the result cache executor.
+     */
+    private void closeResultCache() {
+        if (resultCache == null) {
+            return;
+        }
+        try {
+            resultCache.close();
+        } catch (Exception exception) {
+            Logger.error(BarcodeScannerPlugin.TAG, "Failed to close result cache.", exception);
+        }
+        resultCache = null;
+    }
+
+    /**
+     * Must run on the folder watcher executor.
+     */
+    private void closeFolderWatcher() {
+        if (folderWatcher != null) {
+            folderWatcher.stop();
+            folderWatcher = null;
+        }
+    }
+
+    private static File resolveFolder(String path) {
+        if (path.startsWith("file://")) {
+            return new File(Uri.parse(path).getPath());
+        }
+        return new File(path);
+    }
+
+    /**
+     * Every folder has its own index, named after a FNV-1a hash of its canonical path.
+     */
+    private static String createProcessedFileIndexName(File directory) throws IOException {
+        long hash = 0xcbf29ce484222325L;
+        for (char character : directory.getCanonicalPath().toCharArray()) {
+            hash ^= character;
+            hash *= 0x100000001b3L;
+        }
+        return Long.toHexString(hash) + ".index";
+    }
+
+    /**
+     * Must run on the result cache executor.
+     */
+    private void putResultCache(BarcodeResultCache resultCache, BarcodeResultCache.Key key, List<DecodedBarcode> barcodes) {
+        try {
+            resultCache.put(key, barcodes);
+        } catch (Exception exception) {
+            Logger.error(BarcodeScannerPlugin.TAG, "Failed to write result cache.", exception);
+        }
+    }
+
+    /**
+     * Replaces the engines, the replaced engines are closed once they finished their frames.
+     */
+    private void createDecoderEngines(ScanSettings scanSettings) {
+        decoderEngineCloser.close(decoderEngine, probeDecoderEngine);
+        decoderEngine = createLiveDecoderEngine(scanSettings, scanSettings.formats);
+        probeDecoderEngine = null;
+        adaptiveFormatSelector = null;
+        if (scanSettings.adaptiveFormats && scanSettings.formats.length == 0) {
+            probeDecoderEngine = decoderEngine;
+            adaptiveFormatSelector = new AdaptiveFormatSelector();
+        }
+        scanMetrics.setActiveFormats(new int[] {});
+    }
+
+    /**
+     * Hands a copy of the image to the frame recording executor and returns it,
+     * or returns `null` if no frame is recorded.
+     */
+    @Nullable
+    private Frame recordFrame(Image image, int rotationDegrees, long timestampNanos) {
+        FrameRecordingWriter frameRecordingWriter = this.frameRecordingWriter;
+        if (frameRecordingWriter == null || !frameRecordingWriter.isAcceptingFrames() || image.getFormat() != ImageFormat.YUV_420_888) {
+            return null;
+        }
+        if (pendingRecordedFrameCount.get() >= MAX_PENDING_RECORDED_FRAME_COUNT) {
+            // The storage can not keep up, skip the frame instead of blocking the analyzer
+            skippedRecordedFrameCount.incrementAndGet();
+            return null;
+        }
+        Frame frame = createFrame(image, rotationDegrees, timestampNanos);
+        pendingRecordedFrameCount.incrementAndGet();
+        frameRecordingExecutor.execute(
+            () -> {
+                try {
+                    // The recording may have been stopped in the meantime
+                    if (frameRecordingWriter == this.frameRecordingWriter) {
+                        frameRecordingWriter.write(frame);
+                    }
+                } catch (Exception exception) {
+                    Logger.error(BarcodeScannerPlugin.TAG, "Failed to record frame.", exception);
+                } finally {
+                    pendingRecordedFrameCount.decrementAndGet();
+                }
+            }
+        );
+        return frame;
+    }
+
+    /**
+     * Must run on the frame recording executor.
+     */
+    private void closeFrameRecording() {
+        FrameRecordingWriter frameRecordingWriter = this.frameRecordingWriter;
+        if (frameRecordingWriter == null) {
+            return;
+        }
+        this.frameRecordingWriter = null;
+        try {
+            frameRecordingWriter.close();
+        } catch (Exception exception) {
+            Logger.error(BarcodeScannerPlugin.TAG, "Failed to close frame recording.", exception);
+        }
+    }
+
+    /**
+     * Like `createDecoderEngine`, but decodes high-resolution frames in two stages if enabled.
+     */
+    private DecoderEngine createLiveDecoderEngine(ScanSettings scanSettings, int[] formats) {
+        DecoderEngine decoderEngine = createDecoderEngine(scanSettings, formats);
+        if (!scanSettings.twoStageDecoding) {
+            return decoderEngine;
+        }
+        return new CoarseToFineDecoderEngine(
+            decoderEngine,
+            scanSettings.coarseMaxDimension,
+            CoarseToFineDecoderEngine.DEFAULT_MAX_REGIONS,
+            scanMetrics::recordTwoStageDecode
+        );
+    }
+
+    /**
+     * Every engine reports its hits and latencies to the scan metrics, also within a cascade.
+     */
+    private DecoderEngine createDecoderEngine(ScanSettings scanSettings, int[] formats) {
+        DecoderEngine stripDecoderEngine = null;
+        if (scanSettings.decoderEngine != ScanSettings.DECODER_ENGINE_MLKIT) {
+            stripDecoderEngine = new MeasuredDecoderEngine(StripDecoderEngine.fromFormats(formats), scanMetrics::recordDecode);
+            if (scanSettings.decoderEngine == ScanSettings.DECODER_ENGINE_STRIP) {
+                return stripDecoderEngine;
+            }
+        }
+        DecoderEngine mlKitDecoderEngine = new MeasuredDecoderEngine(
+            new MlKitDecoderEngine(buildBarcodeScannerOptions(scanSettings, formats)),
+            scanMetrics::recordDecode
+        );
+        if (stripDecoderEngine == null) {
+            return mlKitDecoderEngine;
+        }
+        return new CascadeDecoderEngine(stripDecoderEngine, mlKitDecoderEngine);
+    }
+
+    /**
+     * Converts the image to luma row by row, so only the Bitmap is held in memory.
+     * Unlike `InputImage.fromFilePath`, the EXIF orientation is not applied.
+     */
+    private LumaPlane loadLumaPlane(Uri uri) throws IOException {
+        Bitmap bitmap;
+        try (InputStream inputStream = plugin.getContext().getContentResolver().openInputStream(uri)) {
+            bitmap = BitmapFactory.decodeStream(inputStream);
+        }
+        if (bitmap == null) {
+            throw new IOException("Failed to decode " + uri);
+        }
+        LumaPlane lumaPlane = createLumaPlane(bitmap);
+        bitmap.recycle();
+        return lumaPlane;
+    }
+
+    private static LumaPlane createLumaPlane(Bitmap bitmap) {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        byte[] luma = new byte[width * height];
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            bitmap.getPixels(row, 0, width, 0, y, width, 1);
+            for (int x = 0; x < width; x++) {
+                int pixel = row[x];
+                // BT.601 weights in 1/256
+                luma[y * width + x] = (byte) ((77 * ((pixel >> 16) & 0xFF) + 150 * ((pixel >> 8) & 0xFF) + 29 * (pixel & 0xFF)) >> 8);
+            }
+        }
+        return new LumaPlane(ByteBuffer.wrap(luma), width, 1, width, height);
+    }
+
+    private static long getHeapUsed() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Nullable
+    private FrameQualityGate createFrameQualityGate(ScanSettings scanSettings) {
+        if (!scanSettings.frameQualityGate) {
+            return null;
+        }
+        FrameQualityGate frameQualityGate = new FrameQualityGate();
+        frameQualityGate.setMinSharpness(scanSettings.minFrameSharpness);
+        frameQualityGate.setMinLuma(scanSettings.minFrameLuma);
+        frameQualityGate.setMaxLuma(scanSettings.maxFrameLuma);
+        frameQualityGate.setMaxClippingRatio(scanSettings.maxFrameClippingRatio);
+        return frameQualityGate;
+    }
+
+    private boolean isDeviceMoving(MotionEstimator motionEstimator, long timestampNanos) {
+        boolean isMoving = motionEstimator.isMoving(timestampNanos);
+        scanMetrics.recordMotionCheck(isMoving, motionEstimator.getAngularVelocity());
+        return isMoving;
+    }
+
+    @Nullable
+    private FrameChangeDetector createFrameChangeDetector(ScanSettings scanSettings) {
+        if (!scanSettings.skipUnchangedFrames) {
+            return null;
+        }
+        return new FrameChangeDetector(scanSettings.unchangedFrameThreshold, scanSettings.maxUnchangedFrameIntervalMillis);
+    }
+
+    private boolean isFrameChanged(FrameChangeDetector frameChangeDetector, Image image, long timestampNanos) {
+        if (image.getFormat() != ImageFormat.YUV_420_888) {
+            return true;
+        }
+        Image.Plane yPlane = image.getPlanes()[0];
+        long startTime = System.nanoTime();
+        boolean isChanged = frameChangeDetector.shouldAnalyze(
+            yPlane.getBuffer(),
+            yPlane.getRowStride(),
+            yPlane.getPixelStride(),
+            image.getWidth(),
+            image.getHeight(),
+            timestampNanos
+        );
+        scanMetrics.recordFrameChangeCheck(!isChanged, System.nanoTime() - startTime);
+        return isChanged;
+    }
+
+    private boolean isFrameQualitySufficient(FrameQualityGate frameQualityGate, Image image) {
+        if (image.getFormat() != ImageFormat.YUV_420_888) {
+            return true;
+        }
+        Image.Plane yPlane = image.getPlanes()[0];
+        long startTime = System.nanoTime();
+        int result = frameQualityGate.evaluate(
+            yPlane.getBuffer(),
+            yPlane.getRowStride(),
+            yPlane.getPixelStride(),
+            image.getWidth(),
+            image.getHeight()
+        );
+        scanMetrics.recordFrameQuality(
+            result,
+            frameQualityGate.getSharpness(),
+            frameQualityGate.getLuma(),
+            frameQualityGate.getClippingRatio(),
+            System.nanoTime() - startTime
+        );
+        return result == FrameQualityGate.RESULT_PASSED;
+    }
+
+    /**
+     * Binds the preview and image analysis use cases to the camera of the current lens facing.
+     * Rebinding only moves these use cases, other use cases of the app stay bound.
+     *
+     * Must run on UI thread.
+     */
+    private void bindCamera() {
+        CameraSelector cameraSelector = createCameraSelector();
+        if (camera != null) {
+            // The torch of the previous camera is turned off on unbind
+            isTorchEnabled = false;
+            autoZoomController = null;
+            focusMeteringController = null;
+        }
+        processCameraProvider.unbind(preview, imageAnalysis);
+        camera = processCameraProvider.bindToLifecycle((LifecycleOwner) plugin.getContext(), cameraSelector, preview, imageAnalysis);
+    }
+
+    private ThermalPolicy createThermalPolicy(ScanSettings scanSettings) {
+        ThermalPolicy thermalPolicy = new ThermalPolicy();
+        thermalPolicy.maxLatencyNanos = scanSettings.maxAnalysisLatencyMillis * 1_000_000L;
+        thermalPolicy.recoveredLatencyNanos = scanSettings.recoveredAnalysisLatencyMillis * 1_000_000L;
+        return thermalPolicy;
+    }
+
+    private CameraSelector createCameraSelector() {
+        return new CameraSelector.Builder().requireLensFacing(scanSettings.lensFacing).build();
+    }
+
+    /**
+     * Creates the preview and the image analysis, in conveyor mode with the capture request options of the selected camera.
+     *
+     * Must run on UI thread.
+     */
+    private void createUseCases() {
+        conveyorCaptureOptions = null;
+        if (scanSettings.conveyorMode) {
+            List<CameraInfo> cameraInfos = createCameraSelector().filter(processCameraProvider.getAvailableCameraInfos());
+            if (!cameraInfos.isEmpty()) {
+                conveyorCaptureOptions = ConveyorCaptureOptions.create(cameraInfos.get(0), scanSettings);
+            }
+        }
+        scanMetrics.setTargetFrameRate(conveyorCaptureOptions == null ? 0 : conveyorCaptureOptions.getTargetFrameRate());
+
+        Preview.Builder previewBuilder = new Preview.Builder();
+        if (conveyorCaptureOptions != null) {
+            conveyorCaptureOptions.applyTo(new Camera2Interop.Extender<>(previewBuilder));
+        }
+        preview = previewBuilder.build();
+        preview.setSurfaceProvider(previewView.getSurfaceProvider());
+
+        // In conveyor mode, smaller frames keep up with the higher frame rate
+        analysisResolution = conveyorCaptureOptions == null ? null : REDUCED_ANALYSIS_RESOLUTION;
+        imageAnalysis = createImageAnalysis(analysisResolution);
+    }
+
+    @SuppressLint("UnsafeOptInUsageError")
+    private ImageAnalysis createImageAnalysis(@Nullable Size targetResolution) {
+        ImageAnalysis.Builder builder = new ImageAnalysis.Builder().setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST);
+        if (targetResolution != null) {
+            builder.setTargetResolution(targetResolution);
+        }
+        if (conveyorCaptureOptions != null) {
+            conveyorCaptureOptions.applyTo(new Camera2Interop.Extender<>(builder));
+        }
+        ImageAnalysis imageAnalysis = builder.build();
+        imageAnalysis.setAnalyzer(ContextCompat.getMainExecutor(plugin.getContext()), this);
+        return imageAnalysis;
+    }
+
+    /**
+     * Must run on UI thread.
+     */
+    private void applyMemoryDegradation(int level) {
+        switch (level) {
+            case MemoryDegradation.LEVEL_RELEASE_BUFFERS:
+                releaseBuffers();
+                break;
+            case MemoryDegradation.LEVEL_RELEASE_CLIENTS:
+                releaseNarrowedDecoderEngine();
+                googleBarcodeScannerModuleManager.releaseScanners();
+                break;
+            case MemoryDegradation.LEVEL_REDUCE_RESOLUTION:
+                updateAnalysisResolution();
+                break;
+            case MemoryDegradation.LEVEL_PAUSE_ANALYSIS:
+                // The preview keeps running, the analysis is resumed by the next scan session
+                if (imageAnalysis != null) {
+                    imageAnalysis.clearAnalyzer();
+                }
+                break;
+        }
+    }
+
+    /**
+     * Applies the reached memory degradation level again to rebuilt engines and use cases:
+     * the adaptive formats stay released, the analysis resolution stays reduced and a paused analysis stays paused.
+     *
+     * Must run on UI thread.
+     */
+    private void reapplyMemoryDegradation() {
+        int level = memoryDegradation.getLevel();
+        if (level >= MemoryDegradation.LEVEL_RELEASE_CLIENTS) {
+            releaseNarrowedDecoderEngine();
+        }
+        if (level >= MemoryDegradation.LEVEL_PAUSE_ANALYSIS) {
+            if (imageAnalysis != null) {
+                imageAnalysis.clearAnalyzer();
+            }
+        } else {
+            updateAnalysisResolution();
+        }
+    }
+
+    /**
+     * Unmaps the scan history, finishes a running frame recording and drops the in-memory results of the result cache
+     * and the pooled image data buffers.
+     */
+    private void releaseBuffers() {
+        imageDataBufferPool.clear();
+        decodedDataBufferPool.clear();
+        frameRecordingExecutor.execute(this::closeFrameRecording);
+        scanHistoryExecutor.execute(this::closeScanHistory);
+        resultCacheExecutor.execute(
+            () -> {
+                if (resultCache != null) {
+                    resultCache.trimMemory();
+                }
+            }
+        );
+    }
+
+    /**
+     * Gives up the adaptive formats and keeps only the engine that scans all formats.
+     *
+     * Must run on UI thread.
+     */
+    private void releaseNarrowedDecoderEngine() {
+        if (adaptiveFormatSelector == null) {
+            return;
+        }
+        DecoderEngine narrowedDecoderEngine = decoderEngine;
+        decoderEngine = probeDecoderEngine;
+        probeDecoderEngine = null;
+        adaptiveFormatSelector = null;
+        scanMetrics.setActiveFormats(new int[] {});
+        if (narrowedDecoderEngine == null || narrowedDecoderEngine == decoderEngine) {
+            return;
+        }
+        decoderEngineCloser.close(narrowedDecoderEngine);
+    }
+
+    /**
+     * Replaces the image analysis if the memory degradation or the thermal governor changed its target resolution,
+     * the preview stays bound.
+     *
+     * Must run on UI thread.
+     */
+    private void updateAnalysisResolution() {
+        if (processCameraProvider == null || imageAnalysis == null || camera == null) {
+            return;
+        }
+        if (memoryDegradation.getLevel() >= MemoryDegradation.LEVEL_PAUSE_ANALYSIS) {
+            // A new image analysis would resume the paused analysis
+            return;
+        }
+        boolean isResolutionReduced =
+            memoryDegradation.getLevel() >= MemoryDegradation.LEVEL_REDUCE_RESOLUTION ||
+            (thermalGovernor != null && thermalGovernor.getLevel() >= ThermalGovernor.LEVEL_REDUCE_RESOLUTION);
+        Size targetResolution = isResolutionReduced || conveyorCaptureOptions != null ? REDUCED_ANALYSIS_RESOLUTION : null;
+        if (Objects.equals(targetResolution, analysisResolution)) {
+            return;
+        }
+        analysisResolution = targetResolution;
+        ImageAnalysis previousImageAnalysis = imageAnalysis;
+        imageAnalysis = createImageAnalysis(targetResolution);
+        processCameraProvider.unbind(previousImageAnalysis);
+        try {
+            camera = processCameraProvider.bindToLifecycle((LifecycleOwner) plugin.getContext(), createCameraSelector(), imageAnalysis);
+        } catch (Exception exception) {
+            Logger.error(BarcodeScannerPlugin.TAG, "Failed to change the analysis resolution.", exception);
+        }
+    }
+
     private Point getDisplaySize() {
         WindowManager wm = (WindowManager) plugin.getContext().getSystemService(Context.WINDOW_SERVICE);
         Display display = wm.getDefaultDisplay();
@@ -502,23 +2187,240 @@ public class BarcodeScanner implements ImageAnalysis.Analyzer {
         plugin.getBridge().getWebView().setBackgroundColor(Color.WHITE);
     }
 
-    private void handleScannedBarcode(Barcode barcode, Point imageSize, String scannedImage, String qrImage) {
-        plugin.notifyBarcodeScannedListener(barcode, imageSize, scannedImage, qrImage);
+    private void handleScannedBarcode(
+        DecodedBarcode barcode,
+        Point imageSize,
+        String scannedImage,
+        String qrImage,
+        @Nullable CatalogMatch catalogMatch,
+        @Nullable Gs1ParseResult gs1ParseResult
+    ) {
+        ResultQueue<JSObject> resultQueue = this.resultQueue;
+        if (resultQueue == null) {
+            plugin.notifyBarcodeScannedListener(barcode, imageSize, scannedImage, qrImage, catalogMatch, gs1ParseResult);
+            return;
+        }
+        JSObject barcodeScannedEvent = plugin.createBarcodeScannedEvent(barcode, imageSize, scannedImage, qrImage, catalogMatch, gs1ParseResult);
+        if (barcodeScannedEvent == null) {
+            return;
+        }
+        boolean isQueued = resultQueue.offer(barcodeScannedEvent);
+        scanMetrics.recordQueuedResult(resultQueue.size(), !isQueued);
+    }
+
+    /**
+     * @param listener Called on a background thread, see `NativeScanListener`.
+     */
+    public void addNativeScanListener(@NonNull NativeScanListener listener) {
+        nativeScanListeners.add(listener);
+    }
+
+    public void removeNativeScanListener(@NonNull NativeScanListener listener) {
+        nativeScanListeners.remove(listener);
+    }
+
+    private void notifyNativeScanListeners(
+        DecodedBarcode barcode,
+        ScanFrameInfo frameInfo,
+        @Nullable CatalogMatch catalogMatch,
+        @Nullable Gs1ParseResult gs1ParseResult,
+        long generation
+    ) {
+        nativeScanListenerExecutor.execute(
+            () -> {
+                if (!scanSession.isCurrent(generation)) {
+                    return;
+                }
+                for (NativeScanListener listener : nativeScanListeners) {
+                    try {
+                        listener.onBarcodeScanned(barcode, frameInfo, catalogMatch, gs1ParseResult);
+                    } catch (Exception exception) {
+                        Logger.error(BarcodeScannerPlugin.TAG, "Native scan listener failed.", exception);
+                    }
+                }
+            }
+        );
+    }
+
+    private Gs1ParseResult parseGs1(DecodedBarcode barcode) {
+        byte[] bytes = barcode.getRawBytes();
+        if (bytes == null) {
+            String rawValue = barcode.getRawValue();
+            if (rawValue == null) {
+                return Gs1ParseResult.INVALID;
+            }
+            bytes = rawValue.getBytes(StandardCharsets.UTF_8);
+        }
+        return Gs1Parser.parse(barcode.getFormat(), bytes);
+    }
+
+    /**
+     * Returns `null` if no catalog is loaded.
+     */
+    @Nullable
+    private CatalogMatch lookUpCatalog(String value) {
+        BarcodeCatalog barcodeCatalog = this.barcodeCatalog;
+        if (barcodeCatalog == null) {
+            return null;
+        }
+        long startTime = System.nanoTime();
+        int index = barcodeCatalog.indexOf(value);
+        CatalogMatch catalogMatch = index < 0 ? new CatalogMatch(false, null) : new CatalogMatch(true, barcodeCatalog.getMetadata(index));
+        scanMetrics.recordCatalogLookup(System.nanoTime() - startTime);
+        return catalogMatch;
     }
 
     private void handleScanError(Exception exception) {
         plugin.notifyScanErrorListener(exception.getMessage());
     }
 
+    /**
+     * Rebuilds the live scanner with the formats seen so far once the adaptive format selector narrows or widens them.
+     */
+    private void handleAdaptiveFormats(List<DecodedBarcode> barcodes) {
+        if (adaptiveFormatSelector == null || scanSettings == null) {
+            return;
+        }
+        int formats = 0;
+        for (DecodedBarcode barcode : barcodes) {
+            if (barcode.getRawValue() != null) {
+                formats |= AdaptiveFormatSelector.getFormatBit(barcode.getFormat());
+            }
+        }
+        boolean isChanged = adaptiveFormatSelector.handleFormats(formats);
+        if (!isChanged) {
+            return;
+        }
+        int[] activeFormats = adaptiveFormatSelector.getActiveFormats();
+        DecoderEngine previousDecoderEngine = decoderEngine;
+        decoderEngine = createLiveDecoderEngine(scanSettings, activeFormats);
+        // Another frame may still be decoding with the previous engine, e.g. after the image analysis was replaced,
+        // the probe engine stays in use
+        if (previousDecoderEngine != probeDecoderEngine) {
+            decoderEngineCloser.close(previousDecoderEngine);
+        }
+        scanMetrics.setActiveFormats(activeFormats);
+    }
+
+    /**
+     * Feeds the auto zoom and auto focus controllers with the barcodes of an analyzed frame.
+     */
+    private void handleBarcodeCandidates(List<DecodedBarcode> barcodes, Point imageSize, int rotationDegrees) {
+        AutoZoomController autoZoomController = getAutoZoomController();
+        FocusMeteringController focusMeteringController = getFocusMeteringController();
+        if (autoZoomController == null && focusMeteringController == null) {
+            return;
+        }
+        long timestampMillis = SystemClock.elapsedRealtime();
+        // The bounding boxes are relative to the upright image
+        boolean isRotated = rotationDegrees == 90 || rotationDegrees == 270;
+        int frameWidth = isRotated ? imageSize.y : imageSize.x;
+        int frameHeight = isRotated ? imageSize.x : imageSize.y;
+        Rect candidateBoundingBox = null;
+        for (DecodedBarcode barcode : barcodes) {
+            if (barcode.getRawValue() != null) {
+                if (autoZoomController != null) {
+                    autoZoomController.handleRead(timestampMillis);
+                }
+                if (focusMeteringController != null) {
+                    focusMeteringController.handleRead(timestampMillis);
+                }
+                return;
+            }
+            Rect boundingBox = barcode.getBoundingBox();
+            if (boundingBox == null) {
+                continue;
+            }
+            if (
+                candidateBoundingBox == null ||
+                boundingBox.width() * boundingBox.height() > candidateBoundingBox.width() * candidateBoundingBox.height()
+            ) {
+                candidateBoundingBox = boundingBox;
+            }
+        }
+        if (candidateBoundingBox == null) {
+            if (autoZoomController != null) {
+                autoZoomController.handleEmptyFrame(timestampMillis);
+            }
+            if (focusMeteringController != null) {
+                focusMeteringController.handleEmptyFrame(timestampMillis);
+            }
+            return;
+        }
+        if (focusMeteringController != null) {
+            focusMeteringController.handleCandidate(
+                frameWidth,
+                frameHeight,
+                candidateBoundingBox.left,
+                candidateBoundingBox.top,
+                candidateBoundingBox.width(),
+                candidateBoundingBox.height(),
+                rotationDegrees,
+                timestampMillis
+            );
+        }
+        if (autoZoomController != null) {
+            autoZoomController.handleCandidate(
+                frameWidth,
+                frameHeight,
+                candidateBoundingBox.left,
+                candidateBoundingBox.top,
+                candidateBoundingBox.width(),
+                candidateBoundingBox.height(),
+                timestampMillis
+            );
+        }
+    }
+
+    @Nullable
+    private FocusMeteringController getFocusMeteringController() {
+        if (conveyorCaptureOptions != null && conveyorCaptureOptions.isFocusLocked()) {
+            // A focus action would unlock the focus
+            return null;
+        }
+        if (focusMeteringController == null && camera != null && scanSettings != null && scanSettings.autoFocus) {
+            focusMeteringController = new FocusMeteringController(camera.getCameraControl(), scanMetrics);
+        }
+        return focusMeteringController;
+    }
+
+    @Nullable
+    private AutoZoomController getAutoZoomController() {
+        if (autoZoomController != null) {
+            return autoZoomController;
+        }
+        if (camera == null || scanSettings == null || !scanSettings.autoZoom) {
+            return null;
+        }
+        ZoomState zoomState = camera.getCameraInfo().getZoomState().getValue();
+        if (zoomState == null) {
+            return null;
+        }
+        autoZoomController =
+            new AutoZoomController(
+                camera.getCameraControl(),
+                zoomState.getZoomRatio(),
+                zoomState.getMinZoomRatio(),
+                zoomState.getMaxZoomRatio()
+            );
+        return autoZoomController;
+    }
+
     private BarcodeScannerOptions buildBarcodeScannerOptions(ScanSettings scanSettings) {
-        int[] formats = scanSettings.formats.length == 0 ? new int[] { Barcode.FORMAT_ALL_FORMATS } : scanSettings.formats;
-        BarcodeScannerOptions options = new BarcodeScannerOptions.Builder().setBarcodeFormats(formats[0], formats).build();
-        return options;
+        return buildBarcodeScannerOptions(scanSettings, scanSettings.formats);
+    }
+
+    private BarcodeScannerOptions buildBarcodeScannerOptions(ScanSettings scanSettings, int[] formats) {
+        formats = formats.length == 0 ? new int[] { Barcode.FORMAT_ALL_FORMATS } : formats;
+        BarcodeScannerOptions.Builder builder = new BarcodeScannerOptions.Builder().setBarcodeFormats(formats[0], formats);
+        if (isPotentialBarcodesEnabled(scanSettings)) {
+            // Report barcodes that were located but could not be decoded yet
+            builder.enableAllPotentialBarcodes();
+        }
+        return builder.build();
     }
 
-    private GmsBarcodeScannerOptions buildGmsBarcodeScannerOptions(ScanSettings scanSettings) {
-        int[] formats = scanSettings.formats.length == 0 ? new int[] { Barcode.FORMAT_ALL_FORMATS } : scanSettings.formats;
-        GmsBarcodeScannerOptions options = new GmsBarcodeScannerOptions.Builder().setBarcodeFormats(formats[0], formats).build();
-        return options;
+    private boolean isPotentialBarcodesEnabled(ScanSettings scanSettings) {
+        return scanSettings.autoZoom || scanSettings.autoFocus;
     }
 }
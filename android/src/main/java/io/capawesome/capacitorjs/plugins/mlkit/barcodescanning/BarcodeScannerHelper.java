@@ -13,12 +13,21 @@ import com.getcapacitor.JSObject;
 import com.getcapacitor.Logger;
 import com.google.mlkit.vision.barcode.common.Barcode;
 import com.google.mlkit.vision.common.InputImage;
+import java.util.List;
 import org.json.JSONArray;
 import org.json.JSONException;
 
 public class BarcodeScannerHelper {
 
     public static JSObject createBarcodeResultForBarcode(@NonNull Barcode barcode, @Nullable Point imageSize, @Nullable Point screenSize) {
+        return createBarcodeResultForBarcode(DecodedBarcode.fromBarcode(barcode), imageSize, screenSize);
+    }
+
+    public static JSObject createBarcodeResultForBarcode(
+        @NonNull DecodedBarcode barcode,
+        @Nullable Point imageSize,
+        @Nullable Point screenSize
+    ) {
         Point[] cornerPoints = barcode.getCornerPoints();
         JSArray cornerPointsResult = new JSArray();
         if (cornerPoints != null && imageSize != null && screenSize != null) {
@@ -43,6 +52,24 @@ public class BarcodeScannerHelper {
         return result;
     }
 
+    /**
+     * Adds the GS1 elements to the barcode result, if any.
+     */
+    public static void putGs1ParseResult(@NonNull JSObject barcodeResult, @NonNull Gs1ParseResult gs1ParseResult) {
+        List<Gs1Element> elements = gs1ParseResult.getElements();
+        if (elements == null) {
+            return;
+        }
+        JSArray elementsResult = new JSArray();
+        for (Gs1Element element : elements) {
+            JSObject elementResult = new JSObject();
+            elementResult.put("applicationIdentifier", element.getApplicationIdentifier());
+            elementResult.put("value", element.getValue());
+            elementsResult.put(elementResult);
+        }
+        barcodeResult.put("gs1Elements", elementsResult);
+    }
+
     public static int[] convertStringsToBarcodeScannerFormats(String[] values) throws JSONException {
         int[] formats = new int[values.length];
         for (int i = 0; i < values.length; i++) {
@@ -89,6 +116,66 @@ public class BarcodeScannerHelper {
         }
     }
 
+    public static int convertStringToDecoderEngine(String value) {
+        switch (value) {
+            case "STRIP":
+                return ScanSettings.DECODER_ENGINE_STRIP;
+            case "CASCADE":
+                return ScanSettings.DECODER_ENGINE_CASCADE;
+            default:
+                return ScanSettings.DECODER_ENGINE_MLKIT;
+        }
+    }
+
+    public static int convertStringToImageDataFormat(String value) {
+        switch (value) {
+            case "RGBA":
+                return ImageDataConverter.DATA_FORMAT_RGBA;
+            case "GRAY":
+                return ImageDataConverter.DATA_FORMAT_GRAY;
+            default:
+                return ImageDataConverter.DATA_FORMAT_ENCODED;
+        }
+    }
+
+    public static int convertStringToUnchangedFrameResult(String value) {
+        switch (value) {
+            case "SUPPRESS":
+                return ScanSettings.UNCHANGED_FRAME_RESULT_SUPPRESS;
+            default:
+                return ScanSettings.UNCHANGED_FRAME_RESULT_REUSE;
+        }
+    }
+
+    public static int convertStringToDeliveryMode(String value) {
+        switch (value) {
+            case "POLL":
+                return ScanSettings.DELIVERY_MODE_POLL;
+            default:
+                return ScanSettings.DELIVERY_MODE_PUSH;
+        }
+    }
+
+    public static int convertStringToOverflowPolicy(String value) {
+        switch (value) {
+            case "DROP_NEWEST":
+                return ResultQueue.OVERFLOW_POLICY_DROP_NEWEST;
+            default:
+                return ResultQueue.OVERFLOW_POLICY_DROP_OLDEST;
+        }
+    }
+
+    public static int convertStringToCatalogMode(String value) {
+        switch (value) {
+            case "FILTER":
+                return ScanSettings.CATALOG_MODE_FILTER;
+            case "MARK":
+                return ScanSettings.CATALOG_MODE_MARK;
+            default:
+                return ScanSettings.CATALOG_MODE_NONE;
+        }
+    }
+
     @Nullable
     public static String convertBarcodeScannerFormatToString(int format) {
         switch (format) {
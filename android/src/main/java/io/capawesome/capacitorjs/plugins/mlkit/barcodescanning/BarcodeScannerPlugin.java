@@ -4,6 +4,8 @@
 package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
 
 import android.Manifest;
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
 import android.graphics.Point;
 import android.util.DisplayMetrics;
 import androidx.activity.result.ActivityResult;
@@ -21,10 +23,29 @@ import com.getcapacitor.annotation.CapacitorPlugin;
 import com.getcapacitor.annotation.Permission;
 import com.getcapacitor.annotation.PermissionCallback;
 import com.google.mlkit.vision.barcode.common.Barcode;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.DumpFlightRecorderOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.LoadCatalogOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.PollBarcodesOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.QueryScanHistoryOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.ReadBarcodesFromDataOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.ReadBarcodesFromPdfOptions;
 import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.SetZoomRatioOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.StartFrameRecordingOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options.WatchFolderOptions;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.DumpFlightRecorderResult;
 import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.GetMaxZoomRatioResult;
 import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.GetMinZoomRatioResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.GetResultCacheStatsResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.GetScanMetricsResult;
 import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.GetZoomRatioResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.LoadCatalogResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.PollBarcodesResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.QueryScanHistoryResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.ReadBarcodesFromPdfResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.StartFrameRecordingResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.StopFrameRecordingResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.interfaces.EmptyResultCallback;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.interfaces.NonEmptyResultCallback;
 import java.util.List;
 
 @CapacitorPlugin(
@@ -40,7 +61,11 @@ public class BarcodeScannerPlugin extends Plugin {
 
     public static final String BARCODE_SCANNED_EVENT = "barcodeScanned";
     public static final String SCAN_ERROR_EVENT = "scanError";
+    public static final String PDF_PAGE_SCANNED_EVENT = "pdfPageScanned";
     public static final String GOOGLE_BARCODE_SCANNER_MODULE_INSTALL_PROGRESS_EVENT = "googleBarcodeScannerModuleInstallProgress";
+    public static final String SCAN_DEGRADED_EVENT = "scanDegraded";
+    public static final String FOLDER_IMAGE_SCANNED_EVENT = "folderImageScanned";
+    public static final String FOLDER_IMAGE_SCAN_FAILED_EVENT = "folderImageScanFailed";
     public static final String ERROR_SCAN_CANCELED = "scan canceled.";
     public static final String ERROR_PATH_MISSING = "path must be provided.";
     public static final String ERROR_LOAD_IMAGE_FAILED = "The image could not be loaded.";
@@ -51,18 +76,97 @@ public class BarcodeScannerPlugin extends Plugin {
     public static final String ERROR_GOOGLE_BARCODE_SCANNER_MODULE_ALREADY_INSTALLED =
         "The Google Barcode Scanner Module is already installed.";
     public static final String ERROR_PERMISSION_DENIED = "User denied access to camera.";
+    public static final String ERROR_LOAD_CATALOG_FAILED = "The catalog could not be loaded.";
+    public static final String ERROR_LOAD_PDF_FAILED = "The PDF could not be loaded.";
+    public static final String ERROR_PDF_PAGE_OUT_OF_RANGE = "pages must only contain page numbers of the document.";
+    public static final String ERROR_DPI_INVALID = "dpi must be greater than 0.";
+    public static final String ERROR_FLIGHT_RECORDER_NOT_ENABLED = "The flight recorder was not enabled for the last scan session.";
+    public static final String ERROR_FORMAT_INVALID = "format must be CSV or BINARY.";
+    public static final String ERROR_MAX_FRAMES_INVALID = "maxFrames must be greater than 0.";
+    public static final String ERROR_CONVEYOR_EXPOSURE_TIME_INVALID = "conveyorExposureTime must be greater than 0.";
+    public static final String ERROR_CONVEYOR_FOCUS_DISTANCE_INVALID = "conveyorFocusDistance must be a finite number that is not negative.";
+    public static final String ERROR_FRAME_RECORDING_NOT_STARTED = "There is no active frame recording.";
+    public static final String ERROR_RESULT_CACHE_UNAVAILABLE = "The result cache could not be opened.";
+    public static final String ERROR_RESULT_QUEUE_CAPACITY_INVALID = "resultQueueCapacity must be greater than 0.";
+    public static final String ERROR_RESULT_QUEUE_NOT_ENABLED = "The last scan session was not started with the POLL delivery mode.";
+    public static final String ERROR_COARSE_MAX_DIMENSION_INVALID = "coarseMaxDimension must be greater than 0.";
+    public static final String ERROR_MAX_INVALID = "max must be greater than 0.";
+    public static final String ERROR_WAIT_MS_INVALID = "waitMs must not be negative.";
+    public static final String ERROR_FOLDER_NOT_FOUND = "path must be an existing folder.";
+    public static final String ERROR_DATA_MISSING = "data must be provided.";
+    public static final String ERROR_DATA_INVALID = "data must be Base64 encoded.";
+    public static final String ERROR_DATA_SIZE_INVALID = "data must contain width * height pixels of the given dataFormat.";
+    public static final String ERROR_DIMENSIONS_INVALID = "width and height must be greater than 0.";
+    public static final String ERROR_UNCHANGED_FRAME_THRESHOLD_INVALID = "unchangedFrameThreshold must not be negative.";
+    public static final String ERROR_MAX_UNCHANGED_FRAME_INTERVAL_INVALID = "maxUnchangedFrameInterval must be greater than 0.";
+    public static final String ERROR_MAX_ANGULAR_VELOCITY_INVALID = "maxAngularVelocity must be greater than 0.";
+    public static final String ERROR_MAX_LINEAR_ACCELERATION_INVALID = "maxLinearAcceleration must be greater than 0.";
+    public static final String ERROR_MAX_ANALYSIS_LATENCY_INVALID = "maxAnalysisLatency must be greater than 0.";
+    public static final String ERROR_RECOVERED_ANALYSIS_LATENCY_INVALID =
+        "recoveredAnalysisLatency must be greater than 0 and less than maxAnalysisLatency.";
+
+    public static final int DEFAULT_SCAN_HISTORY_LIMIT = 100;
+    public static final int DEFAULT_PDF_DPI = 200;
+    public static final int DEFAULT_MAX_RECORDED_FRAMES = 300;
+    public static final int DEFAULT_MAX_POLLED_BARCODES = 16;
 
     private BarcodeScanner implementation;
 
+    /**
+     * Called on the main thread.
+     */
+    private final ComponentCallbacks2 componentCallbacks = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            if (implementation != null) {
+                implementation.handleTrimMemory(level);
+            }
+        }
+
+        @Override
+        public void onLowMemory() {
+            if (implementation != null) {
+                implementation.handleTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+            }
+        }
+
+        @Override
+        public void onConfigurationChanged(@NonNull Configuration configuration) {}
+    };
+
     @Override
     public void load() {
         try {
             implementation = new BarcodeScanner(this);
+            getContext().registerComponentCallbacks(componentCallbacks);
+            implementation.prepareGoogleBarcodeScannerModule(getConfig().getBoolean("preinstallGoogleBarcodeScannerModule", false));
         } catch (Exception exception) {
             Logger.error(TAG, exception.getMessage(), exception);
         }
     }
 
+    @Override
+    protected void handleOnDestroy() {
+        getContext().unregisterComponentCallbacks(componentCallbacks);
+        // Not created if `load` failed
+        if (implementation != null) {
+            implementation.destroy();
+        }
+        super.handleOnDestroy();
+    }
+
+    /**
+     * Lets native code of the host app receive the barcodes of the live scan directly, see `NativeScanListener`.
+     * The plugin instance can be obtained with `bridge.getPlugin("BarcodeScanner").getInstance()`.
+     */
+    public void addNativeScanListener(@NonNull NativeScanListener listener) {
+        implementation.addNativeScanListener(listener);
+    }
+
+    public void removeNativeScanListener(@NonNull NativeScanListener listener) {
+        implementation.removeNativeScanListener(listener);
+    }
+
     @PluginMethod
     public void startScan(PluginCall call) {
         try {
@@ -72,9 +176,99 @@ public class BarcodeScannerPlugin extends Plugin {
             String lensFacingOption = call.getString("lensFacing", "BACK");
             int lensFacing = lensFacingOption.equals("FRONT") ? CameraSelector.LENS_FACING_FRONT : CameraSelector.LENS_FACING_BACK;
 
+            boolean autoZoom = call.getBoolean("autoZoom", false);
+            boolean autoFocus = call.getBoolean("autoFocus", false);
+            boolean adaptiveFormats = call.getBoolean("adaptiveFormats", false);
+            boolean recordScanHistory = call.getBoolean("recordScanHistory", false);
+            int catalogMode = BarcodeScannerHelper.convertStringToCatalogMode(call.getString("catalogMode", "NONE"));
+            int decoderEngine = BarcodeScannerHelper.convertStringToDecoderEngine(call.getString("decoderEngine", "MLKIT"));
+
             ScanSettings scanSettings = new ScanSettings();
             scanSettings.formats = formats;
             scanSettings.lensFacing = lensFacing;
+            scanSettings.autoZoom = autoZoom;
+            scanSettings.autoFocus = autoFocus;
+            scanSettings.adaptiveFormats = adaptiveFormats;
+            scanSettings.recordScanHistory = recordScanHistory;
+            scanSettings.catalogMode = catalogMode;
+            scanSettings.decoderEngine = decoderEngine;
+            scanSettings.parseGs1 = call.getBoolean("parseGs1", false);
+            scanSettings.frameQualityGate = call.getBoolean("frameQualityGate", false);
+            scanSettings.minFrameSharpness = call.getFloat("minFrameSharpness", FrameQualityGate.DEFAULT_MIN_SHARPNESS);
+            scanSettings.minFrameLuma = call.getFloat("minFrameLuma", FrameQualityGate.DEFAULT_MIN_LUMA);
+            scanSettings.maxFrameLuma = call.getFloat("maxFrameLuma", FrameQualityGate.DEFAULT_MAX_LUMA);
+            scanSettings.maxFrameClippingRatio = call.getFloat("maxFrameClippingRatio", FrameQualityGate.DEFAULT_MAX_CLIPPING_RATIO);
+            scanSettings.twoStageDecoding = call.getBoolean("twoStageDecoding", false);
+            scanSettings.coarseMaxDimension = call.getInt("coarseMaxDimension", CoarseToFineDecoderEngine.DEFAULT_COARSE_MAX_DIMENSION);
+            if (scanSettings.coarseMaxDimension <= 0) {
+                call.reject(ERROR_COARSE_MAX_DIMENSION_INVALID);
+                return;
+            }
+            scanSettings.skipUnchangedFrames = call.getBoolean("skipUnchangedFrames", false);
+            scanSettings.unchangedFrameThreshold = call.getFloat("unchangedFrameThreshold", FrameChangeDetector.DEFAULT_THRESHOLD);
+            if (scanSettings.unchangedFrameThreshold < 0) {
+                call.reject(ERROR_UNCHANGED_FRAME_THRESHOLD_INVALID);
+                return;
+            }
+            scanSettings.maxUnchangedFrameIntervalMillis =
+                call.getInt("maxUnchangedFrameInterval", (int) FrameChangeDetector.DEFAULT_MAX_UNCHANGED_INTERVAL_MILLIS);
+            if (scanSettings.maxUnchangedFrameIntervalMillis <= 0) {
+                call.reject(ERROR_MAX_UNCHANGED_FRAME_INTERVAL_INVALID);
+                return;
+            }
+            scanSettings.unchangedFrameResult =
+                BarcodeScannerHelper.convertStringToUnchangedFrameResult(call.getString("unchangedFrameResult", "REUSE"));
+            scanSettings.flightRecorder = call.getBoolean("flightRecorder", false);
+            scanSettings.thermalGovernor = call.getBoolean("thermalGovernor", false);
+            scanSettings.maxAnalysisLatencyMillis = call.getInt("maxAnalysisLatency", (int) ThermalPolicy.DEFAULT_MAX_LATENCY_MILLIS);
+            scanSettings.recoveredAnalysisLatencyMillis =
+                call.getInt("recoveredAnalysisLatency", (int) ThermalPolicy.DEFAULT_RECOVERED_LATENCY_MILLIS);
+            if (scanSettings.maxAnalysisLatencyMillis <= 0) {
+                call.reject(ERROR_MAX_ANALYSIS_LATENCY_INVALID);
+                return;
+            }
+            if (
+                scanSettings.recoveredAnalysisLatencyMillis <= 0 ||
+                scanSettings.recoveredAnalysisLatencyMillis >= scanSettings.maxAnalysisLatencyMillis
+            ) {
+                call.reject(ERROR_RECOVERED_ANALYSIS_LATENCY_INVALID);
+                return;
+            }
+            scanSettings.motionSkipping = call.getBoolean("motionSkipping", false);
+            scanSettings.maxAngularVelocity = call.getFloat("maxAngularVelocity", MotionEstimator.DEFAULT_MAX_ANGULAR_VELOCITY);
+            if (scanSettings.maxAngularVelocity <= 0) {
+                call.reject(ERROR_MAX_ANGULAR_VELOCITY_INVALID);
+                return;
+            }
+            scanSettings.maxLinearAcceleration = call.getFloat("maxLinearAcceleration", MotionEstimator.DEFAULT_MAX_LINEAR_ACCELERATION);
+            if (scanSettings.maxLinearAcceleration <= 0) {
+                call.reject(ERROR_MAX_LINEAR_ACCELERATION_INVALID);
+                return;
+            }
+            scanSettings.conveyorMode = call.getBoolean("conveyorMode", false);
+            scanSettings.conveyorExposureTime = call.getInt("conveyorExposureTime");
+            scanSettings.conveyorFocusDistance = call.getFloat("conveyorFocusDistance");
+            if (scanSettings.conveyorExposureTime != null && scanSettings.conveyorExposureTime <= 0) {
+                call.reject(ERROR_CONVEYOR_EXPOSURE_TIME_INVALID);
+                return;
+            }
+            Float conveyorFocusDistance = scanSettings.conveyorFocusDistance;
+            if (
+                conveyorFocusDistance != null &&
+                (conveyorFocusDistance.isNaN() || conveyorFocusDistance.isInfinite() || conveyorFocusDistance < 0)
+            ) {
+                call.reject(ERROR_CONVEYOR_FOCUS_DISTANCE_INVALID);
+                return;
+            }
+            scanSettings.deliveryMode = BarcodeScannerHelper.convertStringToDeliveryMode(call.getString("deliveryMode", "PUSH"));
+            scanSettings.webViewDelivery = call.getBoolean("webViewDelivery", true);
+            scanSettings.resultQueueCapacity = call.getInt("resultQueueCapacity", ScanSettings.DEFAULT_RESULT_QUEUE_CAPACITY);
+            scanSettings.resultQueueOverflowPolicy =
+                BarcodeScannerHelper.convertStringToOverflowPolicy(call.getString("resultQueueOverflowPolicy", "DROP_OLDEST"));
+            if (scanSettings.resultQueueCapacity <= 0) {
+                call.reject(ERROR_RESULT_QUEUE_CAPACITY_INVALID);
+                return;
+            }
 
             boolean granted = implementation.requestCameraPermissionIfNotDetermined(call);
             if (!granted) {
@@ -107,6 +301,120 @@ public class BarcodeScannerPlugin extends Plugin {
         }
     }
 
+    @PluginMethod
+    public void updateScanSettings(PluginCall call) {
+        try {
+            JSArray formatsOption = call.getArray("formats");
+            int[] formats = formatsOption == null
+                ? null
+                : BarcodeScannerHelper.convertStringsToBarcodeScannerFormats(formatsOption.toList().toArray(new String[0]));
+            String lensFacingOption = call.getString("lensFacing");
+            String catalogModeOption = call.getString("catalogMode");
+            String decoderEngineOption = call.getString("decoderEngine");
+            Integer coarseMaxDimensionOption = call.getInt("coarseMaxDimension");
+            if (coarseMaxDimensionOption != null && coarseMaxDimensionOption <= 0) {
+                call.reject(ERROR_COARSE_MAX_DIMENSION_INVALID);
+                return;
+            }
+            Float unchangedFrameThresholdOption = call.getFloat("unchangedFrameThreshold");
+            if (unchangedFrameThresholdOption != null && unchangedFrameThresholdOption < 0) {
+                call.reject(ERROR_UNCHANGED_FRAME_THRESHOLD_INVALID);
+                return;
+            }
+            Integer maxUnchangedFrameIntervalOption = call.getInt("maxUnchangedFrameInterval");
+            if (maxUnchangedFrameIntervalOption != null && maxUnchangedFrameIntervalOption <= 0) {
+                call.reject(ERROR_MAX_UNCHANGED_FRAME_INTERVAL_INVALID);
+                return;
+            }
+            String unchangedFrameResultOption = call.getString("unchangedFrameResult");
+
+            getActivity()
+                .runOnUiThread(
+                    () -> {
+                        ScanSettings currentScanSettings = implementation.getScanSettings();
+                        if (currentScanSettings == null) {
+                            call.reject(ERROR_NO_ACTIVE_SCAN_SESSION);
+                            return;
+                        }
+                        // Options that are not provided keep their current value
+                        ScanSettings scanSettings = new ScanSettings();
+                        scanSettings.formats = formats == null ? currentScanSettings.formats : formats;
+                        scanSettings.lensFacing =
+                            lensFacingOption == null
+                                ? currentScanSettings.lensFacing
+                                : lensFacingOption.equals("FRONT") ? CameraSelector.LENS_FACING_FRONT : CameraSelector.LENS_FACING_BACK;
+                        scanSettings.autoZoom = call.getBoolean("autoZoom", currentScanSettings.autoZoom);
+                        scanSettings.autoFocus = call.getBoolean("autoFocus", currentScanSettings.autoFocus);
+                        scanSettings.adaptiveFormats = call.getBoolean("adaptiveFormats", currentScanSettings.adaptiveFormats);
+                        scanSettings.recordScanHistory = call.getBoolean("recordScanHistory", currentScanSettings.recordScanHistory);
+                        scanSettings.catalogMode =
+                            catalogModeOption == null
+                                ? currentScanSettings.catalogMode
+                                : BarcodeScannerHelper.convertStringToCatalogMode(catalogModeOption);
+                        scanSettings.decoderEngine =
+                            decoderEngineOption == null
+                                ? currentScanSettings.decoderEngine
+                                : BarcodeScannerHelper.convertStringToDecoderEngine(decoderEngineOption);
+                        scanSettings.parseGs1 = call.getBoolean("parseGs1", currentScanSettings.parseGs1);
+                        scanSettings.frameQualityGate = call.getBoolean("frameQualityGate", currentScanSettings.frameQualityGate);
+                        scanSettings.minFrameSharpness = call.getFloat("minFrameSharpness", currentScanSettings.minFrameSharpness);
+                        scanSettings.minFrameLuma = call.getFloat("minFrameLuma", currentScanSettings.minFrameLuma);
+                        scanSettings.maxFrameLuma = call.getFloat("maxFrameLuma", currentScanSettings.maxFrameLuma);
+                        scanSettings.maxFrameClippingRatio =
+                            call.getFloat("maxFrameClippingRatio", currentScanSettings.maxFrameClippingRatio);
+                        scanSettings.twoStageDecoding = call.getBoolean("twoStageDecoding", currentScanSettings.twoStageDecoding);
+                        scanSettings.coarseMaxDimension =
+                            coarseMaxDimensionOption == null ? currentScanSettings.coarseMaxDimension : coarseMaxDimensionOption;
+                        scanSettings.skipUnchangedFrames = call.getBoolean("skipUnchangedFrames", currentScanSettings.skipUnchangedFrames);
+                        scanSettings.unchangedFrameThreshold =
+                            unchangedFrameThresholdOption == null ? currentScanSettings.unchangedFrameThreshold : unchangedFrameThresholdOption;
+                        scanSettings.maxUnchangedFrameIntervalMillis =
+                            maxUnchangedFrameIntervalOption == null
+                                ? currentScanSettings.maxUnchangedFrameIntervalMillis
+                                : maxUnchangedFrameIntervalOption;
+                        scanSettings.unchangedFrameResult =
+                            unchangedFrameResultOption == null
+                                ? currentScanSettings.unchangedFrameResult
+                                : BarcodeScannerHelper.convertStringToUnchangedFrameResult(unchangedFrameResultOption);
+                        // Options that only apply when starting a scan keep their value
+                        scanSettings.flightRecorder = currentScanSettings.flightRecorder;
+                        scanSettings.thermalGovernor = currentScanSettings.thermalGovernor;
+                        scanSettings.maxAnalysisLatencyMillis = currentScanSettings.maxAnalysisLatencyMillis;
+                        scanSettings.recoveredAnalysisLatencyMillis = currentScanSettings.recoveredAnalysisLatencyMillis;
+                        scanSettings.motionSkipping = currentScanSettings.motionSkipping;
+                        scanSettings.maxAngularVelocity = currentScanSettings.maxAngularVelocity;
+                        scanSettings.maxLinearAcceleration = currentScanSettings.maxLinearAcceleration;
+                        scanSettings.conveyorMode = currentScanSettings.conveyorMode;
+                        scanSettings.conveyorExposureTime = currentScanSettings.conveyorExposureTime;
+                        scanSettings.conveyorFocusDistance = currentScanSettings.conveyorFocusDistance;
+                        scanSettings.deliveryMode = currentScanSettings.deliveryMode;
+                        scanSettings.webViewDelivery = currentScanSettings.webViewDelivery;
+                        scanSettings.resultQueueCapacity = currentScanSettings.resultQueueCapacity;
+                        scanSettings.resultQueueOverflowPolicy = currentScanSettings.resultQueueOverflowPolicy;
+
+                        implementation.updateScanSettings(
+                            scanSettings,
+                            new EmptyResultCallback() {
+                                @Override
+                                public void success() {
+                                    call.resolve();
+                                }
+
+                                @Override
+                                public void error(Exception exception) {
+                                    Logger.error(TAG, exception.getMessage(), exception);
+                                    call.reject(exception.getMessage());
+                                }
+                            }
+                        );
+                    }
+                );
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
     @PluginMethod
     public void stopScan(PluginCall call) {
         try {
@@ -123,6 +431,42 @@ public class BarcodeScannerPlugin extends Plugin {
         }
     }
 
+    @PluginMethod
+    public void pollBarcodes(PluginCall call) {
+        try {
+            int max = call.getInt("max", DEFAULT_MAX_POLLED_BARCODES);
+            if (max <= 0) {
+                call.reject(ERROR_MAX_INVALID);
+                return;
+            }
+            int waitMs = call.getInt("waitMs", 0);
+            if (waitMs < 0) {
+                call.reject(ERROR_WAIT_MS_INVALID);
+                return;
+            }
+
+            PollBarcodesOptions options = new PollBarcodesOptions(max, waitMs);
+            implementation.pollBarcodes(
+                options,
+                new NonEmptyResultCallback<PollBarcodesResult>() {
+                    @Override
+                    public void success(@NonNull PollBarcodesResult result) {
+                        call.resolve(result.toJSObject());
+                    }
+
+                    @Override
+                    public void error(Exception exception) {
+                        Logger.error(TAG, exception.getMessage(), exception);
+                        call.reject(exception.getMessage());
+                    }
+                }
+            );
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
     @PluginMethod
     public void readBarcodesFromImage(PluginCall call) {
         try {
@@ -135,22 +479,23 @@ public class BarcodeScannerPlugin extends Plugin {
             List<String> formatsOption = call.getArray("formats", new JSArray()).toList();
             int[] formats = BarcodeScannerHelper.convertStringsToBarcodeScannerFormats(formatsOption.toArray(new String[0]));
 
+            boolean recordScanHistory = call.getBoolean("recordScanHistory", false);
+
             ScanSettings scanSettings = new ScanSettings();
             scanSettings.formats = formats;
+            scanSettings.recordScanHistory = recordScanHistory;
+            scanSettings.parseGs1 = call.getBoolean("parseGs1", false);
+            scanSettings.decoderEngine = BarcodeScannerHelper.convertStringToDecoderEngine(call.getString("decoderEngine", "MLKIT"));
+            scanSettings.useResultCache = call.getBoolean("useResultCache", false);
 
             implementation.readBarcodesFromImage(
                 path,
                 scanSettings,
                 new ReadBarcodesFromImageResultCallback() {
                     @Override
-                    public void success(List<Barcode> barcodes) {
-                        JSArray barcodeResults = new JSArray();
-                        for (Barcode barcode : barcodes) {
-                            barcodeResults.put(BarcodeScannerHelper.createBarcodeResultForBarcode(barcode, null, null));
-                        }
-
+                    public void success(List<DecodedBarcode> barcodes, @Nullable List<Gs1ParseResult> gs1ParseResults) {
                         JSObject result = new JSObject();
-                        result.put("barcodes", barcodeResults);
+                        result.put("barcodes", createImageBarcodeResults(barcodes, gs1ParseResults));
                         call.resolve(result);
                     }
 
@@ -167,6 +512,412 @@ public class BarcodeScannerPlugin extends Plugin {
         }
     }
 
+    @PluginMethod
+    public void readBarcodesFromData(PluginCall call) {
+        try {
+            String data = call.getString("data");
+            if (data == null) {
+                call.reject(ERROR_DATA_MISSING);
+                return;
+            }
+            int dataFormat = BarcodeScannerHelper.convertStringToImageDataFormat(call.getString("dataFormat", "ENCODED"));
+            int width = call.getInt("width", 0);
+            int height = call.getInt("height", 0);
+            if (dataFormat != ImageDataConverter.DATA_FORMAT_ENCODED && (width <= 0 || height <= 0)) {
+                call.reject(ERROR_DIMENSIONS_INVALID);
+                return;
+            }
+
+            List<String> formatsOption = call.getArray("formats", new JSArray()).toList();
+            int[] formats = BarcodeScannerHelper.convertStringsToBarcodeScannerFormats(formatsOption.toArray(new String[0]));
+
+            ScanSettings scanSettings = new ScanSettings();
+            scanSettings.formats = formats;
+            scanSettings.recordScanHistory = call.getBoolean("recordScanHistory", false);
+            scanSettings.parseGs1 = call.getBoolean("parseGs1", false);
+            scanSettings.decoderEngine = BarcodeScannerHelper.convertStringToDecoderEngine(call.getString("decoderEngine", "MLKIT"));
+            // `useResultCache` is not supported, the result cache is keyed by the content of a file
+
+            ReadBarcodesFromDataOptions options = new ReadBarcodesFromDataOptions(data, dataFormat, width, height);
+            implementation.readBarcodesFromData(
+                options,
+                scanSettings,
+                new ReadBarcodesFromImageResultCallback() {
+                    @Override
+                    public void success(List<DecodedBarcode> barcodes, @Nullable List<Gs1ParseResult> gs1ParseResults) {
+                        JSObject result = new JSObject();
+                        result.put("barcodes", createImageBarcodeResults(barcodes, gs1ParseResults));
+                        call.resolve(result);
+                    }
+
+                    @Override
+                    public void error(Exception exception) {
+                        Logger.error(TAG, "readBarcodesFromData failed.", exception);
+                        call.reject(exception.getMessage());
+                    }
+                }
+            );
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void invalidateResultCache(PluginCall call) {
+        try {
+            implementation.invalidateResultCache(
+                call.getString("path"),
+                new EmptyResultCallback() {
+                    @Override
+                    public void success() {
+                        call.resolve();
+                    }
+
+                    @Override
+                    public void error(Exception exception) {
+                        Logger.error(TAG, exception.getMessage(), exception);
+                        call.reject(exception.getMessage());
+                    }
+                }
+            );
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void getResultCacheStats(PluginCall call) {
+        try {
+            implementation.getResultCacheStats(
+                new NonEmptyResultCallback<GetResultCacheStatsResult>() {
+                    @Override
+                    public void success(@NonNull GetResultCacheStatsResult result) {
+                        call.resolve(result.toJSObject());
+                    }
+
+                    @Override
+                    public void error(Exception exception) {
+                        Logger.error(TAG, exception.getMessage(), exception);
+                        call.reject(exception.getMessage());
+                    }
+                }
+            );
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void readBarcodesFromPdf(PluginCall call) {
+        try {
+            String path = call.getString("path");
+            if (path == null) {
+                call.reject(ERROR_PATH_MISSING);
+                return;
+            }
+            // Page numbers start at 1
+            JSArray pagesOption = call.getArray("pages");
+            int[] pageIndexes = null;
+            if (pagesOption != null) {
+                pageIndexes = new int[pagesOption.length()];
+                for (int i = 0; i < pageIndexes.length; i++) {
+                    pageIndexes[i] = pagesOption.getInt(i) - 1;
+                }
+            }
+            int dpi = call.getInt("dpi", DEFAULT_PDF_DPI);
+            if (dpi <= 0) {
+                call.reject(ERROR_DPI_INVALID);
+                return;
+            }
+
+            List<String> formatsOption = call.getArray("formats", new JSArray()).toList();
+            int[] formats = BarcodeScannerHelper.convertStringsToBarcodeScannerFormats(formatsOption.toArray(new String[0]));
+
+            ScanSettings scanSettings = new ScanSettings();
+            scanSettings.formats = formats;
+
+            ReadBarcodesFromPdfOptions options = new ReadBarcodesFromPdfOptions(path, pageIndexes, dpi);
+            implementation.readBarcodesFromPdf(
+                options,
+                scanSettings,
+                new NonEmptyResultCallback<ReadBarcodesFromPdfResult>() {
+                    @Override
+                    public void success(@NonNull ReadBarcodesFromPdfResult result) {
+                        call.resolve(result.toJSObject());
+                    }
+
+                    @Override
+                    public void error(Exception exception) {
+                        Logger.error(TAG, "readBarcodesFromPdf failed.", exception);
+                        call.reject(exception.getMessage());
+                    }
+                }
+            );
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void watchFolder(PluginCall call) {
+        try {
+            String path = call.getString("path");
+            if (path == null) {
+                call.reject(ERROR_PATH_MISSING);
+                return;
+            }
+
+            List<String> formatsOption = call.getArray("formats", new JSArray()).toList();
+            int[] formats = BarcodeScannerHelper.convertStringsToBarcodeScannerFormats(formatsOption.toArray(new String[0]));
+
+            ScanSettings scanSettings = new ScanSettings();
+            scanSettings.formats = formats;
+            scanSettings.recordScanHistory = call.getBoolean("recordScanHistory", false);
+            scanSettings.parseGs1 = call.getBoolean("parseGs1", false);
+            scanSettings.decoderEngine = BarcodeScannerHelper.convertStringToDecoderEngine(call.getString("decoderEngine", "MLKIT"));
+            scanSettings.useResultCache = call.getBoolean("useResultCache", false);
+
+            WatchFolderOptions options = new WatchFolderOptions(path);
+            implementation.watchFolder(
+                options,
+                scanSettings,
+                new EmptyResultCallback() {
+                    @Override
+                    public void success() {
+                        call.resolve();
+                    }
+
+                    @Override
+                    public void error(Exception exception) {
+                        Logger.error(TAG, "watchFolder failed.", exception);
+                        call.reject(exception.getMessage());
+                    }
+                }
+            );
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void stopWatchingFolder(PluginCall call) {
+        try {
+            implementation.stopWatchingFolder(
+                new EmptyResultCallback() {
+                    @Override
+                    public void success() {
+                        call.resolve();
+                    }
+
+                    @Override
+                    public void error(Exception exception) {
+                        Logger.error(TAG, "stopWatchingFolder failed.", exception);
+                        call.reject(exception.getMessage());
+                    }
+                }
+            );
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void dumpFlightRecorder(PluginCall call) {
+        try {
+            String formatOption = call.getString("format", "CSV");
+            int format;
+            if (formatOption.equals("CSV")) {
+                format = DumpFlightRecorderOptions.FORMAT_CSV;
+            } else if (formatOption.equals("BINARY")) {
+                format = DumpFlightRecorderOptions.FORMAT_BINARY;
+            } else {
+                call.reject(ERROR_FORMAT_INVALID);
+                return;
+            }
+
+            DumpFlightRecorderOptions options = new DumpFlightRecorderOptions(format);
+            implementation.dumpFlightRecorder(
+                options,
+                new NonEmptyResultCallback<DumpFlightRecorderResult>() {
+                    @Override
+                    public void success(@NonNull DumpFlightRecorderResult result) {
+                        call.resolve(result.toJSObject());
+                    }
+
+                    @Override
+                    public void error(Exception exception) {
+                        Logger.error(TAG, exception.getMessage(), exception);
+                        call.reject(exception.getMessage());
+                    }
+                }
+            );
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void startFrameRecording(PluginCall call) {
+        try {
+            int maxFrames = call.getInt("maxFrames", DEFAULT_MAX_RECORDED_FRAMES);
+            if (maxFrames <= 0) {
+                call.reject(ERROR_MAX_FRAMES_INVALID);
+                return;
+            }
+            boolean isCameraActive = implementation.isCameraActive();
+            if (!isCameraActive) {
+                call.reject(ERROR_NO_ACTIVE_SCAN_SESSION);
+                return;
+            }
+
+            StartFrameRecordingOptions options = new StartFrameRecordingOptions(maxFrames);
+            implementation.startFrameRecording(
+                options,
+                new NonEmptyResultCallback<StartFrameRecordingResult>() {
+                    @Override
+                    public void success(@NonNull StartFrameRecordingResult result) {
+                        call.resolve(result.toJSObject());
+                    }
+
+                    @Override
+                    public void error(Exception exception) {
+                        Logger.error(TAG, exception.getMessage(), exception);
+                        call.reject(exception.getMessage());
+                    }
+                }
+            );
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void stopFrameRecording(PluginCall call) {
+        try {
+            implementation.stopFrameRecording(
+                new NonEmptyResultCallback<StopFrameRecordingResult>() {
+                    @Override
+                    public void success(@NonNull StopFrameRecordingResult result) {
+                        call.resolve(result.toJSObject());
+                    }
+
+                    @Override
+                    public void error(Exception exception) {
+                        Logger.error(TAG, exception.getMessage(), exception);
+                        call.reject(exception.getMessage());
+                    }
+                }
+            );
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void queryScanHistory(PluginCall call) {
+        try {
+            String value = call.getString("value");
+            long from = call.getLong("from", 0L);
+            long to = call.getLong("to", Long.MAX_VALUE);
+            int offset = call.getInt("offset", 0);
+            int limit = call.getInt("limit", DEFAULT_SCAN_HISTORY_LIMIT);
+
+            QueryScanHistoryOptions options = new QueryScanHistoryOptions(value, from, to, offset, limit);
+            implementation.queryScanHistory(
+                options,
+                new NonEmptyResultCallback<QueryScanHistoryResult>() {
+                    @Override
+                    public void success(@NonNull QueryScanHistoryResult result) {
+                        call.resolve(result.toJSObject());
+                    }
+
+                    @Override
+                    public void error(Exception exception) {
+                        Logger.error(TAG, exception.getMessage(), exception);
+                        call.reject(exception.getMessage());
+                    }
+                }
+            );
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void clearScanHistory(PluginCall call) {
+        try {
+            implementation.clearScanHistory(
+                new EmptyResultCallback() {
+                    @Override
+                    public void success() {
+                        call.resolve();
+                    }
+
+                    @Override
+                    public void error(Exception exception) {
+                        Logger.error(TAG, exception.getMessage(), exception);
+                        call.reject(exception.getMessage());
+                    }
+                }
+            );
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void loadCatalog(PluginCall call) {
+        try {
+            String path = call.getString("path");
+            if (path == null) {
+                call.reject(ERROR_PATH_MISSING);
+                return;
+            }
+
+            LoadCatalogOptions options = new LoadCatalogOptions(path);
+            implementation.loadCatalog(
+                options,
+                new NonEmptyResultCallback<LoadCatalogResult>() {
+                    @Override
+                    public void success(@NonNull LoadCatalogResult result) {
+                        call.resolve(result.toJSObject());
+                    }
+
+                    @Override
+                    public void error(Exception exception) {
+                        Logger.error(TAG, exception.getMessage(), exception);
+                        call.reject(exception.getMessage());
+                    }
+                }
+            );
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void unloadCatalog(PluginCall call) {
+        try {
+            implementation.unloadCatalog();
+            call.resolve();
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
     @PluginMethod
     public void scan(PluginCall call) {
         try {
@@ -370,6 +1121,17 @@ public class BarcodeScannerPlugin extends Plugin {
         }
     }
 
+    @PluginMethod
+    public void getScanMetrics(PluginCall call) {
+        try {
+            GetScanMetricsResult result = implementation.getScanMetrics();
+            call.resolve(result.toJSObject());
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            call.reject(exception.getMessage());
+        }
+    }
+
     @PluginMethod
     public void openSettings(PluginCall call) {
         try {
@@ -464,11 +1226,41 @@ public class BarcodeScannerPlugin extends Plugin {
         }
     }
 
+    public void notifyBarcodeScannedListener(
+        DecodedBarcode barcode,
+        Point imageSize,
+        String scannedImage,
+        String qrImage,
+        @Nullable CatalogMatch catalogMatch,
+        @Nullable Gs1ParseResult gs1ParseResult
+    ) {
+        JSObject result = createBarcodeScannedEvent(barcode, imageSize, scannedImage, qrImage, catalogMatch, gs1ParseResult);
+        if (result != null) {
+            notifyListeners(BARCODE_SCANNED_EVENT, result);
+        }
+    }
+
+    /**
+     * Creates the payload of a `barcodeScanned` event, which is also returned by `pollBarcodes`.
+     *
+     * @return The payload or `null` if it could not be created.
+     */
     // Modified SDK: Added scannedImage and qrImage in response
-    public void notifyBarcodeScannedListener(Barcode barcode, Point imageSize, String scannedImage, String qrImage) {
+    @Nullable
+    public JSObject createBarcodeScannedEvent(
+        DecodedBarcode barcode,
+        Point imageSize,
+        String scannedImage,
+        String qrImage,
+        @Nullable CatalogMatch catalogMatch,
+        @Nullable Gs1ParseResult gs1ParseResult
+    ) {
         try {
             Point screenSize = this.getScreenSize();
             JSObject barcodeResult = BarcodeScannerHelper.createBarcodeResultForBarcode(barcode, imageSize, screenSize);
+            if (gs1ParseResult != null) {
+                BarcodeScannerHelper.putGs1ParseResult(barcodeResult, gs1ParseResult);
+            }
             
             scannedImage = scannedImage !="" ? "data:image/jpeg;base64," + scannedImage:"";
             qrImage = qrImage !="" ? "data:image/jpeg;base64," + qrImage:"";
@@ -477,8 +1269,61 @@ public class BarcodeScannerPlugin extends Plugin {
             result.put("barcode", barcodeResult);
              result.put("scannedImage", scannedImage);
             result.put("qrImage", qrImage);
+            if (catalogMatch != null) {
+                JSObject catalogResult = new JSObject();
+                catalogResult.put("known", catalogMatch.isKnown());
+                if (catalogMatch.getMetadata() != null) {
+                    catalogResult.put("metadata", catalogMatch.getMetadata());
+                }
+                result.put("catalog", catalogResult);
+            }
+            return result;
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+            return null;
+        }
+    }
 
-            notifyListeners(BARCODE_SCANNED_EVENT, result);
+    public void notifyPdfPageScannedListener(int pageIndex, List<Barcode> barcodes) {
+        try {
+            JSArray barcodeResults = new JSArray();
+            for (Barcode barcode : barcodes) {
+                barcodeResults.put(BarcodeScannerHelper.createBarcodeResultForBarcode(barcode, null, null));
+            }
+
+            JSObject result = new JSObject();
+            result.put("page", pageIndex + 1);
+            result.put("barcodes", barcodeResults);
+
+            notifyListeners(PDF_PAGE_SCANNED_EVENT, result);
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+        }
+    }
+
+    public void notifyFolderImageScannedListener(
+        String path,
+        List<DecodedBarcode> barcodes,
+        @Nullable List<Gs1ParseResult> gs1ParseResults
+    ) {
+        try {
+            JSObject result = new JSObject();
+            result.put("path", path);
+            result.put("barcodes", createImageBarcodeResults(barcodes, gs1ParseResults));
+
+            notifyListeners(FOLDER_IMAGE_SCANNED_EVENT, result);
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+        }
+    }
+
+    public void notifyFolderImageScanFailedListener(String path, String message) {
+        try {
+            JSObject result = new JSObject();
+            result.put("path", path);
+            result.put("message", message);
+
+            notifyListeners(FOLDER_IMAGE_SCAN_FAILED_EVENT, result);
         } catch (Exception exception) {
             Logger.error(TAG, exception.getMessage(), exception);
         }
@@ -495,6 +1340,18 @@ public class BarcodeScannerPlugin extends Plugin {
         }
     }
 
+    public void notifyScanDegradedListener(String level, int trimLevel) {
+        try {
+            JSObject result = new JSObject();
+            result.put("level", level);
+            result.put("trimLevel", trimLevel);
+
+            notifyListeners(SCAN_DEGRADED_EVENT, result);
+        } catch (Exception exception) {
+            Logger.error(TAG, exception.getMessage(), exception);
+        }
+    }
+
     public void notifyGoogleBarcodeScannerModuleInstallProgressListener(int state, @Nullable Integer progress) {
         try {
             JSObject result = new JSObject();
@@ -509,6 +1366,18 @@ public class BarcodeScannerPlugin extends Plugin {
         }
     }
 
+    private static JSArray createImageBarcodeResults(List<DecodedBarcode> barcodes, @Nullable List<Gs1ParseResult> gs1ParseResults) {
+        JSArray barcodeResults = new JSArray();
+        for (int i = 0; i < barcodes.size(); i++) {
+            JSObject barcodeResult = BarcodeScannerHelper.createBarcodeResultForBarcode(barcodes.get(i), null, null);
+            if (gs1ParseResults != null) {
+                BarcodeScannerHelper.putGs1ParseResult(barcodeResult, gs1ParseResults.get(i));
+            }
+            barcodeResults.put(barcodeResult);
+        }
+        return barcodeResults;
+    }
+
     /**
      * Returns the display size without navigation bar height and status bar height.
      */
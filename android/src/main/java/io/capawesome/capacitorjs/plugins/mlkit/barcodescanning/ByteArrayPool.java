@@ -0,0 +1,72 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * Reuses byte arrays of the same size, e.g. the NV21 buffers of images of the same dimensions.
+ *
+ * Arrays are handed out with exactly the requested length, so they can be wrapped as they are.
+ * At most `maxPooledCount` released arrays are kept, the least recently released ones are dropped first.
+ *
+ * Thread-safe.
+ */
+public class ByteArrayPool {
+
+    public static final int DEFAULT_MAX_POOLED_COUNT = 2;
+
+    private final int maxPooledCount;
+    private final ArrayDeque<byte[]> pooledArrays = new ArrayDeque<>();
+    private long allocationCount = 0;
+
+    public ByteArrayPool() {
+        this(DEFAULT_MAX_POOLED_COUNT);
+    }
+
+    public ByteArrayPool(int maxPooledCount) {
+        this.maxPooledCount = maxPooledCount;
+    }
+
+    /**
+     * Returns a pooled array of the given length or a new one if none is pooled. The content is undefined.
+     */
+    @NonNull
+    public synchronized byte[] acquire(int length) {
+        Iterator<byte[]> iterator = pooledArrays.iterator();
+        while (iterator.hasNext()) {
+            byte[] array = iterator.next();
+            if (array.length == length) {
+                iterator.remove();
+                return array;
+            }
+        }
+        allocationCount++;
+        return new byte[length];
+    }
+
+    /**
+     * Returns the array to the pool, it must no longer be used by the caller.
+     */
+    public synchronized void release(@NonNull byte[] array) {
+        pooledArrays.addFirst(array);
+        while (pooledArrays.size() > maxPooledCount) {
+            pooledArrays.removeLast();
+        }
+    }
+
+    public synchronized void clear() {
+        pooledArrays.clear();
+    }
+
+    public synchronized int getPooledCount() {
+        return pooledArrays.size();
+    }
+
+    /**
+     * The number of arrays that could not be taken from the pool.
+     */
+    public synchronized long getAllocationCount() {
+        return allocationCount;
+    }
+}
@@ -0,0 +1,63 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import java.util.List;
+
+/**
+ * Tries a cheap engine first and only escalates to the next engine if the cheap one decodes nothing or fails.
+ * A canceled input is never escalated.
+ */
+public class CascadeDecoderEngine implements DecoderEngine {
+
+    public static final String NAME = "CASCADE";
+
+    @NonNull
+    private final DecoderEngine fastEngine;
+
+    @NonNull
+    private final DecoderEngine fallbackEngine;
+
+    public CascadeDecoderEngine(@NonNull DecoderEngine fastEngine, @NonNull DecoderEngine fallbackEngine) {
+        this.fastEngine = fastEngine;
+        this.fallbackEngine = fallbackEngine;
+    }
+
+    @NonNull
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void decode(@NonNull DecoderInput input, @NonNull Callback callback) {
+        fastEngine.decode(
+            input,
+            new Callback() {
+                @Override
+                public void success(@NonNull List<DecodedBarcode> barcodes) {
+                    if (MeasuredDecoderEngine.isHit(barcodes) || input.isCanceled()) {
+                        callback.success(barcodes);
+                    } else {
+                        fallbackEngine.decode(input, callback);
+                    }
+                }
+
+                @Override
+                public void error(@NonNull Exception exception) {
+                    if (input.isCanceled()) {
+                        callback.error(exception);
+                        return;
+                    }
+                    // The fallback engine is the reference, errors of the fast engine are not fatal
+                    fallbackEngine.decode(input, callback);
+                }
+            }
+        );
+    }
+
+    @Override
+    public void close() {
+        fastEngine.close();
+        fallbackEngine.close();
+    }
+}
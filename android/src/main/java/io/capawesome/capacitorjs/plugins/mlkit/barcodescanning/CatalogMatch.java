@@ -0,0 +1,28 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.Nullable;
+
+/**
+ * The result of looking up a scanned barcode in the loaded catalog.
+ */
+public class CatalogMatch {
+
+    private final boolean isKnown;
+
+    @Nullable
+    private final String metadata;
+
+    public CatalogMatch(boolean isKnown, @Nullable String metadata) {
+        this.isKnown = isKnown;
+        this.metadata = metadata;
+    }
+
+    public boolean isKnown() {
+        return isKnown;
+    }
+
+    @Nullable
+    public String getMetadata() {
+        return metadata;
+    }
+}
@@ -0,0 +1,458 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.mlkit.vision.common.InputImage;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decodes high-resolution frames in two stages, so tiny barcodes are found at close to the cost of a low-resolution frame.
+ *
+ * The coarse stage decodes a downscaled copy of the luma plane and locates candidate regions,
+ * both with `BarcodeRegionLocator` and from the potential barcodes of the wrapped engine.
+ * The fine stage decodes full-resolution crops of the candidate regions that the coarse stage could not decode.
+ * Frames without a luma plane, or which are already small enough, are passed to the wrapped engine unchanged.
+ *
+ * Not thread-safe, frames must be decoded one after another.
+ */
+public class CoarseToFineDecoderEngine implements DecoderEngine {
+
+    public interface Listener {
+        /**
+         * @param regionCount The number of regions decoded in the fine stage.
+         * @param processedPixelFraction The number of decoded pixels of both stages relative to the pixels of the frame.
+         */
+        void onDecoded(long coarseStageNanos, long fineStageNanos, int regionCount, float processedPixelFraction);
+    }
+
+    public static final int DEFAULT_COARSE_MAX_DIMENSION = 640;
+    public static final int DEFAULT_MAX_REGIONS = 4;
+
+    /**
+     * The minimum padding around a region in full-resolution pixels, so the quiet zone is part of the crop.
+     */
+    private static final int MIN_REGION_PADDING = 16;
+
+    /**
+     * Regions above this fraction of the frame are left to the coarse stage, the fine stage would cost as much as the full frame.
+     */
+    private static final float MAX_REGION_FRACTION = 0.25f;
+
+    /**
+     * The value of the chroma samples of the NV21 images, which makes them gray.
+     */
+    private static final byte NEUTRAL_CHROMA = (byte) 128;
+
+    @NonNull
+    private final DecoderEngine engine;
+
+    private final int coarseMaxDimension;
+    private final int maxRegions;
+
+    @NonNull
+    private final BarcodeRegionLocator barcodeRegionLocator = new BarcodeRegionLocator();
+
+    @Nullable
+    private final Listener listener;
+
+    /**
+     * Reused for the downscaled frames, only while no coarse stage is pending.
+     */
+    @Nullable
+    private byte[] coarseBuffer;
+
+    private boolean isCoarseBufferInUse = false;
+
+    public CoarseToFineDecoderEngine(@NonNull DecoderEngine engine, int coarseMaxDimension, int maxRegions, @Nullable Listener listener) {
+        this.engine = engine;
+        this.coarseMaxDimension = coarseMaxDimension;
+        this.maxRegions = maxRegions;
+        this.listener = listener;
+    }
+
+    @NonNull
+    @Override
+    public String getName() {
+        return engine.getName();
+    }
+
+    @Override
+    public void decode(@NonNull DecoderInput input, @NonNull Callback callback) {
+        LumaPlane lumaPlane = input.getLumaPlane();
+        int factor = lumaPlane == null ? 1 : getDownscaleFactor(lumaPlane.getWidth(), lumaPlane.getHeight(), coarseMaxDimension);
+        if (lumaPlane == null || factor <= 1) {
+            engine.decode(input, callback);
+            return;
+        }
+        long startTime = System.nanoTime();
+        int coarseWidth = (lumaPlane.getWidth() / factor) & ~1;
+        int coarseHeight = (lumaPlane.getHeight() / factor) & ~1;
+        int bufferSize = coarseWidth * coarseHeight * 3 / 2;
+        byte[] coarseNv21 = coarseBuffer;
+        if (coarseNv21 == null || coarseNv21.length != bufferSize || isCoarseBufferInUse) {
+            coarseNv21 = new byte[bufferSize];
+            Arrays.fill(coarseNv21, coarseWidth * coarseHeight, bufferSize, NEUTRAL_CHROMA);
+            coarseBuffer = coarseNv21;
+        }
+        isCoarseBufferInUse = true;
+        downscale(lumaPlane, factor, coarseNv21, coarseWidth, coarseHeight);
+        List<int[]> regions = barcodeRegionLocator.locate(coarseNv21, coarseWidth, coarseHeight, maxRegions);
+        int rotationDegrees = input.getRotationDegrees();
+        byte[] coarseNv21Buffer = coarseNv21;
+        engine.decode(
+            createInput(coarseNv21, coarseWidth, coarseHeight, rotationDegrees),
+            new Callback() {
+                @Override
+                public void success(@NonNull List<DecodedBarcode> barcodes) {
+                    if (coarseNv21Buffer == coarseBuffer) {
+                        isCoarseBufferInUse = false;
+                    }
+                    long coarseStageNanos = System.nanoTime() - startTime;
+                    List<DecodedBarcode> decodedBarcodes = new ArrayList<>();
+                    List<DecodedBarcode> potentialBarcodes = new ArrayList<>();
+                    List<int[]> decodedRegions = new ArrayList<>();
+                    List<int[]> candidateRegions = new ArrayList<>();
+                    for (DecodedBarcode barcode : barcodes) {
+                        int[] region = getSensorBounds(barcode, coarseWidth, coarseHeight, rotationDegrees);
+                        DecodedBarcode mappedBarcode = mapToFrame(
+                            barcode,
+                            coarseWidth,
+                            coarseHeight,
+                            factor,
+                            0,
+                            0,
+                            lumaPlane.getWidth(),
+                            lumaPlane.getHeight(),
+                            rotationDegrees
+                        );
+                        if (barcode.getRawValue() != null) {
+                            decodedBarcodes.add(mappedBarcode);
+                            if (region != null) {
+                                decodedRegions.add(region);
+                            }
+                        } else {
+                            potentialBarcodes.add(mappedBarcode);
+                            if (region != null) {
+                                // The engine located a barcode it could not decode, which is the best candidate
+                                candidateRegions.add(region);
+                            }
+                        }
+                    }
+                    candidateRegions.addAll(regions);
+                    List<int[]> selectedRegions = new ArrayList<>();
+                    List<int[]> cropRegions = new ArrayList<>();
+                    for (int[] region : candidateRegions) {
+                        if (cropRegions.size() >= maxRegions || isOverlapping(region, decodedRegions) || isOverlapping(region, selectedRegions)) {
+                            continue;
+                        }
+                        int[] cropRegion = getCropRegion(region, factor, lumaPlane.getWidth(), lumaPlane.getHeight());
+                        if (cropRegion != null) {
+                            selectedRegions.add(region);
+                            cropRegions.add(cropRegion);
+                        }
+                    }
+                    int coarseBarcodeCount = decodedBarcodes.size();
+                    long fineStartTime = System.nanoTime();
+                    decodeRegions(
+                        input,
+                        lumaPlane,
+                        rotationDegrees,
+                        cropRegions,
+                        0,
+                        decodedBarcodes,
+                        (long) coarseWidth * coarseHeight,
+                        new FineStageCallback() {
+                            @Override
+                            public void success(long processedPixelCount) {
+                                if (decodedBarcodes.size() == coarseBarcodeCount) {
+                                    // Still located but not decoded, e.g. for auto zoom
+                                    decodedBarcodes.addAll(potentialBarcodes);
+                                }
+                                if (listener != null) {
+                                    long framePixelCount = (long) lumaPlane.getWidth() * lumaPlane.getHeight();
+                                    listener.onDecoded(
+                                        coarseStageNanos,
+                                        System.nanoTime() - fineStartTime,
+                                        cropRegions.size(),
+                                        (float) processedPixelCount / framePixelCount
+                                    );
+                                }
+                                callback.success(decodedBarcodes);
+                            }
+
+                            @Override
+                            public void error(@NonNull Exception exception) {
+                                callback.error(exception);
+                            }
+                        }
+                    );
+                }
+
+                @Override
+                public void error(@NonNull Exception exception) {
+                    if (coarseNv21Buffer == coarseBuffer) {
+                        isCoarseBufferInUse = false;
+                    }
+                    callback.error(exception);
+                }
+            }
+        );
+    }
+
+    @Override
+    public void close() {
+        engine.close();
+        coarseBuffer = null;
+    }
+
+    /**
+     * Returns the smallest integer factor that scales the longer side down to at most `maxDimension`.
+     */
+    public static int getDownscaleFactor(int width, int height, int maxDimension) {
+        int longerSide = Math.max(width, height);
+        return Math.max(1, (longerSide + maxDimension - 1) / maxDimension);
+    }
+
+    /**
+     * Writes the box-filtered luma plane into the luma part of the NV21 destination.
+     */
+    public static void downscale(@NonNull LumaPlane lumaPlane, int factor, @NonNull byte[] destination, int width, int height) {
+        int[] sums = new int[width];
+        byte[] row = new byte[width * factor];
+        int area = factor * factor;
+        for (int y = 0; y < height; y++) {
+            Arrays.fill(sums, 0);
+            for (int sourceY = y * factor; sourceY < (y + 1) * factor; sourceY++) {
+                lumaPlane.getRow(0, sourceY, row, 0, row.length);
+                for (int x = 0, index = 0; x < width; x++) {
+                    int sum = 0;
+                    for (int i = 0; i < factor; i++, index++) {
+                        sum += row[index] & 0xFF;
+                    }
+                    sums[x] += sum;
+                }
+            }
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                destination[offset + x] = (byte) (sums[x] / area);
+            }
+        }
+    }
+
+    /**
+     * Maps a barcode decoded in a scaled or cropped copy of the frame back to the upright frame.
+     *
+     * @param inputWidth The width of the copy, before rotation.
+     * @param scale The factor the copy was downscaled by.
+     * @param offsetX The left of the copy in the frame, before rotation.
+     */
+    @NonNull
+    public static DecodedBarcode mapToFrame(
+        @NonNull DecodedBarcode barcode,
+        int inputWidth,
+        int inputHeight,
+        int scale,
+        int offsetX,
+        int offsetY,
+        int frameWidth,
+        int frameHeight,
+        int rotationDegrees
+    ) {
+        int[] bounds = null;
+        int[] sensorBounds = getSensorBounds(barcode, inputWidth, inputHeight, rotationDegrees);
+        if (sensorBounds != null) {
+            bounds =
+                StripBarcodeDecoder.rotateBounds(
+                    sensorBounds[0] * scale + offsetX,
+                    sensorBounds[1] * scale + offsetY,
+                    sensorBounds[2] * scale + offsetX,
+                    sensorBounds[3] * scale + offsetY,
+                    frameWidth,
+                    frameHeight,
+                    rotationDegrees
+                );
+        }
+        int[] cornerPointCoordinates = barcode.getCornerPointCoordinates();
+        int[] mappedCornerPointCoordinates = null;
+        if (cornerPointCoordinates != null) {
+            mappedCornerPointCoordinates = new int[cornerPointCoordinates.length];
+            for (int i = 0; i + 1 < cornerPointCoordinates.length; i += 2) {
+                int x = cornerPointCoordinates[i];
+                int y = cornerPointCoordinates[i + 1];
+                int[] sensorPoint = unrotate(x, y, x, y, inputWidth, inputHeight, rotationDegrees);
+                int[] point = StripBarcodeDecoder.rotateBounds(
+                    sensorPoint[0] * scale + offsetX,
+                    sensorPoint[1] * scale + offsetY,
+                    sensorPoint[0] * scale + offsetX,
+                    sensorPoint[1] * scale + offsetY,
+                    frameWidth,
+                    frameHeight,
+                    rotationDegrees
+                );
+                mappedCornerPointCoordinates[i] = point[0];
+                mappedCornerPointCoordinates[i + 1] = point[1];
+            }
+        }
+        return new DecodedBarcode(
+            barcode.getFormat(),
+            barcode.getValueType(),
+            barcode.getRawValue(),
+            barcode.getDisplayValue(),
+            barcode.getRawBytes(),
+            bounds,
+            mappedCornerPointCoordinates
+        );
+    }
+
+    /**
+     * Returns the bounds of the barcode in the coordinates of the image before rotation, or `null` if they are unknown.
+     */
+    @Nullable
+    private static int[] getSensorBounds(@NonNull DecodedBarcode barcode, int width, int height, int rotationDegrees) {
+        int[] bounds = barcode.getBounds();
+        if (bounds == null) {
+            return null;
+        }
+        return unrotate(bounds[0], bounds[1], bounds[2], bounds[3], width, height, rotationDegrees);
+    }
+
+    /**
+     * The inverse of `StripBarcodeDecoder.rotateBounds`, for an image of the given size before rotation.
+     */
+    @NonNull
+    private static int[] unrotate(int left, int top, int right, int bottom, int width, int height, int rotationDegrees) {
+        boolean isSwapped = rotationDegrees == 90 || rotationDegrees == 270;
+        return StripBarcodeDecoder.rotateBounds(
+            left,
+            top,
+            right,
+            bottom,
+            isSwapped ? height : width,
+            isSwapped ? width : height,
+            (360 - rotationDegrees) % 360
+        );
+    }
+
+    /**
+     * Scales a region of the downscaled frame up to the frame and pads it.
+     * Returns `null` if the region is too large to be worth a fine stage.
+     */
+    @Nullable
+    private static int[] getCropRegion(@NonNull int[] region, int factor, int frameWidth, int frameHeight) {
+        int width = (region[2] - region[0]) * factor;
+        int height = (region[3] - region[1]) * factor;
+        int padding = Math.max(MIN_REGION_PADDING, Math.max(width, height) / 4);
+        // Even coordinates and sizes, as required by NV21
+        int left = Math.max(0, region[0] * factor - padding) & ~1;
+        int top = Math.max(0, region[1] * factor - padding) & ~1;
+        int right = Math.min(frameWidth, region[2] * factor + padding) & ~1;
+        int bottom = Math.min(frameHeight, region[3] * factor + padding) & ~1;
+        long area = (long) (right - left) * (bottom - top);
+        if (right <= left || bottom <= top || area > MAX_REGION_FRACTION * frameWidth * frameHeight) {
+            return null;
+        }
+        return new int[] { left, top, right, bottom };
+    }
+
+    private static boolean isOverlapping(@NonNull int[] region, @NonNull List<int[]> regions) {
+        for (int[] other : regions) {
+            if (region[0] < other[2] && other[0] < region[2] && region[1] < other[3] && other[1] < region[3]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private interface FineStageCallback {
+        void success(long processedPixelCount);
+        void error(@NonNull Exception exception);
+    }
+
+    /**
+     * Decodes the crop regions one after another and adds the barcodes that were not decoded yet.
+     * The remaining regions are skipped once the input is canceled.
+     */
+    private void decodeRegions(
+        @NonNull DecoderInput input,
+        @NonNull LumaPlane lumaPlane,
+        int rotationDegrees,
+        @NonNull List<int[]> cropRegions,
+        int index,
+        @NonNull List<DecodedBarcode> decodedBarcodes,
+        long processedPixelCount,
+        @NonNull FineStageCallback callback
+    ) {
+        if (index >= cropRegions.size() || input.isCanceled()) {
+            callback.success(processedPixelCount);
+            return;
+        }
+        int[] cropRegion = cropRegions.get(index);
+        int width = cropRegion[2] - cropRegion[0];
+        int height = cropRegion[3] - cropRegion[1];
+        byte[] nv21 = new byte[width * height * 3 / 2];
+        for (int y = 0; y < height; y++) {
+            lumaPlane.getRow(cropRegion[0], cropRegion[1] + y, nv21, y * width, width);
+        }
+        Arrays.fill(nv21, width * height, nv21.length, NEUTRAL_CHROMA);
+        engine.decode(
+            createInput(nv21, width, height, rotationDegrees),
+            new Callback() {
+                @Override
+                public void success(@NonNull List<DecodedBarcode> barcodes) {
+                    for (DecodedBarcode barcode : barcodes) {
+                        if (barcode.getRawValue() == null || isDecoded(barcode, decodedBarcodes)) {
+                            continue;
+                        }
+                        decodedBarcodes.add(
+                            mapToFrame(
+                                barcode,
+                                width,
+                                height,
+                                1,
+                                cropRegion[0],
+                                cropRegion[1],
+                                lumaPlane.getWidth(),
+                                lumaPlane.getHeight(),
+                                rotationDegrees
+                            )
+                        );
+                    }
+                    decodeRegions(
+                        input,
+                        lumaPlane,
+                        rotationDegrees,
+                        cropRegions,
+                        index + 1,
+                        decodedBarcodes,
+                        processedPixelCount + (long) width * height,
+                        callback
+                    );
+                }
+
+                @Override
+                public void error(@NonNull Exception exception) {
+                    callback.error(exception);
+                }
+            }
+        );
+    }
+
+    private static boolean isDecoded(@NonNull DecodedBarcode barcode, @NonNull List<DecodedBarcode> decodedBarcodes) {
+        for (DecodedBarcode decodedBarcode : decodedBarcodes) {
+            if (decodedBarcode.getFormat() == barcode.getFormat() && barcode.getRawValue().equals(decodedBarcode.getRawValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @NonNull
+    private static DecoderInput createInput(@NonNull byte[] nv21, int width, int height, int rotationDegrees) {
+        InputImage inputImage = InputImage.fromByteArray(nv21, width, height, rotationDegrees, InputImage.IMAGE_FORMAT_NV21);
+        LumaPlane lumaPlane = new LumaPlane(ByteBuffer.wrap(nv21), width, 1, width, height);
+        return new DecoderInput(inputImage, lumaPlane, rotationDegrees);
+    }
+}
@@ -0,0 +1,73 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Fast 64-bit fingerprint of a file's content: the size, the modification time and evenly spaced samples of the bytes.
+ *
+ * Files up to `SAMPLE_COUNT * SAMPLE_SIZE` bytes are hashed completely. Larger files are only sampled,
+ * which is enough to detect replaced or re-encoded images, but not a single changed byte between samples
+ * with an unchanged modification time.
+ */
+public class ContentFingerprint {
+
+    public static final int SAMPLE_COUNT = 16;
+    public static final int SAMPLE_SIZE = 4096;
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    /**
+     * Uses absolute reads, so the position of the channel is not changed.
+     *
+     * @param modifiedTime The modification time of the file or -1 if it is not known.
+     */
+    public static long compute(@NonNull FileChannel channel, long modifiedTime) throws IOException {
+        long size = channel.size();
+        long hash = FNV_OFFSET_BASIS;
+        hash = hashLong(hash, size);
+        hash = hashLong(hash, modifiedTime);
+        ByteBuffer buffer = ByteBuffer.allocate(SAMPLE_SIZE);
+        if (size <= (long) SAMPLE_COUNT * SAMPLE_SIZE) {
+            for (long position = 0; position < size; position += SAMPLE_SIZE) {
+                hash = hashSample(channel, buffer, position, hash);
+            }
+            return hash;
+        }
+        // The first and the last sample cover the headers and trailers of the image formats
+        long lastPosition = size - SAMPLE_SIZE;
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            long position = lastPosition * i / (SAMPLE_COUNT - 1);
+            hash = hashSample(channel, buffer, position, hash);
+        }
+        return hash;
+    }
+
+    private static long hashSample(FileChannel channel, ByteBuffer buffer, long position, long hash) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+        byte[] bytes = buffer.array();
+        int length = buffer.position();
+        for (int i = 0; i < length; i++) {
+            hash ^= bytes[i] & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long hashLong(long hash, long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            hash ^= (value >>> shift) & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,146 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import android.annotation.SuppressLint;
+import android.hardware.camera2.CameraCharacteristics;
+import android.hardware.camera2.CameraMetadata;
+import android.hardware.camera2.CaptureRequest;
+import android.util.Range;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.camera.camera2.interop.Camera2CameraInfo;
+import androidx.camera.camera2.interop.Camera2Interop;
+import androidx.camera.core.CameraInfo;
+
+/**
+ * Camera2 capture request options of the conveyor mode: the highest supported frame rate,
+ * optionally a fixed short exposure and a locked focus distance.
+ *
+ * The same options are applied to the preview and the image analysis, as both share one capture session.
+ */
+public class ConveyorCaptureOptions {
+
+    @Nullable
+    private final Range<Integer> fpsRange;
+
+    @Nullable
+    private final Long exposureTimeNanos;
+
+    @Nullable
+    private final Integer sensitivity;
+
+    @Nullable
+    private final Float focusDistanceDiopters;
+
+    private ConveyorCaptureOptions(
+        @Nullable Range<Integer> fpsRange,
+        @Nullable Long exposureTimeNanos,
+        @Nullable Integer sensitivity,
+        @Nullable Float focusDistanceDiopters
+    ) {
+        this.fpsRange = fpsRange;
+        this.exposureTimeNanos = exposureTimeNanos;
+        this.sensitivity = sensitivity;
+        this.focusDistanceDiopters = focusDistanceDiopters;
+    }
+
+    /**
+     * Picks the options supported by the camera, unsupported settings are left to the camera.
+     */
+    @NonNull
+    @SuppressLint("UnsafeOptInUsageError")
+    public static ConveyorCaptureOptions create(@NonNull CameraInfo cameraInfo, @NonNull ScanSettings scanSettings) {
+        Camera2CameraInfo camera2CameraInfo = Camera2CameraInfo.from(cameraInfo);
+
+        Range<Integer> fpsRange = null;
+        Range<Integer>[] fpsRanges = camera2CameraInfo.getCameraCharacteristic(CameraCharacteristics.CONTROL_AE_AVAILABLE_TARGET_FPS_RANGES);
+        if (fpsRanges != null) {
+            int[] lowers = new int[fpsRanges.length];
+            int[] uppers = new int[fpsRanges.length];
+            for (int i = 0; i < fpsRanges.length; i++) {
+                lowers[i] = fpsRanges[i].getLower();
+                uppers[i] = fpsRanges[i].getUpper();
+            }
+            int index = selectFpsRange(lowers, uppers);
+            fpsRange = index == -1 ? null : fpsRanges[index];
+        }
+
+        Long exposureTimeNanos = null;
+        Integer sensitivity = null;
+        Range<Long> exposureTimeRange = camera2CameraInfo.getCameraCharacteristic(CameraCharacteristics.SENSOR_INFO_EXPOSURE_TIME_RANGE);
+        Range<Integer> sensitivityRange = camera2CameraInfo.getCameraCharacteristic(CameraCharacteristics.SENSOR_INFO_SENSITIVITY_RANGE);
+        if (scanSettings.conveyorExposureTime != null && exposureTimeRange != null && sensitivityRange != null) {
+            exposureTimeNanos = exposureTimeRange.clamp(scanSettings.conveyorExposureTime * 1_000L);
+            // A short exposure needs all the gain it can get, digital gain above the analog maximum only adds noise
+            Integer maxAnalogSensitivity = camera2CameraInfo.getCameraCharacteristic(CameraCharacteristics.SENSOR_MAX_ANALOG_SENSITIVITY);
+            sensitivity = sensitivityRange.clamp(maxAnalogSensitivity == null ? sensitivityRange.getUpper() : maxAnalogSensitivity);
+        }
+
+        Float focusDistanceDiopters = null;
+        Float minimumFocusDistance = camera2CameraInfo.getCameraCharacteristic(CameraCharacteristics.LENS_INFO_MINIMUM_FOCUS_DISTANCE);
+        if (scanSettings.conveyorFocusDistance != null && minimumFocusDistance != null && minimumFocusDistance > 0) {
+            // Fixed-focus cameras report a minimum focus distance of 0
+            focusDistanceDiopters = toDiopters(scanSettings.conveyorFocusDistance, minimumFocusDistance);
+        }
+        return new ConveyorCaptureOptions(fpsRange, exposureTimeNanos, sensitivity, focusDistanceDiopters);
+    }
+
+    /**
+     * Returns the index of the range with the highest upper bound, preferring fixed ranges,
+     * since a lower bound below the upper one lets the auto exposure lengthen the exposure time.
+     * Returns -1 if there are no ranges.
+     */
+    public static int selectFpsRange(@NonNull int[] lowers, @NonNull int[] uppers) {
+        int index = -1;
+        for (int i = 0; i < uppers.length; i++) {
+            if (index == -1 || uppers[i] > uppers[index] || (uppers[i] == uppers[index] && lowers[i] > lowers[index])) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Converts a focus distance in meters to diopters, clamped to the range of the lens.
+     * A distance of 0 or less focuses at infinity.
+     */
+    public static float toDiopters(float distanceMeters, float minimumFocusDistanceDiopters) {
+        if (distanceMeters <= 0) {
+            return 0;
+        }
+        return Math.min(1 / distanceMeters, minimumFocusDistanceDiopters);
+    }
+
+    @SuppressLint("UnsafeOptInUsageError")
+    public <T> void applyTo(@NonNull Camera2Interop.Extender<T> extender) {
+        if (fpsRange != null) {
+            extender.setCaptureRequestOption(CaptureRequest.CONTROL_AE_TARGET_FPS_RANGE, fpsRange);
+        }
+        if (exposureTimeNanos != null && sensitivity != null) {
+            extender.setCaptureRequestOption(CaptureRequest.CONTROL_AE_MODE, CameraMetadata.CONTROL_AE_MODE_OFF);
+            extender.setCaptureRequestOption(CaptureRequest.SENSOR_EXPOSURE_TIME, exposureTimeNanos);
+            extender.setCaptureRequestOption(CaptureRequest.SENSOR_SENSITIVITY, sensitivity);
+            if (fpsRange != null) {
+                // Without auto exposure the target frame rate is ignored and the frame duration applies
+                extender.setCaptureRequestOption(CaptureRequest.SENSOR_FRAME_DURATION, 1_000_000_000L / fpsRange.getUpper());
+            }
+        }
+        if (focusDistanceDiopters != null) {
+            extender.setCaptureRequestOption(CaptureRequest.CONTROL_AF_MODE, CameraMetadata.CONTROL_AF_MODE_OFF);
+            extender.setCaptureRequestOption(CaptureRequest.LENS_FOCUS_DISTANCE, focusDistanceDiopters);
+        }
+    }
+
+    /**
+     * Returns the requested frame rate, or 0 if it is left to the camera.
+     */
+    public int getTargetFrameRate() {
+        return fpsRange == null ? 0 : fpsRange.getUpper();
+    }
+
+    /**
+     * Whether or not the focus is locked, in which case the auto focus controller must not trigger focus actions.
+     */
+    public boolean isFocusLocked() {
+        return focusDistanceDiopters != null;
+    }
+}
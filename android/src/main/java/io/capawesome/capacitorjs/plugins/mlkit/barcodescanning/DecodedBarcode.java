@@ -0,0 +1,142 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import android.graphics.Point;
+import android.graphics.Rect;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.mlkit.vision.barcode.common.Barcode;
+
+/**
+ * A barcode found by any `DecoderEngine`.
+ *
+ * Coordinates are relative to the upright image, as with ML Kit.
+ */
+public class DecodedBarcode {
+
+    @Barcode.BarcodeFormat
+    private final int format;
+
+    @Barcode.BarcodeValueType
+    private final int valueType;
+
+    @Nullable
+    private final String rawValue;
+
+    @Nullable
+    private final String displayValue;
+
+    @Nullable
+    private final byte[] rawBytes;
+
+    /**
+     * Left, top, right and bottom.
+     */
+    @Nullable
+    private final int[] bounds;
+
+    /**
+     * The x and y coordinates of the corner points, clockwise from the top left.
+     */
+    @Nullable
+    private final int[] cornerPointCoordinates;
+
+    public DecodedBarcode(
+        int format,
+        int valueType,
+        @Nullable String rawValue,
+        @Nullable String displayValue,
+        @Nullable byte[] rawBytes,
+        @Nullable int[] bounds,
+        @Nullable int[] cornerPointCoordinates
+    ) {
+        this.format = format;
+        this.valueType = valueType;
+        this.rawValue = rawValue;
+        this.displayValue = displayValue;
+        this.rawBytes = rawBytes;
+        this.bounds = bounds;
+        this.cornerPointCoordinates = cornerPointCoordinates;
+    }
+
+    @NonNull
+    public static DecodedBarcode fromBarcode(@NonNull Barcode barcode) {
+        Rect boundingBox = barcode.getBoundingBox();
+        int[] bounds = boundingBox == null
+            ? null
+            : new int[] { boundingBox.left, boundingBox.top, boundingBox.right, boundingBox.bottom };
+        Point[] cornerPoints = barcode.getCornerPoints();
+        int[] cornerPointCoordinates = null;
+        if (cornerPoints != null) {
+            cornerPointCoordinates = new int[cornerPoints.length * 2];
+            for (int i = 0; i < cornerPoints.length; i++) {
+                cornerPointCoordinates[i * 2] = cornerPoints[i].x;
+                cornerPointCoordinates[i * 2 + 1] = cornerPoints[i].y;
+            }
+        }
+        return new DecodedBarcode(
+            barcode.getFormat(),
+            barcode.getValueType(),
+            barcode.getRawValue(),
+            barcode.getDisplayValue(),
+            barcode.getRawBytes(),
+            bounds,
+            cornerPointCoordinates
+        );
+    }
+
+    public int getFormat() {
+        return format;
+    }
+
+    public int getValueType() {
+        return valueType;
+    }
+
+    /**
+     * Returns `null` for potential barcodes that were located but could not be decoded.
+     */
+    @Nullable
+    public String getRawValue() {
+        return rawValue;
+    }
+
+    @Nullable
+    public String getDisplayValue() {
+        return displayValue;
+    }
+
+    @Nullable
+    public byte[] getRawBytes() {
+        return rawBytes;
+    }
+
+    @Nullable
+    public int[] getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Returns the x and y coordinates of the corner points.
+     */
+    @Nullable
+    public int[] getCornerPointCoordinates() {
+        return cornerPointCoordinates;
+    }
+
+    @Nullable
+    public Rect getBoundingBox() {
+        return bounds == null ? null : new Rect(bounds[0], bounds[1], bounds[2], bounds[3]);
+    }
+
+    @Nullable
+    public Point[] getCornerPoints() {
+        if (cornerPointCoordinates == null) {
+            return null;
+        }
+        Point[] cornerPoints = new Point[cornerPointCoordinates.length / 2];
+        for (int i = 0; i < cornerPoints.length; i++) {
+            cornerPoints[i] = new Point(cornerPointCoordinates[i * 2], cornerPointCoordinates[i * 2 + 1]);
+        }
+        return cornerPoints;
+    }
+}
@@ -0,0 +1,28 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import java.util.List;
+
+/**
+ * A barcode decoder used by the live scan and by `readBarcodesFromImage`.
+ */
+public interface DecoderEngine {
+    interface Callback {
+        void success(@NonNull List<DecodedBarcode> barcodes);
+        void error(@NonNull Exception exception);
+    }
+
+    /**
+     * The name the metrics of the engine are reported with.
+     */
+    @NonNull
+    String getName();
+
+    /**
+     * Decodes the input and calls back exactly once, either synchronously or later on the main thread.
+     * The input must stay valid until then.
+     */
+    void decode(@NonNull DecoderInput input, @NonNull Callback callback);
+
+    void close();
+}
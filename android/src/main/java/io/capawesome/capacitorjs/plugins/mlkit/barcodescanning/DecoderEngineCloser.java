@@ -0,0 +1,85 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Closes replaced decoder engines, an engine that is decoding a frame is closed once its last frame is finished.
+ *
+ * Must be used on the thread that analyzes the frames (UI thread).
+ */
+public class DecoderEngineCloser {
+
+    // The engines that are decoding frames, mapped to the number of their frames
+    private final IdentityHashMap<DecoderEngine, Integer> analyzingDecoderEngines = new IdentityHashMap<>();
+    private final List<DecoderEngine> retiredDecoderEngines = new ArrayList<>();
+
+    public void startFrame(@NonNull DecoderEngine decoderEngine) {
+        Integer frameCount = analyzingDecoderEngines.get(decoderEngine);
+        analyzingDecoderEngines.put(decoderEngine, frameCount == null ? 1 : frameCount + 1);
+    }
+
+    /**
+     * Closes the engine if it was retired while decoding and this was its last frame.
+     */
+    public void finishFrame(@NonNull DecoderEngine decoderEngine) {
+        Integer frameCount = analyzingDecoderEngines.get(decoderEngine);
+        if (frameCount == null) {
+            return;
+        }
+        if (frameCount > 1) {
+            analyzingDecoderEngines.put(decoderEngine, frameCount - 1);
+            return;
+        }
+        analyzingDecoderEngines.remove(decoderEngine);
+        if (removeRetired(decoderEngine)) {
+            decoderEngine.close();
+        }
+    }
+
+    /**
+     * Closes the engine, or retires it if it is decoding a frame.
+     */
+    public void close(@Nullable DecoderEngine decoderEngine) {
+        if (decoderEngine == null) {
+            return;
+        }
+        if (!analyzingDecoderEngines.containsKey(decoderEngine)) {
+            decoderEngine.close();
+        } else if (!isRetired(decoderEngine)) {
+            retiredDecoderEngines.add(decoderEngine);
+        }
+    }
+
+    /**
+     * Closes the engine and the probe engine of the adaptive formats, which may be the same object.
+     */
+    public void close(@Nullable DecoderEngine decoderEngine, @Nullable DecoderEngine probeDecoderEngine) {
+        close(decoderEngine);
+        if (probeDecoderEngine != decoderEngine) {
+            close(probeDecoderEngine);
+        }
+    }
+
+    private boolean isRetired(DecoderEngine decoderEngine) {
+        for (DecoderEngine retiredDecoderEngine : retiredDecoderEngines) {
+            if (retiredDecoderEngine == decoderEngine) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean removeRetired(DecoderEngine decoderEngine) {
+        for (int i = 0; i < retiredDecoderEngines.size(); i++) {
+            if (retiredDecoderEngines.get(i) == decoderEngine) {
+                retiredDecoderEngines.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+}
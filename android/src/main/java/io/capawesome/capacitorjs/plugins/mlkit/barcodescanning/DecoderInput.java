@@ -0,0 +1,70 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.Nullable;
+import com.google.mlkit.vision.common.InputImage;
+
+/**
+ * An image to decode, in the representations the engines need.
+ * Engines that need a representation which is not available find nothing.
+ */
+public class DecoderInput {
+
+    public interface CancellationCheck {
+        boolean isCanceled();
+    }
+
+    @Nullable
+    private final InputImage inputImage;
+
+    @Nullable
+    private final LumaPlane lumaPlane;
+
+    private final int rotationDegrees;
+
+    @Nullable
+    private final CancellationCheck cancellationCheck;
+
+    public DecoderInput(@Nullable InputImage inputImage, @Nullable LumaPlane lumaPlane, int rotationDegrees) {
+        this(inputImage, lumaPlane, rotationDegrees, null);
+    }
+
+    /**
+     * @param cancellationCheck Tells engines with several steps to skip the remaining steps, e.g. once the scan stopped.
+     */
+    public DecoderInput(
+        @Nullable InputImage inputImage,
+        @Nullable LumaPlane lumaPlane,
+        int rotationDegrees,
+        @Nullable CancellationCheck cancellationCheck
+    ) {
+        this.inputImage = inputImage;
+        this.lumaPlane = lumaPlane;
+        this.rotationDegrees = rotationDegrees;
+        this.cancellationCheck = cancellationCheck;
+    }
+
+    @Nullable
+    public InputImage getInputImage() {
+        return inputImage;
+    }
+
+    @Nullable
+    public LumaPlane getLumaPlane() {
+        return lumaPlane;
+    }
+
+    /**
+     * The clockwise rotation that makes the image upright.
+     */
+    public int getRotationDegrees() {
+        return rotationDegrees;
+    }
+
+    /**
+     * Returns whether or not the result is no longer needed.
+     * Engines may then call back with what they found so far.
+     */
+    public boolean isCanceled() {
+        return cancellationCheck != null && cancellationCheck.isCanceled();
+    }
+}
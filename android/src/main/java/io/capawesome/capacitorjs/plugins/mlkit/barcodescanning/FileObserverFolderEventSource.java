@@ -0,0 +1,50 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import android.os.FileObserver;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.io.File;
+
+/**
+ * Observes the files that are closed after writing or moved into the folder with `FileObserver`.
+ */
+public class FileObserverFolderEventSource implements FolderEventSource {
+
+    private static final int OBSERVED_EVENTS = FileObserver.CLOSE_WRITE | FileObserver.MOVED_TO;
+
+    @NonNull
+    private final File directory;
+
+    // Kept as a field, the observer stops watching once it is garbage collected
+    @Nullable
+    private FileObserver fileObserver;
+
+    public FileObserverFolderEventSource(@NonNull File directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public void start(@NonNull Listener listener) {
+        if (fileObserver != null) {
+            return;
+        }
+        fileObserver =
+            new FileObserver(directory.getPath(), OBSERVED_EVENTS) {
+                @Override
+                public void onEvent(int event, @Nullable String path) {
+                    if ((event & OBSERVED_EVENTS) != 0 && path != null) {
+                        listener.onFileChanged(path);
+                    }
+                }
+            };
+        fileObserver.startWatching();
+    }
+
+    @Override
+    public void close() {
+        if (fileObserver != null) {
+            fileObserver.stopWatching();
+            fileObserver = null;
+        }
+    }
+}
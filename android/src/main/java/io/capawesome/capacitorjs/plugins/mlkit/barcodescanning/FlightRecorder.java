@@ -0,0 +1,238 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size ring buffer of per-frame timings of the analyzer.
+ *
+ * Frames are written by a single thread (the analyzer) while the ring can be dumped from any thread.
+ * Every slot carries the sequence number of its record, which the reader checks before and after
+ * reading the fields, so records that are overwritten while being read are skipped instead of locking.
+ *
+ * Only one frame can be recorded at a time, which matches the analyzer keeping only the latest frame.
+ */
+public class FlightRecorder {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    public static final int DROP_REASON_NONE = 0;
+    public static final int DROP_REASON_QUALITY_GATE = 1;
+    public static final int DROP_REASON_ERROR = 2;
+    public static final int DROP_REASON_SESSION_STOPPED = 3;
+    /**
+     * The frame was not decoded because it is nearly identical to the last analyzed frame.
+     */
+    public static final int DROP_REASON_UNCHANGED = 4;
+    /**
+     * The frame was taken while the device moved too fast, see `MotionEstimator`.
+     */
+    public static final int DROP_REASON_MOTION = 5;
+
+    public static final int FIELD_SEQUENCE = 0;
+    public static final int FIELD_FRAME_TIMESTAMP = 1;
+    public static final int FIELD_RECEIVED_AT = 2;
+    public static final int FIELD_INFERENCE_STARTED_AT = 3;
+    public static final int FIELD_INFERENCE_ENDED_AT = 4;
+    public static final int FIELD_ENCODE_DURATION = 5;
+    public static final int FIELD_EMITTED_AT = 6;
+    public static final int FIELD_BARCODE_COUNT = 7;
+    public static final int FIELD_DROP_REASON = 8;
+    public static final int FIELD_HEAP_USED = 9;
+    public static final int FIELD_COUNT = 10;
+
+    /**
+     * Column names of the CSV dump, times are in nanoseconds of `System.nanoTime()`.
+     */
+    public static final String[] FIELD_NAMES = new String[] {
+        "sequence",
+        "frameTimestamp",
+        "receivedAt",
+        "inferenceStartedAt",
+        "inferenceEndedAt",
+        "encodeDuration",
+        "emittedAt",
+        "barcodeCount",
+        "dropReason",
+        "heapUsed"
+    };
+
+    /**
+     * `BSFR` followed by the format version.
+     */
+    public static final int BINARY_MAGIC = 0x42534652;
+    public static final int BINARY_VERSION = 1;
+
+    private static final long SLOT_WRITING = -1;
+
+    private final int capacity;
+    private final AtomicLongArray records;
+    private final AtomicLongArray slotSequences;
+    private final AtomicLong writtenCount = new AtomicLong();
+
+    // The frame being recorded, only accessed by the writer
+    private final long[] frame = new long[FIELD_COUNT];
+    private boolean isFrameStarted = false;
+
+    public FlightRecorder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public FlightRecorder(int capacity) {
+        this.capacity = capacity;
+        this.records = new AtomicLongArray(capacity * FIELD_COUNT);
+        this.slotSequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slotSequences.set(i, SLOT_WRITING);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of frames recorded since the recorder was created, including overwritten ones.
+     */
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public void startFrame(long frameTimestamp, long receivedAt) {
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            frame[i] = 0;
+        }
+        frame[FIELD_FRAME_TIMESTAMP] = frameTimestamp;
+        frame[FIELD_RECEIVED_AT] = receivedAt;
+        isFrameStarted = true;
+    }
+
+    public void markInferenceStarted(long time) {
+        frame[FIELD_INFERENCE_STARTED_AT] = time;
+    }
+
+    public void markInferenceEnded(long time) {
+        frame[FIELD_INFERENCE_ENDED_AT] = time;
+    }
+
+    /**
+     * Adds the time spent encoding the image of a barcode, called once per barcode.
+     */
+    public void addEncodeDuration(long duration) {
+        frame[FIELD_ENCODE_DURATION] += duration;
+    }
+
+    /**
+     * Called once per barcode that was emitted.
+     */
+    public void markEmitted(long time) {
+        frame[FIELD_EMITTED_AT] = time;
+        frame[FIELD_BARCODE_COUNT]++;
+    }
+
+    /**
+     * Returns the sequence number the current frame is published with.
+     */
+    public long getFrameSequence() {
+        return writtenCount.get();
+    }
+
+    /**
+     * Publishes the current frame to the ring.
+     */
+    public void finishFrame(int dropReason, long heapUsed) {
+        if (!isFrameStarted) {
+            return;
+        }
+        isFrameStarted = false;
+        long sequence = writtenCount.get();
+        int slot = (int) (sequence % capacity);
+        int offset = slot * FIELD_COUNT;
+        frame[FIELD_SEQUENCE] = sequence;
+        frame[FIELD_DROP_REASON] = dropReason;
+        frame[FIELD_HEAP_USED] = heapUsed;
+        slotSequences.set(slot, SLOT_WRITING);
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            records.set(offset + i, frame[i]);
+        }
+        slotSequences.set(slot, sequence);
+        writtenCount.set(sequence + 1);
+    }
+
+    /**
+     * Copies the records in the ring, from oldest to newest, into `target`
+     * (`FIELD_COUNT` values per record) and returns the number of copied records.
+     */
+    public int snapshot(@NonNull long[] target) {
+        long end = writtenCount.get();
+        long start = Math.max(0, end - capacity);
+        int count = 0;
+        for (long sequence = start; sequence < end && (count + 1) * FIELD_COUNT <= target.length; sequence++) {
+            int slot = (int) (sequence % capacity);
+            int offset = slot * FIELD_COUNT;
+            if (slotSequences.get(slot) != sequence) {
+                continue;
+            }
+            for (int i = 0; i < FIELD_COUNT; i++) {
+                target[count * FIELD_COUNT + i] = records.get(offset + i);
+            }
+            // Skip the record if it was overwritten while being copied
+            if (slotSequences.get(slot) != sequence) {
+                continue;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Writes the records as CSV with a header line and returns the number of written records.
+     */
+    public int writeCsv(@NonNull OutputStream outputStream) throws IOException {
+        long[] snapshot = new long[capacity * FIELD_COUNT];
+        int count = snapshot(snapshot);
+        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.US_ASCII);
+        writer.write(String.join(",", FIELD_NAMES));
+        writer.write('\n');
+        StringBuilder line = new StringBuilder();
+        for (int record = 0; record < count; record++) {
+            line.setLength(0);
+            for (int i = 0; i < FIELD_COUNT; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                line.append(snapshot[record * FIELD_COUNT + i]);
+            }
+            line.append('\n');
+            writer.write(line.toString());
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Writes the records in a compact binary format and returns the number of written records:
+     * magic, version, field count and record count as big-endian ints, followed by the records as big-endian longs.
+     */
+    public int writeBinary(@NonNull OutputStream outputStream) throws IOException {
+        long[] snapshot = new long[capacity * FIELD_COUNT];
+        int count = snapshot(snapshot);
+        DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+        dataOutputStream.writeInt(BINARY_MAGIC);
+        dataOutputStream.writeInt(BINARY_VERSION);
+        dataOutputStream.writeInt(FIELD_COUNT);
+        dataOutputStream.writeInt(count);
+        for (int i = 0; i < count * FIELD_COUNT; i++) {
+            dataOutputStream.writeLong(snapshot[i]);
+        }
+        dataOutputStream.flush();
+        return count;
+    }
+}
@@ -0,0 +1,141 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import androidx.camera.core.CameraControl;
+import androidx.camera.core.FocusMeteringAction;
+import androidx.camera.core.MeteringPoint;
+import androidx.camera.core.MeteringPointFactory;
+import androidx.camera.core.SurfaceOrientedMeteringPointFactory;
+
+/**
+ * Triggers focus and metering on barcodes that were located but not decoded yet.
+ *
+ * All coordinates are in the upright frame coordinate system of ML Kit.
+ */
+public class FocusMeteringController {
+
+    public static final long DEFAULT_MIN_INTERVAL_MILLIS = 1500;
+    /**
+     * A barcode is considered gone after no barcode has been seen for this long.
+     */
+    public static final long BARCODE_TIMEOUT_MILLIS = 1000;
+    /**
+     * The minimum size of the metering region relative to the frame.
+     */
+    public static final float MIN_METERING_POINT_SIZE = 0.1f;
+
+    @NonNull
+    private final CameraControl cameraControl;
+
+    @NonNull
+    private final ScanMetrics scanMetrics;
+
+    private long minIntervalMillis = DEFAULT_MIN_INTERVAL_MILLIS;
+    private long lastFocusAtMillis = Long.MIN_VALUE;
+
+    // State of the barcode currently in view
+    private boolean isBarcodeInView = false;
+    private boolean isBarcodeDecoded = false;
+    private boolean isBarcodeFocused = false;
+    private long barcodeFirstSeenAtMillis;
+    private long barcodeLastSeenAtMillis;
+
+    public FocusMeteringController(@NonNull CameraControl cameraControl, @NonNull ScanMetrics scanMetrics) {
+        this.cameraControl = cameraControl;
+        this.scanMetrics = scanMetrics;
+    }
+
+    public void setMinIntervalMillis(long minIntervalMillis) {
+        this.minIntervalMillis = minIntervalMillis;
+    }
+
+    /**
+     * Called for a barcode that was located but not (yet) decoded.
+     */
+    public void handleCandidate(
+        int frameWidth,
+        int frameHeight,
+        int boxLeft,
+        int boxTop,
+        int boxWidth,
+        int boxHeight,
+        int rotationDegrees,
+        long timestampMillis
+    ) {
+        if (frameWidth <= 0 || frameHeight <= 0) {
+            return;
+        }
+        markBarcodeSeen(timestampMillis);
+        if (isBarcodeDecoded) {
+            return;
+        }
+        if (lastFocusAtMillis != Long.MIN_VALUE && timestampMillis - lastFocusAtMillis < minIntervalMillis) {
+            return;
+        }
+        float x = (boxLeft + boxWidth / 2f) / frameWidth;
+        float y = (boxTop + boxHeight / 2f) / frameHeight;
+        float size = Math.max(MIN_METERING_POINT_SIZE, Math.max((float) boxWidth / frameWidth, (float) boxHeight / frameHeight));
+        float[] point = convertUprightPointToSensorPoint(x, y, rotationDegrees);
+        lastFocusAtMillis = timestampMillis;
+        isBarcodeFocused = true;
+        scanMetrics.recordFocusAction();
+        startFocusAndMetering(point[0], point[1], Math.min(size, 1f));
+    }
+
+    /**
+     * Called when a barcode was decoded.
+     */
+    public void handleRead(long timestampMillis) {
+        markBarcodeSeen(timestampMillis);
+        if (isBarcodeDecoded) {
+            return;
+        }
+        isBarcodeDecoded = true;
+        scanMetrics.recordDecodeLatency(timestampMillis - barcodeFirstSeenAtMillis, isBarcodeFocused);
+    }
+
+    /**
+     * Called for an analyzed frame without any barcode.
+     */
+    public void handleEmptyFrame(long timestampMillis) {
+        if (isBarcodeInView && timestampMillis - barcodeLastSeenAtMillis >= BARCODE_TIMEOUT_MILLIS) {
+            isBarcodeInView = false;
+        }
+    }
+
+    /**
+     * Converts a normalized point of the upright image to a normalized point of the sensor image.
+     *
+     * @param rotationDegrees The clockwise rotation needed to turn the sensor image upright.
+     */
+    public static float[] convertUprightPointToSensorPoint(float x, float y, int rotationDegrees) {
+        switch (rotationDegrees) {
+            case 90:
+                return new float[] { y, 1f - x };
+            case 180:
+                return new float[] { 1f - x, 1f - y };
+            case 270:
+                return new float[] { 1f - y, x };
+            default:
+                return new float[] { x, y };
+        }
+    }
+
+    protected void startFocusAndMetering(float x, float y, float size) {
+        MeteringPointFactory meteringPointFactory = new SurfaceOrientedMeteringPointFactory(1f, 1f);
+        MeteringPoint meteringPoint = meteringPointFactory.createPoint(x, y, size);
+        int flags = FocusMeteringAction.FLAG_AF | FocusMeteringAction.FLAG_AE;
+        FocusMeteringAction action = new FocusMeteringAction.Builder(meteringPoint, flags).build();
+        cameraControl.startFocusAndMetering(action);
+    }
+
+    private void markBarcodeSeen(long timestampMillis) {
+        if (!isBarcodeInView) {
+            isBarcodeInView = true;
+            isBarcodeDecoded = false;
+            isBarcodeFocused = false;
+            barcodeFirstSeenAtMillis = timestampMillis;
+        }
+        barcodeLastSeenAtMillis = timestampMillis;
+    }
+}
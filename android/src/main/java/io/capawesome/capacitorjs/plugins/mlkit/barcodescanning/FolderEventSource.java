@@ -0,0 +1,22 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Reports the files that are written or moved into a folder to the `FolderWatcher`.
+ */
+public interface FolderEventSource {
+    interface Listener {
+        /**
+         * @param name The name of the file within the folder.
+         */
+        void onFileChanged(@NonNull String name);
+    }
+
+    /**
+     * Starts delivering the changed files to the listener, on any thread.
+     */
+    void start(@NonNull Listener listener);
+
+    void close();
+}
@@ -0,0 +1,266 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Scans the images that are written or moved into a folder, e.g. by a tethered camera or a document scanner.
+ *
+ * When started, the images already in the folder that are not in the `ProcessedFileIndex` are scanned first,
+ * so a restarted watcher only scans the images it has not seen yet. A fixed number of workers scan one image each
+ * at a time, so the memory is bounded by the number of workers. An image that changes while it is scanned
+ * is scanned again once the running scan is finished. Images that could not be scanned are not recorded
+ * in the index and are retried when they change or the watcher is restarted.
+ */
+public class FolderWatcher {
+
+    public static final String[] IMAGE_FILE_EXTENSIONS = new String[] { "jpg", "jpeg", "png", "webp", "bmp", "gif", "heic", "heif" };
+
+    public interface ImageScanner {
+        /**
+         * Scans the image and calls back on any thread.
+         */
+        void scan(@NonNull File file, @NonNull ReadBarcodesFromImageResultCallback callback) throws Exception;
+    }
+
+    public interface Listener {
+        /**
+         * Called on a worker thread for each scanned image.
+         */
+        void onImageScanned(@NonNull File file, @NonNull List<DecodedBarcode> barcodes, @Nullable List<Gs1ParseResult> gs1ParseResults);
+
+        /**
+         * Called on a worker thread for each image that could not be scanned.
+         */
+        void onImageScanFailed(@NonNull File file, @NonNull Exception exception);
+
+        /**
+         * Called on any thread if the `ProcessedFileIndex` could not be updated or closed.
+         */
+        void onIndexFailed(@NonNull Exception exception);
+    }
+
+    private static final class ScanOutcome {
+
+        @Nullable
+        private List<DecodedBarcode> barcodes;
+
+        @Nullable
+        private List<Gs1ParseResult> gs1ParseResults;
+
+        @Nullable
+        private Exception exception;
+    }
+
+    @NonNull
+    private final File directory;
+
+    @NonNull
+    private final FolderEventSource folderEventSource;
+
+    @NonNull
+    private final ProcessedFileIndex processedFileIndex;
+
+    @NonNull
+    private final ImageScanner imageScanner;
+
+    @NonNull
+    private final Listener listener;
+
+    @NonNull
+    private final ExecutorService executor;
+
+    // The names of the queued or running images, mapped to whether or not they changed in the meantime
+    private final HashMap<String, Boolean> pendingFiles = new HashMap<>();
+
+    private volatile boolean isStopped = false;
+
+    public FolderWatcher(
+        @NonNull File directory,
+        @NonNull FolderEventSource folderEventSource,
+        @NonNull ProcessedFileIndex processedFileIndex,
+        int workerCount,
+        @NonNull ImageScanner imageScanner,
+        @NonNull Listener listener
+    ) {
+        this.directory = directory;
+        this.folderEventSource = folderEventSource;
+        this.processedFileIndex = processedFileIndex;
+        this.imageScanner = imageScanner;
+        this.listener = listener;
+        this.executor = Executors.newFixedThreadPool(workerCount);
+    }
+
+    /**
+     * Starts watching the folder and queues the images that were added while the folder was not watched.
+     */
+    public void start() {
+        // Watch first, so no image is missed between the listing and the start
+        folderEventSource.start(this::handleFile);
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        List<String> names = new ArrayList<>(files.length);
+        for (File file : files) {
+            names.add(file.getName());
+        }
+        try {
+            processedFileIndex.retainAll(names);
+        } catch (Exception exception) {
+            listener.onIndexFailed(exception);
+        }
+        for (String name : names) {
+            handleFile(name);
+        }
+    }
+
+    /**
+     * Stops watching the folder and discards the queued images. Running scans are not delivered.
+     */
+    public void stop() {
+        isStopped = true;
+        folderEventSource.close();
+        executor.shutdownNow();
+        synchronized (processedFileIndex) {
+            try {
+                processedFileIndex.close();
+            } catch (Exception exception) {
+                listener.onIndexFailed(exception);
+            }
+        }
+    }
+
+    @NonNull
+    public File getDirectory() {
+        return directory;
+    }
+
+    public static boolean isImageFileName(@NonNull String name) {
+        if (name.startsWith(".")) {
+            return false;
+        }
+        int extensionIndex = name.lastIndexOf('.');
+        if (extensionIndex < 0) {
+            return false;
+        }
+        String extension = name.substring(extensionIndex + 1).toLowerCase(Locale.ROOT);
+        for (String imageFileExtension : IMAGE_FILE_EXTENSIONS) {
+            if (imageFileExtension.equals(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Queues the image, unless it is already queued or running.
+     */
+    private void handleFile(@NonNull String name) {
+        if (isStopped || !isImageFileName(name)) {
+            return;
+        }
+        synchronized (pendingFiles) {
+            if (pendingFiles.containsKey(name)) {
+                pendingFiles.put(name, true);
+                return;
+            }
+            pendingFiles.put(name, false);
+        }
+        try {
+            executor.execute(() -> scanFile(name));
+        } catch (RejectedExecutionException exception) {
+            // Stopped in the meantime
+        }
+    }
+
+    private void scanFile(String name) {
+        try {
+            File file = new File(directory, name);
+            // Captured before scanning, so a change during the scan is not recorded as processed
+            long size = file.length();
+            long modifiedTime = file.lastModified();
+            if (!file.isFile() || processedFileIndex.isProcessed(name, size, modifiedTime)) {
+                return;
+            }
+            ScanOutcome outcome = scanImage(file);
+            if (outcome == null || isStopped) {
+                return;
+            }
+            if (outcome.exception != null) {
+                listener.onImageScanFailed(file, outcome.exception);
+                return;
+            }
+            markProcessed(name, size, modifiedTime);
+            listener.onImageScanned(file, outcome.barcodes, outcome.gs1ParseResults);
+        } finally {
+            boolean isChanged;
+            synchronized (pendingFiles) {
+                isChanged = Boolean.TRUE.equals(pendingFiles.remove(name));
+            }
+            if (isChanged) {
+                handleFile(name);
+            }
+        }
+    }
+
+    /**
+     * Blocks the worker until the image is scanned, the latch publishes the outcome to the worker.
+     *
+     * @return The outcome or `null` if the worker was interrupted.
+     */
+    @Nullable
+    private ScanOutcome scanImage(File file) {
+        ScanOutcome outcome = new ScanOutcome();
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            imageScanner.scan(
+                file,
+                new ReadBarcodesFromImageResultCallback() {
+                    @Override
+                    public void success(List<DecodedBarcode> barcodes, @Nullable List<Gs1ParseResult> gs1ParseResults) {
+                        outcome.barcodes = barcodes;
+                        outcome.gs1ParseResults = gs1ParseResults;
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void error(Exception exception) {
+                        outcome.exception = exception;
+                        latch.countDown();
+                    }
+                }
+            );
+            latch.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception exception) {
+            outcome.exception = exception;
+            return outcome;
+        }
+        return outcome;
+    }
+
+    private void markProcessed(String name, long size, long modifiedTime) {
+        synchronized (processedFileIndex) {
+            if (isStopped) {
+                return;
+            }
+            try {
+                processedFileIndex.markProcessed(name, size, modifiedTime);
+            } catch (Exception exception) {
+                listener.onIndexFailed(exception);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.nio.ByteBuffer;
+
+/**
+ * A camera frame in NV21 layout, independent of CameraX.
+ *
+ * The first `width * height` bytes are the Y plane, followed by interleaved V and U samples
+ * of the half-resolution chroma planes.
+ */
+public class Frame {
+
+    @NonNull
+    private final byte[] nv21;
+
+    private final int width;
+    private final int height;
+    private final int rotationDegrees;
+    private final long timestampNanos;
+
+    public Frame(@NonNull byte[] nv21, int width, int height, int rotationDegrees, long timestampNanos) {
+        if (nv21.length < getNv21Length(width, height)) {
+            throw new IllegalArgumentException("nv21 is too small for the frame size.");
+        }
+        this.nv21 = nv21;
+        this.width = width;
+        this.height = height;
+        this.rotationDegrees = rotationDegrees;
+        this.timestampNanos = timestampNanos;
+    }
+
+    /**
+     * Copies the planes of a `YUV_420_888` image, respecting row and pixel strides.
+     * The Y plane must have a pixel stride of 1, as guaranteed by `YUV_420_888`.
+     *
+     * @param reusableNv21 A buffer that is used if it is large enough, otherwise a new one is allocated.
+     */
+    @NonNull
+    public static Frame fromYuv420(
+        @NonNull ByteBuffer yPlane,
+        int yRowStride,
+        @NonNull ByteBuffer uPlane,
+        @NonNull ByteBuffer vPlane,
+        int uvRowStride,
+        int uvPixelStride,
+        int width,
+        int height,
+        int rotationDegrees,
+        long timestampNanos,
+        @Nullable byte[] reusableNv21
+    ) {
+        int length = getNv21Length(width, height);
+        byte[] nv21 = reusableNv21 != null && reusableNv21.length >= length ? reusableNv21 : new byte[length];
+        ByteBuffer y = yPlane.duplicate();
+        for (int row = 0; row < height; row++) {
+            y.position(row * yRowStride);
+            y.get(nv21, row * width, width);
+        }
+        int chromaWidth = (width + 1) / 2;
+        int chromaHeight = (height + 1) / 2;
+        int offset = width * height;
+        for (int row = 0; row < chromaHeight; row++) {
+            int rowOffset = row * uvRowStride;
+            for (int column = 0; column < chromaWidth; column++) {
+                int index = rowOffset + column * uvPixelStride;
+                nv21[offset++] = vPlane.get(index);
+                nv21[offset++] = uPlane.get(index);
+            }
+        }
+        return new Frame(nv21, width, height, rotationDegrees, timestampNanos);
+    }
+
+    public static int getNv21Length(int width, int height) {
+        return width * height + 2 * ((width + 1) / 2) * ((height + 1) / 2);
+    }
+
+    @NonNull
+    public byte[] getNv21() {
+        return nv21;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getRotationDegrees() {
+        return rotationDegrees;
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+}
@@ -0,0 +1,133 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import java.nio.ByteBuffer;
+
+/**
+ * Detects frames that are nearly identical to the last analyzed frame, e.g. while the device lies on a counter.
+ *
+ * The Y plane is reduced to a coarse grid of cell means, each computed from a few samples of the cell, which also
+ * averages out the sensor noise. A frame is unchanged if the mean absolute difference of its cells to the cells of the
+ * last analyzed frame is at most the threshold. The reference is only replaced when a frame is analyzed, so a slow
+ * drift is still detected, and a frame is analyzed at least once per maximum unchanged interval.
+ *
+ * Not thread-safe.
+ */
+public class FrameChangeDetector {
+
+    public static final float DEFAULT_THRESHOLD = 3f;
+    public static final long DEFAULT_MAX_UNCHANGED_INTERVAL_MILLIS = 1000;
+
+    /**
+     * The number of cells along the shorter side of the frame.
+     */
+    private static final int CELLS_PER_SIDE = 16;
+
+    /**
+     * The number of sampled rows (and columns) per cell.
+     */
+    private static final int SAMPLES_PER_CELL_SIDE = 4;
+
+    private final float threshold;
+    private final long maxUnchangedIntervalNanos;
+
+    private int[] referenceCells = new int[0];
+    private int[] cells = new int[0];
+    private int referenceWidth;
+    private int referenceHeight;
+    private long referenceTimestampNanos;
+    private boolean hasReference = false;
+
+    private float difference;
+
+    /**
+     * @param threshold The maximum mean absolute luma difference (0-255) of an unchanged frame.
+     */
+    public FrameChangeDetector(float threshold, long maxUnchangedIntervalMillis) {
+        this.threshold = threshold;
+        this.maxUnchangedIntervalNanos = maxUnchangedIntervalMillis * 1_000_000;
+    }
+
+    /**
+     * Returns whether or not the frame has to be analyzed, in which case it becomes the new reference.
+     * Only absolute reads are used, so the position of the buffer is not changed.
+     */
+    public boolean shouldAnalyze(@NonNull ByteBuffer yPlane, int rowStride, int pixelStride, int width, int height, long timestampNanos) {
+        int cellSize = Math.max(1, Math.min(width, height) / CELLS_PER_SIDE);
+        int columnCount = Math.max(1, width / cellSize);
+        int rowCount = Math.max(1, height / cellSize);
+        int step = Math.max(1, cellSize / SAMPLES_PER_CELL_SIDE);
+        if (cells.length != columnCount * rowCount) {
+            cells = new int[columnCount * rowCount];
+        }
+        for (int row = 0; row < rowCount; row++) {
+            int top = row * cellSize;
+            int bottom = Math.min(height, top + cellSize);
+            for (int column = 0; column < columnCount; column++) {
+                int left = column * cellSize;
+                int right = Math.min(width, left + cellSize);
+                int sum = 0;
+                int sampleCount = 0;
+                for (int y = top + step / 2; y < bottom; y += step) {
+                    int rowOffset = y * rowStride;
+                    for (int x = left + step / 2; x < right; x += step) {
+                        sum += yPlane.get(rowOffset + x * pixelStride) & 0xFF;
+                        sampleCount++;
+                    }
+                }
+                cells[row * columnCount + column] = sampleCount == 0 ? 0 : sum / sampleCount;
+            }
+        }
+
+        boolean isComparable = hasReference && referenceWidth == width && referenceHeight == height;
+        difference = isComparable ? computeDifference() : Float.MAX_VALUE;
+        if (isComparable && difference <= threshold && timestampNanos - referenceTimestampNanos < maxUnchangedIntervalNanos) {
+            return false;
+        }
+        int[] previousReferenceCells = referenceCells;
+        referenceCells = cells;
+        cells = previousReferenceCells;
+        referenceWidth = width;
+        referenceHeight = height;
+        referenceTimestampNanos = timestampNanos;
+        hasReference = true;
+        return true;
+    }
+
+    /**
+     * Checks a frame from any `FrameSource`.
+     */
+    public boolean shouldAnalyze(@NonNull Frame frame) {
+        return shouldAnalyze(
+            ByteBuffer.wrap(frame.getNv21()),
+            frame.getWidth(),
+            1,
+            frame.getWidth(),
+            frame.getHeight(),
+            frame.getTimestampNanos()
+        );
+    }
+
+    /**
+     * Forgets the reference, so the next frame is analyzed.
+     */
+    public void reset() {
+        hasReference = false;
+    }
+
+    /**
+     * Returns the mean absolute luma difference of the last checked frame to the reference,
+     * or `Float.MAX_VALUE` if there was no comparable reference.
+     */
+    public float getDifference() {
+        return difference;
+    }
+
+    private float computeDifference() {
+        long sum = 0;
+        for (int i = 0; i < cells.length; i++) {
+            sum += Math.abs(cells[i] - referenceCells[i]);
+        }
+        return (float) sum / cells.length;
+    }
+}
@@ -0,0 +1,13 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A stage of the scan pipeline that consumes frames.
+ */
+public interface FrameProcessor {
+    /**
+     * Returns `false` if the frame should not be passed to the following stages, e.g. because it was rejected.
+     */
+    boolean process(@NonNull Frame frame) throws Exception;
+}
@@ -0,0 +1,149 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import java.nio.ByteBuffer;
+
+/**
+ * Rejects frames that can not be decoded before they are passed to ML Kit.
+ *
+ * The scores are computed on a sparse grid of the Y plane:
+ * the sharpness is the variance of the 4-neighbour Laplacian, the luma is the mean brightness
+ * and the clipping ratio is the fraction of overexposed samples.
+ *
+ * Not thread-safe, the scores of the last frame are kept.
+ */
+public class FrameQualityGate {
+
+    public static final int RESULT_PASSED = 0;
+    public static final int RESULT_TOO_DARK = 1;
+    public static final int RESULT_TOO_BRIGHT = 2;
+    public static final int RESULT_TOO_CLIPPED = 3;
+    public static final int RESULT_TOO_BLURRY = 4;
+
+    public static final float DEFAULT_MIN_SHARPNESS = 25f;
+    public static final float DEFAULT_MIN_LUMA = 30f;
+    public static final float DEFAULT_MAX_LUMA = 230f;
+    public static final float DEFAULT_MAX_CLIPPING_RATIO = 0.4f;
+
+    /**
+     * Samples with at least this luma count as clipped.
+     */
+    public static final int CLIPPING_LUMA = 250;
+
+    /**
+     * The number of sampled rows (and columns) along the shorter side of the frame.
+     */
+    private static final int SAMPLES_PER_SIDE = 120;
+
+    private float minSharpness = DEFAULT_MIN_SHARPNESS;
+    private float minLuma = DEFAULT_MIN_LUMA;
+    private float maxLuma = DEFAULT_MAX_LUMA;
+    private float maxClippingRatio = DEFAULT_MAX_CLIPPING_RATIO;
+
+    private float sharpness;
+    private float luma;
+    private float clippingRatio;
+
+    public void setMinSharpness(float minSharpness) {
+        this.minSharpness = minSharpness;
+    }
+
+    public void setMinLuma(float minLuma) {
+        this.minLuma = minLuma;
+    }
+
+    public void setMaxLuma(float maxLuma) {
+        this.maxLuma = maxLuma;
+    }
+
+    public void setMaxClippingRatio(float maxClippingRatio) {
+        this.maxClippingRatio = maxClippingRatio;
+    }
+
+    /**
+     * Scores the Y plane of a frame and returns one of the `RESULT_*` constants.
+     * Only absolute reads are used, so the position of the buffer is not changed.
+     */
+    public int evaluate(@NonNull ByteBuffer yPlane, int rowStride, int pixelStride, int width, int height) {
+        sharpness = 0;
+        luma = 0;
+        clippingRatio = 0;
+        if (width < 3 || height < 3) {
+            return RESULT_PASSED;
+        }
+        int step = Math.max(1, Math.min(width, height) / SAMPLES_PER_SIDE);
+
+        long sampleCount = 0;
+        long lumaSum = 0;
+        long clippedCount = 0;
+        long laplacianSum = 0;
+        long laplacianSquareSum = 0;
+        for (int y = Math.max(1, step / 2); y < height - 1; y += step) {
+            int rowOffset = y * rowStride;
+            for (int x = Math.max(1, step / 2); x < width - 1; x += step) {
+                int index = rowOffset + x * pixelStride;
+                int center = yPlane.get(index) & 0xFF;
+                int laplacian =
+                    4 *
+                    center -
+                    (yPlane.get(index - pixelStride) & 0xFF) -
+                    (yPlane.get(index + pixelStride) & 0xFF) -
+                    (yPlane.get(index - rowStride) & 0xFF) -
+                    (yPlane.get(index + rowStride) & 0xFF);
+                lumaSum += center;
+                if (center >= CLIPPING_LUMA) {
+                    clippedCount++;
+                }
+                laplacianSum += laplacian;
+                laplacianSquareSum += laplacian * laplacian;
+                sampleCount++;
+            }
+        }
+        double laplacianMean = (double) laplacianSum / sampleCount;
+        sharpness = (float) ((double) laplacianSquareSum / sampleCount - laplacianMean * laplacianMean);
+        luma = (float) lumaSum / sampleCount;
+        clippingRatio = (float) clippedCount / sampleCount;
+
+        if (luma < minLuma) {
+            return RESULT_TOO_DARK;
+        }
+        if (luma > maxLuma) {
+            return RESULT_TOO_BRIGHT;
+        }
+        if (clippingRatio > maxClippingRatio) {
+            return RESULT_TOO_CLIPPED;
+        }
+        if (sharpness < minSharpness) {
+            return RESULT_TOO_BLURRY;
+        }
+        return RESULT_PASSED;
+    }
+
+    /**
+     * Scores the Y plane of a frame from any `FrameSource`.
+     */
+    public int evaluate(@NonNull Frame frame) {
+        return evaluate(ByteBuffer.wrap(frame.getNv21()), frame.getWidth(), 1, frame.getWidth(), frame.getHeight());
+    }
+
+    /**
+     * Returns the sharpness of the last evaluated frame.
+     */
+    public float getSharpness() {
+        return sharpness;
+    }
+
+    /**
+     * Returns the mean luma (0-255) of the last evaluated frame.
+     */
+    public float getLuma() {
+        return luma;
+    }
+
+    /**
+     * Returns the fraction of clipped samples of the last evaluated frame.
+     */
+    public float getClippingRatio() {
+        return clippingRatio;
+    }
+}
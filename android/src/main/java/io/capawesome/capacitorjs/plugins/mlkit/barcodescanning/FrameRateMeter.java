@@ -0,0 +1,58 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+/**
+ * Measures the frame rate over the frames of the last second.
+ *
+ * Not thread-safe.
+ */
+public class FrameRateMeter {
+
+    public static final long WINDOW_NANOS = 1_000_000_000L;
+
+    /**
+     * Enough for 240 fps within the window.
+     */
+    private static final int CAPACITY = 256;
+
+    private final long[] timestamps = new long[CAPACITY];
+    private int count = 0;
+    private int next = 0;
+
+    /**
+     * @param timestampNanos The timestamp of the frame, must not decrease.
+     */
+    public void recordFrame(long timestampNanos) {
+        timestamps[next] = timestampNanos;
+        next = (next + 1) % CAPACITY;
+        count = Math.min(count + 1, CAPACITY);
+    }
+
+    /**
+     * Returns the frames per second within the window that ends at the last frame, or 0 with less than two frames.
+     */
+    public double getFrameRate() {
+        if (count < 2) {
+            return 0;
+        }
+        long last = timestamps[(next - 1 + CAPACITY) % CAPACITY];
+        long first = last;
+        int frameCount = 1;
+        for (int i = 2; i <= count; i++) {
+            long timestamp = timestamps[(next - i + CAPACITY) % CAPACITY];
+            if (last - timestamp > WINDOW_NANOS) {
+                break;
+            }
+            first = timestamp;
+            frameCount++;
+        }
+        if (frameCount < 2 || last == first) {
+            return 0;
+        }
+        return (frameCount - 1) * 1_000_000_000.0 / (last - first);
+    }
+
+    public void reset() {
+        count = 0;
+        next = 0;
+    }
+}
@@ -0,0 +1,58 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Reads the frames of a file written by `FrameRecordingWriter`.
+ */
+public class FrameRecordingReader implements FrameSource {
+
+    @NonNull
+    private final DataInputStream inputStream;
+
+    public FrameRecordingReader(@NonNull File file) throws IOException {
+        this.inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 256 * 1024));
+        if (inputStream.readInt() != FrameRecordingWriter.MAGIC) {
+            inputStream.close();
+            throw new IOException("Not a frame recording: " + file);
+        }
+        int version = inputStream.readInt();
+        if (version != FrameRecordingWriter.VERSION) {
+            inputStream.close();
+            throw new IOException("Unsupported frame recording version " + version + ": " + file);
+        }
+    }
+
+    @Nullable
+    @Override
+    public Frame nextFrame() throws IOException {
+        long timestampNanos;
+        try {
+            timestampNanos = inputStream.readLong();
+        } catch (EOFException exception) {
+            return null;
+        }
+        int width = inputStream.readInt();
+        int height = inputStream.readInt();
+        int rotationDegrees = inputStream.readInt();
+        int length = inputStream.readInt();
+        if (width <= 0 || height <= 0 || length != Frame.getNv21Length(width, height)) {
+            throw new IOException("Corrupt frame recording.");
+        }
+        byte[] nv21 = new byte[length];
+        inputStream.readFully(nv21);
+        return new Frame(nv21, width, height, rotationDegrees, timestampNanos);
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+}
@@ -0,0 +1,78 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Writes raw frames with their metadata to a file that can be replayed with `FrameRecordingReader`.
+ *
+ * The file starts with the magic `BSYV` and the format version as big-endian ints. Every frame is stored as
+ * timestamp (long), width, height, rotation and NV21 length (ints), followed by the NV21 bytes.
+ */
+public class FrameRecordingWriter implements Closeable {
+
+    public static final int MAGIC = 0x42535956;
+    public static final int VERSION = 1;
+
+    @NonNull
+    private final File file;
+
+    private final int maxFrameCount;
+
+    @NonNull
+    private final DataOutputStream outputStream;
+
+    private volatile int frameCount = 0;
+
+    public FrameRecordingWriter(@NonNull File file, int maxFrameCount) throws IOException {
+        this.file = file;
+        this.maxFrameCount = maxFrameCount;
+        this.outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 256 * 1024));
+        outputStream.writeInt(MAGIC);
+        outputStream.writeInt(VERSION);
+    }
+
+    @NonNull
+    public File getFile() {
+        return file;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Returns `false` once the maximum number of frames is reached.
+     */
+    public boolean isAcceptingFrames() {
+        return frameCount < maxFrameCount;
+    }
+
+    /**
+     * Returns `false` if the frame was not written because the maximum number of frames is reached.
+     */
+    public boolean write(@NonNull Frame frame) throws IOException {
+        if (!isAcceptingFrames()) {
+            return false;
+        }
+        int length = Frame.getNv21Length(frame.getWidth(), frame.getHeight());
+        outputStream.writeLong(frame.getTimestampNanos());
+        outputStream.writeInt(frame.getWidth());
+        outputStream.writeInt(frame.getHeight());
+        outputStream.writeInt(frame.getRotationDegrees());
+        outputStream.writeInt(length);
+        outputStream.write(frame.getNv21(), 0, length);
+        frameCount++;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        outputStream.close();
+    }
+}
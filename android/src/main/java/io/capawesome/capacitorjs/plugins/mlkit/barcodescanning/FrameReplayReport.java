@@ -0,0 +1,144 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Timings of a replay by `FrameReplayer`, all durations are in nanoseconds.
+ */
+public class FrameReplayReport {
+
+    public static class StageTiming {
+
+        @NonNull
+        private final String name;
+
+        @NonNull
+        private final long[] sortedDurations;
+
+        public StageTiming(@NonNull String name, @NonNull long[] durations) {
+            this.name = name;
+            this.sortedDurations = durations.clone();
+            Arrays.sort(sortedDurations);
+        }
+
+        @NonNull
+        public String getName() {
+            return name;
+        }
+
+        public int getCount() {
+            return sortedDurations.length;
+        }
+
+        public long getTotal() {
+            long total = 0;
+            for (long duration : sortedDurations) {
+                total += duration;
+            }
+            return total;
+        }
+
+        public long getAverage() {
+            return sortedDurations.length == 0 ? 0 : getTotal() / sortedDurations.length;
+        }
+
+        public long getMin() {
+            return sortedDurations.length == 0 ? 0 : sortedDurations[0];
+        }
+
+        public long getMax() {
+            return sortedDurations.length == 0 ? 0 : sortedDurations[sortedDurations.length - 1];
+        }
+
+        /**
+         * Returns the nearest-rank percentile, e.g. `getPercentile(95)`.
+         */
+        public long getPercentile(int percentile) {
+            if (sortedDurations.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sortedDurations.length);
+            return sortedDurations[Math.max(0, Math.min(sortedDurations.length - 1, rank - 1))];
+        }
+    }
+
+    private final int frameCount;
+    private final int lateFrameCount;
+    private final long elapsedTime;
+
+    @NonNull
+    private final List<StageTiming> stageTimings;
+
+    public FrameReplayReport(int frameCount, int lateFrameCount, long elapsedTime, @NonNull List<StageTiming> stageTimings) {
+        this.frameCount = frameCount;
+        this.lateFrameCount = lateFrameCount;
+        this.elapsedTime = elapsedTime;
+        this.stageTimings = stageTimings;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Returns the number of frames that were processed after their scheduled time,
+     * because the previous frames took longer than the frame interval.
+     */
+    public int getLateFrameCount() {
+        return lateFrameCount;
+    }
+
+    /**
+     * Returns the wall time of the replay, including the pacing.
+     */
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    public float getFramesPerSecond() {
+        return elapsedTime == 0 ? 0 : frameCount * 1_000_000_000f / elapsedTime;
+    }
+
+    @NonNull
+    public List<StageTiming> getStageTimings() {
+        return stageTimings;
+    }
+
+    /**
+     * Returns a human-readable table of the stage timings in microseconds.
+     */
+    @NonNull
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(
+            String.format(
+                Locale.ROOT,
+                "%d frames (%d late) in %.1f ms, %.1f fps%n",
+                frameCount,
+                lateFrameCount,
+                elapsedTime / 1e6,
+                getFramesPerSecond()
+            )
+        );
+        builder.append(String.format(Locale.ROOT, "%-16s %8s %10s %10s %10s %10s%n", "stage", "count", "avg us", "p50 us", "p95 us", "max us"));
+        for (StageTiming stageTiming : stageTimings) {
+            builder.append(
+                String.format(
+                    Locale.ROOT,
+                    "%-16s %8d %10.1f %10.1f %10.1f %10.1f%n",
+                    stageTiming.getName(),
+                    stageTiming.getCount(),
+                    stageTiming.getAverage() / 1e3,
+                    stageTiming.getPercentile(50) / 1e3,
+                    stageTiming.getPercentile(95) / 1e3,
+                    stageTiming.getMax() / 1e3
+                )
+            );
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,141 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Feeds the frames of a `FrameSource` through a chain of stages and measures the time spent in every stage.
+ *
+ * Frames are processed one after the other on the calling thread, in the order of the source,
+ * so a replay of the same frames is deterministic apart from the timings.
+ * Frames are never dropped: if a frame is due before the previous one is processed, it is counted as late.
+ */
+public class FrameReplayer {
+
+    /**
+     * Processes the frames as fast as possible.
+     */
+    public static final int SPEED_MAX = 0;
+    /**
+     * Paces the frames by their timestamps.
+     */
+    public static final int SPEED_RECORDED = 1;
+    /**
+     * Paces the frames at a fixed frame rate.
+     */
+    public static final int SPEED_FIXED = 2;
+
+    private static class Stage {
+
+        @NonNull
+        final String name;
+
+        @NonNull
+        final FrameProcessor processor;
+
+        long[] durations = new long[64];
+        int count = 0;
+
+        Stage(@NonNull String name, @NonNull FrameProcessor processor) {
+            this.name = name;
+            this.processor = processor;
+        }
+
+        void addDuration(long duration) {
+            if (count == durations.length) {
+                durations = Arrays.copyOf(durations, count * 2);
+            }
+            durations[count++] = duration;
+        }
+    }
+
+    private final List<Stage> stages = new ArrayList<>();
+    private int speed = SPEED_MAX;
+    private float fps = 30;
+
+    public void setSpeed(int speed) {
+        this.speed = speed;
+    }
+
+    /**
+     * Sets the frame rate of `SPEED_FIXED`.
+     */
+    public void setFps(float fps) {
+        this.fps = fps;
+    }
+
+    /**
+     * Appends a stage, stages are run in the order they are added.
+     */
+    public void addStage(@NonNull String name, @NonNull FrameProcessor processor) {
+        stages.add(new Stage(name, processor));
+    }
+
+    /**
+     * Replays all frames of the source and closes it.
+     */
+    @NonNull
+    public FrameReplayReport replay(@NonNull FrameSource frameSource) throws Exception {
+        for (Stage stage : stages) {
+            stage.count = 0;
+        }
+        int frameCount = 0;
+        int lateFrameCount = 0;
+        long firstTimestamp = 0;
+        long startTime = nanoTime();
+        try {
+            Frame frame;
+            while ((frame = frameSource.nextFrame()) != null) {
+                if (frameCount == 0) {
+                    firstTimestamp = frame.getTimestampNanos();
+                }
+                if (speed != SPEED_MAX) {
+                    long dueTime = startTime + getFrameOffset(frameCount, frame.getTimestampNanos() - firstTimestamp);
+                    long delay = dueTime - nanoTime();
+                    if (delay > 0) {
+                        sleep(delay);
+                    } else if (frameCount > 0) {
+                        lateFrameCount++;
+                    }
+                }
+                for (Stage stage : stages) {
+                    long stageStartTime = nanoTime();
+                    boolean isPassed = stage.processor.process(frame);
+                    stage.addDuration(nanoTime() - stageStartTime);
+                    if (!isPassed) {
+                        break;
+                    }
+                }
+                frameCount++;
+            }
+        } finally {
+            frameSource.close();
+        }
+        long elapsedTime = nanoTime() - startTime;
+        List<FrameReplayReport.StageTiming> stageTimings = new ArrayList<>();
+        for (Stage stage : stages) {
+            stageTimings.add(new FrameReplayReport.StageTiming(stage.name, Arrays.copyOf(stage.durations, stage.count)));
+        }
+        return new FrameReplayReport(frameCount, lateFrameCount, elapsedTime, stageTimings);
+    }
+
+    /**
+     * Returns the time after the start of the replay at which the frame is due.
+     */
+    private long getFrameOffset(int frameIndex, long timestampOffset) {
+        if (speed == SPEED_RECORDED) {
+            return Math.max(0, timestampOffset);
+        }
+        return (long) (frameIndex * (1_000_000_000.0 / fps));
+    }
+
+    protected long nanoTime() {
+        return System.nanoTime();
+    }
+
+    protected void sleep(long nanos) throws InterruptedException {
+        Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+    }
+}
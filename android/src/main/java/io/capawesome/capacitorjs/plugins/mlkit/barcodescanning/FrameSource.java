@@ -0,0 +1,16 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Provides frames to the scan pipeline, e.g. a recording or synthetic frames.
+ */
+public interface FrameSource extends Closeable {
+    /**
+     * Returns the next frame or `null` if there are no more frames.
+     */
+    @Nullable
+    Frame nextFrame() throws IOException;
+}
@@ -0,0 +1,171 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.android.gms.common.moduleinstall.ModuleInstall;
+import com.google.android.gms.common.moduleinstall.ModuleInstallClient;
+import com.google.android.gms.common.moduleinstall.ModuleInstallStatusUpdate;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import com.google.mlkit.vision.codescanner.GmsBarcodeScanner;
+import com.google.mlkit.vision.codescanner.GmsBarcodeScannerOptions;
+import com.google.mlkit.vision.codescanner.GmsBarcodeScanning;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps track of whether the Google Barcode Scanner Module is available, so `scan` does not have to ask Google Play services first.
+ *
+ * A positive availability is cached until an install event invalidates it, the module is not uninstalled on its own.
+ * A missing module is checked again on every request, it may be installed in the background at any time.
+ * Concurrent checks share one query.
+ *
+ * Also reuses the `GmsBarcodeScanner` clients per set of formats.
+ *
+ * Thread-safe.
+ */
+public class GoogleBarcodeScannerModuleManager {
+
+    /**
+     * The number of clients with different formats that are kept.
+     */
+    private static final int MAX_SCANNER_COUNT = 8;
+
+    @NonNull
+    private final Context context;
+
+    @NonNull
+    private final ModuleInstallClient moduleInstallClient;
+
+    /**
+     * The client without options, only used to identify the module.
+     */
+    @NonNull
+    private final GmsBarcodeScanner moduleScanner;
+
+    private final Map<Integer, GmsBarcodeScanner> scanners = new HashMap<>();
+
+    private boolean isAvailable = false;
+
+    @Nullable
+    private List<IsGoogleBarodeScannerModuleAvailableResultCallback> pendingCallbacks;
+
+    public GoogleBarcodeScannerModuleManager(@NonNull Context context) {
+        this.context = context;
+        this.moduleInstallClient = ModuleInstall.getClient(context);
+        this.moduleScanner = GmsBarcodeScanning.getClient(context);
+    }
+
+    /**
+     * Checks the availability in the background and, if requested, lets Google Play services install the module
+     * once the device is idle.
+     */
+    public void prepare(boolean isPreinstallEnabled) {
+        isModuleAvailable(
+            new IsGoogleBarodeScannerModuleAvailableResultCallback() {
+                @Override
+                public void success(boolean isAvailable) {
+                    if (!isAvailable && isPreinstallEnabled) {
+                        moduleInstallClient.deferredInstall(moduleScanner);
+                    }
+                }
+
+                @Override
+                public void error(Exception exception) {}
+            }
+        );
+    }
+
+    public void isModuleAvailable(@NonNull IsGoogleBarodeScannerModuleAvailableResultCallback callback) {
+        synchronized (this) {
+            if (isAvailable) {
+                callback.success(true);
+                return;
+            }
+            if (pendingCallbacks != null) {
+                pendingCallbacks.add(callback);
+                return;
+            }
+            pendingCallbacks = new ArrayList<>();
+            pendingCallbacks.add(callback);
+        }
+        moduleInstallClient
+            .areModulesAvailable(moduleScanner)
+            .addOnSuccessListener(
+                response -> {
+                    boolean isAvailable = response.areModulesAvailable();
+                    for (IsGoogleBarodeScannerModuleAvailableResultCallback pendingCallback : takePendingCallbacks(isAvailable)) {
+                        pendingCallback.success(isAvailable);
+                    }
+                }
+            )
+            .addOnFailureListener(
+                exception -> {
+                    for (IsGoogleBarodeScannerModuleAvailableResultCallback pendingCallback : takePendingCallbacks(false)) {
+                        pendingCallback.error(exception);
+                    }
+                }
+            );
+    }
+
+    /**
+     * Updates the cached availability with an event of a module installation.
+     */
+    public synchronized void handleInstallState(@ModuleInstallStatusUpdate.InstallState int state) {
+        if (state == ModuleInstallStatusUpdate.InstallState.STATE_COMPLETED) {
+            isAvailable = true;
+        } else if (ModuleInstallProgressListener.isTerminateState(state)) {
+            isAvailable = false;
+        }
+    }
+
+    public synchronized void markAvailable() {
+        isAvailable = true;
+    }
+
+    @NonNull
+    public GmsBarcodeScanner getModuleScanner() {
+        return moduleScanner;
+    }
+
+    /**
+     * Returns the client for the given formats, an empty array for all formats.
+     */
+    @NonNull
+    public synchronized GmsBarcodeScanner getScanner(@NonNull int[] formats) {
+        int formatMask = 0;
+        for (int format : formats) {
+            formatMask |= format;
+        }
+        GmsBarcodeScanner scanner = scanners.get(formatMask);
+        if (scanner == null) {
+            if (scanners.size() >= MAX_SCANNER_COUNT) {
+                scanners.clear();
+            }
+            int[] scannerFormats = formats.length == 0 ? new int[] { Barcode.FORMAT_ALL_FORMATS } : formats;
+            GmsBarcodeScannerOptions options = new GmsBarcodeScannerOptions.Builder()
+                .setBarcodeFormats(scannerFormats[0], scannerFormats)
+                .build();
+            scanner = GmsBarcodeScanning.getClient(context, options);
+            scanners.put(formatMask, scanner);
+        }
+        return scanner;
+    }
+
+    /**
+     * Drops the cached clients, e.g. when the system is running low on memory.
+     */
+    public synchronized void releaseScanners() {
+        scanners.clear();
+    }
+
+    @NonNull
+    private synchronized List<IsGoogleBarodeScannerModuleAvailableResultCallback> takePendingCallbacks(boolean isAvailable) {
+        this.isAvailable = this.isAvailable || isAvailable;
+        List<IsGoogleBarodeScannerModuleAvailableResultCallback> callbacks = pendingCallbacks;
+        pendingCallbacks = null;
+        return callbacks == null ? new ArrayList<>() : callbacks;
+    }
+}
@@ -0,0 +1,30 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A single element of a GS1 element string, e.g. `(01) 09506000134352`.
+ */
+public class Gs1Element {
+
+    @NonNull
+    private final String applicationIdentifier;
+
+    @NonNull
+    private final String value;
+
+    public Gs1Element(@NonNull String applicationIdentifier, @NonNull String value) {
+        this.applicationIdentifier = applicationIdentifier;
+        this.value = value;
+    }
+
+    @NonNull
+    public String getApplicationIdentifier() {
+        return applicationIdentifier;
+    }
+
+    @NonNull
+    public String getValue() {
+        return value;
+    }
+}
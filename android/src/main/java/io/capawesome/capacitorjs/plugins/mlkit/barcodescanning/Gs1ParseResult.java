@@ -0,0 +1,35 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.Nullable;
+import java.util.List;
+
+/**
+ * The result of validating a scanned barcode with the `Gs1Parser`.
+ */
+public class Gs1ParseResult {
+
+    public static final Gs1ParseResult INVALID = new Gs1ParseResult(false, null);
+    public static final Gs1ParseResult VALID = new Gs1ParseResult(true, null);
+
+    private final boolean isValid;
+
+    @Nullable
+    private final List<Gs1Element> elements;
+
+    public Gs1ParseResult(boolean isValid, @Nullable List<Gs1Element> elements) {
+        this.isValid = isValid;
+        this.elements = elements;
+    }
+
+    public boolean isValid() {
+        return isValid;
+    }
+
+    /**
+     * Returns `null` if the barcode does not contain a GS1 element string.
+     */
+    @Nullable
+    public List<Gs1Element> getElements() {
+        return elements;
+    }
+}
@@ -0,0 +1,304 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Validates check digits and splits GS1 element strings into application identifiers (AIs).
+ *
+ * Works directly on the raw bytes of a barcode. Only the resulting fields are allocated.
+ */
+public class Gs1Parser {
+
+    /**
+     * FNC1 is transmitted as the ASCII group separator.
+     */
+    public static final byte GROUP_SEPARATOR = 0x1D;
+
+    /**
+     * Validates the check digit of the barcode and splits it into elements if it is marked as GS1 element string.
+     */
+    @NonNull
+    public static Gs1ParseResult parse(int format, @NonNull byte[] bytes) {
+        if (!isCheckDigitValid(format, bytes)) {
+            return Gs1ParseResult.INVALID;
+        }
+        if (!isElementString(bytes)) {
+            return Gs1ParseResult.VALID;
+        }
+        List<Gs1Element> elements = parseElementString(bytes);
+        if (elements == null) {
+            return Gs1ParseResult.INVALID;
+        }
+        return new Gs1ParseResult(true, elements);
+    }
+
+    /**
+     * Returns whether or not the check digit of an EAN, UPC or ITF-14 barcode is valid.
+     * Barcodes of other formats (and ITF barcodes of other lengths) are always valid.
+     */
+    public static boolean isCheckDigitValid(int format, @NonNull byte[] bytes) {
+        switch (format) {
+            case Barcode.FORMAT_EAN_8:
+            case Barcode.FORMAT_EAN_13:
+            case Barcode.FORMAT_UPC_A:
+                return bytes.length >= 8 && isMod10Valid(bytes, 0, bytes.length);
+            case Barcode.FORMAT_UPC_E:
+                return isUpcECheckDigitValid(bytes);
+            case Barcode.FORMAT_ITF:
+                return bytes.length != 14 || isMod10Valid(bytes, 0, bytes.length);
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Returns whether or not the bytes are marked as GS1 element string,
+     * either by a leading FNC1 or by a GS1 symbology identifier (`]C1`, `]e0`, `]d2`, `]Q3`, `]J1`).
+     */
+    public static boolean isElementString(@NonNull byte[] bytes) {
+        return getElementStringStart(bytes) >= 0;
+    }
+
+    /**
+     * Splits a GS1 element string into its elements.
+     *
+     * @return The elements or `null` if the element string is invalid.
+     */
+    @Nullable
+    public static List<Gs1Element> parseElementString(@NonNull byte[] bytes) {
+        int position = getElementStringStart(bytes);
+        if (position < 0) {
+            return null;
+        }
+        List<Gs1Element> elements = new ArrayList<>();
+        while (position < bytes.length) {
+            if (position + 2 > bytes.length || !isDigit(bytes[position]) || !isDigit(bytes[position + 1])) {
+                return null;
+            }
+            int prefix = (bytes[position] - '0') * 10 + (bytes[position + 1] - '0');
+            int aiLength = getAiLength(prefix);
+            if (aiLength == 0 || position + aiLength > bytes.length || !isNumeric(bytes, position, position + aiLength)) {
+                return null;
+            }
+            int valueStart = position + aiLength;
+            int valueEnd;
+            int predefinedLength = getPredefinedValueLength(prefix);
+            if (predefinedLength > 0) {
+                valueEnd = valueStart + predefinedLength;
+                if (valueEnd > bytes.length || !isNumeric(bytes, valueStart, valueEnd)) {
+                    return null;
+                }
+                position = valueEnd;
+            } else {
+                valueEnd = valueStart;
+                while (valueEnd < bytes.length && bytes[valueEnd] != GROUP_SEPARATOR) {
+                    valueEnd++;
+                }
+                if (valueEnd == valueStart) {
+                    return null;
+                }
+                position = valueEnd;
+            }
+            // A separator is also allowed (but not required) after predefined length elements
+            if (position < bytes.length && bytes[position] == GROUP_SEPARATOR) {
+                position++;
+            }
+            if (!isValueValid(prefix, bytes, valueStart, valueEnd)) {
+                return null;
+            }
+            String ai = new String(bytes, valueStart - aiLength, aiLength, StandardCharsets.US_ASCII);
+            String value = new String(bytes, valueStart, valueEnd - valueStart, StandardCharsets.UTF_8);
+            elements.add(new Gs1Element(ai, value));
+        }
+        return elements.isEmpty() ? null : elements;
+    }
+
+    /**
+     * Validates a GS1 modulo 10 check digit, which is the last digit of the range.
+     */
+    public static boolean isMod10Valid(@NonNull byte[] bytes, int start, int end) {
+        if (end - start < 2 || !isNumeric(bytes, start, end)) {
+            return false;
+        }
+        int sum = 0;
+        int weight = 3;
+        for (int i = end - 2; i >= start; i--) {
+            sum += (bytes[i] - '0') * weight;
+            weight = 4 - weight;
+        }
+        int checkDigit = (10 - sum % 10) % 10;
+        return bytes[end - 1] - '0' == checkDigit;
+    }
+
+    /**
+     * UPC-E is validated by expanding it to UPC-A.
+     * Accepts 8 digits (number system, 6 digits, check digit) or 7 digits (number system 0 omitted).
+     * 6 digits carry no check digit and are always valid.
+     */
+    private static boolean isUpcECheckDigitValid(byte[] bytes) {
+        if (bytes.length == 6) {
+            return isNumeric(bytes, 0, 6);
+        }
+        if ((bytes.length != 7 && bytes.length != 8) || !isNumeric(bytes, 0, bytes.length)) {
+            return false;
+        }
+        int offset = bytes.length - 7;
+        byte numberSystem = offset == 0 ? (byte) '0' : bytes[0];
+        if (numberSystem != '0' && numberSystem != '1') {
+            return false;
+        }
+        byte d1 = bytes[offset];
+        byte d2 = bytes[offset + 1];
+        byte d3 = bytes[offset + 2];
+        byte d4 = bytes[offset + 3];
+        byte d5 = bytes[offset + 4];
+        byte d6 = bytes[offset + 5];
+        byte z = '0';
+        byte[] upcA;
+        switch (d6) {
+            case '0':
+            case '1':
+            case '2':
+                upcA = new byte[] { numberSystem, d1, d2, d6, z, z, z, z, d3, d4, d5, bytes[offset + 6] };
+                break;
+            case '3':
+                upcA = new byte[] { numberSystem, d1, d2, d3, z, z, z, z, z, d4, d5, bytes[offset + 6] };
+                break;
+            case '4':
+                upcA = new byte[] { numberSystem, d1, d2, d3, d4, z, z, z, z, z, d5, bytes[offset + 6] };
+                break;
+            default:
+                upcA = new byte[] { numberSystem, d1, d2, d3, d4, d5, z, z, z, z, d6, bytes[offset + 6] };
+                break;
+        }
+        return isMod10Valid(upcA, 0, upcA.length);
+    }
+
+    private static int getElementStringStart(byte[] bytes) {
+        int position = 0;
+        if (bytes.length >= 3 && bytes[0] == ']') {
+            if (!isGs1SymbologyIdentifier(bytes[1], bytes[2])) {
+                return -1;
+            }
+            position = 3;
+        } else if (bytes.length == 0 || bytes[0] != GROUP_SEPARATOR) {
+            return -1;
+        }
+        if (position < bytes.length && bytes[position] == GROUP_SEPARATOR) {
+            position++;
+        }
+        return position < bytes.length ? position : -1;
+    }
+
+    private static boolean isGs1SymbologyIdentifier(byte symbology, byte modifier) {
+        return (
+            (symbology == 'C' && modifier == '1') ||
+            (symbology == 'e' && modifier == '0') ||
+            (symbology == 'd' && modifier == '2') ||
+            (symbology == 'Q' && modifier == '3') ||
+            (symbology == 'J' && modifier == '1')
+        );
+    }
+
+    /**
+     * Returns the number of digits of the AIs with the two-digit prefix or `0` if the prefix is not assigned.
+     */
+    private static int getAiLength(int prefix) {
+        if (prefix <= 4 || (prefix >= 10 && prefix <= 22) || prefix == 30 || prefix == 37 || prefix >= 90) {
+            return 2;
+        }
+        if ((prefix >= 23 && prefix <= 25) || (prefix >= 40 && prefix <= 42) || prefix == 71) {
+            return 3;
+        }
+        if ((prefix >= 31 && prefix <= 36) || prefix == 39 || prefix == 43 || prefix == 70 || (prefix >= 72 && prefix <= 82)) {
+            return 4;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the value length of the AIs with the two-digit prefix if it is predefined
+     * (these values need no separator) or `0` if the value has a variable length.
+     */
+    private static int getPredefinedValueLength(int prefix) {
+        switch (prefix) {
+            case 0:
+                return 18;
+            case 1:
+            case 2:
+            case 3:
+                return 14;
+            case 4:
+                return 16;
+            case 11:
+            case 12:
+            case 13:
+            case 14:
+            case 15:
+            case 16:
+            case 17:
+            case 18:
+            case 19:
+                return 6;
+            case 20:
+                return 2;
+            case 31:
+            case 32:
+            case 33:
+            case 34:
+            case 35:
+            case 36:
+                return 6;
+            case 41:
+                return 13;
+            default:
+                return 0;
+        }
+    }
+
+    private static boolean isValueValid(int prefix, byte[] bytes, int start, int end) {
+        switch (prefix) {
+            case 0:
+            case 1:
+            case 2:
+            case 41:
+                return isMod10Valid(bytes, start, end);
+            case 11:
+            case 12:
+            case 13:
+            case 15:
+            case 16:
+            case 17:
+                return isDateValid(bytes, start);
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Validates a `YYMMDD` date. A day of `00` means the end of the month.
+     */
+    private static boolean isDateValid(byte[] bytes, int start) {
+        int month = (bytes[start + 2] - '0') * 10 + (bytes[start + 3] - '0');
+        int day = (bytes[start + 4] - '0') * 10 + (bytes[start + 5] - '0');
+        return month >= 1 && month <= 12 && day <= 31;
+    }
+
+    private static boolean isNumeric(byte[] bytes, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isDigit(bytes[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(byte value) {
+        return value >= '0' && value <= '9';
+    }
+}
@@ -0,0 +1,150 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import java.util.Arrays;
+
+/**
+ * Converts raw pixel data into NV21, the in-memory format `InputImage.fromByteArray` and the `LumaPlane` share.
+ *
+ * Barcodes only need the luma, so the chroma is left neutral (128), which makes the conversion a single pass
+ * over the pixels without any per-pixel allocation.
+ */
+public class ImageDataConverter {
+
+    /**
+     * The image data is an encoded image file, e.g. a PNG or JPEG.
+     */
+    public static final int DATA_FORMAT_ENCODED = 0;
+    /**
+     * 4 bytes per pixel in R, G, B, A order, as returned by `CanvasRenderingContext2D.getImageData`.
+     */
+    public static final int DATA_FORMAT_RGBA = 1;
+    /**
+     * 1 byte of luma per pixel.
+     */
+    public static final int DATA_FORMAT_GRAY = 2;
+
+    private static final byte NEUTRAL_CHROMA = (byte) 128;
+
+    // The values of the Base64 characters, -1 for invalid characters
+    private static final byte[] BASE64_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(BASE64_VALUES, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_VALUES[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    /**
+     * Returns the number of bytes of raw pixel data of the given format and dimensions.
+     */
+    public static long getPixelDataSize(int dataFormat, int width, int height) {
+        long pixelCount = (long) width * height;
+        return dataFormat == DATA_FORMAT_RGBA ? pixelCount * 4 : pixelCount;
+    }
+
+    /**
+     * Returns the size of an NV21 image, the chroma planes are rounded up for odd dimensions.
+     */
+    public static int getNv21Size(int width, int height) {
+        return width * height + 2 * ((width + 1) / 2) * ((height + 1) / 2);
+    }
+
+    /**
+     * @param pixels The raw pixel data of `getPixelDataSize` bytes.
+     * @param nv21 The destination of `getNv21Size` bytes.
+     */
+    public static void convertToNv21(@NonNull byte[] pixels, int dataFormat, int width, int height, @NonNull byte[] nv21) {
+        int pixelCount = width * height;
+        if (dataFormat == DATA_FORMAT_RGBA) {
+            for (int i = 0, j = 0; i < pixelCount; i++, j += 4) {
+                // BT.601 weights in 1/256
+                nv21[i] = (byte) ((77 * (pixels[j] & 0xFF) + 150 * (pixels[j + 1] & 0xFF) + 29 * (pixels[j + 2] & 0xFF)) >> 8);
+            }
+        } else {
+            System.arraycopy(pixels, 0, nv21, 0, pixelCount);
+        }
+        Arrays.fill(nv21, pixelCount, getNv21Size(width, height), NEUTRAL_CHROMA);
+    }
+
+    /**
+     * Returns the data of a `data:` URL (e.g. from `HTMLCanvasElement.toDataURL`) without its prefix, or the data as it is.
+     */
+    @NonNull
+    public static String stripDataUrlPrefix(@NonNull String data) {
+        return data.substring(getDataStart(data));
+    }
+
+    /**
+     * Returns the index of the data after the prefix of a `data:` URL, or 0 if there is no prefix.
+     */
+    public static int getDataStart(@NonNull String data) {
+        if (!data.startsWith("data:")) {
+            return 0;
+        }
+        int separatorIndex = data.indexOf(',');
+        return separatorIndex < 0 ? 0 : separatorIndex + 1;
+    }
+
+    /**
+     * Returns the number of bytes the Base64 data from `start` on decodes to. Line breaks and padding are ignored.
+     *
+     * @throws IllegalArgumentException If the length of the data is not valid.
+     */
+    public static int getBase64DecodedSize(@NonNull String data, int start) {
+        int characterCount = 0;
+        for (int i = start; i < data.length(); i++) {
+            char character = data.charAt(i);
+            if (character == '=') {
+                break;
+            }
+            if (!isBase64Whitespace(character)) {
+                characterCount++;
+            }
+        }
+        if (characterCount % 4 == 1) {
+            throw new IllegalArgumentException("Invalid Base64 length.");
+        }
+        return characterCount / 4 * 3 + Math.max(0, characterCount % 4 - 1);
+    }
+
+    /**
+     * Decodes the Base64 data from `start` on into a buffer, e.g. a pooled one, instead of allocating a new array
+     * like `android.util.Base64` does.
+     *
+     * @param destination The destination of at least `getBase64DecodedSize` bytes.
+     * @throws IllegalArgumentException If the data contains invalid characters.
+     */
+    public static void decodeBase64(@NonNull String data, int start, @NonNull byte[] destination) {
+        int bits = 0;
+        int bitCount = 0;
+        int index = 0;
+        boolean isPadding = false;
+        for (int i = start; i < data.length(); i++) {
+            char character = data.charAt(i);
+            if (isBase64Whitespace(character)) {
+                continue;
+            }
+            if (character == '=') {
+                isPadding = true;
+                continue;
+            }
+            int value = character < BASE64_VALUES.length ? BASE64_VALUES[character] : -1;
+            if (value < 0 || isPadding) {
+                throw new IllegalArgumentException("Invalid Base64 character.");
+            }
+            bits = (bits << 6) | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                destination[index++] = (byte) (bits >> bitCount);
+            }
+        }
+    }
+
+    private static boolean isBase64Whitespace(char character) {
+        return character == '\n' || character == '\r' || character == ' ' || character == '\t';
+    }
+}
@@ -0,0 +1,62 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import java.nio.ByteBuffer;
+
+/**
+ * Read-only view of the luma (Y) samples of an image, independent of where the image comes from.
+ */
+public class LumaPlane {
+
+    @NonNull
+    private final ByteBuffer buffer;
+
+    private final int rowStride;
+    private final int pixelStride;
+    private final int width;
+    private final int height;
+
+    public LumaPlane(@NonNull ByteBuffer buffer, int rowStride, int pixelStride, int width, int height) {
+        this.buffer = buffer;
+        this.rowStride = rowStride;
+        this.pixelStride = pixelStride;
+        this.width = width;
+        this.height = height;
+    }
+
+    @NonNull
+    public static LumaPlane fromFrame(@NonNull Frame frame) {
+        return new LumaPlane(ByteBuffer.wrap(frame.getNv21()), frame.getWidth(), 1, frame.getWidth(), frame.getHeight());
+    }
+
+    /**
+     * Returns the luma (0-255) at the given position, using an absolute read.
+     */
+    public int get(int x, int y) {
+        return buffer.get(y * rowStride + x * pixelStride) & 0xFF;
+    }
+
+    /**
+     * Copies `length` samples of row `y`, starting at column `x`, without changing the position of the buffer.
+     */
+    public void getRow(int x, int y, @NonNull byte[] destination, int offset, int length) {
+        int index = y * rowStride + x * pixelStride;
+        if (pixelStride == 1) {
+            ByteBuffer row = buffer.duplicate();
+            row.position(index);
+            row.get(destination, offset, length);
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            destination[offset + i] = buffer.get(index + i * pixelStride);
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
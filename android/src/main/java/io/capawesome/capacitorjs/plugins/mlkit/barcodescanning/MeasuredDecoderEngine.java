@@ -0,0 +1,69 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import java.util.List;
+
+/**
+ * Reports the latency and whether or not anything was decoded for every call of the wrapped engine.
+ */
+public class MeasuredDecoderEngine implements DecoderEngine {
+
+    public interface Listener {
+        void onDecoded(@NonNull String engineName, boolean isHit, long durationNanos);
+    }
+
+    @NonNull
+    private final DecoderEngine engine;
+
+    @NonNull
+    private final Listener listener;
+
+    public MeasuredDecoderEngine(@NonNull DecoderEngine engine, @NonNull Listener listener) {
+        this.engine = engine;
+        this.listener = listener;
+    }
+
+    /**
+     * Returns whether at least one barcode was decoded, potential barcodes without a value do not count.
+     */
+    public static boolean isHit(@NonNull List<DecodedBarcode> barcodes) {
+        for (DecodedBarcode barcode : barcodes) {
+            if (barcode.getRawValue() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @NonNull
+    @Override
+    public String getName() {
+        return engine.getName();
+    }
+
+    @Override
+    public void decode(@NonNull DecoderInput input, @NonNull Callback callback) {
+        long startTime = System.nanoTime();
+        engine.decode(
+            input,
+            new Callback() {
+                @Override
+                public void success(@NonNull List<DecodedBarcode> barcodes) {
+                    listener.onDecoded(engine.getName(), isHit(barcodes), System.nanoTime() - startTime);
+                    callback.success(barcodes);
+                }
+
+                @Override
+                public void error(@NonNull Exception exception) {
+                    listener.onDecoded(engine.getName(), false, System.nanoTime() - startTime);
+                    callback.error(exception);
+                }
+            }
+        );
+    }
+
+    @Override
+    public void close() {
+        engine.close();
+    }
+}
@@ -0,0 +1,86 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import android.content.ComponentCallbacks2;
+import androidx.annotation.Nullable;
+
+/**
+ * Tracks how far a scan session has been degraded in response to `onTrimMemory`.
+ *
+ * The levels are cumulative steps, every level includes the lower ones.
+ * The level of a session only ever increases until it is reset by the next session.
+ */
+public class MemoryDegradation {
+
+    public static final int LEVEL_NONE = 0;
+    /**
+     * Release pooled buffers, memory mapped files and pending recordings.
+     */
+    public static final int LEVEL_RELEASE_BUFFERS = 1;
+    /**
+     * Release cached decoder clients, e.g. the probe scanner of the adaptive formats.
+     */
+    public static final int LEVEL_RELEASE_CLIENTS = 2;
+    /**
+     * Analyze frames at a lower resolution.
+     */
+    public static final int LEVEL_REDUCE_RESOLUTION = 3;
+    /**
+     * Stop analyzing frames, the preview keeps running.
+     */
+    public static final int LEVEL_PAUSE_ANALYSIS = 4;
+
+    private int level = LEVEL_NONE;
+
+    /**
+     * Maps a `ComponentCallbacks2.TRIM_MEMORY_*` level to a `LEVEL_*` constant.
+     */
+    public static int getLevelForTrimLevel(int trimLevel) {
+        if (trimLevel == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL || trimLevel >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+            return LEVEL_PAUSE_ANALYSIS;
+        }
+        if (trimLevel == ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            return LEVEL_RELEASE_CLIENTS;
+        }
+        if (trimLevel >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            return LEVEL_REDUCE_RESOLUTION;
+        }
+        if (trimLevel >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+            return LEVEL_RELEASE_BUFFERS;
+        }
+        return LEVEL_NONE;
+    }
+
+    @Nullable
+    public static String getLevelName(int level) {
+        switch (level) {
+            case LEVEL_RELEASE_BUFFERS:
+                return "RELEASE_BUFFERS";
+            case LEVEL_RELEASE_CLIENTS:
+                return "RELEASE_CLIENTS";
+            case LEVEL_REDUCE_RESOLUTION:
+                return "REDUCE_RESOLUTION";
+            case LEVEL_PAUSE_ANALYSIS:
+                return "PAUSE_ANALYSIS";
+            default:
+                return null;
+        }
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Raises the level and returns the previous one.
+     * The steps between the previous and the current level have to be applied by the caller, in order.
+     */
+    public int raise(int level) {
+        int previousLevel = this.level;
+        this.level = Math.max(previousLevel, level);
+        return previousLevel;
+    }
+
+    public void reset() {
+        level = LEVEL_NONE;
+    }
+}
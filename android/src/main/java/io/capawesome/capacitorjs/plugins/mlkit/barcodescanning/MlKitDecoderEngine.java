@@ -0,0 +1,54 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import com.google.mlkit.vision.barcode.BarcodeScanner;
+import com.google.mlkit.vision.barcode.BarcodeScannerOptions;
+import com.google.mlkit.vision.barcode.BarcodeScanning;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import com.google.mlkit.vision.common.InputImage;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MlKitDecoderEngine implements DecoderEngine {
+
+    public static final String NAME = "MLKIT";
+
+    @NonNull
+    private final BarcodeScanner barcodeScannerInstance;
+
+    public MlKitDecoderEngine(@NonNull BarcodeScannerOptions options) {
+        this.barcodeScannerInstance = BarcodeScanning.getClient(options);
+    }
+
+    @NonNull
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void decode(@NonNull DecoderInput input, @NonNull Callback callback) {
+        InputImage inputImage = input.getInputImage();
+        if (inputImage == null) {
+            callback.success(new ArrayList<>());
+            return;
+        }
+        barcodeScannerInstance
+            .process(inputImage)
+            .addOnSuccessListener(
+                barcodes -> {
+                    List<DecodedBarcode> decodedBarcodes = new ArrayList<>(barcodes.size());
+                    for (Barcode barcode : barcodes) {
+                        decodedBarcodes.add(DecodedBarcode.fromBarcode(barcode));
+                    }
+                    callback.success(decodedBarcodes);
+                }
+            )
+            .addOnFailureListener(callback::error);
+    }
+
+    @Override
+    public void close() {
+        barcodeScannerInstance.close();
+    }
+}
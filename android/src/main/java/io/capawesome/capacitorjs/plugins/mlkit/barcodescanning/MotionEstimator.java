@@ -0,0 +1,149 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+/**
+ * Fuses the gyroscope and accelerometer samples into the motion of the device at the time of a frame.
+ *
+ * The angular velocity is the magnitude of a gyroscope sample. The linear acceleration is the magnitude of an
+ * accelerometer sample without gravity, which is tracked with a low-pass filter; it catches the shaking that
+ * rotates the device too little for the gyroscope. A frame is tagged with the highest values of the samples during
+ * the exposure window before its timestamp, since a single jerk during the exposure is enough to blur the frame.
+ * If no sample falls into the window, e.g. because the camera uses another clock than the sensors,
+ * the latest sample is used.
+ *
+ * Thread-safe, the samples arrive on the sensor thread while the frames are checked on the analyzer thread.
+ */
+public class MotionEstimator implements MotionSource.Listener {
+
+    public static final float DEFAULT_MAX_ANGULAR_VELOCITY = 1f;
+    public static final float DEFAULT_MAX_LINEAR_ACCELERATION = 3f;
+
+    /**
+     * The samples before a frame timestamp that are considered, about the longest exposure time of a handheld scan.
+     */
+    public static final long EXPOSURE_WINDOW_NANOS = 50_000_000;
+
+    /**
+     * The weight of the previous gravity estimate in the low-pass filter.
+     */
+    private static final float GRAVITY_SMOOTHING = 0.8f;
+
+    /**
+     * Holds about half a second of samples at the game rate.
+     */
+    private static final int HISTORY_SIZE = 32;
+
+    /**
+     * Ring buffer of the latest sample magnitudes.
+     */
+    private static final class History {
+
+        private final long[] timestamps = new long[HISTORY_SIZE];
+        private final float[] values = new float[HISTORY_SIZE];
+        private int count = 0;
+        private int next = 0;
+
+        private void add(long timestampNanos, float value) {
+            timestamps[next] = timestampNanos;
+            values[next] = value;
+            next = (next + 1) % HISTORY_SIZE;
+            count = Math.min(count + 1, HISTORY_SIZE);
+        }
+
+        /**
+         * Returns the highest value in the window before the timestamp, the latest value if there is none in the window,
+         * or 0 if there are no samples.
+         */
+        private float getMax(long timestampNanos) {
+            if (count == 0) {
+                return 0;
+            }
+            float max = -1;
+            for (int i = 0; i < count; i++) {
+                long age = timestampNanos - timestamps[i];
+                if (age >= 0 && age <= EXPOSURE_WINDOW_NANOS) {
+                    max = Math.max(max, values[i]);
+                }
+            }
+            return max >= 0 ? max : values[(next - 1 + HISTORY_SIZE) % HISTORY_SIZE];
+        }
+
+        private void clear() {
+            count = 0;
+            next = 0;
+        }
+    }
+
+    private final float maxAngularVelocity;
+    private final float maxLinearAcceleration;
+
+    private final History angularVelocities = new History();
+    private final History linearAccelerations = new History();
+    private final float[] gravity = new float[3];
+    private boolean hasGravity = false;
+
+    private float angularVelocity;
+    private float linearAcceleration;
+
+    /**
+     * @param maxAngularVelocity The maximum angular velocity in rad/s of a frame that is analyzed.
+     * @param maxLinearAcceleration The maximum acceleration without gravity in m/s² of a frame that is analyzed.
+     */
+    public MotionEstimator(float maxAngularVelocity, float maxLinearAcceleration) {
+        this.maxAngularVelocity = maxAngularVelocity;
+        this.maxLinearAcceleration = maxLinearAcceleration;
+    }
+
+    @Override
+    public synchronized void onGyroscopeSample(long timestampNanos, float x, float y, float z) {
+        angularVelocities.add(timestampNanos, (float) Math.sqrt(x * x + y * y + z * z));
+    }
+
+    @Override
+    public synchronized void onAccelerometerSample(long timestampNanos, float x, float y, float z) {
+        if (!hasGravity) {
+            gravity[0] = x;
+            gravity[1] = y;
+            gravity[2] = z;
+            hasGravity = true;
+        } else {
+            gravity[0] = GRAVITY_SMOOTHING * gravity[0] + (1 - GRAVITY_SMOOTHING) * x;
+            gravity[1] = GRAVITY_SMOOTHING * gravity[1] + (1 - GRAVITY_SMOOTHING) * y;
+            gravity[2] = GRAVITY_SMOOTHING * gravity[2] + (1 - GRAVITY_SMOOTHING) * z;
+        }
+        float linearX = x - gravity[0];
+        float linearY = y - gravity[1];
+        float linearZ = z - gravity[2];
+        linearAccelerations.add(timestampNanos, (float) Math.sqrt(linearX * linearX + linearY * linearY + linearZ * linearZ));
+    }
+
+    /**
+     * Tags the frame with the motion of the device and returns whether or not it exceeds one of the thresholds.
+     */
+    public synchronized boolean isMoving(long frameTimestampNanos) {
+        angularVelocity = angularVelocities.getMax(frameTimestampNanos);
+        linearAcceleration = linearAccelerations.getMax(frameTimestampNanos);
+        return angularVelocity > maxAngularVelocity || linearAcceleration > maxLinearAcceleration;
+    }
+
+    /**
+     * Returns the angular velocity in rad/s of the last checked frame.
+     */
+    public synchronized float getAngularVelocity() {
+        return angularVelocity;
+    }
+
+    /**
+     * Returns the acceleration without gravity in m/s² of the last checked frame.
+     */
+    public synchronized float getLinearAcceleration() {
+        return linearAcceleration;
+    }
+
+    public synchronized void reset() {
+        angularVelocities.clear();
+        linearAccelerations.clear();
+        hasGravity = false;
+        angularVelocity = 0;
+        linearAcceleration = 0;
+    }
+}
@@ -0,0 +1,33 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Provides the gyroscope and accelerometer samples of the device to the `MotionEstimator`.
+ */
+public interface MotionSource {
+    interface Listener {
+        /**
+         * @param timestampNanos The time of the sample, in the clock of the sensors.
+         * @param x The angular velocity around the x axis in rad/s, `y` and `z` accordingly.
+         */
+        void onGyroscopeSample(long timestampNanos, float x, float y, float z);
+
+        /**
+         * @param x The acceleration along the x axis in m/s², including gravity, `y` and `z` accordingly.
+         */
+        void onAccelerometerSample(long timestampNanos, float x, float y, float z);
+    }
+
+    /**
+     * Starts delivering samples to the listener, on any thread.
+     */
+    void start(@NonNull Listener listener);
+
+    /**
+     * Returns the power drawn by the sensors in mA while started, as reported by the sensors.
+     */
+    float getPowerMilliamps();
+
+    void close();
+}
@@ -0,0 +1,24 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Receives the barcodes of the live scan in native code, without a round trip through the WebView.
+ *
+ * Register it with `BarcodeScannerPlugin.addNativeScanListener`.
+ * Listeners are called one after another on a background thread, in the order the barcodes were scanned,
+ * and only while the session that scanned the barcode is still running.
+ */
+public interface NativeScanListener {
+    /**
+     * @param catalogMatch The catalog lookup result or `null` if the catalog mode is `NONE`.
+     * @param gs1ParseResult The GS1 parse result or `null` if GS1 parsing is disabled.
+     */
+    void onBarcodeScanned(
+        @NonNull DecodedBarcode barcode,
+        @NonNull ScanFrameInfo frameInfo,
+        @Nullable CatalogMatch catalogMatch,
+        @Nullable Gs1ParseResult gs1ParseResult
+    );
+}
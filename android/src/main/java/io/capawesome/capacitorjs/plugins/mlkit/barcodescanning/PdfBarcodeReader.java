@@ -0,0 +1,198 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.graphics.pdf.PdfRenderer;
+import android.net.Uri;
+import android.os.ParcelFileDescriptor;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.android.gms.tasks.Tasks;
+import com.google.mlkit.vision.barcode.BarcodeScannerOptions;
+import com.google.mlkit.vision.barcode.BarcodeScanning;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import com.google.mlkit.vision.common.InputImage;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results.ReadBarcodesFromPdfResult;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.interfaces.NonEmptyResultCallback;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Renders the pages of a PDF document and scans them for barcodes.
+ *
+ * `PdfRenderer` can only render one page at a time, so every worker opens its own renderer
+ * and takes the next page until all pages are scanned. Every worker renders into a single
+ * Bitmap which is reused for all of its pages, so the memory is bounded by the number of workers.
+ */
+public class PdfBarcodeReader {
+
+    /**
+     * Pages are rendered at a lower DPI if they would exceed this number of pixels (16 MB per Bitmap).
+     */
+    public static final long MAX_PAGE_PIXEL_COUNT = 4_000_000;
+
+    public interface PageListener {
+        /**
+         * Called on a worker thread for each scanned page.
+         */
+        void onPageScanned(int pageIndex, @NonNull List<Barcode> barcodes);
+    }
+
+    @NonNull
+    private final ContentResolver contentResolver;
+
+    @NonNull
+    private final Uri uri;
+
+    @Nullable
+    private final int[] requestedPageIndexes;
+
+    private final int maxDpi;
+
+    @NonNull
+    private final BarcodeScannerOptions barcodeScannerOptions;
+
+    @NonNull
+    private final PageListener pageListener;
+
+    private int[] pageIndexes;
+    private int pageCount;
+    private com.google.mlkit.vision.barcode.BarcodeScanner barcodeScannerInstance;
+    private final AtomicInteger nextPage = new AtomicInteger();
+    private final AtomicInteger scannedPageCount = new AtomicInteger();
+    private final AtomicInteger runningWorkerCount = new AtomicInteger();
+    private final AtomicReference<Exception> error = new AtomicReference<>();
+
+    public PdfBarcodeReader(
+        @NonNull ContentResolver contentResolver,
+        @NonNull Uri uri,
+        @Nullable int[] pageIndexes,
+        int maxDpi,
+        @NonNull BarcodeScannerOptions barcodeScannerOptions,
+        @NonNull PageListener pageListener
+    ) {
+        this.contentResolver = contentResolver;
+        this.uri = uri;
+        this.requestedPageIndexes = pageIndexes;
+        this.maxDpi = maxDpi;
+        this.barcodeScannerOptions = barcodeScannerOptions;
+        this.pageListener = pageListener;
+    }
+
+    /**
+     * Scans the pages using up to `workerCount` tasks of the executor.
+     * The callback is called once all workers are finished.
+     */
+    public void read(
+        @NonNull ExecutorService executor,
+        int workerCount,
+        @NonNull NonEmptyResultCallback<ReadBarcodesFromPdfResult> callback
+    ) {
+        executor.execute(
+            () -> {
+                try (ParcelFileDescriptor fileDescriptor = openFileDescriptor(); PdfRenderer pdfRenderer = new PdfRenderer(fileDescriptor)) {
+                    pageCount = pdfRenderer.getPageCount();
+                    pageIndexes = resolvePageIndexes(requestedPageIndexes, pageCount);
+                } catch (Exception exception) {
+                    callback.error(exception);
+                    return;
+                }
+                if (pageIndexes.length == 0) {
+                    callback.success(new ReadBarcodesFromPdfResult(pageCount, 0));
+                    return;
+                }
+                barcodeScannerInstance = BarcodeScanning.getClient(barcodeScannerOptions);
+                int actualWorkerCount = Math.max(1, Math.min(workerCount, pageIndexes.length));
+                runningWorkerCount.set(actualWorkerCount);
+                for (int i = 1; i < actualWorkerCount; i++) {
+                    executor.execute(() -> runWorker(callback));
+                }
+                runWorker(callback);
+            }
+        );
+    }
+
+    private void runWorker(NonEmptyResultCallback<ReadBarcodesFromPdfResult> callback) {
+        Bitmap bitmap = null;
+        try (ParcelFileDescriptor fileDescriptor = openFileDescriptor(); PdfRenderer pdfRenderer = new PdfRenderer(fileDescriptor)) {
+            int next;
+            while (error.get() == null && (next = nextPage.getAndIncrement()) < pageIndexes.length) {
+                int pageIndex = pageIndexes[next];
+                try (PdfRenderer.Page page = pdfRenderer.openPage(pageIndex)) {
+                    int dpi = PdfRenderResolution.getDpi(page.getWidth(), page.getHeight(), maxDpi, MAX_PAGE_PIXEL_COUNT);
+                    int width = PdfRenderResolution.getPixelSize(page.getWidth(), dpi);
+                    int height = PdfRenderResolution.getPixelSize(page.getHeight(), dpi);
+                    bitmap = obtainBitmap(bitmap, width, height);
+                    // Pages are transparent, but barcodes need a light background
+                    bitmap.eraseColor(Color.WHITE);
+                    page.render(bitmap, null, null, PdfRenderer.Page.RENDER_MODE_FOR_PRINT);
+                }
+                // The Bitmap is only reused after the scanner is done with it
+                List<Barcode> barcodes = Tasks.await(barcodeScannerInstance.process(InputImage.fromBitmap(bitmap, 0)));
+                pageListener.onPageScanned(pageIndex, barcodes);
+                scannedPageCount.incrementAndGet();
+            }
+        } catch (Exception exception) {
+            error.compareAndSet(null, exception);
+        } finally {
+            if (bitmap != null) {
+                bitmap.recycle();
+            }
+            if (runningWorkerCount.decrementAndGet() == 0) {
+                barcodeScannerInstance.close();
+                Exception exception = error.get();
+                if (exception == null) {
+                    callback.success(new ReadBarcodesFromPdfResult(pageCount, scannedPageCount.get()));
+                } else {
+                    callback.error(exception);
+                }
+            }
+        }
+    }
+
+    private ParcelFileDescriptor openFileDescriptor() throws Exception {
+        ParcelFileDescriptor fileDescriptor;
+        try {
+            fileDescriptor = contentResolver.openFileDescriptor(uri, "r");
+        } catch (Exception exception) {
+            throw new Exception(BarcodeScannerPlugin.ERROR_LOAD_PDF_FAILED);
+        }
+        if (fileDescriptor == null) {
+            throw new Exception(BarcodeScannerPlugin.ERROR_LOAD_PDF_FAILED);
+        }
+        return fileDescriptor;
+    }
+
+    /**
+     * Reuses the Bitmap if its allocation is large enough for the page.
+     */
+    private static Bitmap obtainBitmap(@Nullable Bitmap bitmap, int width, int height) {
+        if (bitmap != null) {
+            if (bitmap.getAllocationByteCount() >= width * height * 4) {
+                bitmap.reconfigure(width, height, Bitmap.Config.ARGB_8888);
+                return bitmap;
+            }
+            bitmap.recycle();
+        }
+        return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    }
+
+    private static int[] resolvePageIndexes(@Nullable int[] pageIndexes, int pageCount) throws Exception {
+        if (pageIndexes == null) {
+            int[] allPageIndexes = new int[pageCount];
+            for (int i = 0; i < pageCount; i++) {
+                allPageIndexes[i] = i;
+            }
+            return allPageIndexes;
+        }
+        for (int pageIndex : pageIndexes) {
+            if (pageIndex < 0 || pageIndex >= pageCount) {
+                throw new Exception(BarcodeScannerPlugin.ERROR_PDF_PAGE_OUT_OF_RANGE);
+            }
+        }
+        return pageIndexes;
+    }
+}
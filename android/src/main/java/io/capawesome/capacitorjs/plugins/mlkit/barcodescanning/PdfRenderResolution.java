@@ -0,0 +1,40 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+/**
+ * Chooses the resolution a PDF page is rendered at.
+ *
+ * Page sizes are given in PDF points (1/72 inch).
+ */
+public class PdfRenderResolution {
+
+    public static final int POINTS_PER_INCH = 72;
+
+    /**
+     * Returns the highest DPI up to `maxDpi` at which the page does not exceed `maxPixelCount` pixels.
+     */
+    public static int getDpi(int pageWidth, int pageHeight, int maxDpi, long maxPixelCount) {
+        if (pageWidth <= 0 || pageHeight <= 0) {
+            return maxDpi;
+        }
+        int dpi = maxDpi;
+        if (getPixelCount(pageWidth, pageHeight, dpi) > maxPixelCount) {
+            dpi = (int) (POINTS_PER_INCH * Math.sqrt((double) maxPixelCount / ((double) pageWidth * pageHeight)));
+            // Rounding up the pixel size may still exceed the limit
+            while (dpi > 1 && getPixelCount(pageWidth, pageHeight, dpi) > maxPixelCount) {
+                dpi--;
+            }
+        }
+        return Math.max(1, dpi);
+    }
+
+    /**
+     * Returns the size in pixels of a page side rendered at the DPI.
+     */
+    public static int getPixelSize(int points, int dpi) {
+        return Math.max(1, (int) Math.ceil((double) points * dpi / POINTS_PER_INCH));
+    }
+
+    private static long getPixelCount(int pageWidth, int pageHeight, int dpi) {
+        return (long) getPixelSize(pageWidth, dpi) * getPixelSize(pageHeight, dpi);
+    }
+}
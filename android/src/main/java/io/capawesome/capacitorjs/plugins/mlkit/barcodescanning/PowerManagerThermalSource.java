@@ -0,0 +1,50 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.PowerManager;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+/**
+ * Caches the thermal status reported by `PowerManager` (Android 10+).
+ * On older devices the status is always `THERMAL_STATUS_NONE`, so only the latency is governed.
+ */
+public class PowerManagerThermalSource implements ThermalSource {
+
+    @Nullable
+    private final PowerManager powerManager;
+
+    @Nullable
+    private PowerManager.OnThermalStatusChangedListener listener;
+
+    private volatile int thermalStatus = PowerManager.THERMAL_STATUS_NONE;
+
+    public PowerManagerThermalSource(@NonNull Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
+            powerManager = null;
+            return;
+        }
+        powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        if (powerManager == null) {
+            return;
+        }
+        thermalStatus = powerManager.getCurrentThermalStatus();
+        listener = status -> thermalStatus = status;
+        powerManager.addThermalStatusListener(ContextCompat.getMainExecutor(context), listener);
+    }
+
+    @Override
+    public int getThermalStatus() {
+        return thermalStatus;
+    }
+
+    @Override
+    public void close() {
+        if (powerManager != null && listener != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            powerManager.removeThermalStatusListener(listener);
+            listener = null;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The files of a watched folder that were already scanned, keyed by name and identified by size and modification time,
+ * so a file is scanned again once it is replaced.
+ *
+ * Backed by an append-only log file: a header (magic, version) followed by length-prefixed records of
+ * name, size and modification time, where the last record of a name wins. Records after the last complete one
+ * (e.g. because the app crashed) are discarded on open. The log is rewritten when files are dropped with
+ * `retainAll` or when most of its records are superseded.
+ *
+ * Thread-safe.
+ */
+public class ProcessedFileIndex implements Closeable {
+
+    private static final int MAGIC = 0x42535046; // "BSPF"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int MIN_RECORD_LENGTH = 2 + 16;
+
+    private static final class Entry {
+
+        private final long size;
+        private final long modifiedTime;
+
+        private Entry(long size, long modifiedTime) {
+            this.size = size;
+            this.modifiedTime = modifiedTime;
+        }
+    }
+
+    @NonNull
+    private final File file;
+
+    @NonNull
+    private RandomAccessFile randomAccessFile;
+
+    private final HashMap<String, Entry> entries = new HashMap<>();
+    private int recordCount = 0;
+
+    public ProcessedFileIndex(@NonNull File file) throws IOException {
+        this.file = file;
+        File directory = file.getParentFile();
+        if (directory != null && !directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Could not create processed file index directory.");
+        }
+        this.randomAccessFile = new RandomAccessFile(file, "rw");
+        open();
+        if (recordCount > 2 * entries.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Returns whether or not the file was scanned with exactly this size and modification time.
+     */
+    public synchronized boolean isProcessed(@NonNull String name, long size, long modifiedTime) {
+        Entry entry = entries.get(name);
+        return entry != null && entry.size == size && entry.modifiedTime == modifiedTime;
+    }
+
+    public synchronized void markProcessed(@NonNull String name, long size, long modifiedTime) throws IOException {
+        if (isProcessed(name, size, modifiedTime)) {
+            return;
+        }
+        appendRecord(name, size, modifiedTime);
+        entries.put(name, new Entry(size, modifiedTime));
+        recordCount++;
+    }
+
+    /**
+     * Drops the files that are no longer in the folder.
+     *
+     * @return The number of dropped files.
+     */
+    public synchronized int retainAll(@NonNull Collection<String> names) throws IOException {
+        Set<String> retainedNames = new HashSet<>(names);
+        int removedCount = 0;
+        Iterator<String> iterator = entries.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (!retainedNames.contains(iterator.next())) {
+                iterator.remove();
+                removedCount++;
+            }
+        }
+        if (removedCount > 0) {
+            compact();
+        }
+        return removedCount;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        randomAccessFile.close();
+    }
+
+    private void open() throws IOException {
+        long length = randomAccessFile.length();
+        if (length < HEADER_SIZE) {
+            randomAccessFile.setLength(0);
+            writeHeader(randomAccessFile);
+            return;
+        }
+        randomAccessFile.seek(0);
+        if (randomAccessFile.readInt() != MAGIC || randomAccessFile.readInt() != VERSION) {
+            // Written by another version, the files are scanned again
+            randomAccessFile.setLength(0);
+            writeHeader(randomAccessFile);
+            return;
+        }
+        long offset = HEADER_SIZE;
+        while (offset + 4 + MIN_RECORD_LENGTH <= length) {
+            randomAccessFile.seek(offset);
+            int recordLength = randomAccessFile.readInt();
+            if (recordLength < MIN_RECORD_LENGTH || offset + 4 + recordLength > length) {
+                break;
+            }
+            String name = randomAccessFile.readUTF();
+            entries.put(name, new Entry(randomAccessFile.readLong(), randomAccessFile.readLong()));
+            offset += 4 + recordLength;
+            recordCount++;
+        }
+        // Anything after the last complete record is discarded
+        randomAccessFile.setLength(offset);
+    }
+
+    private static void writeHeader(RandomAccessFile randomAccessFile) throws IOException {
+        randomAccessFile.seek(0);
+        randomAccessFile.writeInt(MAGIC);
+        randomAccessFile.writeInt(VERSION);
+    }
+
+    private static byte[] createRecord(String name, long size, long modifiedTime) throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        DataOutputStream outputStream = new DataOutputStream(byteArrayOutputStream);
+        outputStream.writeInt(0); // Record length
+        outputStream.writeUTF(name);
+        outputStream.writeLong(size);
+        outputStream.writeLong(modifiedTime);
+        outputStream.flush();
+        byte[] record = byteArrayOutputStream.toByteArray();
+        int recordLength = record.length - 4;
+        record[0] = (byte) (recordLength >>> 24);
+        record[1] = (byte) (recordLength >>> 16);
+        record[2] = (byte) (recordLength >>> 8);
+        record[3] = (byte) recordLength;
+        return record;
+    }
+
+    private void appendRecord(String name, long size, long modifiedTime) throws IOException {
+        randomAccessFile.seek(randomAccessFile.length());
+        randomAccessFile.write(createRecord(name, size, modifiedTime));
+    }
+
+    /**
+     * Rewrites the log with the current entries only.
+     */
+    private void compact() throws IOException {
+        List<Map.Entry<String, Entry>> currentEntries = new ArrayList<>(entries.entrySet());
+        File compactedFile = new File(file.getPath() + ".tmp");
+        try (RandomAccessFile compactedRandomAccessFile = new RandomAccessFile(compactedFile, "rw")) {
+            compactedRandomAccessFile.setLength(0);
+            writeHeader(compactedRandomAccessFile);
+            for (Map.Entry<String, Entry> entry : currentEntries) {
+                compactedRandomAccessFile.write(createRecord(entry.getKey(), entry.getValue().size, entry.getValue().modifiedTime));
+            }
+        }
+        randomAccessFile.close();
+        if (!compactedFile.renameTo(file)) {
+            randomAccessFile = new RandomAccessFile(file, "rw");
+            throw new IOException("Could not replace processed file index.");
+        }
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        recordCount = currentEntries.size();
+    }
+}
@@ -3,10 +3,13 @@
  */
 package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
 
-import com.google.mlkit.vision.barcode.common.Barcode;
+import androidx.annotation.Nullable;
 import java.util.List;
 
 public interface ReadBarcodesFromImageResultCallback {
-    void success(List<Barcode> barcodes);
+    /**
+     * @param gs1ParseResults The GS1 parse result for each barcode or `null` if GS1 parsing is disabled.
+     */
+    void success(List<DecodedBarcode> barcodes, @Nullable List<Gs1ParseResult> gs1ParseResults);
     void error(Exception exception);
 }
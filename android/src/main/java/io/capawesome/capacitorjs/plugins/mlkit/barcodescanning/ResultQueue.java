@@ -0,0 +1,103 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded ring buffer of scan results that the consumer drains at its own pace.
+ *
+ * Once the queue is full, either the oldest queued result or the new result is dropped.
+ * A closed queue accepts no more results, but the queued ones can still be polled.
+ *
+ * Thread-safe.
+ */
+public class ResultQueue<T> {
+
+    public static final int OVERFLOW_POLICY_DROP_OLDEST = 0;
+    public static final int OVERFLOW_POLICY_DROP_NEWEST = 1;
+
+    private final Object[] items;
+    private final int overflowPolicy;
+    private int head = 0;
+    private int size = 0;
+    private boolean isClosed = false;
+
+    public ResultQueue(int capacity, int overflowPolicy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than 0.");
+        }
+        this.items = new Object[capacity];
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Queues a result and returns `false` if a result was dropped (or the queue is closed).
+     */
+    public synchronized boolean offer(@NonNull T item) {
+        if (isClosed) {
+            return false;
+        }
+        boolean isDropped = false;
+        if (size == items.length) {
+            if (overflowPolicy == OVERFLOW_POLICY_DROP_NEWEST) {
+                return false;
+            }
+            items[head] = null;
+            head = (head + 1) % items.length;
+            size--;
+            isDropped = true;
+        }
+        items[(head + size) % items.length] = item;
+        size++;
+        notifyAll();
+        return !isDropped;
+    }
+
+    /**
+     * Removes up to `max` results, oldest first.
+     * If the queue is empty, waits up to `waitMillis` for the first result, unless the queue is closed.
+     */
+    @NonNull
+    public synchronized List<T> poll(int max, long waitMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + waitMillis * 1_000_000L;
+        while (size == 0 && !isClosed) {
+            long remainingMillis = (deadline - System.nanoTime() + 999_999L) / 1_000_000L;
+            if (remainingMillis <= 0) {
+                break;
+            }
+            wait(remainingMillis);
+        }
+        int count = Math.min(max, size);
+        List<T> polledItems = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            @SuppressWarnings("unchecked")
+            T item = (T) items[head];
+            polledItems.add(item);
+            items[head] = null;
+            head = (head + 1) % items.length;
+        }
+        size -= count;
+        return polledItems;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return items.length;
+    }
+
+    /**
+     * Wakes up all waiting consumers.
+     */
+    public synchronized void close() {
+        isClosed = true;
+        notifyAll();
+    }
+
+    public synchronized boolean isClosed() {
+        return isClosed;
+    }
+}
@@ -0,0 +1,53 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+/**
+ * Metadata of the analyzed frame a barcode was scanned in.
+ */
+public class ScanFrameInfo {
+
+    private final long sessionId;
+    private final long timestampNanos;
+    private final int width;
+    private final int height;
+    private final int rotationDegrees;
+
+    public ScanFrameInfo(long sessionId, long timestampNanos, int width, int height, int rotationDegrees) {
+        this.sessionId = sessionId;
+        this.timestampNanos = timestampNanos;
+        this.width = width;
+        this.height = height;
+        this.rotationDegrees = rotationDegrees;
+    }
+
+    /**
+     * Identifies the scan session, a new scan session has a greater ID.
+     */
+    public long getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * The sensor timestamp of the frame.
+     */
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    /**
+     * The width of the frame before rotation, the barcode coordinates are relative to the upright frame.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * The clockwise rotation that makes the frame upright.
+     */
+    public int getRotationDegrees() {
+        return rotationDegrees;
+    }
+}
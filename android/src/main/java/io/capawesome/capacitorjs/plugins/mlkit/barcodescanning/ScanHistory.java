@@ -0,0 +1,352 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only, memory-mapped log of scanned barcodes.
+ *
+ * The data is split into two files:
+ * - `scan-history.log` holds the variable-length value and image path of each entry.
+ * - `scan-history.idx` holds a fixed-size record per entry (timestamp, log offset, format, value hash)
+ *   and the number of committed entries in its header.
+ *
+ * An entry is only visible once the committed count is written, which happens last.
+ * Anything written after the last committed entry (e.g. because the app crashed) is discarded on open.
+ *
+ * Timestamps never decrease, so time ranges are found by binary search on the index file.
+ * Values are found through an in-memory index of `(hash << 32 | sequence)` keys.
+ *
+ * Not thread-safe, must be confined to a single thread.
+ */
+public class ScanHistory {
+
+    public static final String LOG_FILE_NAME = "scan-history.log";
+    public static final String INDEX_FILE_NAME = "scan-history.idx";
+
+    private static final int MAGIC = 0x42534831; // "BSH1"
+    private static final int HEADER_SIZE = 16;
+    private static final int INDEX_ENTRY_SIZE = 24;
+    private static final int INITIAL_LOG_CAPACITY = 64 * 1024;
+    private static final int INITIAL_INDEX_CAPACITY = HEADER_SIZE + 1024 * INDEX_ENTRY_SIZE;
+    private static final int MAX_TAIL_SIZE = 1024;
+
+    @NonNull
+    private final File logFile;
+
+    @NonNull
+    private final File indexFile;
+
+    private RandomAccessFile logRandomAccessFile;
+    private RandomAccessFile indexRandomAccessFile;
+    private MappedByteBuffer logBuffer;
+    private MappedByteBuffer indexBuffer;
+
+    private int count;
+    private int logPosition;
+    private long lastTimestamp;
+
+    // Sorted value index and unsorted keys of the latest entries
+    private long[] valueKeys = new long[0];
+    private long[] tailValueKeys = new long[MAX_TAIL_SIZE];
+    private int tailSize;
+
+    public ScanHistory(@NonNull File directory) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Could not create scan history directory.");
+        }
+        this.logFile = new File(directory, LOG_FILE_NAME);
+        this.indexFile = new File(directory, INDEX_FILE_NAME);
+        open();
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public void append(@NonNull String value, int format, long timestamp, @Nullable String imagePath) throws IOException {
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        byte[] imagePathBytes = imagePath == null ? null : imagePath.getBytes(StandardCharsets.UTF_8);
+        int imagePathLength = imagePathBytes == null ? -1 : imagePathBytes.length;
+        int recordSize = 8 + valueBytes.length + Math.max(imagePathLength, 0);
+        ensureLogCapacity(logPosition + recordSize);
+        ensureIndexCapacity(HEADER_SIZE + (count + 1) * INDEX_ENTRY_SIZE);
+
+        int offset = logPosition;
+        logBuffer.putInt(offset, valueBytes.length);
+        logBuffer.putInt(offset + 4, imagePathLength);
+        logBuffer.position(offset + 8);
+        logBuffer.put(valueBytes);
+        if (imagePathBytes != null) {
+            logBuffer.put(imagePathBytes);
+        }
+
+        timestamp = Math.max(timestamp, lastTimestamp);
+        int valueHash = hash(valueBytes, 0, valueBytes.length);
+        int indexOffset = HEADER_SIZE + count * INDEX_ENTRY_SIZE;
+        indexBuffer.putLong(indexOffset, timestamp);
+        indexBuffer.putLong(indexOffset + 8, offset);
+        indexBuffer.putInt(indexOffset + 16, format);
+        indexBuffer.putInt(indexOffset + 20, valueHash);
+        // Commit
+        indexBuffer.putLong(8, count + 1);
+
+        addValueKey(createValueKey(valueHash, count));
+        count++;
+        logPosition = offset + recordSize;
+        lastTimestamp = timestamp;
+    }
+
+    /**
+     * @param value Only return entries with this value or `null` for all values.
+     * @param from Inclusive lower bound of the timestamp.
+     * @param to Exclusive upper bound of the timestamp.
+     */
+    @NonNull
+    public ScanHistoryPage query(@Nullable String value, long from, long to, int offset, int limit) {
+        int start = findFirstSequenceAtOrAfter(from);
+        int end = findFirstSequenceAtOrAfter(to);
+        List<ScanHistoryEntry> entries = new ArrayList<>();
+        if (start >= end) {
+            return new ScanHistoryPage(entries, 0);
+        }
+        if (value == null) {
+            int total = end - start;
+            for (int sequence = start + offset; sequence < end && entries.size() < limit; sequence++) {
+                entries.add(readEntry(sequence));
+            }
+            return new ScanHistoryPage(entries, total);
+        }
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        int[] sequences = findSequencesByValue(valueBytes, start, end);
+        for (int i = offset; i < sequences.length && entries.size() < limit; i++) {
+            entries.add(readEntry(sequences[i]));
+        }
+        return new ScanHistoryPage(entries, sequences.length);
+    }
+
+    public void clear() throws IOException {
+        close();
+        if ((logFile.exists() && !logFile.delete()) || (indexFile.exists() && !indexFile.delete())) {
+            throw new IOException("Could not delete scan history.");
+        }
+        open();
+    }
+
+    public void close() throws IOException {
+        if (logBuffer != null) {
+            logBuffer.force();
+            indexBuffer.force();
+        }
+        if (logRandomAccessFile != null) {
+            logRandomAccessFile.close();
+            logRandomAccessFile = null;
+        }
+        if (indexRandomAccessFile != null) {
+            indexRandomAccessFile.close();
+            indexRandomAccessFile = null;
+        }
+        logBuffer = null;
+        indexBuffer = null;
+    }
+
+    private void open() throws IOException {
+        logRandomAccessFile = new RandomAccessFile(logFile, "rw");
+        indexRandomAccessFile = new RandomAccessFile(indexFile, "rw");
+        boolean isNew = indexRandomAccessFile.length() < HEADER_SIZE;
+        logBuffer = map(logRandomAccessFile, Math.max(INITIAL_LOG_CAPACITY, logRandomAccessFile.length()));
+        indexBuffer = map(indexRandomAccessFile, Math.max(INITIAL_INDEX_CAPACITY, indexRandomAccessFile.length()));
+        if (isNew) {
+            indexBuffer.putInt(0, MAGIC);
+            indexBuffer.putLong(8, 0);
+        } else if (indexBuffer.getInt(0) != MAGIC) {
+            throw new IOException("Invalid scan history file.");
+        }
+
+        count = (int) indexBuffer.getLong(8);
+        logPosition = 0;
+        lastTimestamp = 0;
+        tailSize = 0;
+        valueKeys = new long[count];
+        for (int sequence = 0; sequence < count; sequence++) {
+            int indexOffset = HEADER_SIZE + sequence * INDEX_ENTRY_SIZE;
+            valueKeys[sequence] = createValueKey(indexBuffer.getInt(indexOffset + 20), sequence);
+        }
+        Arrays.sort(valueKeys);
+        if (count > 0) {
+            int lastIndexOffset = HEADER_SIZE + (count - 1) * INDEX_ENTRY_SIZE;
+            int lastLogOffset = (int) indexBuffer.getLong(lastIndexOffset + 8);
+            logPosition = lastLogOffset + 8 + logBuffer.getInt(lastLogOffset) + Math.max(logBuffer.getInt(lastLogOffset + 4), 0);
+            lastTimestamp = indexBuffer.getLong(lastIndexOffset);
+        }
+    }
+
+    private ScanHistoryEntry readEntry(int sequence) {
+        int indexOffset = HEADER_SIZE + sequence * INDEX_ENTRY_SIZE;
+        long timestamp = indexBuffer.getLong(indexOffset);
+        int logOffset = (int) indexBuffer.getLong(indexOffset + 8);
+        int format = indexBuffer.getInt(indexOffset + 16);
+        int valueLength = logBuffer.getInt(logOffset);
+        int imagePathLength = logBuffer.getInt(logOffset + 4);
+        String value = readString(logOffset + 8, valueLength);
+        String imagePath = imagePathLength < 0 ? null : readString(logOffset + 8 + valueLength, imagePathLength);
+        return new ScanHistoryEntry(value, format, timestamp, imagePath);
+    }
+
+    private String readString(int offset, int length) {
+        byte[] bytes = new byte[length];
+        logBuffer.position(offset);
+        logBuffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean isValueEqual(int sequence, byte[] valueBytes) {
+        int logOffset = (int) indexBuffer.getLong(HEADER_SIZE + sequence * INDEX_ENTRY_SIZE + 8);
+        if (logBuffer.getInt(logOffset) != valueBytes.length) {
+            return false;
+        }
+        for (int i = 0; i < valueBytes.length; i++) {
+            if (logBuffer.get(logOffset + 8 + i) != valueBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int findFirstSequenceAtOrAfter(long timestamp) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (indexBuffer.getLong(HEADER_SIZE + middle * INDEX_ENTRY_SIZE) < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the ascending sequences of the entries with the value in the range `[start, end)`.
+     */
+    private int[] findSequencesByValue(byte[] valueBytes, int start, int end) {
+        int valueHash = hash(valueBytes, 0, valueBytes.length);
+        long lowKey = createValueKey(valueHash, 0);
+        long highKey = createValueKey(valueHash, -1);
+        int[] sequences = new int[8];
+        int size = 0;
+        int index = lowerBound(valueKeys, lowKey);
+        for (; index < valueKeys.length && valueKeys[index] <= highKey; index++) {
+            int sequence = (int) valueKeys[index];
+            if (sequence >= start && sequence < end && isValueEqual(sequence, valueBytes)) {
+                if (size == sequences.length) {
+                    sequences = Arrays.copyOf(sequences, size * 2);
+                }
+                sequences[size++] = sequence;
+            }
+        }
+        // The tail only contains entries newer than the sorted keys
+        for (int i = 0; i < tailSize; i++) {
+            int sequence = (int) tailValueKeys[i];
+            if (tailValueKeys[i] >= lowKey && tailValueKeys[i] <= highKey && sequence >= start && sequence < end) {
+                if (isValueEqual(sequence, valueBytes)) {
+                    if (size == sequences.length) {
+                        sequences = Arrays.copyOf(sequences, size * 2);
+                    }
+                    sequences[size++] = sequence;
+                }
+            }
+        }
+        return Arrays.copyOf(sequences, size);
+    }
+
+    private void addValueKey(long valueKey) {
+        tailValueKeys[tailSize++] = valueKey;
+        if (tailSize < MAX_TAIL_SIZE) {
+            return;
+        }
+        Arrays.sort(tailValueKeys, 0, tailSize);
+        long[] mergedValueKeys = new long[valueKeys.length + tailSize];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < valueKeys.length && j < tailSize) {
+            mergedValueKeys[k++] = valueKeys[i] <= tailValueKeys[j] ? valueKeys[i++] : tailValueKeys[j++];
+        }
+        while (i < valueKeys.length) {
+            mergedValueKeys[k++] = valueKeys[i++];
+        }
+        while (j < tailSize) {
+            mergedValueKeys[k++] = tailValueKeys[j++];
+        }
+        valueKeys = mergedValueKeys;
+        tailSize = 0;
+    }
+
+    private void ensureLogCapacity(long capacity) throws IOException {
+        if (capacity <= logBuffer.capacity()) {
+            return;
+        }
+        logBuffer = map(logRandomAccessFile, grow(logBuffer.capacity(), capacity));
+    }
+
+    private void ensureIndexCapacity(long capacity) throws IOException {
+        if (capacity <= indexBuffer.capacity()) {
+            return;
+        }
+        indexBuffer = map(indexRandomAccessFile, grow(indexBuffer.capacity(), capacity));
+    }
+
+    private static long grow(long currentCapacity, long requiredCapacity) throws IOException {
+        long capacity = Math.max(currentCapacity * 2, requiredCapacity);
+        capacity = Math.min(capacity, Integer.MAX_VALUE);
+        if (capacity < requiredCapacity) {
+            throw new IOException("Scan history is full.");
+        }
+        return capacity;
+    }
+
+    private static MappedByteBuffer map(RandomAccessFile randomAccessFile, long size) throws IOException {
+        return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private static int lowerBound(long[] values, long value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long createValueKey(int valueHash, int sequence) {
+        return ((long) valueHash << 32) | (sequence & 0xFFFFFFFFL);
+    }
+
+    /**
+     * FNV-1a
+     */
+    private static int hash(byte[] bytes, int offset, int length) {
+        int hash = 0x811C9DC5;
+        for (int i = offset; i < offset + length; i++) {
+            hash ^= bytes[i] & 0xFF;
+            hash *= 0x01000193;
+        }
+        return hash;
+    }
+}
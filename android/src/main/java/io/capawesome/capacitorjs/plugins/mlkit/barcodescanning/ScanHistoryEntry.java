@@ -0,0 +1,42 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+public class ScanHistoryEntry {
+
+    @NonNull
+    private final String value;
+
+    private final int format;
+
+    private final long timestamp;
+
+    @Nullable
+    private final String imagePath;
+
+    public ScanHistoryEntry(@NonNull String value, int format, long timestamp, @Nullable String imagePath) {
+        this.value = value;
+        this.format = format;
+        this.timestamp = timestamp;
+        this.imagePath = imagePath;
+    }
+
+    @NonNull
+    public String getValue() {
+        return value;
+    }
+
+    public int getFormat() {
+        return format;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Nullable
+    public String getImagePath() {
+        return imagePath;
+    }
+}
@@ -0,0 +1,29 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import java.util.List;
+
+public class ScanHistoryPage {
+
+    @NonNull
+    private final List<ScanHistoryEntry> entries;
+
+    private final int total;
+
+    public ScanHistoryPage(@NonNull List<ScanHistoryEntry> entries, int total) {
+        this.entries = entries;
+        this.total = total;
+    }
+
+    @NonNull
+    public List<ScanHistoryEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * The number of entries matching the query regardless of paging.
+     */
+    public int getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,446 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import com.google.mlkit.vision.barcode.common.Barcode;
+
+/**
+ * Counters of the current (or last) scan session.
+ *
+ * Written from the analyzer, read from the plugin thread.
+ */
+public class ScanMetrics {
+
+    private int focusActionCount;
+    private int decodeLatencyCount;
+    private long decodeLatencyTotalMillis;
+    private int focusedDecodeLatencyCount;
+    private long focusedDecodeLatencyTotalMillis;
+    private int probeFrameCount;
+    private int catalogLookupCount;
+    private long catalogLookupTotalNanos;
+    private int qualityGateFrameCount;
+    private long qualityGateTotalNanos;
+    private int tooDarkFrameCount;
+    private int tooBrightFrameCount;
+    private int tooClippedFrameCount;
+    private int tooBlurryFrameCount;
+    private float lastFrameSharpness;
+    private float lastFrameLuma;
+    private float lastFrameClippingRatio;
+    private int mlKitDecodeCount;
+    private int mlKitHitCount;
+    private long mlKitDecodeTotalNanos;
+    private int stripDecodeCount;
+    private int stripHitCount;
+    private long stripDecodeTotalNanos;
+    private int thermalThrottledFrameCount;
+    private int frameChangeCheckCount;
+    private int unchangedFrameCount;
+    private long frameChangeCheckTotalNanos;
+    private int motionCheckCount;
+    private int motionSkippedFrameCount;
+    private double angularVelocityTotal;
+    private float motionSensorPowerMilliamps;
+    private long motionSensorStartedAt;
+    private long motionSensorStoppedAt;
+    private boolean isMotionSensorRunning;
+    private int thermalLevel;
+    private int thermalLevelChangeCount;
+    private final FrameRateMeter receivedFrameRateMeter = new FrameRateMeter();
+    private final FrameRateMeter analyzedFrameRateMeter = new FrameRateMeter();
+    private int targetFrameRate;
+    private int resultQueueHighWaterMark;
+    private int twoStageFrameCount;
+    private long coarseStageTotalNanos;
+    private long fineStageTotalNanos;
+    private int fineStageRegionCount;
+    private double processedPixelFractionTotal;
+    private int resultQueueDroppedCount;
+
+    @Barcode.BarcodeFormat
+    private int[] activeFormats = new int[] {};
+
+    public synchronized void reset() {
+        focusActionCount = 0;
+        decodeLatencyCount = 0;
+        decodeLatencyTotalMillis = 0;
+        focusedDecodeLatencyCount = 0;
+        focusedDecodeLatencyTotalMillis = 0;
+        probeFrameCount = 0;
+        catalogLookupCount = 0;
+        catalogLookupTotalNanos = 0;
+        qualityGateFrameCount = 0;
+        qualityGateTotalNanos = 0;
+        tooDarkFrameCount = 0;
+        tooBrightFrameCount = 0;
+        tooClippedFrameCount = 0;
+        tooBlurryFrameCount = 0;
+        lastFrameSharpness = 0;
+        lastFrameLuma = 0;
+        lastFrameClippingRatio = 0;
+        mlKitDecodeCount = 0;
+        mlKitHitCount = 0;
+        mlKitDecodeTotalNanos = 0;
+        stripDecodeCount = 0;
+        stripHitCount = 0;
+        stripDecodeTotalNanos = 0;
+        thermalThrottledFrameCount = 0;
+        frameChangeCheckCount = 0;
+        unchangedFrameCount = 0;
+        frameChangeCheckTotalNanos = 0;
+        motionCheckCount = 0;
+        motionSkippedFrameCount = 0;
+        angularVelocityTotal = 0;
+        motionSensorPowerMilliamps = 0;
+        motionSensorStartedAt = 0;
+        motionSensorStoppedAt = 0;
+        isMotionSensorRunning = false;
+        thermalLevel = 0;
+        thermalLevelChangeCount = 0;
+        receivedFrameRateMeter.reset();
+        analyzedFrameRateMeter.reset();
+        targetFrameRate = 0;
+        resultQueueHighWaterMark = 0;
+        twoStageFrameCount = 0;
+        coarseStageTotalNanos = 0;
+        fineStageTotalNanos = 0;
+        fineStageRegionCount = 0;
+        processedPixelFractionTotal = 0;
+        resultQueueDroppedCount = 0;
+        activeFormats = new int[] {};
+    }
+
+    public synchronized void recordFocusAction() {
+        focusActionCount++;
+    }
+
+    /**
+     * @param latencyMillis The time between a barcode first being located and being decoded.
+     * @param isFocused Whether or not a focus action was triggered for the barcode in between.
+     */
+    public synchronized void recordDecodeLatency(long latencyMillis, boolean isFocused) {
+        if (isFocused) {
+            focusedDecodeLatencyCount++;
+            focusedDecodeLatencyTotalMillis += latencyMillis;
+        } else {
+            decodeLatencyCount++;
+            decodeLatencyTotalMillis += latencyMillis;
+        }
+    }
+
+    public synchronized void recordProbeFrame() {
+        probeFrameCount++;
+    }
+
+    public synchronized void recordCatalogLookup(long durationNanos) {
+        catalogLookupCount++;
+        catalogLookupTotalNanos += durationNanos;
+    }
+
+    /**
+     * @param result One of the `FrameQualityGate.RESULT_*` constants.
+     */
+    public synchronized void recordFrameQuality(int result, float sharpness, float luma, float clippingRatio, long durationNanos) {
+        qualityGateFrameCount++;
+        qualityGateTotalNanos += durationNanos;
+        switch (result) {
+            case FrameQualityGate.RESULT_TOO_DARK:
+                tooDarkFrameCount++;
+                break;
+            case FrameQualityGate.RESULT_TOO_BRIGHT:
+                tooBrightFrameCount++;
+                break;
+            case FrameQualityGate.RESULT_TOO_CLIPPED:
+                tooClippedFrameCount++;
+                break;
+            case FrameQualityGate.RESULT_TOO_BLURRY:
+                tooBlurryFrameCount++;
+                break;
+        }
+        lastFrameSharpness = sharpness;
+        lastFrameLuma = luma;
+        lastFrameClippingRatio = clippingRatio;
+    }
+
+    /**
+     * @param engineName The name of the `DecoderEngine`.
+     * @param isHit Whether or not at least one barcode was decoded.
+     */
+    public synchronized void recordDecode(String engineName, boolean isHit, long durationNanos) {
+        if (MlKitDecoderEngine.NAME.equals(engineName)) {
+            mlKitDecodeCount++;
+            mlKitHitCount += isHit ? 1 : 0;
+            mlKitDecodeTotalNanos += durationNanos;
+        } else if (StripDecoderEngine.NAME.equals(engineName)) {
+            stripDecodeCount++;
+            stripHitCount += isHit ? 1 : 0;
+            stripDecodeTotalNanos += durationNanos;
+        }
+    }
+
+    public synchronized void recordThermalThrottledFrame() {
+        thermalThrottledFrameCount++;
+    }
+
+    /**
+     * @param isUnchanged Whether or not the decoding of the frame was skipped.
+     */
+    public synchronized void recordFrameChangeCheck(boolean isUnchanged, long durationNanos) {
+        frameChangeCheckCount++;
+        unchangedFrameCount += isUnchanged ? 1 : 0;
+        frameChangeCheckTotalNanos += durationNanos;
+    }
+
+    /**
+     * @param isMoving Whether or not the frame was skipped because of the motion of the device.
+     * @param angularVelocity In rad/s.
+     */
+    public synchronized void recordMotionCheck(boolean isMoving, float angularVelocity) {
+        motionCheckCount++;
+        motionSkippedFrameCount += isMoving ? 1 : 0;
+        angularVelocityTotal += angularVelocity;
+    }
+
+    public synchronized void startMotionSensor(float powerMilliamps, long startedAt) {
+        motionSensorPowerMilliamps = powerMilliamps;
+        motionSensorStartedAt = startedAt;
+        isMotionSensorRunning = true;
+    }
+
+    public synchronized void stopMotionSensor(long stoppedAt) {
+        if (isMotionSensorRunning) {
+            motionSensorStoppedAt = stoppedAt;
+            isMotionSensorRunning = false;
+        }
+    }
+
+    public synchronized void setThermalLevel(int thermalLevel, int thermalLevelChangeCount) {
+        this.thermalLevel = thermalLevel;
+        this.thermalLevelChangeCount = thermalLevelChangeCount;
+    }
+
+    /**
+     * Called for every frame the analyzer receives, frames dropped by the camera pipeline are not counted.
+     */
+    public synchronized void recordReceivedFrame(long timestampNanos) {
+        receivedFrameRateMeter.recordFrame(timestampNanos);
+    }
+
+    /**
+     * Called for every frame that is not throttled, including frames rejected by the quality gate.
+     */
+    public synchronized void recordAnalyzedFrame(long timestampNanos) {
+        analyzedFrameRateMeter.recordFrame(timestampNanos);
+    }
+
+    /**
+     * @param targetFrameRate The frame rate requested from the camera or 0 if it is left to the camera.
+     */
+    public synchronized void setTargetFrameRate(int targetFrameRate) {
+        this.targetFrameRate = targetFrameRate;
+    }
+
+    /**
+     * Called for every frame decoded in two stages, frames that are already small enough are not counted.
+     */
+    public synchronized void recordTwoStageDecode(long coarseStageNanos, long fineStageNanos, int regionCount, float processedPixelFraction) {
+        twoStageFrameCount++;
+        coarseStageTotalNanos += coarseStageNanos;
+        fineStageTotalNanos += fineStageNanos;
+        fineStageRegionCount += regionCount;
+        processedPixelFractionTotal += processedPixelFraction;
+    }
+
+    /**
+     * @param queueSize The size of the result queue after the result was offered.
+     * @param isDropped Whether or not a result was dropped because the queue was full.
+     */
+    public synchronized void recordQueuedResult(int queueSize, boolean isDropped) {
+        resultQueueHighWaterMark = Math.max(resultQueueHighWaterMark, queueSize);
+        resultQueueDroppedCount += isDropped ? 1 : 0;
+    }
+
+    /**
+     * @param activeFormats The formats the live scanner is narrowed to or an empty array for all formats.
+     */
+    public synchronized void setActiveFormats(int[] activeFormats) {
+        this.activeFormats = activeFormats;
+    }
+
+    public synchronized int getFocusActionCount() {
+        return focusActionCount;
+    }
+
+    public synchronized double getAverageDecodeLatencyMillis() {
+        return decodeLatencyCount == 0 ? 0 : (double) decodeLatencyTotalMillis / decodeLatencyCount;
+    }
+
+    public synchronized double getAverageFocusedDecodeLatencyMillis() {
+        return focusedDecodeLatencyCount == 0 ? 0 : (double) focusedDecodeLatencyTotalMillis / focusedDecodeLatencyCount;
+    }
+
+    public synchronized int getProbeFrameCount() {
+        return probeFrameCount;
+    }
+
+    public synchronized int getCatalogLookupCount() {
+        return catalogLookupCount;
+    }
+
+    public synchronized double getAverageCatalogLookupTimeMillis() {
+        return catalogLookupCount == 0 ? 0 : catalogLookupTotalNanos / 1_000_000.0 / catalogLookupCount;
+    }
+
+    public synchronized int getQualityGateFrameCount() {
+        return qualityGateFrameCount;
+    }
+
+    public synchronized double getAverageQualityGateTimeMillis() {
+        return qualityGateFrameCount == 0 ? 0 : qualityGateTotalNanos / 1_000_000.0 / qualityGateFrameCount;
+    }
+
+    public synchronized int getTooDarkFrameCount() {
+        return tooDarkFrameCount;
+    }
+
+    public synchronized int getTooBrightFrameCount() {
+        return tooBrightFrameCount;
+    }
+
+    public synchronized int getTooClippedFrameCount() {
+        return tooClippedFrameCount;
+    }
+
+    public synchronized int getTooBlurryFrameCount() {
+        return tooBlurryFrameCount;
+    }
+
+    public synchronized float getLastFrameSharpness() {
+        return lastFrameSharpness;
+    }
+
+    public synchronized float getLastFrameLuma() {
+        return lastFrameLuma;
+    }
+
+    public synchronized float getLastFrameClippingRatio() {
+        return lastFrameClippingRatio;
+    }
+
+    public synchronized int getMlKitDecodeCount() {
+        return mlKitDecodeCount;
+    }
+
+    public synchronized int getMlKitHitCount() {
+        return mlKitHitCount;
+    }
+
+    public synchronized double getAverageMlKitDecodeTimeMillis() {
+        return mlKitDecodeCount == 0 ? 0 : mlKitDecodeTotalNanos / 1_000_000.0 / mlKitDecodeCount;
+    }
+
+    public synchronized int getStripDecodeCount() {
+        return stripDecodeCount;
+    }
+
+    public synchronized int getStripHitCount() {
+        return stripHitCount;
+    }
+
+    public synchronized double getAverageStripDecodeTimeMillis() {
+        return stripDecodeCount == 0 ? 0 : stripDecodeTotalNanos / 1_000_000.0 / stripDecodeCount;
+    }
+
+    public synchronized int getThermalThrottledFrameCount() {
+        return thermalThrottledFrameCount;
+    }
+
+    public synchronized int getUnchangedFrameCount() {
+        return unchangedFrameCount;
+    }
+
+    public synchronized double getAverageFrameChangeCheckTimeMillis() {
+        return frameChangeCheckCount == 0 ? 0 : frameChangeCheckTotalNanos / 1_000_000.0 / frameChangeCheckCount;
+    }
+
+    public synchronized int getMotionSkippedFrameCount() {
+        return motionSkippedFrameCount;
+    }
+
+    /**
+     * In rad/s.
+     */
+    public synchronized double getAverageAngularVelocity() {
+        return motionCheckCount == 0 ? 0 : angularVelocityTotal / motionCheckCount;
+    }
+
+    /**
+     * The power drawn by the motion sensors in mA, as reported by the sensors.
+     */
+    public synchronized float getMotionSensorPower() {
+        return motionSensorPowerMilliamps;
+    }
+
+    /**
+     * The estimated charge in mAh drawn by the motion sensors during the session.
+     */
+    public synchronized double getMotionSensorCharge(long now) {
+        long stoppedAt = isMotionSensorRunning ? now : motionSensorStoppedAt;
+        long runningNanos = Math.max(0, stoppedAt - motionSensorStartedAt);
+        return motionSensorPowerMilliamps * (runningNanos / 3_600_000_000_000.0);
+    }
+
+    public synchronized int getThermalLevel() {
+        return thermalLevel;
+    }
+
+    public synchronized int getThermalLevelChangeCount() {
+        return thermalLevelChangeCount;
+    }
+
+    public synchronized double getReceivedFrameRate() {
+        return receivedFrameRateMeter.getFrameRate();
+    }
+
+    public synchronized double getAnalyzedFrameRate() {
+        return analyzedFrameRateMeter.getFrameRate();
+    }
+
+    public synchronized int getTargetFrameRate() {
+        return targetFrameRate;
+    }
+
+    public synchronized int getTwoStageFrameCount() {
+        return twoStageFrameCount;
+    }
+
+    public synchronized double getAverageCoarseStageTimeMillis() {
+        return twoStageFrameCount == 0 ? 0 : coarseStageTotalNanos / 1_000_000.0 / twoStageFrameCount;
+    }
+
+    public synchronized double getAverageFineStageTimeMillis() {
+        return twoStageFrameCount == 0 ? 0 : fineStageTotalNanos / 1_000_000.0 / twoStageFrameCount;
+    }
+
+    public synchronized double getAverageFineStageRegionCount() {
+        return twoStageFrameCount == 0 ? 0 : (double) fineStageRegionCount / twoStageFrameCount;
+    }
+
+    /**
+     * The average number of decoded pixels relative to the pixels of the frame.
+     */
+    public synchronized double getAverageProcessedPixelFraction() {
+        return twoStageFrameCount == 0 ? 0 : processedPixelFractionTotal / twoStageFrameCount;
+    }
+
+    public synchronized int getResultQueueHighWaterMark() {
+        return resultQueueHighWaterMark;
+    }
+
+    public synchronized int getResultQueueDroppedCount() {
+        return resultQueueDroppedCount;
+    }
+
+    public synchronized int[] getActiveFormats() {
+        return activeFormats;
+    }
+}
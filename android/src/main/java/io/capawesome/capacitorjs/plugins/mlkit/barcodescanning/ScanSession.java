@@ -0,0 +1,81 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The state of the live scan session, stamped with a generation that increases with every start and stop.
+ *
+ * Asynchronous work captures the generation when it starts and checks it with `isCurrent` before it delivers anything,
+ * so work of a stopped (or restarted) session is discarded.
+ * The state and the generation are packed into a single atomic value, so all methods are lock-free.
+ *
+ * Thread-safe.
+ */
+public class ScanSession {
+
+    public static final int STATE_STOPPED = 0;
+    /**
+     * Waiting for the camera provider.
+     */
+    public static final int STATE_STARTING = 1;
+    public static final int STATE_RUNNING = 2;
+
+    private static final int STATE_BITS = 2;
+    private static final long STATE_MASK = (1L << STATE_BITS) - 1;
+
+    private final AtomicLong value = new AtomicLong(pack(0, STATE_STOPPED));
+
+    /**
+     * Starts a new generation in the starting state, which makes all previous generations stale.
+     *
+     * @return The generation of the new session.
+     */
+    public long start() {
+        return transition(STATE_STARTING);
+    }
+
+    /**
+     * Moves the session from starting to running, unless it was stopped or restarted in the meantime.
+     *
+     * @return Whether or not the session of the given generation is running now.
+     */
+    public boolean markRunning(long generation) {
+        return value.compareAndSet(pack(generation, STATE_STARTING), pack(generation, STATE_RUNNING));
+    }
+
+    /**
+     * Stops the session and starts a new generation, which makes the work of the stopped session stale.
+     */
+    public void stop() {
+        transition(STATE_STOPPED);
+    }
+
+    public long getGeneration() {
+        return value.get() >>> STATE_BITS;
+    }
+
+    public int getState() {
+        return (int) (value.get() & STATE_MASK);
+    }
+
+    /**
+     * Returns whether or not work of the given generation may still deliver results, a single volatile read.
+     */
+    public boolean isCurrent(long generation) {
+        return value.get() == pack(generation, STATE_RUNNING);
+    }
+
+    private long transition(int state) {
+        while (true) {
+            long current = value.get();
+            long generation = (current >>> STATE_BITS) + 1;
+            if (value.compareAndSet(current, pack(generation, state))) {
+                return generation;
+            }
+        }
+    }
+
+    private static long pack(long generation, int state) {
+        return (generation << STATE_BITS) | state;
+    }
+}
@@ -9,10 +9,177 @@ import com.google.mlkit.vision.barcode.common.Barcode;
 
 public class ScanSettings {
 
+    public static final int CATALOG_MODE_NONE = 0;
+    /**
+     * Drop barcodes that are not in the catalog.
+     */
+    public static final int CATALOG_MODE_FILTER = 1;
+    /**
+     * Emit all barcodes and mark whether or not they are in the catalog.
+     */
+    public static final int CATALOG_MODE_MARK = 2;
+
+    /**
+     * Emit a `barcodeScanned` event per barcode.
+     */
+    public static final int DELIVERY_MODE_PUSH = 0;
+    /**
+     * Queue the barcodes until they are polled with `pollBarcodes`.
+     */
+    public static final int DELIVERY_MODE_POLL = 1;
+
+    public static final int DEFAULT_RESULT_QUEUE_CAPACITY = 64;
+
+    /**
+     * Emit the barcodes of the last analyzed frame again for an unchanged frame,
+     * throttled to once per `BarcodeScanner.REUSED_RESULT_INTERVAL_MILLIS`.
+     */
+    public static final int UNCHANGED_FRAME_RESULT_REUSE = 0;
+    /**
+     * Emit nothing for an unchanged frame.
+     */
+    public static final int UNCHANGED_FRAME_RESULT_SUPPRESS = 1;
+
+    public static final int DECODER_ENGINE_MLKIT = 0;
+    /**
+     * Only the pure-Java EAN/UPC decoder of the center strip, see `StripBarcodeDecoder`.
+     */
+    public static final int DECODER_ENGINE_STRIP = 1;
+    /**
+     * The strip decoder first, ML Kit only if the strip decoder finds nothing.
+     */
+    public static final int DECODER_ENGINE_CASCADE = 2;
+
     @Barcode.BarcodeFormat
     public int[] formats = new int[] {};
 
     @Nullable
     @CameraSelector.LensFacing
     public Integer lensFacing;
+
+    public boolean autoZoom = false;
+
+    public boolean autoFocus = false;
+
+    /**
+     * Only applies if no formats are set.
+     */
+    public boolean adaptiveFormats = false;
+
+    public boolean recordScanHistory = false;
+
+    public int catalogMode = CATALOG_MODE_NONE;
+
+    public int decoderEngine = DECODER_ENGINE_MLKIT;
+
+    /**
+     * Only applies when starting a scan.
+     */
+    public int deliveryMode = DELIVERY_MODE_PUSH;
+
+    /**
+     * Deliver the barcodes to the WebView, either as events or through the result queue.
+     * If disabled, the barcodes are only delivered to the `NativeScanListener`s and no images are cropped.
+     * Only applies when starting a scan.
+     */
+    public boolean webViewDelivery = true;
+
+    public int resultQueueCapacity = DEFAULT_RESULT_QUEUE_CAPACITY;
+    public int resultQueueOverflowPolicy = ResultQueue.OVERFLOW_POLICY_DROP_OLDEST;
+
+    /**
+     * Validate EAN, UPC and ITF-14 check digits and parse GS1 element strings.
+     * Invalid barcodes are dropped.
+     */
+    public boolean parseGs1 = false;
+
+    /**
+     * Skip dark, overexposed and blurry frames without passing them to ML Kit.
+     */
+    public boolean frameQualityGate = false;
+
+    public float minFrameSharpness = FrameQualityGate.DEFAULT_MIN_SHARPNESS;
+
+    public float minFrameLuma = FrameQualityGate.DEFAULT_MIN_LUMA;
+
+    public float maxFrameLuma = FrameQualityGate.DEFAULT_MAX_LUMA;
+
+    public float maxFrameClippingRatio = FrameQualityGate.DEFAULT_MAX_CLIPPING_RATIO;
+
+    /**
+     * Skip the decoding of frames that are nearly identical to the last analyzed frame, see `FrameChangeDetector`.
+     */
+    public boolean skipUnchangedFrames = false;
+
+    public float unchangedFrameThreshold = FrameChangeDetector.DEFAULT_THRESHOLD;
+
+    /**
+     * A frame is analyzed at least this often, even if nothing changed.
+     */
+    public long maxUnchangedFrameIntervalMillis = FrameChangeDetector.DEFAULT_MAX_UNCHANGED_INTERVAL_MILLIS;
+
+    public int unchangedFrameResult = UNCHANGED_FRAME_RESULT_REUSE;
+
+    /**
+     * Decode a downscaled frame first and only full-resolution crops of the candidate regions, see `CoarseToFineDecoderEngine`.
+     */
+    public boolean twoStageDecoding = false;
+
+    /**
+     * The maximum width and height of the downscaled frame of the two-stage decoding.
+     */
+    public int coarseMaxDimension = CoarseToFineDecoderEngine.DEFAULT_COARSE_MAX_DIMENSION;
+
+    /**
+     * Look up and store the results of `readBarcodesFromImage` in the `BarcodeResultCache`.
+     */
+    public boolean useResultCache = false;
+
+    /**
+     * Record per-frame timings and emit trace sections. Only applies when starting a scan.
+     */
+    public boolean flightRecorder = false;
+
+    /**
+     * Step the analysis work down while the device is hot or the analysis is slow, see `ThermalGovernor`.
+     * Only applies when starting a scan.
+     */
+    public boolean thermalGovernor = false;
+
+    public long maxAnalysisLatencyMillis = ThermalPolicy.DEFAULT_MAX_LATENCY_MILLIS;
+    public long recoveredAnalysisLatencyMillis = ThermalPolicy.DEFAULT_RECOVERED_LATENCY_MILLIS;
+
+    /**
+     * Skip the frames taken while the device moves too fast, see `MotionEstimator`.
+     * Only applies when starting a scan.
+     */
+    public boolean motionSkipping = false;
+
+    /**
+     * In rad/s.
+     */
+    public float maxAngularVelocity = MotionEstimator.DEFAULT_MAX_ANGULAR_VELOCITY;
+
+    /**
+     * Without gravity, in m/s².
+     */
+    public float maxLinearAcceleration = MotionEstimator.DEFAULT_MAX_LINEAR_ACCELERATION;
+
+    /**
+     * Request the highest supported frame rate and a lower analysis resolution for barcodes on conveyor belts,
+     * see `ConveyorCaptureOptions`. Only applies when starting a scan.
+     */
+    public boolean conveyorMode = false;
+
+    /**
+     * The fixed exposure time in microseconds in conveyor mode, `null` keeps the auto exposure.
+     */
+    @Nullable
+    public Integer conveyorExposureTime;
+
+    /**
+     * The fixed focus distance in meters in conveyor mode, `null` keeps the auto focus.
+     */
+    @Nullable
+    public Float conveyorFocusDistance;
 }
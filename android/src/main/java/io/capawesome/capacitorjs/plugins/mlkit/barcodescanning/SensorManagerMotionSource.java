@@ -0,0 +1,81 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import android.content.Context;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Registers the gyroscope and the accelerometer with `SensorManager` at the game rate (about 50 Hz).
+ * Devices without a gyroscope only deliver accelerometer samples.
+ */
+public class SensorManagerMotionSource implements MotionSource {
+
+    @Nullable
+    private final SensorManager sensorManager;
+
+    @Nullable
+    private final Sensor gyroscope;
+
+    @Nullable
+    private final Sensor accelerometer;
+
+    @Nullable
+    private SensorEventListener sensorEventListener;
+
+    public SensorManagerMotionSource(@NonNull Context context) {
+        sensorManager = (SensorManager) context.getSystemService(Context.SENSOR_SERVICE);
+        gyroscope = sensorManager == null ? null : sensorManager.getDefaultSensor(Sensor.TYPE_GYROSCOPE);
+        accelerometer = sensorManager == null ? null : sensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER);
+    }
+
+    @Override
+    public void start(@NonNull Listener listener) {
+        if (sensorManager == null || sensorEventListener != null) {
+            return;
+        }
+        sensorEventListener =
+            new SensorEventListener() {
+                @Override
+                public void onSensorChanged(SensorEvent event) {
+                    if (event.sensor.getType() == Sensor.TYPE_GYROSCOPE) {
+                        listener.onGyroscopeSample(event.timestamp, event.values[0], event.values[1], event.values[2]);
+                    } else {
+                        listener.onAccelerometerSample(event.timestamp, event.values[0], event.values[1], event.values[2]);
+                    }
+                }
+
+                @Override
+                public void onAccuracyChanged(Sensor sensor, int accuracy) {}
+            };
+        if (gyroscope != null) {
+            sensorManager.registerListener(sensorEventListener, gyroscope, SensorManager.SENSOR_DELAY_GAME);
+        }
+        if (accelerometer != null) {
+            sensorManager.registerListener(sensorEventListener, accelerometer, SensorManager.SENSOR_DELAY_GAME);
+        }
+    }
+
+    @Override
+    public float getPowerMilliamps() {
+        float power = 0;
+        if (gyroscope != null) {
+            power += gyroscope.getPower();
+        }
+        if (accelerometer != null) {
+            power += accelerometer.getPower();
+        }
+        return power;
+    }
+
+    @Override
+    public void close() {
+        if (sensorManager != null && sensorEventListener != null) {
+            sensorManager.unregisterListener(sensorEventListener);
+            sensorEventListener = null;
+        }
+    }
+}
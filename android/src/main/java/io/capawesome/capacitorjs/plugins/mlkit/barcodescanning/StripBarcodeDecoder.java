@@ -0,0 +1,428 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pure-Java decoder for EAN-13, UPC-A and EAN-8 barcodes that crosses the center strip of the image.
+ *
+ * A few scan lines along both axes of the central strip are binarized and run-length encoded,
+ * then the guard patterns and digits are matched against the module widths of the symbology.
+ * A value is only reported if its check digit is valid and it was read on at least two scan lines,
+ * so it is much cheaper than ML Kit, but only finds barcodes that cross the center of the image.
+ *
+ * Not thread-safe, the scan line buffers are reused.
+ */
+public class StripBarcodeDecoder {
+
+    public static final int SUPPORTED_FORMATS = Barcode.FORMAT_EAN_13 | Barcode.FORMAT_UPC_A | Barcode.FORMAT_EAN_8;
+
+    /**
+     * The number of scan lines along each axis, spread over the strip.
+     */
+    private static final int LINE_COUNT = 9;
+
+    private static final float STRIP_START = 0.3f;
+    private static final float STRIP_END = 0.7f;
+
+    /**
+     * Lines with less difference between the darkest and brightest sample are skipped.
+     */
+    private static final int MIN_CONTRAST = 32;
+
+    private static final int MIN_AGREEING_LINE_COUNT = 2;
+
+    /**
+     * The maximum sum of the deviations of the four elements of a digit, in modules.
+     */
+    private static final float MAX_DIGIT_VARIANCE = 1.5f;
+
+    /**
+     * The quiet zone before the start guard must be at least this many modules wide.
+     */
+    private static final int MIN_QUIET_ZONE_MODULES = 3;
+
+    private static final int EAN_13_RUN_COUNT = 3 + 6 * 4 + 5 + 6 * 4 + 3;
+    private static final int EAN_8_RUN_COUNT = 3 + 4 * 4 + 5 + 4 * 4 + 3;
+
+    /**
+     * The widths of the L codes in modules, starting with a space. G codes are reversed, R codes have the same widths.
+     */
+    private static final int[][] L_PATTERNS = new int[][] {
+        { 3, 2, 1, 1 },
+        { 2, 2, 2, 1 },
+        { 2, 1, 2, 2 },
+        { 1, 4, 1, 1 },
+        { 1, 1, 3, 2 },
+        { 1, 2, 3, 1 },
+        { 1, 1, 1, 4 },
+        { 1, 3, 1, 2 },
+        { 1, 2, 1, 3 },
+        { 3, 1, 1, 2 }
+    };
+
+    /**
+     * The parities (bit set for G) of the left digits of EAN-13 for each first digit, most significant bit first.
+     */
+    private static final int[] FIRST_DIGIT_PARITIES = new int[] {
+        0b000000,
+        0b001011,
+        0b001101,
+        0b001110,
+        0b010011,
+        0b011001,
+        0b011100,
+        0b010101,
+        0b010110,
+        0b011010
+    };
+
+    private static class Candidate {
+
+        int lineCount = 0;
+        int start = Integer.MAX_VALUE;
+        int end = 0;
+        int minAcross = Integer.MAX_VALUE;
+        int maxAcross = 0;
+    }
+
+    private static class LineResult {
+
+        final String digits;
+        final int start;
+        final int end;
+
+        LineResult(String digits, int start, int end) {
+            this.digits = digits;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private int[] samples = new int[0];
+    private int[] runs = new int[0];
+    private int[] runStarts = new int[0];
+    private int runCount;
+    private boolean isFirstRunDark;
+
+    /**
+     * @param rotationDegrees The clockwise rotation that makes the image upright, the results are relative to the upright image.
+     * @param formats A bitmask of the formats to report, `Barcode.FORMAT_ALL_FORMATS` for all supported formats.
+     */
+    @NonNull
+    public List<DecodedBarcode> decode(@NonNull LumaPlane plane, int rotationDegrees, int formats) {
+        List<DecodedBarcode> barcodes = new ArrayList<>();
+        if (formats != Barcode.FORMAT_ALL_FORMATS && (formats & SUPPORTED_FORMATS) == 0) {
+            return barcodes;
+        }
+        for (int axis = 0; axis < 2; axis++) {
+            boolean isHorizontal = axis == 0;
+            int length = isHorizontal ? plane.getWidth() : plane.getHeight();
+            int across = isHorizontal ? plane.getHeight() : plane.getWidth();
+            Map<String, Candidate> candidates = new LinkedHashMap<>();
+            for (int line = 0; line < LINE_COUNT; line++) {
+                int position = (int) (across * (STRIP_START + (STRIP_END - STRIP_START) * line / (LINE_COUNT - 1)));
+                readLine(plane, isHorizontal, position, length);
+                LineResult lineResult = decodeLine(length);
+                if (lineResult == null) {
+                    continue;
+                }
+                Candidate candidate = candidates.get(lineResult.digits);
+                if (candidate == null) {
+                    candidate = new Candidate();
+                    candidates.put(lineResult.digits, candidate);
+                }
+                candidate.lineCount++;
+                candidate.start = Math.min(candidate.start, lineResult.start);
+                candidate.end = Math.max(candidate.end, lineResult.end);
+                candidate.minAcross = Math.min(candidate.minAcross, position);
+                candidate.maxAcross = Math.max(candidate.maxAcross, position);
+            }
+            for (Map.Entry<String, Candidate> entry : candidates.entrySet()) {
+                Candidate candidate = entry.getValue();
+                if (candidate.lineCount < MIN_AGREEING_LINE_COUNT) {
+                    continue;
+                }
+                DecodedBarcode barcode = createBarcode(entry.getKey(), candidate, isHorizontal, plane, across, rotationDegrees, formats);
+                if (barcode != null) {
+                    barcodes.add(barcode);
+                }
+            }
+        }
+        return barcodes;
+    }
+
+    private void readLine(LumaPlane plane, boolean isHorizontal, int position, int length) {
+        if (samples.length < length) {
+            samples = new int[length];
+            runs = new int[length];
+            runStarts = new int[length];
+        }
+        for (int i = 0; i < length; i++) {
+            samples[i] = isHorizontal ? plane.get(i, position) : plane.get(position, i);
+        }
+    }
+
+    /**
+     * Decodes the samples in both directions, so barcodes are also found upside down.
+     */
+    @Nullable
+    private LineResult decodeLine(int length) {
+        int min = 255;
+        int max = 0;
+        for (int i = 0; i < length; i++) {
+            min = Math.min(min, samples[i]);
+            max = Math.max(max, samples[i]);
+        }
+        if (max - min < MIN_CONTRAST) {
+            return null;
+        }
+        int threshold = (min + max) / 2;
+        encodeRuns(length, threshold, false);
+        LineResult lineResult = findBarcode();
+        if (lineResult != null) {
+            return lineResult;
+        }
+        encodeRuns(length, threshold, true);
+        lineResult = findBarcode();
+        if (lineResult != null) {
+            return new LineResult(lineResult.digits, length - lineResult.end, length - lineResult.start);
+        }
+        return null;
+    }
+
+    private void encodeRuns(int length, int threshold, boolean isReversed) {
+        runCount = 0;
+        boolean isDark = false;
+        for (int i = 0; i < length; i++) {
+            boolean isSampleDark = samples[isReversed ? length - 1 - i : i] < threshold;
+            if (runCount == 0 || isSampleDark != isDark) {
+                if (runCount == 0) {
+                    isFirstRunDark = isSampleDark;
+                }
+                isDark = isSampleDark;
+                runStarts[runCount] = i;
+                runs[runCount] = 0;
+                runCount++;
+            }
+            runs[runCount - 1]++;
+        }
+    }
+
+    @Nullable
+    private LineResult findBarcode() {
+        // The start guard begins with a bar that follows the quiet zone, so it never is the first run
+        for (int start = isFirstRunDark ? 2 : 1; start + EAN_8_RUN_COUNT <= runCount; start += 2) {
+            float module = (runs[start] + runs[start + 1] + runs[start + 2]) / 3f;
+            if (!isGuard(start, 3) || runs[start - 1] < module * MIN_QUIET_ZONE_MODULES) {
+                continue;
+            }
+            String digits = null;
+            int runCountOfBarcode = 0;
+            if (start + EAN_13_RUN_COUNT <= runCount) {
+                digits = decodeEan13(start + 3, module);
+                runCountOfBarcode = EAN_13_RUN_COUNT;
+            }
+            if (digits == null) {
+                digits = decodeEan8(start + 3, module);
+                runCountOfBarcode = EAN_8_RUN_COUNT;
+            }
+            if (digits != null) {
+                int last = start + runCountOfBarcode - 1;
+                return new LineResult(digits, runStarts[start], runStarts[last] + runs[last]);
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private String decodeEan13(int offset, float module) {
+        StringBuilder digits = new StringBuilder(13);
+        digits.append('0');
+        int parities = 0;
+        for (int i = 0; i < 6; i++) {
+            int digit = decodeDigit(offset + i * 4, module, true);
+            if (digit < 0) {
+                return null;
+            }
+            parities = (parities << 1) | (digit >= 10 ? 1 : 0);
+            digits.append((char) ('0' + digit % 10));
+        }
+        int firstDigit = -1;
+        for (int i = 0; i < FIRST_DIGIT_PARITIES.length; i++) {
+            if (FIRST_DIGIT_PARITIES[i] == parities) {
+                firstDigit = i;
+                break;
+            }
+        }
+        if (firstDigit < 0) {
+            return null;
+        }
+        digits.setCharAt(0, (char) ('0' + firstDigit));
+        return decodeRightHalf(digits, offset + 6 * 4, 6, module);
+    }
+
+    @Nullable
+    private String decodeEan8(int offset, float module) {
+        StringBuilder digits = new StringBuilder(8);
+        for (int i = 0; i < 4; i++) {
+            int digit = decodeDigit(offset + i * 4, module, false);
+            if (digit < 0) {
+                return null;
+            }
+            digits.append((char) ('0' + digit));
+        }
+        return decodeRightHalf(digits, offset + 4 * 4, 4, module);
+    }
+
+    /**
+     * Decodes the middle guard, the right digits and the end guard and validates the check digit.
+     */
+    @Nullable
+    private String decodeRightHalf(StringBuilder digits, int offset, int digitCount, float module) {
+        if (!isGuard(offset, 5)) {
+            return null;
+        }
+        offset += 5;
+        for (int i = 0; i < digitCount; i++) {
+            int digit = decodeDigit(offset + i * 4, module, false);
+            if (digit < 0) {
+                return null;
+            }
+            digits.append((char) ('0' + digit));
+        }
+        if (!isGuard(offset + digitCount * 4, 3)) {
+            return null;
+        }
+        byte[] bytes = digits.toString().getBytes(StandardCharsets.US_ASCII);
+        if (!Gs1Parser.isMod10Valid(bytes, 0, bytes.length)) {
+            return null;
+        }
+        return digits.toString();
+    }
+
+    /**
+     * Returns the digit of the four runs at the offset, plus 10 for G codes, or -1 if no code matches.
+     */
+    private int decodeDigit(int offset, float module, boolean isGAllowed) {
+        int width = runs[offset] + runs[offset + 1] + runs[offset + 2] + runs[offset + 3];
+        // Rejects runs that are far off the module width of the start guard
+        if (width < module * 7 * 0.6f || width > module * 7 * 1.5f) {
+            return -1;
+        }
+        float scale = 7f / width;
+        int bestDigit = -1;
+        float bestVariance = MAX_DIGIT_VARIANCE;
+        for (int digit = 0; digit < L_PATTERNS.length; digit++) {
+            int[] pattern = L_PATTERNS[digit];
+            float variance = 0;
+            float reversedVariance = 0;
+            for (int i = 0; i < 4; i++) {
+                float elementWidth = runs[offset + i] * scale;
+                variance += Math.abs(elementWidth - pattern[i]);
+                reversedVariance += Math.abs(elementWidth - pattern[3 - i]);
+            }
+            if (variance < bestVariance) {
+                bestVariance = variance;
+                bestDigit = digit;
+            }
+            if (isGAllowed && reversedVariance < bestVariance) {
+                bestVariance = reversedVariance;
+                bestDigit = digit + 10;
+            }
+        }
+        return bestDigit;
+    }
+
+    /**
+     * Returns whether the runs at the offset all have about the same width, as the guard patterns.
+     */
+    private boolean isGuard(int offset, int count) {
+        int width = 0;
+        for (int i = 0; i < count; i++) {
+            width += runs[offset + i];
+        }
+        float module = (float) width / count;
+        for (int i = 0; i < count; i++) {
+            if (runs[offset + i] < module * 0.5f || runs[offset + i] > module * 1.5f) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Nullable
+    private static DecodedBarcode createBarcode(
+        String digits,
+        Candidate candidate,
+        boolean isHorizontal,
+        LumaPlane plane,
+        int across,
+        int rotationDegrees,
+        int formats
+    ) {
+        int format;
+        String value = digits;
+        if (digits.length() == 8) {
+            format = Barcode.FORMAT_EAN_8;
+        } else if (digits.charAt(0) == '0' && isFormatEnabled(formats, Barcode.FORMAT_UPC_A)) {
+            // UPC-A is EAN-13 with a leading zero
+            format = Barcode.FORMAT_UPC_A;
+            value = digits.substring(1);
+        } else {
+            format = Barcode.FORMAT_EAN_13;
+        }
+        if (!isFormatEnabled(formats, format)) {
+            return null;
+        }
+        // Only the scanned lines are known, so the height is estimated from the width (EAN is about 0.7 times as high as wide)
+        int center = (candidate.minAcross + candidate.maxAcross) / 2;
+        int halfExtent = Math.max((candidate.maxAcross - candidate.minAcross) / 2, (candidate.end - candidate.start) * 7 / 20);
+        int acrossStart = Math.max(0, center - halfExtent);
+        int acrossEnd = Math.min(across, center + halfExtent);
+        int left = isHorizontal ? candidate.start : acrossStart;
+        int top = isHorizontal ? acrossStart : candidate.start;
+        int right = isHorizontal ? candidate.end : acrossEnd;
+        int bottom = isHorizontal ? acrossEnd : candidate.end;
+        int[] bounds = rotateBounds(left, top, right, bottom, plane.getWidth(), plane.getHeight(), rotationDegrees);
+        int[] cornerPointCoordinates = new int[] {
+            bounds[0],
+            bounds[1],
+            bounds[2],
+            bounds[1],
+            bounds[2],
+            bounds[3],
+            bounds[0],
+            bounds[3]
+        };
+        byte[] rawBytes = value.getBytes(StandardCharsets.US_ASCII);
+        return new DecodedBarcode(format, Barcode.TYPE_PRODUCT, value, value, rawBytes, bounds, cornerPointCoordinates);
+    }
+
+    /**
+     * Rotates a rectangle of the image clockwise into the coordinates of the upright image.
+     */
+    @NonNull
+    public static int[] rotateBounds(int left, int top, int right, int bottom, int width, int height, int rotationDegrees) {
+        switch (rotationDegrees) {
+            case 90:
+                return new int[] { height - bottom, left, height - top, right };
+            case 180:
+                return new int[] { width - right, height - bottom, width - left, height - top };
+            case 270:
+                return new int[] { top, width - right, bottom, width - left };
+            default:
+                return new int[] { left, top, right, bottom };
+        }
+    }
+
+    private static boolean isFormatEnabled(int formats, int format) {
+        return formats == Barcode.FORMAT_ALL_FORMATS || (formats & format) != 0;
+    }
+}
@@ -0,0 +1,61 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import java.util.ArrayList;
+
+/**
+ * Decodes EAN and UPC barcodes that cross the center of the image on the calling thread, see `StripBarcodeDecoder`.
+ */
+public class StripDecoderEngine implements DecoderEngine {
+
+    public static final String NAME = "STRIP";
+
+    private final int formats;
+    private final StripBarcodeDecoder stripBarcodeDecoder = new StripBarcodeDecoder();
+
+    /**
+     * @param formats A bitmask of the formats to report, `Barcode.FORMAT_ALL_FORMATS` for all supported formats.
+     */
+    public StripDecoderEngine(int formats) {
+        this.formats = formats;
+    }
+
+    /**
+     * Creates the engine for the requested formats, no formats stand for all formats like they do for ML Kit.
+     */
+    @NonNull
+    public static StripDecoderEngine fromFormats(@NonNull int[] formats) {
+        if (formats.length == 0) {
+            return new StripDecoderEngine(Barcode.FORMAT_ALL_FORMATS);
+        }
+        int formatMask = 0;
+        for (int format : formats) {
+            formatMask |= format;
+        }
+        return new StripDecoderEngine(formatMask);
+    }
+
+    @NonNull
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void decode(@NonNull DecoderInput input, @NonNull Callback callback) {
+        LumaPlane lumaPlane = input.getLumaPlane();
+        if (lumaPlane == null) {
+            callback.success(new ArrayList<>());
+            return;
+        }
+        try {
+            callback.success(stripBarcodeDecoder.decode(lumaPlane, input.getRotationDegrees(), formats));
+        } catch (Exception exception) {
+            callback.error(exception);
+        }
+    }
+
+    @Override
+    public void close() {}
+}
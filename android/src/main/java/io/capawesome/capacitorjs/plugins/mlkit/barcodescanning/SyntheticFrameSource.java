@@ -0,0 +1,54 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Generates frames whose Y plane is painted by a callback, e.g. to replay reproducible scenes without a camera.
+ * The chroma planes are neutral grey.
+ */
+public class SyntheticFrameSource implements FrameSource {
+
+    public interface Painter {
+        /**
+         * Paints the Y plane (`width * height` bytes, no padding) of the frame with the given index.
+         */
+        void paint(int frameIndex, @NonNull byte[] luma, int width, int height);
+    }
+
+    private final int width;
+    private final int height;
+    private final int frameCount;
+    private final long frameIntervalNanos;
+
+    @NonNull
+    private final Painter painter;
+
+    private int frameIndex = 0;
+
+    public SyntheticFrameSource(int width, int height, int frameCount, long frameIntervalNanos, @NonNull Painter painter) {
+        this.width = width;
+        this.height = height;
+        this.frameCount = frameCount;
+        this.frameIntervalNanos = frameIntervalNanos;
+        this.painter = painter;
+    }
+
+    @Nullable
+    @Override
+    public Frame nextFrame() {
+        if (frameIndex >= frameCount) {
+            return null;
+        }
+        byte[] nv21 = new byte[Frame.getNv21Length(width, height)];
+        painter.paint(frameIndex, nv21, width, height);
+        Arrays.fill(nv21, width * height, nv21.length, (byte) 128);
+        Frame frame = new Frame(nv21, width, height, 0, frameIndex * frameIntervalNanos);
+        frameIndex++;
+        return frame;
+    }
+
+    @Override
+    public void close() {}
+}
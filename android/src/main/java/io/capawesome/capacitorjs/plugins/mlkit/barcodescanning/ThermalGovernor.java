@@ -0,0 +1,139 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Steps the work of the analyzer down while the device is hot or the analysis gets slow, and back up once it recovers.
+ *
+ * The levels are cumulative, every level includes the lower ones.
+ * The target level is the higher one of the level enforced by the thermal status and the level derived from
+ * the smoothed analysis latency. The level moves by one step at a time, delayed by the policy.
+ *
+ * Not thread-safe, must be used from the analyzer thread.
+ */
+public class ThermalGovernor {
+
+    public static final int LEVEL_NORMAL = 0;
+    /**
+     * Analyze frames at a lower rate, see `ThermalPolicy.minFrameIntervalNanos`.
+     */
+    public static final int LEVEL_REDUCE_FRAME_RATE = 1;
+    /**
+     * Do not attach the cropped image to scanned barcodes.
+     */
+    public static final int LEVEL_SKIP_IMAGES = 2;
+    /**
+     * Analyze frames at a lower resolution.
+     */
+    public static final int LEVEL_REDUCE_RESOLUTION = 3;
+
+    public static final int MAX_LEVEL = LEVEL_REDUCE_RESOLUTION;
+
+    /**
+     * Weight of the latest latency in the exponential moving average.
+     */
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    @NonNull
+    private final ThermalSource thermalSource;
+
+    @NonNull
+    private final ThermalPolicy policy;
+
+    private int level = LEVEL_NORMAL;
+    private int levelChangeCount = 0;
+    private long levelChangedAt;
+    private boolean isStarted = false;
+    private double averageLatencyNanos;
+    private boolean hasLatency = false;
+    private long lastAnalyzedFrameTimestamp;
+    private boolean hasAnalyzedFrame = false;
+
+    public ThermalGovernor(@NonNull ThermalSource thermalSource, @NonNull ThermalPolicy policy) {
+        this.thermalSource = thermalSource;
+        this.policy = policy;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getLevelChangeCount() {
+        return levelChangeCount;
+    }
+
+    /**
+     * Returns the smoothed analysis latency at the current level, or 0 if no frame was analyzed at this level yet.
+     */
+    public double getAverageLatencyNanos() {
+        return hasLatency ? averageLatencyNanos : 0;
+    }
+
+    /**
+     * Must be called once per frame before it is analyzed.
+     *
+     * @return Whether or not the frame should be analyzed at the frame rate of the current level.
+     */
+    public boolean shouldAnalyzeFrame(long frameTimestampNanos) {
+        long minFrameIntervalNanos = policy.minFrameIntervalNanos[Math.min(level, policy.minFrameIntervalNanos.length - 1)];
+        // An eighth of the interval absorbs the jitter of the frame timestamps, e.g. every third frame at 30 fps is due at 100 ms
+        if (hasAnalyzedFrame && frameTimestampNanos - lastAnalyzedFrameTimestamp < minFrameIntervalNanos - minFrameIntervalNanos / 8) {
+            return false;
+        }
+        lastAnalyzedFrameTimestamp = frameTimestampNanos;
+        hasAnalyzedFrame = true;
+        return true;
+    }
+
+    /**
+     * Must be called once per analyzed frame.
+     *
+     * @param latencyNanos The time the frame took from being received to being analyzed.
+     * @param now The current time in nanoseconds.
+     * @return Whether or not the level changed.
+     */
+    public boolean handleFrameAnalyzed(long latencyNanos, long now) {
+        if (!isStarted) {
+            // The delays also apply to the first change, which skips the warm-up of the decoder
+            isStarted = true;
+            levelChangedAt = now;
+        }
+        if (hasLatency) {
+            averageLatencyNanos += LATENCY_SMOOTHING * (latencyNanos - averageLatencyNanos);
+        } else {
+            averageLatencyNanos = latencyNanos;
+            hasLatency = true;
+        }
+        int targetLevel = getTargetLevel();
+        long elapsedNanos = now - levelChangedAt;
+        if (targetLevel > level && elapsedNanos >= policy.stepDownDelayNanos) {
+            setLevel(level + 1, now);
+            return true;
+        }
+        if (targetLevel < level && elapsedNanos >= policy.stepUpDelayNanos) {
+            setLevel(level - 1, now);
+            return true;
+        }
+        return false;
+    }
+
+    private int getTargetLevel() {
+        int thermalStatus = Math.max(0, Math.min(thermalSource.getThermalStatus(), policy.thermalStatusLevels.length - 1));
+        int thermalLevel = policy.thermalStatusLevels[thermalStatus];
+        int latencyLevel = level;
+        if (averageLatencyNanos > policy.maxLatencyNanos) {
+            latencyLevel = level + 1;
+        } else if (averageLatencyNanos < policy.recoveredLatencyNanos) {
+            latencyLevel = level - 1;
+        }
+        return Math.max(LEVEL_NORMAL, Math.min(MAX_LEVEL, Math.max(thermalLevel, latencyLevel)));
+    }
+
+    private void setLevel(int level, long now) {
+        this.level = level;
+        levelChangeCount++;
+        levelChangedAt = now;
+        // The latency of the previous level does not tell anything about the new one
+        hasLatency = false;
+    }
+}
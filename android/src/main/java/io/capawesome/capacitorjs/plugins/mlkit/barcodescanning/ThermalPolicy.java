@@ -0,0 +1,48 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+/**
+ * Thresholds of the `ThermalGovernor`.
+ */
+public class ThermalPolicy {
+
+    public static final long DEFAULT_MAX_LATENCY_MILLIS = 80;
+    public static final long DEFAULT_RECOVERED_LATENCY_MILLIS = 40;
+
+    /**
+     * The minimum level enforced by each `PowerManager.THERMAL_STATUS_*`, indexed by the status.
+     */
+    public int[] thermalStatusLevels = new int[] {
+        ThermalGovernor.LEVEL_NORMAL,
+        ThermalGovernor.LEVEL_REDUCE_FRAME_RATE,
+        ThermalGovernor.LEVEL_SKIP_IMAGES,
+        ThermalGovernor.LEVEL_REDUCE_RESOLUTION,
+        ThermalGovernor.LEVEL_REDUCE_RESOLUTION,
+        ThermalGovernor.LEVEL_REDUCE_RESOLUTION,
+        ThermalGovernor.LEVEL_REDUCE_RESOLUTION
+    };
+
+    /**
+     * The minimum time between two analyzed frames at each level, indexed by the level.
+     */
+    public long[] minFrameIntervalNanos = new long[] { 0, 100_000_000L, 100_000_000L, 200_000_000L };
+
+    /**
+     * Above this smoothed analysis latency the work is stepped down by one level.
+     */
+    public long maxLatencyNanos = DEFAULT_MAX_LATENCY_MILLIS * 1_000_000L;
+
+    /**
+     * Below this smoothed analysis latency the work is stepped up by one level, unless the thermal status prevents it.
+     */
+    public long recoveredLatencyNanos = DEFAULT_RECOVERED_LATENCY_MILLIS * 1_000_000L;
+
+    /**
+     * The minimum time after a level change before the work is stepped down again.
+     */
+    public long stepDownDelayNanos = 2_000_000_000L;
+
+    /**
+     * The minimum time after a level change before the work is stepped up again, longer than the step down delay to avoid oscillation.
+     */
+    public long stepUpDelayNanos = 15_000_000_000L;
+}
@@ -0,0 +1,13 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+/**
+ * Provides the thermal status of the device to the `ThermalGovernor`.
+ */
+public interface ThermalSource {
+    /**
+     * Returns one of the `PowerManager.THERMAL_STATUS_*` constants, must be cheap as it is called once per analyzed frame.
+     */
+    int getThermalStatus();
+
+    void close();
+}
@@ -0,0 +1,17 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options;
+
+public class DumpFlightRecorderOptions {
+
+    public static final int FORMAT_CSV = 0;
+    public static final int FORMAT_BINARY = 1;
+
+    private int format;
+
+    public DumpFlightRecorderOptions(int format) {
+        this.format = format;
+    }
+
+    public int getFormat() {
+        return format;
+    }
+}
@@ -0,0 +1,14 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options;
+
+public class LoadCatalogOptions {
+
+    private String path;
+
+    public LoadCatalogOptions(String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+}
@@ -0,0 +1,20 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options;
+
+public class PollBarcodesOptions {
+
+    private int max;
+    private long waitMillis;
+
+    public PollBarcodesOptions(int max, long waitMillis) {
+        this.max = max;
+        this.waitMillis = waitMillis;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    public long getWaitMillis() {
+        return waitMillis;
+    }
+}
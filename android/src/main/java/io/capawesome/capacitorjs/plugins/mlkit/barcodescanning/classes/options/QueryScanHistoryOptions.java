@@ -0,0 +1,43 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options;
+
+import androidx.annotation.Nullable;
+
+public class QueryScanHistoryOptions {
+
+    @Nullable
+    private String value;
+
+    private long from;
+    private long to;
+    private int offset;
+    private int limit;
+
+    public QueryScanHistoryOptions(@Nullable String value, long from, long to, int offset, int limit) {
+        this.value = value;
+        this.from = from;
+        this.to = to;
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    @Nullable
+    public String getValue() {
+        return value;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
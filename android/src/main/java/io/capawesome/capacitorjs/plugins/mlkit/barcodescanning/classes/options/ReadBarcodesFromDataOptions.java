@@ -0,0 +1,51 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options;
+
+import androidx.annotation.NonNull;
+
+public class ReadBarcodesFromDataOptions {
+
+    /**
+     * The Base64 encoded data, optionally as a `data:` URL.
+     */
+    @NonNull
+    private String data;
+
+    /**
+     * One of the `ImageDataConverter.DATA_FORMAT_*` constants.
+     */
+    private int dataFormat;
+
+    /**
+     * The width in pixels of raw pixel data, ignored for encoded images.
+     */
+    private int width;
+
+    /**
+     * The height in pixels of raw pixel data, ignored for encoded images.
+     */
+    private int height;
+
+    public ReadBarcodesFromDataOptions(@NonNull String data, int dataFormat, int width, int height) {
+        this.data = data;
+        this.dataFormat = dataFormat;
+        this.width = width;
+        this.height = height;
+    }
+
+    @NonNull
+    public String getData() {
+        return data;
+    }
+
+    public int getDataFormat() {
+        return dataFormat;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,35 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options;
+
+import androidx.annotation.Nullable;
+
+public class ReadBarcodesFromPdfOptions {
+
+    private String path;
+
+    /**
+     * The zero-based indexes of the pages to scan or `null` to scan all pages.
+     */
+    @Nullable
+    private int[] pageIndexes;
+
+    private int dpi;
+
+    public ReadBarcodesFromPdfOptions(String path, @Nullable int[] pageIndexes, int dpi) {
+        this.path = path;
+        this.pageIndexes = pageIndexes;
+        this.dpi = dpi;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    @Nullable
+    public int[] getPageIndexes() {
+        return pageIndexes;
+    }
+
+    public int getDpi() {
+        return dpi;
+    }
+}
@@ -0,0 +1,14 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options;
+
+public class StartFrameRecordingOptions {
+
+    private int maxFrames;
+
+    public StartFrameRecordingOptions(int maxFrames) {
+        this.maxFrames = maxFrames;
+    }
+
+    public int getMaxFrames() {
+        return maxFrames;
+    }
+}
@@ -0,0 +1,21 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.options;
+
+import androidx.annotation.NonNull;
+
+public class WatchFolderOptions {
+
+    /**
+     * The path of the folder, either a file path or a `file://` URI.
+     */
+    @NonNull
+    private String path;
+
+    public WatchFolderOptions(@NonNull String path) {
+        this.path = path;
+    }
+
+    @NonNull
+    public String getPath() {
+        return path;
+    }
+}
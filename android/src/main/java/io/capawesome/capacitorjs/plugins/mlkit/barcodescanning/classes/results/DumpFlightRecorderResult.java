@@ -0,0 +1,22 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results;
+
+import com.getcapacitor.JSObject;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.interfaces.Result;
+
+public class DumpFlightRecorderResult implements Result {
+
+    private String path;
+    private int recordCount;
+
+    public DumpFlightRecorderResult(String path, int recordCount) {
+        this.path = path;
+        this.recordCount = recordCount;
+    }
+
+    public JSObject toJSObject() {
+        JSObject result = new JSObject();
+        result.put("path", path);
+        result.put("recordCount", recordCount);
+        return result;
+    }
+}
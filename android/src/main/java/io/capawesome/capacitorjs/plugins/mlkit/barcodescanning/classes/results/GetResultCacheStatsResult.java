@@ -0,0 +1,31 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results;
+
+import com.getcapacitor.JSObject;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.BarcodeResultCache;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.interfaces.Result;
+
+public class GetResultCacheStatsResult implements Result {
+
+    private int entryCount;
+    private long memoryHitCount;
+    private long diskHitCount;
+    private long missCount;
+
+    public GetResultCacheStatsResult(BarcodeResultCache resultCache) {
+        synchronized (resultCache) {
+            this.entryCount = resultCache.size();
+            this.memoryHitCount = resultCache.getMemoryHitCount();
+            this.diskHitCount = resultCache.getDiskHitCount();
+            this.missCount = resultCache.getMissCount();
+        }
+    }
+
+    public JSObject toJSObject() {
+        JSObject result = new JSObject();
+        result.put("entryCount", entryCount);
+        result.put("memoryHitCount", memoryHitCount);
+        result.put("diskHitCount", diskHitCount);
+        result.put("missCount", missCount);
+        return result;
+    }
+}
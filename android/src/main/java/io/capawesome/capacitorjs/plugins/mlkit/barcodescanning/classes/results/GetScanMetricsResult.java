@@ -0,0 +1,148 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.BarcodeScannerHelper;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.ScanMetrics;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.interfaces.Result;
+
+public class GetScanMetricsResult implements Result {
+
+    private int focusActionCount;
+    private double averageDecodeLatency;
+    private double averageFocusedDecodeLatency;
+    private int probeFrameCount;
+    private int[] activeFormats;
+    private int catalogLookupCount;
+    private double averageCatalogLookupTime;
+    private int qualityGateFrameCount;
+    private double averageQualityGateTime;
+    private int tooDarkFrameCount;
+    private int tooBrightFrameCount;
+    private int tooClippedFrameCount;
+    private int tooBlurryFrameCount;
+    private float lastFrameSharpness;
+    private float lastFrameLuma;
+    private float lastFrameClippingRatio;
+    private int mlKitDecodeCount;
+    private int mlKitHitCount;
+    private double averageMlKitDecodeTime;
+    private int stripDecodeCount;
+    private int stripHitCount;
+    private double averageStripDecodeTime;
+    private int thermalThrottledFrameCount;
+    private int unchangedFrameCount;
+    private double averageFrameChangeCheckTime;
+    private int motionSkippedFrameCount;
+    private double averageAngularVelocity;
+    private float motionSensorPower;
+    private double motionSensorCharge;
+    private int thermalLevel;
+    private int thermalLevelChangeCount;
+    private double receivedFrameRate;
+    private double analyzedFrameRate;
+    private int targetFrameRate;
+    private int resultQueueHighWaterMark;
+    private int twoStageFrameCount;
+    private double averageCoarseStageTime;
+    private double averageFineStageTime;
+    private double averageFineStageRegionCount;
+    private double averageProcessedPixelFraction;
+    private int resultQueueDroppedCount;
+
+    public GetScanMetricsResult(ScanMetrics scanMetrics) {
+        synchronized (scanMetrics) {
+            this.focusActionCount = scanMetrics.getFocusActionCount();
+            this.averageDecodeLatency = scanMetrics.getAverageDecodeLatencyMillis();
+            this.averageFocusedDecodeLatency = scanMetrics.getAverageFocusedDecodeLatencyMillis();
+            this.probeFrameCount = scanMetrics.getProbeFrameCount();
+            this.activeFormats = scanMetrics.getActiveFormats();
+            this.catalogLookupCount = scanMetrics.getCatalogLookupCount();
+            this.averageCatalogLookupTime = scanMetrics.getAverageCatalogLookupTimeMillis();
+            this.qualityGateFrameCount = scanMetrics.getQualityGateFrameCount();
+            this.averageQualityGateTime = scanMetrics.getAverageQualityGateTimeMillis();
+            this.tooDarkFrameCount = scanMetrics.getTooDarkFrameCount();
+            this.tooBrightFrameCount = scanMetrics.getTooBrightFrameCount();
+            this.tooClippedFrameCount = scanMetrics.getTooClippedFrameCount();
+            this.tooBlurryFrameCount = scanMetrics.getTooBlurryFrameCount();
+            this.lastFrameSharpness = scanMetrics.getLastFrameSharpness();
+            this.lastFrameLuma = scanMetrics.getLastFrameLuma();
+            this.lastFrameClippingRatio = scanMetrics.getLastFrameClippingRatio();
+            this.mlKitDecodeCount = scanMetrics.getMlKitDecodeCount();
+            this.mlKitHitCount = scanMetrics.getMlKitHitCount();
+            this.averageMlKitDecodeTime = scanMetrics.getAverageMlKitDecodeTimeMillis();
+            this.stripDecodeCount = scanMetrics.getStripDecodeCount();
+            this.stripHitCount = scanMetrics.getStripHitCount();
+            this.averageStripDecodeTime = scanMetrics.getAverageStripDecodeTimeMillis();
+            this.thermalThrottledFrameCount = scanMetrics.getThermalThrottledFrameCount();
+            this.unchangedFrameCount = scanMetrics.getUnchangedFrameCount();
+            this.averageFrameChangeCheckTime = scanMetrics.getAverageFrameChangeCheckTimeMillis();
+            this.motionSkippedFrameCount = scanMetrics.getMotionSkippedFrameCount();
+            this.averageAngularVelocity = scanMetrics.getAverageAngularVelocity();
+            this.motionSensorPower = scanMetrics.getMotionSensorPower();
+            this.motionSensorCharge = scanMetrics.getMotionSensorCharge(System.nanoTime());
+            this.thermalLevel = scanMetrics.getThermalLevel();
+            this.thermalLevelChangeCount = scanMetrics.getThermalLevelChangeCount();
+            this.receivedFrameRate = scanMetrics.getReceivedFrameRate();
+            this.analyzedFrameRate = scanMetrics.getAnalyzedFrameRate();
+            this.targetFrameRate = scanMetrics.getTargetFrameRate();
+            this.resultQueueHighWaterMark = scanMetrics.getResultQueueHighWaterMark();
+            this.twoStageFrameCount = scanMetrics.getTwoStageFrameCount();
+            this.averageCoarseStageTime = scanMetrics.getAverageCoarseStageTimeMillis();
+            this.averageFineStageTime = scanMetrics.getAverageFineStageTimeMillis();
+            this.averageFineStageRegionCount = scanMetrics.getAverageFineStageRegionCount();
+            this.averageProcessedPixelFraction = scanMetrics.getAverageProcessedPixelFraction();
+            this.resultQueueDroppedCount = scanMetrics.getResultQueueDroppedCount();
+        }
+    }
+
+    public JSObject toJSObject() {
+        JSObject result = new JSObject();
+        result.put("focusActionCount", focusActionCount);
+        result.put("averageDecodeLatency", averageDecodeLatency);
+        result.put("averageFocusedDecodeLatency", averageFocusedDecodeLatency);
+        result.put("probeFrameCount", probeFrameCount);
+        JSArray activeFormatsResult = new JSArray();
+        for (int format : activeFormats) {
+            activeFormatsResult.put(BarcodeScannerHelper.convertBarcodeScannerFormatToString(format));
+        }
+        result.put("activeFormats", activeFormatsResult);
+        result.put("catalogLookupCount", catalogLookupCount);
+        result.put("averageCatalogLookupTime", averageCatalogLookupTime);
+        result.put("qualityGateFrameCount", qualityGateFrameCount);
+        result.put("averageQualityGateTime", averageQualityGateTime);
+        result.put("tooDarkFrameCount", tooDarkFrameCount);
+        result.put("tooBrightFrameCount", tooBrightFrameCount);
+        result.put("tooClippedFrameCount", tooClippedFrameCount);
+        result.put("tooBlurryFrameCount", tooBlurryFrameCount);
+        result.put("lastFrameSharpness", lastFrameSharpness);
+        result.put("lastFrameLuma", lastFrameLuma);
+        result.put("lastFrameClippingRatio", lastFrameClippingRatio);
+        result.put("mlKitDecodeCount", mlKitDecodeCount);
+        result.put("mlKitHitCount", mlKitHitCount);
+        result.put("averageMlKitDecodeTime", averageMlKitDecodeTime);
+        result.put("stripDecodeCount", stripDecodeCount);
+        result.put("stripHitCount", stripHitCount);
+        result.put("averageStripDecodeTime", averageStripDecodeTime);
+        result.put("thermalThrottledFrameCount", thermalThrottledFrameCount);
+        result.put("unchangedFrameCount", unchangedFrameCount);
+        result.put("averageFrameChangeCheckTime", averageFrameChangeCheckTime);
+        result.put("motionSkippedFrameCount", motionSkippedFrameCount);
+        result.put("averageAngularVelocity", averageAngularVelocity);
+        result.put("motionSensorPower", motionSensorPower);
+        result.put("motionSensorCharge", motionSensorCharge);
+        result.put("thermalLevel", thermalLevel);
+        result.put("thermalLevelChangeCount", thermalLevelChangeCount);
+        result.put("receivedFrameRate", receivedFrameRate);
+        result.put("analyzedFrameRate", analyzedFrameRate);
+        result.put("targetFrameRate", targetFrameRate);
+        result.put("resultQueueHighWaterMark", resultQueueHighWaterMark);
+        result.put("twoStageFrameCount", twoStageFrameCount);
+        result.put("averageCoarseStageTime", averageCoarseStageTime);
+        result.put("averageFineStageTime", averageFineStageTime);
+        result.put("averageFineStageRegionCount", averageFineStageRegionCount);
+        result.put("averageProcessedPixelFraction", averageProcessedPixelFraction);
+        result.put("resultQueueDroppedCount", resultQueueDroppedCount);
+        return result;
+    }
+}
@@ -0,0 +1,22 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results;
+
+import com.getcapacitor.JSObject;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.interfaces.Result;
+
+public class LoadCatalogResult implements Result {
+
+    private int count;
+    private long loadTime;
+
+    public LoadCatalogResult(int count, long loadTime) {
+        this.count = count;
+        this.loadTime = loadTime;
+    }
+
+    public JSObject toJSObject() {
+        JSObject result = new JSObject();
+        result.put("count", count);
+        result.put("loadTime", loadTime);
+        return result;
+    }
+}
@@ -0,0 +1,29 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.interfaces.Result;
+import java.util.List;
+
+public class PollBarcodesResult implements Result {
+
+    private List<JSObject> barcodeScannedEvents;
+    private int remainingCount;
+
+    public PollBarcodesResult(List<JSObject> barcodeScannedEvents, int remainingCount) {
+        this.barcodeScannedEvents = barcodeScannedEvents;
+        this.remainingCount = remainingCount;
+    }
+
+    public JSObject toJSObject() {
+        JSArray barcodesResult = new JSArray();
+        for (JSObject barcodeScannedEvent : barcodeScannedEvents) {
+            barcodesResult.put(barcodeScannedEvent);
+        }
+
+        JSObject result = new JSObject();
+        result.put("barcodes", barcodesResult);
+        result.put("remainingCount", remainingCount);
+        return result;
+    }
+}
@@ -0,0 +1,36 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.BarcodeScannerHelper;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.ScanHistoryEntry;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.ScanHistoryPage;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.interfaces.Result;
+
+public class QueryScanHistoryResult implements Result {
+
+    private ScanHistoryPage page;
+
+    public QueryScanHistoryResult(ScanHistoryPage page) {
+        this.page = page;
+    }
+
+    public JSObject toJSObject() {
+        JSArray entriesResult = new JSArray();
+        for (ScanHistoryEntry entry : page.getEntries()) {
+            JSObject entryResult = new JSObject();
+            entryResult.put("value", entry.getValue());
+            entryResult.put("format", BarcodeScannerHelper.convertBarcodeScannerFormatToString(entry.getFormat()));
+            entryResult.put("timestamp", entry.getTimestamp());
+            if (entry.getImagePath() != null) {
+                entryResult.put("imagePath", entry.getImagePath());
+            }
+            entriesResult.put(entryResult);
+        }
+
+        JSObject result = new JSObject();
+        result.put("entries", entriesResult);
+        result.put("total", page.getTotal());
+        return result;
+    }
+}
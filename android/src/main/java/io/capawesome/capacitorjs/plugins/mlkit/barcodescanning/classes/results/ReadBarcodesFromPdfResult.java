@@ -0,0 +1,22 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results;
+
+import com.getcapacitor.JSObject;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.interfaces.Result;
+
+public class ReadBarcodesFromPdfResult implements Result {
+
+    private int pageCount;
+    private int scannedPageCount;
+
+    public ReadBarcodesFromPdfResult(int pageCount, int scannedPageCount) {
+        this.pageCount = pageCount;
+        this.scannedPageCount = scannedPageCount;
+    }
+
+    public JSObject toJSObject() {
+        JSObject result = new JSObject();
+        result.put("pageCount", pageCount);
+        result.put("scannedPageCount", scannedPageCount);
+        return result;
+    }
+}
@@ -0,0 +1,19 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results;
+
+import com.getcapacitor.JSObject;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.interfaces.Result;
+
+public class StartFrameRecordingResult implements Result {
+
+    private String path;
+
+    public StartFrameRecordingResult(String path) {
+        this.path = path;
+    }
+
+    public JSObject toJSObject() {
+        JSObject result = new JSObject();
+        result.put("path", path);
+        return result;
+    }
+}
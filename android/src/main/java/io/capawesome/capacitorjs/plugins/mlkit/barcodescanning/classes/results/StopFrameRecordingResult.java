@@ -0,0 +1,25 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.classes.results;
+
+import com.getcapacitor.JSObject;
+import io.capawesome.capacitorjs.plugins.mlkit.barcodescanning.interfaces.Result;
+
+public class StopFrameRecordingResult implements Result {
+
+    private String path;
+    private int frameCount;
+    private int skippedFrameCount;
+
+    public StopFrameRecordingResult(String path, int frameCount, int skippedFrameCount) {
+        this.path = path;
+        this.frameCount = frameCount;
+        this.skippedFrameCount = skippedFrameCount;
+    }
+
+    public JSObject toJSObject() {
+        JSObject result = new JSObject();
+        result.put("path", path);
+        result.put("frameCount", frameCount);
+        result.put("skippedFrameCount", skippedFrameCount);
+        return result;
+    }
+}
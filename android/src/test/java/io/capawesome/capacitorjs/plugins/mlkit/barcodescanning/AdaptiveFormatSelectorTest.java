@@ -0,0 +1,70 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import com.google.mlkit.vision.barcode.common.Barcode;
+import org.junit.Test;
+
+public class AdaptiveFormatSelectorTest {
+
+    @Test
+    public void scansAllFormatsDuringWarmUp() {
+        AdaptiveFormatSelector selector = new AdaptiveFormatSelector(3, 5);
+        for (int i = 0; i < 2; i++) {
+            assertTrue(selector.nextFrame());
+            assertFalse(selector.handleFormats(Barcode.FORMAT_EAN_13));
+        }
+        assertFalse(selector.isNarrowed());
+        assertArrayEquals(new int[] {}, selector.getActiveFormats());
+    }
+
+    @Test
+    public void narrowsToSeenFormatsAfterWarmUp() {
+        AdaptiveFormatSelector selector = new AdaptiveFormatSelector(3, 5);
+        selector.nextFrame();
+        selector.handleFormats(Barcode.FORMAT_EAN_13);
+        selector.nextFrame();
+        selector.handleFormats(Barcode.FORMAT_CODE_128);
+        selector.nextFrame();
+        assertTrue(selector.handleFormats(0));
+        assertTrue(selector.isNarrowed());
+        assertArrayEquals(new int[] { Barcode.FORMAT_CODE_128, Barcode.FORMAT_EAN_13 }, selector.getActiveFormats());
+    }
+
+    @Test
+    public void staysWideWithoutAnyFormatSeen() {
+        AdaptiveFormatSelector selector = new AdaptiveFormatSelector(2, 5);
+        for (int i = 0; i < 10; i++) {
+            selector.nextFrame();
+            assertFalse(selector.handleFormats(0));
+        }
+        assertFalse(selector.isNarrowed());
+    }
+
+    @Test
+    public void probesPeriodicallyAndWidensOnNewFormat() {
+        AdaptiveFormatSelector selector = new AdaptiveFormatSelector(1, 3);
+        selector.nextFrame();
+        assertTrue(selector.handleFormats(Barcode.FORMAT_EAN_13));
+        assertFalse(selector.nextFrame());
+        assertFalse(selector.handleFormats(Barcode.FORMAT_EAN_13));
+        assertFalse(selector.nextFrame());
+        assertTrue(selector.nextFrame());
+        assertTrue(selector.handleFormats(Barcode.FORMAT_QR_CODE));
+        assertArrayEquals(new int[] { Barcode.FORMAT_EAN_13, Barcode.FORMAT_QR_CODE }, selector.getActiveFormats());
+        assertFalse(selector.nextFrame());
+    }
+
+    @Test
+    public void ignoresUnknownFormats() {
+        assertEquals(0, AdaptiveFormatSelector.getFormatBit(Barcode.FORMAT_UNKNOWN));
+        assertEquals(0, AdaptiveFormatSelector.getFormatBit(Barcode.FORMAT_ALL_FORMATS));
+        assertEquals(Barcode.FORMAT_QR_CODE, AdaptiveFormatSelector.getFormatBit(Barcode.FORMAT_QR_CODE));
+
+        AdaptiveFormatSelector selector = new AdaptiveFormatSelector(1, 5);
+        selector.nextFrame();
+        int formats = AdaptiveFormatSelector.getFormatBit(Barcode.FORMAT_UNKNOWN) | AdaptiveFormatSelector.getFormatBit(Barcode.FORMAT_QR_CODE);
+        assertTrue(selector.handleFormats(formats));
+        assertArrayEquals(new int[] { Barcode.FORMAT_QR_CODE }, selector.getActiveFormats());
+    }
+}
@@ -0,0 +1,92 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class AutoZoomControllerTest {
+
+    private FakeCameraControl cameraControl;
+    private AutoZoomController controller;
+
+    @Before
+    public void setUp() {
+        cameraControl = new FakeCameraControl();
+        controller = new AutoZoomController(cameraControl, 1f, 1f, 8f);
+    }
+
+    @Test
+    public void zoomsInOnSmallCenteredBarcode() {
+        controller.handleCandidate(1000, 1000, 475, 475, 50, 50, 0);
+        assertEquals(1, cameraControl.zoomRatios.size());
+        assertEquals(AutoZoomController.DEFAULT_MAX_STEP_FACTOR, cameraControl.zoomRatios.get(0), 0.001f);
+    }
+
+    @Test
+    public void ignoresBarcodeThatIsLargeEnough() {
+        controller.handleCandidate(1000, 1000, 300, 300, 400, 400, 0);
+        assertTrue(cameraControl.zoomRatios.isEmpty());
+    }
+
+    @Test
+    public void limitsStepSoThatOffCenterBarcodeStaysInFrame() {
+        // Box extends to 0.4 from the center, so the zoom factor is limited to 1.25
+        controller.handleCandidate(1000, 1000, 850, 480, 50, 40, 0);
+        assertEquals(1, cameraControl.zoomRatios.size());
+        assertEquals(1.25f, cameraControl.zoomRatios.get(0), 0.001f);
+    }
+
+    @Test
+    public void doesNotZoomOnBarcodeAtFrameEdge() {
+        controller.handleCandidate(1000, 1000, 960, 480, 40, 40, 0);
+        assertTrue(cameraControl.zoomRatios.isEmpty());
+    }
+
+    @Test
+    public void rateLimitsSteps() {
+        controller.handleCandidate(1000, 1000, 490, 490, 20, 20, 0);
+        controller.handleCandidate(1000, 1000, 490, 490, 20, 20, 100);
+        assertEquals(1, cameraControl.zoomRatios.size());
+        controller.handleCandidate(1000, 1000, 490, 490, 20, 20, AutoZoomController.DEFAULT_MIN_STEP_INTERVAL_MILLIS);
+        assertEquals(2, cameraControl.zoomRatios.size());
+    }
+
+    @Test
+    public void clampsToMaxZoomRatio() {
+        for (int i = 0; i < 20; i++) {
+            controller.handleCandidate(1000, 1000, 495, 495, 10, 10, i * 1000L);
+        }
+        assertEquals(8f, controller.getZoomRatio(), 0.001f);
+        assertEquals(8f, cameraControl.zoomRatios.get(cameraControl.zoomRatios.size() - 1), 0.001f);
+    }
+
+    @Test
+    public void relaxesAfterReadOnceDelayElapsed() {
+        controller.handleCandidate(1000, 1000, 490, 490, 20, 20, 0);
+        controller.handleRead(1000);
+        controller.handleEmptyFrame(1500);
+        assertEquals(1, cameraControl.zoomRatios.size());
+        controller.handleEmptyFrame(1000 + AutoZoomController.DEFAULT_RELAX_DELAY_MILLIS);
+        assertEquals(2, cameraControl.zoomRatios.size());
+        assertEquals(1f, controller.getZoomRatio(), 0.001f);
+    }
+
+    @Test
+    public void newCandidateCancelsRelax() {
+        controller.handleCandidate(1000, 1000, 490, 490, 20, 20, 0);
+        controller.handleRead(1000);
+        controller.handleCandidate(1000, 1000, 300, 300, 400, 400, 1100);
+        controller.handleEmptyFrame(5000);
+        assertEquals(1, cameraControl.zoomRatios.size());
+    }
+
+    @Test
+    public void relaxesToBaseZoomRatio() {
+        controller.setBaseZoomRatio(2f);
+        controller.handleCandidate(1000, 1000, 490, 490, 20, 20, 0);
+        controller.handleRead(0);
+        controller.handleEmptyFrame(AutoZoomController.DEFAULT_RELAX_DELAY_MILLIS);
+        assertEquals(2f, controller.getZoomRatio(), 0.001f);
+    }
+}
@@ -0,0 +1,66 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class BarcodeCatalogTest {
+
+    @Test
+    public void findsKnownValuesWithMetadata() throws Exception {
+        BarcodeCatalog catalog = load("4006381333931\tSKU-1\n4012345678901\n9780201379624\t{\"name\":\"Book\"}");
+        assertEquals(3, catalog.size());
+        int index = catalog.indexOf("4006381333931");
+        assertTrue(index >= 0);
+        assertEquals("SKU-1", catalog.getMetadata(index));
+        assertNull(catalog.getMetadata(catalog.indexOf("4012345678901")));
+        assertEquals("{\"name\":\"Book\"}", catalog.getMetadata(catalog.indexOf("9780201379624")));
+    }
+
+    @Test
+    public void rejectsUnknownValues() throws Exception {
+        BarcodeCatalog catalog = load("4006381333931\n");
+        assertEquals(-1, catalog.indexOf("4006381333932"));
+        assertEquals(-1, catalog.indexOf(""));
+    }
+
+    @Test
+    public void handlesWindowsLineEndingsAndEmptyLines() throws Exception {
+        BarcodeCatalog catalog = load("\r\nA\tmeta-a\r\n\r\nB\r\n");
+        assertEquals(2, catalog.size());
+        assertEquals("meta-a", catalog.getMetadata(catalog.indexOf("A")));
+        assertTrue(catalog.indexOf("B") >= 0);
+    }
+
+    @Test
+    public void handlesUtf8Values() throws Exception {
+        BarcodeCatalog catalog = load("Gr\u00fc\u00dfe\t\u00c4pfel\n");
+        assertEquals("\u00c4pfel", catalog.getMetadata(catalog.indexOf("Gr\u00fc\u00dfe")));
+    }
+
+    @Test
+    public void keepsMetadataAssignedAfterSortingLargeCatalog() throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            builder.append("code").append(i).append('\t').append("meta").append(i).append('\n');
+        }
+        BarcodeCatalog catalog = load(builder.toString());
+        assertEquals(100_000, catalog.size());
+        for (int i = 0; i < 100_000; i += 997) {
+            assertEquals("meta" + i, catalog.getMetadata(catalog.indexOf("code" + i)));
+        }
+        int falsePositives = 0;
+        for (int i = 100_000; i < 200_000; i++) {
+            if (catalog.indexOf("code" + i) >= 0) {
+                falsePositives++;
+            }
+        }
+        assertEquals(0, falsePositives);
+    }
+
+    private static BarcodeCatalog load(String content) throws Exception {
+        return BarcodeCatalog.load(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
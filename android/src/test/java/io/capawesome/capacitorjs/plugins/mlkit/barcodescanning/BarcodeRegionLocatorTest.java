@@ -0,0 +1,62 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class BarcodeRegionLocatorTest {
+
+    private static final int WIDTH = 160;
+    private static final int HEIGHT = 120;
+
+    private final BarcodeRegionLocator locator = new BarcodeRegionLocator();
+
+    @Test
+    public void findsNothingInAFlatImage() {
+        assertTrue(locator.locate(createImage(), WIDTH, HEIGHT, 4).isEmpty());
+    }
+
+    @Test
+    public void locatesAStripedPatch() {
+        byte[] luma = createImage();
+        drawStripes(luma, 40, 24, 32, 32);
+        List<int[]> regions = locator.locate(luma, WIDTH, HEIGHT, 4);
+
+        assertEquals(1, regions.size());
+        int[] region = regions.get(0);
+        assertTrue(Arrays.toString(region), region[0] <= 40 && region[1] <= 24 && region[2] >= 72 && region[3] >= 56);
+        assertTrue(Arrays.toString(region), region[0] >= 32 && region[1] >= 16 && region[2] <= 80 && region[3] <= 64);
+    }
+
+    @Test
+    public void ranksTheMostDistinctRegionFirst() {
+        byte[] luma = createImage();
+        drawStripes(luma, 8, 8, 16, 16);
+        drawStripes(luma, 96, 64, 48, 40);
+        List<int[]> regions = locator.locate(luma, WIDTH, HEIGHT, 4);
+
+        assertEquals(2, regions.size());
+        assertTrue(regions.get(0)[0] >= 88);
+        assertTrue(regions.get(1)[0] <= 8);
+        assertEquals(1, locator.locate(luma, WIDTH, HEIGHT, 1).size());
+    }
+
+    private static byte[] createImage() {
+        byte[] luma = new byte[WIDTH * HEIGHT];
+        Arrays.fill(luma, (byte) 200);
+        return luma;
+    }
+
+    /**
+     * Draws vertical bars of 2 pixels.
+     */
+    private static void drawStripes(byte[] luma, int left, int top, int width, int height) {
+        for (int y = top; y < top + height; y++) {
+            for (int x = left; x < left + width; x++) {
+                luma[y * WIDTH + x] = (byte) ((x - left) / 2 % 2 == 0 ? 20 : 220);
+            }
+        }
+    }
+}
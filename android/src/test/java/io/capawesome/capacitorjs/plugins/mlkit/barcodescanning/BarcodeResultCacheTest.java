@@ -0,0 +1,167 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BarcodeResultCacheTest {
+
+    private File directory;
+    private File file;
+    private BarcodeResultCache resultCache;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("result-cache").toFile();
+        file = new File(directory, BarcodeResultCache.FILE_NAME);
+        resultCache = new BarcodeResultCache(file);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        resultCache.close();
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void countsHitsAndMisses() throws Exception {
+        BarcodeResultCache.Key key = new BarcodeResultCache.Key(42, 0, ScanSettings.DECODER_ENGINE_MLKIT);
+        assertNull(resultCache.get(key));
+        resultCache.put(key, Collections.singletonList(createBarcode("4006381333931")));
+        assertEquals("4006381333931", resultCache.get(key).get(0).getRawValue());
+        assertEquals(1, resultCache.getMissCount());
+        assertEquals(1, resultCache.getMemoryHitCount());
+        assertEquals(0, resultCache.getDiskHitCount());
+    }
+
+    @Test
+    public void separatesFormatsAndDecoderEngines() throws Exception {
+        resultCache.put(new BarcodeResultCache.Key(42, 0, ScanSettings.DECODER_ENGINE_MLKIT), Collections.emptyList());
+        assertNull(resultCache.get(new BarcodeResultCache.Key(42, 32, ScanSettings.DECODER_ENGINE_MLKIT)));
+        assertNull(resultCache.get(new BarcodeResultCache.Key(42, 0, ScanSettings.DECODER_ENGINE_STRIP)));
+        assertNotNull(resultCache.get(new BarcodeResultCache.Key(42, 0, ScanSettings.DECODER_ENGINE_MLKIT)));
+    }
+
+    @Test
+    public void persistsAllFields() throws Exception {
+        BarcodeResultCache.Key key = new BarcodeResultCache.Key(-7, 256, ScanSettings.DECODER_ENGINE_CASCADE);
+        DecodedBarcode barcode = new DecodedBarcode(
+            256,
+            8,
+            "https://capawesome.io/\u00e9",
+            "capawesome.io",
+            new byte[] { 1, 2, 3 },
+            new int[] { 1, 2, 3, 4 },
+            new int[] { 1, 2, 3, 2, 3, 4, 1, 4 }
+        );
+        resultCache.put(key, Arrays.asList(barcode, new DecodedBarcode(32, 5, null, null, null, null, null)));
+        resultCache.close();
+
+        resultCache = new BarcodeResultCache(file);
+        List<DecodedBarcode> barcodes = resultCache.get(key);
+        assertEquals(1, resultCache.getDiskHitCount());
+        assertEquals(2, barcodes.size());
+        DecodedBarcode cachedBarcode = barcodes.get(0);
+        assertEquals(256, cachedBarcode.getFormat());
+        assertEquals(8, cachedBarcode.getValueType());
+        assertEquals("https://capawesome.io/\u00e9", cachedBarcode.getRawValue());
+        assertEquals("capawesome.io", cachedBarcode.getDisplayValue());
+        assertArrayEquals(new byte[] { 1, 2, 3 }, cachedBarcode.getRawBytes());
+        assertArrayEquals(new int[] { 1, 2, 3, 4 }, cachedBarcode.getBounds());
+        assertArrayEquals(new int[] { 1, 2, 3, 2, 3, 4, 1, 4 }, cachedBarcode.getCornerPointCoordinates());
+        assertNull(barcodes.get(1).getRawValue());
+        assertNull(barcodes.get(1).getBounds());
+        // Served from memory afterwards
+        resultCache.get(key);
+        assertEquals(1, resultCache.getMemoryHitCount());
+    }
+
+    @Test
+    public void invalidatesAllEntriesOfAFingerprint() throws Exception {
+        resultCache.put(new BarcodeResultCache.Key(1, 0, 0), Collections.singletonList(createBarcode("1")));
+        resultCache.put(new BarcodeResultCache.Key(1, 32, 0), Collections.singletonList(createBarcode("1")));
+        resultCache.put(new BarcodeResultCache.Key(2, 0, 0), Collections.singletonList(createBarcode("2")));
+        assertEquals(2, resultCache.invalidate(1));
+        assertNull(resultCache.get(new BarcodeResultCache.Key(1, 0, 0)));
+        resultCache.close();
+
+        resultCache = new BarcodeResultCache(file);
+        assertEquals(1, resultCache.size());
+        assertNull(resultCache.get(new BarcodeResultCache.Key(1, 32, 0)));
+        assertNotNull(resultCache.get(new BarcodeResultCache.Key(2, 0, 0)));
+    }
+
+    @Test
+    public void clearsAllEntries() throws Exception {
+        resultCache.put(new BarcodeResultCache.Key(1, 0, 0), Collections.emptyList());
+        resultCache.clear();
+        assertEquals(0, resultCache.size());
+        assertNull(resultCache.get(new BarcodeResultCache.Key(1, 0, 0)));
+        resultCache.close();
+
+        resultCache = new BarcodeResultCache(file);
+        assertEquals(0, resultCache.size());
+    }
+
+    @Test
+    public void discardsATruncatedRecord() throws Exception {
+        resultCache.put(new BarcodeResultCache.Key(1, 0, 0), Collections.singletonList(createBarcode("1")));
+        resultCache.put(new BarcodeResultCache.Key(2, 0, 0), Collections.singletonList(createBarcode("2")));
+        resultCache.close();
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(randomAccessFile.length() - 3);
+        }
+
+        resultCache = new BarcodeResultCache(file);
+        assertEquals(1, resultCache.size());
+        assertNotNull(resultCache.get(new BarcodeResultCache.Key(1, 0, 0)));
+        resultCache.put(new BarcodeResultCache.Key(3, 0, 0), Collections.singletonList(createBarcode("3")));
+        assertEquals("3", resultCache.get(new BarcodeResultCache.Key(3, 0, 0)).get(0).getRawValue());
+    }
+
+    @Test
+    public void dropsTheOldestEntriesBeyondTheMaximum() throws Exception {
+        resultCache.close();
+        resultCache = new BarcodeResultCache(file, 2, 8);
+        for (int i = 0; i < 9; i++) {
+            resultCache.put(new BarcodeResultCache.Key(i, 0, 0), Collections.singletonList(createBarcode(String.valueOf(i))));
+        }
+        assertEquals(6, resultCache.size());
+        assertNull(resultCache.get(new BarcodeResultCache.Key(0, 0, 0)));
+        assertNull(resultCache.get(new BarcodeResultCache.Key(2, 0, 0)));
+        for (int i = 3; i < 9; i++) {
+            assertEquals(String.valueOf(i), resultCache.get(new BarcodeResultCache.Key(i, 0, 0)).get(0).getRawValue());
+        }
+    }
+
+    @Test
+    public void compactsMostlyInvalidatedLogsOnOpen() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            resultCache.put(new BarcodeResultCache.Key(i, 0, 0), Collections.singletonList(createBarcode(String.valueOf(i))));
+        }
+        for (int i = 0; i < 9; i++) {
+            resultCache.invalidate(i);
+        }
+        resultCache.close();
+        long length = file.length();
+
+        resultCache = new BarcodeResultCache(file);
+        assertTrue(file.length() < length / 5);
+        assertEquals("9", resultCache.get(new BarcodeResultCache.Key(9, 0, 0)).get(0).getRawValue());
+    }
+
+    private static DecodedBarcode createBarcode(String value) {
+        return new DecodedBarcode(32, 5, value, value, null, new int[] { 0, 0, 10, 10 }, null);
+    }
+}
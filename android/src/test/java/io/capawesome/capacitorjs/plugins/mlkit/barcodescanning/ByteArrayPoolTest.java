@@ -0,0 +1,49 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ByteArrayPoolTest {
+
+    @Test
+    public void reusesReleasedArraysOfTheSameLength() {
+        ByteArrayPool pool = new ByteArrayPool();
+        byte[] array = pool.acquire(150);
+        pool.release(array);
+        assertSame(array, pool.acquire(150));
+        assertEquals(1, pool.getAllocationCount());
+    }
+
+    @Test
+    public void allocatesArraysOfOtherLengths() {
+        ByteArrayPool pool = new ByteArrayPool();
+        pool.release(pool.acquire(150));
+        byte[] array = pool.acquire(600);
+        assertEquals(600, array.length);
+        assertEquals(2, pool.getAllocationCount());
+        assertEquals(1, pool.getPooledCount());
+    }
+
+    @Test
+    public void dropsTheLeastRecentlyReleasedArrays() {
+        ByteArrayPool pool = new ByteArrayPool(2);
+        byte[] first = pool.acquire(1);
+        byte[] second = pool.acquire(2);
+        byte[] third = pool.acquire(3);
+        pool.release(first);
+        pool.release(second);
+        pool.release(third);
+        assertEquals(2, pool.getPooledCount());
+        assertNotSame(first, pool.acquire(1));
+        assertSame(third, pool.acquire(3));
+    }
+
+    @Test
+    public void clearDropsAllArrays() {
+        ByteArrayPool pool = new ByteArrayPool();
+        pool.release(pool.acquire(150));
+        pool.clear();
+        assertEquals(0, pool.getPooledCount());
+    }
+}
@@ -0,0 +1,183 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import androidx.annotation.NonNull;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class CascadeDecoderEngineTest {
+
+    private static final DecoderInput INPUT = new DecoderInput(null, null, 0);
+
+    private final List<String> decodes = new ArrayList<>();
+
+    @Test
+    public void skipsFallbackWhenFastEngineDecodes() {
+        FakeEngine fastEngine = new FakeEngine("FAST", Collections.singletonList(barcode("123")));
+        FakeEngine fallbackEngine = new FakeEngine("FALLBACK", Collections.singletonList(barcode("456")));
+        List<DecodedBarcode> barcodes = decode(new CascadeDecoderEngine(measure(fastEngine), measure(fallbackEngine)));
+
+        assertEquals("123", barcodes.get(0).getRawValue());
+        assertEquals(1, fastEngine.decodeCount);
+        assertEquals(0, fallbackEngine.decodeCount);
+        assertEquals(Collections.singletonList("FAST:hit"), decodes);
+    }
+
+    @Test
+    public void escalatesWhenFastEngineFindsNothing() {
+        FakeEngine fastEngine = new FakeEngine("FAST", Collections.emptyList());
+        FakeEngine fallbackEngine = new FakeEngine("FALLBACK", Collections.singletonList(barcode("456")));
+        List<DecodedBarcode> barcodes = decode(new CascadeDecoderEngine(measure(fastEngine), measure(fallbackEngine)));
+
+        assertEquals("456", barcodes.get(0).getRawValue());
+        assertEquals(Arrays.asList("FAST:miss", "FALLBACK:hit"), decodes);
+    }
+
+    @Test
+    public void escalatesOnPotentialBarcodesAndErrors() {
+        FakeEngine fastEngine = new FakeEngine("FAST", Collections.singletonList(barcode(null)));
+        FakeEngine fallbackEngine = new FakeEngine("FALLBACK", Collections.emptyList());
+        decode(new CascadeDecoderEngine(measure(fastEngine), measure(fallbackEngine)));
+        assertEquals(Arrays.asList("FAST:miss", "FALLBACK:miss"), decodes);
+
+        decodes.clear();
+        fastEngine.error = new Exception("failed");
+        decode(new CascadeDecoderEngine(measure(fastEngine), measure(fallbackEngine)));
+        assertEquals(Arrays.asList("FAST:miss", "FALLBACK:miss"), decodes);
+    }
+
+    @Test
+    public void reportsErrorsOfFallbackEngine() {
+        FakeEngine fallbackEngine = new FakeEngine("FALLBACK", Collections.emptyList());
+        fallbackEngine.error = new Exception("failed");
+        CascadeDecoderEngine engine = new CascadeDecoderEngine(new FakeEngine("FAST", Collections.emptyList()), fallbackEngine);
+        List<Exception> errors = new ArrayList<>();
+        engine.decode(
+            INPUT,
+            new DecoderEngine.Callback() {
+                @Override
+                public void success(@NonNull List<DecodedBarcode> barcodes) {
+                    fail();
+                }
+
+                @Override
+                public void error(@NonNull Exception exception) {
+                    errors.add(exception);
+                }
+            }
+        );
+        assertEquals(1, errors.size());
+    }
+
+    @Test
+    public void doesNotEscalateCanceledInput() {
+        FakeEngine fastEngine = new FakeEngine("FAST", Collections.emptyList());
+        FakeEngine fallbackEngine = new FakeEngine("FALLBACK", Collections.singletonList(barcode("456")));
+        CascadeDecoderEngine engine = new CascadeDecoderEngine(fastEngine, fallbackEngine);
+        DecoderInput canceledInput = new DecoderInput(null, null, 0, () -> true);
+        List<Exception> errors = new ArrayList<>();
+        DecoderEngine.Callback callback =
+            new DecoderEngine.Callback() {
+                @Override
+                public void success(@NonNull List<DecodedBarcode> barcodes) {
+                    assertTrue(barcodes.isEmpty());
+                }
+
+                @Override
+                public void error(@NonNull Exception exception) {
+                    errors.add(exception);
+                }
+            };
+        engine.decode(canceledInput, callback);
+        fastEngine.error = new Exception("failed");
+        engine.decode(canceledInput, callback);
+
+        assertEquals(0, fallbackEngine.decodeCount);
+        assertEquals(1, errors.size());
+    }
+
+    @Test
+    public void closesBothEngines() {
+        FakeEngine fastEngine = new FakeEngine("FAST", Collections.emptyList());
+        FakeEngine fallbackEngine = new FakeEngine("FALLBACK", Collections.emptyList());
+        new CascadeDecoderEngine(measure(fastEngine), fallbackEngine).close();
+        assertTrue(fastEngine.isClosed);
+        assertTrue(fallbackEngine.isClosed);
+    }
+
+    @Test
+    public void stripEngineFindsNothingWithoutLumaPlane() {
+        List<DecodedBarcode> barcodes = decode(StripDecoderEngine.fromFormats(new int[] {}));
+        assertTrue(barcodes.isEmpty());
+    }
+
+    private MeasuredDecoderEngine measure(DecoderEngine engine) {
+        return new MeasuredDecoderEngine(engine, (engineName, isHit, durationNanos) -> {
+            assertTrue(durationNanos >= 0);
+            decodes.add(engineName + (isHit ? ":hit" : ":miss"));
+        });
+    }
+
+    private static List<DecodedBarcode> decode(DecoderEngine engine) {
+        List<DecodedBarcode> result = new ArrayList<>();
+        engine.decode(
+            INPUT,
+            new DecoderEngine.Callback() {
+                @Override
+                public void success(@NonNull List<DecodedBarcode> barcodes) {
+                    result.addAll(barcodes);
+                }
+
+                @Override
+                public void error(@NonNull Exception exception) {
+                    fail(exception.getMessage());
+                }
+            }
+        );
+        return result;
+    }
+
+    private static DecodedBarcode barcode(String rawValue) {
+        return new DecodedBarcode(Barcode.FORMAT_EAN_13, Barcode.TYPE_PRODUCT, rawValue, rawValue, null, null, null);
+    }
+
+    private static class FakeEngine implements DecoderEngine {
+
+        final String name;
+        final List<DecodedBarcode> barcodes;
+        Exception error;
+        int decodeCount = 0;
+        boolean isClosed = false;
+
+        FakeEngine(String name, List<DecodedBarcode> barcodes) {
+            this.name = name;
+            this.barcodes = barcodes;
+        }
+
+        @NonNull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void decode(@NonNull DecoderInput input, @NonNull Callback callback) {
+            decodeCount++;
+            if (error != null) {
+                callback.error(error);
+            } else {
+                callback.success(barcodes);
+            }
+        }
+
+        @Override
+        public void close() {
+            isClosed = true;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import androidx.annotation.NonNull;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class CoarseToFineDecoderEngineTest {
+
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+
+    @Test
+    public void computesTheDownscaleFactor() {
+        assertEquals(3, CoarseToFineDecoderEngine.getDownscaleFactor(1920, 1080, 640));
+        assertEquals(1, CoarseToFineDecoderEngine.getDownscaleFactor(640, 480, 640));
+        assertEquals(7, CoarseToFineDecoderEngine.getDownscaleFactor(4000, 3000, 640));
+    }
+
+    @Test
+    public void averagesTheDownscaledPixels() {
+        byte[] luma = new byte[] { 0, 4, 8, 8, 2, 6, 8, 8, 1, 1, 1, 1, 1, 1, 1, 1 };
+        byte[] destination = new byte[4];
+        CoarseToFineDecoderEngine.downscale(new LumaPlane(ByteBuffer.wrap(luma), 4, 1, 4, 4), 2, destination, 2, 2);
+        assertArrayEquals(new byte[] { 3, 8, 1, 1 }, destination);
+    }
+
+    @Test
+    public void mapsBarcodesBackToTheUprightFrame() {
+        // A crop of 100x50 at 300x200 of a 1000x600 frame, rotated by 90 degrees: the upright crop is 50x100
+        DecodedBarcode barcode = barcode("123", new int[] { 10, 20, 30, 40 });
+        DecodedBarcode mappedBarcode = CoarseToFineDecoderEngine.mapToFrame(barcode, 100, 50, 1, 300, 200, 1000, 600, 90);
+        // Upright crop (10, 20)-(30, 40) is (20, 20)-(40, 40) in the crop before rotation
+        int[] expectedBounds = StripBarcodeDecoder.rotateBounds(320, 220, 340, 240, 1000, 600, 90);
+        assertArrayEquals(expectedBounds, mappedBarcode.getBounds());
+        assertEquals("123", mappedBarcode.getRawValue());
+
+        DecodedBarcode scaledBarcode = CoarseToFineDecoderEngine.mapToFrame(barcode, 640, 360, 3, 0, 0, 1920, 1080, 0);
+        assertArrayEquals(new int[] { 30, 60, 90, 120 }, scaledBarcode.getBounds());
+        assertArrayEquals(new int[] { 30, 60, 90, 60, 90, 120, 30, 120 }, scaledBarcode.getCornerPointCoordinates());
+    }
+
+    @Test
+    public void decodesFullResolutionCropsOfCandidateRegions() {
+        byte[] luma = new byte[WIDTH * HEIGHT];
+        Arrays.fill(luma, (byte) 200);
+        // A tiny code with 1 pixel modules, which averages out in the downscaled frame
+        for (int y = 800; y < 848; y++) {
+            for (int x = 1500; x < 1548; x++) {
+                luma[y * WIDTH + x] = (byte) ((x + y) % 2 == 0 ? 20 : 220);
+            }
+        }
+        FakeEngine fakeEngine = new FakeEngine();
+        List<float[]> stages = new ArrayList<>();
+        CoarseToFineDecoderEngine engine = new CoarseToFineDecoderEngine(
+            fakeEngine,
+            640,
+            CoarseToFineDecoderEngine.DEFAULT_MAX_REGIONS,
+            (coarseStageNanos, fineStageNanos, regionCount, processedPixelFraction) ->
+                stages.add(new float[] { regionCount, processedPixelFraction })
+        );
+        List<DecodedBarcode> barcodes = decode(engine, new LumaPlane(ByteBuffer.wrap(luma), WIDTH, 1, WIDTH, HEIGHT));
+
+        assertEquals(1, barcodes.size());
+        assertEquals("TINY", barcodes.get(0).getRawValue());
+        int[] bounds = barcodes.get(0).getBounds();
+        assertTrue(Arrays.toString(bounds), bounds[0] <= 1500 && bounds[1] <= 800 && bounds[2] >= 1548 && bounds[3] >= 848);
+        assertEquals(Arrays.asList(640, 360), fakeEngine.inputWidths.subList(0, 2));
+        assertEquals(1, stages.size());
+        assertEquals(1, (int) stages.get(0)[0]);
+        assertTrue(stages.get(0)[1] < 0.2f);
+    }
+
+    @Test
+    public void skipsTheFineStageOnceCanceled() {
+        byte[] luma = new byte[WIDTH * HEIGHT];
+        for (int y = 800; y < 848; y++) {
+            for (int x = 1500; x < 1548; x++) {
+                luma[y * WIDTH + x] = (byte) ((x + y) % 2 == 0 ? 20 : 220);
+            }
+        }
+        FakeEngine fakeEngine = new FakeEngine();
+        CoarseToFineDecoderEngine engine = new CoarseToFineDecoderEngine(fakeEngine, 640, 4, null);
+        List<DecodedBarcode> barcodes = new ArrayList<>();
+        engine.decode(
+            new DecoderInput(null, new LumaPlane(ByteBuffer.wrap(luma), WIDTH, 1, WIDTH, HEIGHT), 0, () -> true),
+            new DecoderEngine.Callback() {
+                @Override
+                public void success(@NonNull List<DecodedBarcode> decodedBarcodes) {
+                    barcodes.addAll(decodedBarcodes);
+                }
+
+                @Override
+                public void error(@NonNull Exception exception) {
+                    fail(exception.getMessage());
+                }
+            }
+        );
+        assertTrue(barcodes.isEmpty());
+        assertEquals(Arrays.asList(640, 360), fakeEngine.inputWidths);
+    }
+
+    @Test
+    public void skipsTheFineStageForBarcodesDecodedInTheCoarseStage() {
+        FakeEngine fakeEngine = new FakeEngine();
+        fakeEngine.coarseBarcode = barcode("LARGE", new int[] { 100, 100, 300, 300 });
+        byte[] luma = new byte[WIDTH * HEIGHT];
+        for (int y = 300; y < 900; y++) {
+            for (int x = 300; x < 900; x++) {
+                luma[y * WIDTH + x] = (byte) (x / 3 % 2 == 0 ? 20 : 220);
+            }
+        }
+        CoarseToFineDecoderEngine engine = new CoarseToFineDecoderEngine(fakeEngine, 640, 4, null);
+        List<DecodedBarcode> barcodes = decode(engine, new LumaPlane(ByteBuffer.wrap(luma), WIDTH, 1, WIDTH, HEIGHT));
+
+        assertEquals(1, barcodes.size());
+        assertEquals("LARGE", barcodes.get(0).getRawValue());
+        assertArrayEquals(new int[] { 300, 300, 900, 900 }, barcodes.get(0).getBounds());
+        assertEquals(2, fakeEngine.inputWidths.size());
+    }
+
+    @Test
+    public void passesSmallFramesThrough() {
+        FakeEngine fakeEngine = new FakeEngine();
+        CoarseToFineDecoderEngine engine = new CoarseToFineDecoderEngine(fakeEngine, 640, 4, null);
+        decode(engine, new LumaPlane(ByteBuffer.wrap(new byte[320 * 240]), 320, 1, 320, 240));
+        assertEquals(Arrays.asList(320, 240), fakeEngine.inputWidths);
+    }
+
+    private static List<DecodedBarcode> decode(DecoderEngine engine, LumaPlane lumaPlane) {
+        List<DecodedBarcode> result = new ArrayList<>();
+        engine.decode(
+            new DecoderInput(null, lumaPlane, 0),
+            new DecoderEngine.Callback() {
+                @Override
+                public void success(@NonNull List<DecodedBarcode> barcodes) {
+                    result.addAll(barcodes);
+                }
+
+                @Override
+                public void error(@NonNull Exception exception) {
+                    fail(exception.getMessage());
+                }
+            }
+        );
+        return result;
+    }
+
+    private static DecodedBarcode barcode(String rawValue, int[] bounds) {
+        int[] cornerPointCoordinates = new int[] { bounds[0], bounds[1], bounds[2], bounds[1], bounds[2], bounds[3], bounds[0], bounds[3] };
+        return new DecodedBarcode(Barcode.FORMAT_DATA_MATRIX, Barcode.TYPE_TEXT, rawValue, rawValue, null, bounds, cornerPointCoordinates);
+    }
+
+    /**
+     * Decodes nothing in the downscaled frame (unless told otherwise) and a barcode filling every crop.
+     * Records the width and height of every input.
+     */
+    private static class FakeEngine implements DecoderEngine {
+
+        private final List<Integer> inputWidths = new ArrayList<>();
+        private DecodedBarcode coarseBarcode;
+
+        @NonNull
+        @Override
+        public String getName() {
+            return "FAKE";
+        }
+
+        @Override
+        public void decode(@NonNull DecoderInput input, @NonNull Callback callback) {
+            LumaPlane lumaPlane = input.getLumaPlane();
+            inputWidths.add(lumaPlane.getWidth());
+            inputWidths.add(lumaPlane.getHeight());
+            List<DecodedBarcode> barcodes = new ArrayList<>();
+            boolean isCoarse = inputWidths.size() == 2;
+            if (isCoarse && coarseBarcode != null) {
+                barcodes.add(coarseBarcode);
+            } else if (!isCoarse) {
+                barcodes.add(barcode("TINY", new int[] { 0, 0, lumaPlane.getWidth(), lumaPlane.getHeight() }));
+            }
+            callback.success(barcodes);
+        }
+
+        @Override
+        public void close() {}
+    }
+}
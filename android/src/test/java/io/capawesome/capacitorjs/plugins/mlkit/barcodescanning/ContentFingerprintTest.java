@@ -0,0 +1,86 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ContentFingerprintTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = Files.createTempFile("fingerprint", ".jpg").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void isStableForUnchangedContent() throws Exception {
+        write(createBytes(1_000_000, 1));
+        assertEquals(fingerprint(1000), fingerprint(1000));
+    }
+
+    @Test
+    public void changesWithTheModificationTime() throws Exception {
+        write(createBytes(1000, 1));
+        assertNotEquals(fingerprint(1000), fingerprint(2000));
+    }
+
+    @Test
+    public void hashesSmallFilesCompletely() throws Exception {
+        byte[] bytes = createBytes(50_000, 1);
+        write(bytes);
+        long fingerprint = fingerprint(1000);
+        bytes[12_345] ^= 1;
+        write(bytes);
+        assertNotEquals(fingerprint, fingerprint(1000));
+    }
+
+    @Test
+    public void samplesTheStartAndTheEndOfLargeFiles() throws Exception {
+        byte[] bytes = createBytes(1_000_000, 1);
+        write(bytes);
+        long fingerprint = fingerprint(1000);
+        bytes[bytes.length - 1] ^= 1;
+        write(bytes);
+        long changedEndFingerprint = fingerprint(1000);
+        assertNotEquals(fingerprint, changedEndFingerprint);
+        bytes[0] ^= 1;
+        write(bytes);
+        assertNotEquals(changedEndFingerprint, fingerprint(1000));
+    }
+
+    @Test
+    public void changesWithTheSize() throws Exception {
+        write(createBytes(100_000, 1));
+        long fingerprint = fingerprint(1000);
+        write(createBytes(100_001, 1));
+        assertNotEquals(fingerprint, fingerprint(1000));
+    }
+
+    private long fingerprint(long modifiedTime) throws Exception {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            return ContentFingerprint.compute(randomAccessFile.getChannel(), modifiedTime);
+        }
+    }
+
+    private void write(byte[] bytes) throws Exception {
+        Files.write(file.toPath(), bytes);
+    }
+
+    private static byte[] createBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,35 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ConveyorCaptureOptionsTest {
+
+    @Test
+    public void selectsTheHighestFrameRate() {
+        int[] lowers = new int[] { 15, 30, 7, 24 };
+        int[] uppers = new int[] { 30, 30, 60, 24 };
+        assertEquals(2, ConveyorCaptureOptions.selectFpsRange(lowers, uppers));
+    }
+
+    @Test
+    public void prefersFixedRanges() {
+        int[] lowers = new int[] { 15, 60, 30 };
+        int[] uppers = new int[] { 60, 60, 60 };
+        assertEquals(1, ConveyorCaptureOptions.selectFpsRange(lowers, uppers));
+    }
+
+    @Test
+    public void selectsNothingWithoutRanges() {
+        assertEquals(-1, ConveyorCaptureOptions.selectFpsRange(new int[] {}, new int[] {}));
+    }
+
+    @Test
+    public void convertsFocusDistancesToDiopters() {
+        assertEquals(2f, ConveyorCaptureOptions.toDiopters(0.5f, 10f), 0.0001f);
+        // Closer than the lens can focus
+        assertEquals(10f, ConveyorCaptureOptions.toDiopters(0.05f, 10f), 0.0001f);
+        assertEquals(0f, ConveyorCaptureOptions.toDiopters(0f, 10f), 0f);
+    }
+}
@@ -0,0 +1,74 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import org.junit.Test;
+
+public class DecoderEngineCloserTest {
+
+    private final DecoderEngineCloser decoderEngineCloser = new DecoderEngineCloser();
+
+    @Test
+    public void closesReplacedEnginesWhenFormatsAreUpdatedTwice() {
+        FakeEngine firstEngine = new FakeEngine();
+        FakeEngine secondEngine = new FakeEngine();
+        // The adaptive formats probe with the same engine
+        decoderEngineCloser.close(firstEngine, firstEngine);
+        decoderEngineCloser.close(secondEngine, null);
+
+        assertEquals(1, firstEngine.closeCount);
+        assertEquals(1, secondEngine.closeCount);
+    }
+
+    @Test
+    public void closesEngineOnceItsFramesAreFinished() {
+        FakeEngine firstEngine = new FakeEngine();
+        FakeEngine secondEngine = new FakeEngine();
+        decoderEngineCloser.startFrame(firstEngine);
+        decoderEngineCloser.startFrame(firstEngine);
+        decoderEngineCloser.close(firstEngine, firstEngine);
+        decoderEngineCloser.startFrame(secondEngine);
+        decoderEngineCloser.close(secondEngine, null);
+        assertEquals(0, firstEngine.closeCount);
+        assertEquals(0, secondEngine.closeCount);
+
+        decoderEngineCloser.finishFrame(firstEngine);
+        assertEquals(0, firstEngine.closeCount);
+        decoderEngineCloser.finishFrame(secondEngine);
+        assertEquals(1, secondEngine.closeCount);
+        decoderEngineCloser.finishFrame(firstEngine);
+        assertEquals(1, firstEngine.closeCount);
+    }
+
+    @Test
+    public void keepsEngineThatIsNotReplaced() {
+        FakeEngine engine = new FakeEngine();
+        decoderEngineCloser.startFrame(engine);
+        decoderEngineCloser.finishFrame(engine);
+        decoderEngineCloser.finishFrame(engine);
+        assertEquals(0, engine.closeCount);
+    }
+
+    private static class FakeEngine implements DecoderEngine {
+
+        int closeCount = 0;
+
+        @NonNull
+        @Override
+        public String getName() {
+            return "FAKE";
+        }
+
+        @Override
+        public void decode(@NonNull DecoderInput input, @NonNull Callback callback) {
+            callback.success(new ArrayList<>());
+        }
+
+        @Override
+        public void close() {
+            closeCount++;
+        }
+    }
+}
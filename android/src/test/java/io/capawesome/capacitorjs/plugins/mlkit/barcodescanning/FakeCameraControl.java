@@ -0,0 +1,44 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.camera.core.CameraControl;
+import androidx.camera.core.FocusMeteringAction;
+import androidx.camera.core.FocusMeteringResult;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.ArrayList;
+import java.util.List;
+
+public class FakeCameraControl implements CameraControl {
+
+    public final List<Float> zoomRatios = new ArrayList<>();
+
+    @Override
+    public ListenableFuture<Void> enableTorch(boolean torch) {
+        return null;
+    }
+
+    @Override
+    public ListenableFuture<FocusMeteringResult> startFocusAndMetering(FocusMeteringAction action) {
+        return null;
+    }
+
+    @Override
+    public ListenableFuture<Void> cancelFocusAndMetering() {
+        return null;
+    }
+
+    @Override
+    public ListenableFuture<Void> setZoomRatio(float ratio) {
+        zoomRatios.add(ratio);
+        return null;
+    }
+
+    @Override
+    public ListenableFuture<Void> setLinearZoom(float linearZoom) {
+        return null;
+    }
+
+    @Override
+    public ListenableFuture<Integer> setExposureCompensationIndex(int value) {
+        return null;
+    }
+}
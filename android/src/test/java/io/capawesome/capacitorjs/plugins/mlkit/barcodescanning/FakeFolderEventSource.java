@@ -0,0 +1,26 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+
+public class FakeFolderEventSource implements FolderEventSource {
+
+    public boolean isClosed = false;
+    private FolderEventSource.Listener listener;
+
+    @Override
+    public void start(@NonNull Listener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void close() {
+        isClosed = true;
+        listener = null;
+    }
+
+    public void emitFileChanged(@NonNull String name) {
+        if (listener != null) {
+            listener.onFileChanged(name);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import androidx.annotation.NonNull;
+
+public class FakeMotionSource implements MotionSource {
+
+    public float powerMilliamps = 0;
+    public boolean isClosed = false;
+    private MotionSource.Listener listener;
+
+    @Override
+    public void start(@NonNull Listener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public float getPowerMilliamps() {
+        return powerMilliamps;
+    }
+
+    @Override
+    public void close() {
+        isClosed = true;
+        listener = null;
+    }
+
+    public void emitGyroscope(long timestampNanos, float x, float y, float z) {
+        if (listener != null) {
+            listener.onGyroscopeSample(timestampNanos, x, y, z);
+        }
+    }
+
+    public void emitAccelerometer(long timestampNanos, float x, float y, float z) {
+        if (listener != null) {
+            listener.onAccelerometerSample(timestampNanos, x, y, z);
+        }
+    }
+}
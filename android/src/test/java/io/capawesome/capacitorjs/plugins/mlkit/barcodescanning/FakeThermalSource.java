@@ -0,0 +1,17 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+public class FakeThermalSource implements ThermalSource {
+
+    public int thermalStatus = 0;
+    public boolean isClosed = false;
+
+    @Override
+    public int getThermalStatus() {
+        return thermalStatus;
+    }
+
+    @Override
+    public void close() {
+        isClosed = true;
+    }
+}
@@ -0,0 +1,155 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class FlightRecorderTest {
+
+    @Test
+    public void recordsFrames() {
+        FlightRecorder flightRecorder = new FlightRecorder(8);
+        flightRecorder.startFrame(1000, 10);
+        flightRecorder.markInferenceStarted(11);
+        flightRecorder.markInferenceEnded(20);
+        flightRecorder.addEncodeDuration(3);
+        flightRecorder.markEmitted(24);
+        flightRecorder.addEncodeDuration(2);
+        flightRecorder.markEmitted(27);
+        flightRecorder.finishFrame(FlightRecorder.DROP_REASON_NONE, 4096);
+
+        long[] records = new long[8 * FlightRecorder.FIELD_COUNT];
+        assertEquals(1, flightRecorder.snapshot(records));
+        assertEquals(0, records[FlightRecorder.FIELD_SEQUENCE]);
+        assertEquals(1000, records[FlightRecorder.FIELD_FRAME_TIMESTAMP]);
+        assertEquals(10, records[FlightRecorder.FIELD_RECEIVED_AT]);
+        assertEquals(11, records[FlightRecorder.FIELD_INFERENCE_STARTED_AT]);
+        assertEquals(20, records[FlightRecorder.FIELD_INFERENCE_ENDED_AT]);
+        assertEquals(5, records[FlightRecorder.FIELD_ENCODE_DURATION]);
+        assertEquals(27, records[FlightRecorder.FIELD_EMITTED_AT]);
+        assertEquals(2, records[FlightRecorder.FIELD_BARCODE_COUNT]);
+        assertEquals(FlightRecorder.DROP_REASON_NONE, records[FlightRecorder.FIELD_DROP_REASON]);
+        assertEquals(4096, records[FlightRecorder.FIELD_HEAP_USED]);
+    }
+
+    @Test
+    public void resetsFieldsBetweenFrames() {
+        FlightRecorder flightRecorder = new FlightRecorder(8);
+        recordFrame(flightRecorder, 1);
+        flightRecorder.startFrame(2, 2);
+        flightRecorder.finishFrame(FlightRecorder.DROP_REASON_QUALITY_GATE, 0);
+
+        long[] records = new long[8 * FlightRecorder.FIELD_COUNT];
+        assertEquals(2, flightRecorder.snapshot(records));
+        int offset = FlightRecorder.FIELD_COUNT;
+        assertEquals(0, records[offset + FlightRecorder.FIELD_BARCODE_COUNT]);
+        assertEquals(0, records[offset + FlightRecorder.FIELD_ENCODE_DURATION]);
+        assertEquals(FlightRecorder.DROP_REASON_QUALITY_GATE, records[offset + FlightRecorder.FIELD_DROP_REASON]);
+    }
+
+    @Test
+    public void ignoresFramesThatWereNotStarted() {
+        FlightRecorder flightRecorder = new FlightRecorder(8);
+        flightRecorder.finishFrame(FlightRecorder.DROP_REASON_ERROR, 0);
+        recordFrame(flightRecorder, 1);
+        flightRecorder.finishFrame(FlightRecorder.DROP_REASON_ERROR, 0);
+        assertEquals(1, flightRecorder.getWrittenCount());
+    }
+
+    @Test
+    public void keepsTheNewestFramesWhenFull() {
+        FlightRecorder flightRecorder = new FlightRecorder(4);
+        for (int i = 0; i < 10; i++) {
+            recordFrame(flightRecorder, i);
+        }
+        long[] records = new long[4 * FlightRecorder.FIELD_COUNT];
+        assertEquals(4, flightRecorder.snapshot(records));
+        for (int i = 0; i < 4; i++) {
+            assertEquals(6 + i, records[i * FlightRecorder.FIELD_COUNT + FlightRecorder.FIELD_SEQUENCE]);
+            assertEquals(6 + i, records[i * FlightRecorder.FIELD_COUNT + FlightRecorder.FIELD_FRAME_TIMESTAMP]);
+        }
+    }
+
+    @Test
+    public void writesCsv() throws Exception {
+        FlightRecorder flightRecorder = new FlightRecorder(4);
+        recordFrame(flightRecorder, 7);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertEquals(1, flightRecorder.writeCsv(outputStream));
+        String[] lines = new String(outputStream.toByteArray(), StandardCharsets.US_ASCII).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(String.join(",", FlightRecorder.FIELD_NAMES), lines[0]);
+        assertEquals("0,7,7,8,9,1,10,1,0,7", lines[1]);
+    }
+
+    @Test
+    public void writesBinary() throws Exception {
+        FlightRecorder flightRecorder = new FlightRecorder(4);
+        recordFrame(flightRecorder, 7);
+        recordFrame(flightRecorder, 8);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertEquals(2, flightRecorder.writeBinary(outputStream));
+        DataInputStream inputStream = new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+        assertEquals(FlightRecorder.BINARY_MAGIC, inputStream.readInt());
+        assertEquals(FlightRecorder.BINARY_VERSION, inputStream.readInt());
+        assertEquals(FlightRecorder.FIELD_COUNT, inputStream.readInt());
+        assertEquals(2, inputStream.readInt());
+        assertEquals(0, inputStream.readLong());
+        assertEquals(7, inputStream.readLong());
+        assertEquals(16 + 2 * FlightRecorder.FIELD_COUNT * 8, outputStream.size());
+    }
+
+    @Test
+    public void snapshotsOnlyConsistentRecordsWhileWriting() throws Exception {
+        FlightRecorder flightRecorder = new FlightRecorder(16);
+        AtomicBoolean isRunning = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(
+            () -> {
+                long[] records = new long[16 * FlightRecorder.FIELD_COUNT];
+                while (isRunning.get()) {
+                    int count = flightRecorder.snapshot(records);
+                    long previousSequence = -1;
+                    for (int i = 0; i < count; i++) {
+                        int offset = i * FlightRecorder.FIELD_COUNT;
+                        long sequence = records[offset + FlightRecorder.FIELD_SEQUENCE];
+                        // All fields of a frame are derived from its value
+                        if (records[offset + FlightRecorder.FIELD_FRAME_TIMESTAMP] != sequence) {
+                            failure.set("Torn record " + sequence);
+                        }
+                        if (records[offset + FlightRecorder.FIELD_HEAP_USED] != sequence) {
+                            failure.set("Torn record " + sequence);
+                        }
+                        if (sequence <= previousSequence) {
+                            failure.set("Unordered records");
+                        }
+                        previousSequence = sequence;
+                    }
+                }
+            }
+        );
+        reader.start();
+        for (int i = 0; i < 200_000; i++) {
+            recordFrame(flightRecorder, i);
+        }
+        isRunning.set(false);
+        reader.join();
+        assertNull(failure.get());
+        assertEquals(200_000, flightRecorder.getWrittenCount());
+    }
+
+    private static void recordFrame(FlightRecorder flightRecorder, long value) {
+        flightRecorder.startFrame(value, value);
+        flightRecorder.markInferenceStarted(value + 1);
+        flightRecorder.markInferenceEnded(value + 2);
+        flightRecorder.addEncodeDuration(1);
+        flightRecorder.markEmitted(value + 3);
+        flightRecorder.finishFrame(FlightRecorder.DROP_REASON_NONE, value);
+    }
+}
@@ -0,0 +1,95 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FocusMeteringControllerTest {
+
+    private ScanMetrics scanMetrics;
+    private RecordingFocusMeteringController controller;
+
+    @Before
+    public void setUp() {
+        scanMetrics = new ScanMetrics();
+        controller = new RecordingFocusMeteringController(scanMetrics);
+    }
+
+    @Test
+    public void focusesOnCandidateCenter() {
+        controller.handleCandidate(1000, 2000, 400, 900, 200, 200, 0, 0);
+        assertEquals(1, controller.points.size());
+        assertEquals(0.5f, controller.points.get(0)[0], 0.001f);
+        assertEquals(0.5f, controller.points.get(0)[1], 0.001f);
+        assertEquals(1, scanMetrics.getFocusActionCount());
+    }
+
+    @Test
+    public void rateLimitsFocusActions() {
+        controller.handleCandidate(1000, 1000, 0, 0, 100, 100, 0, 0);
+        controller.handleCandidate(1000, 1000, 0, 0, 100, 100, 0, 500);
+        assertEquals(1, controller.points.size());
+        controller.handleCandidate(1000, 1000, 0, 0, 100, 100, 0, FocusMeteringController.DEFAULT_MIN_INTERVAL_MILLIS);
+        assertEquals(2, controller.points.size());
+    }
+
+    @Test
+    public void doesNotFocusOnceDecoded() {
+        controller.handleRead(0);
+        controller.handleCandidate(1000, 1000, 0, 0, 100, 100, 0, 100);
+        assertTrue(controller.points.isEmpty());
+    }
+
+    @Test
+    public void recordsDecodeLatencyWithFocus() {
+        controller.handleCandidate(1000, 1000, 0, 0, 100, 100, 0, 1000);
+        controller.handleRead(1300);
+        controller.handleRead(1400);
+        assertEquals(300, scanMetrics.getAverageFocusedDecodeLatencyMillis(), 0.001);
+        assertEquals(0, scanMetrics.getAverageDecodeLatencyMillis(), 0.001);
+    }
+
+    @Test
+    public void recordsDecodeLatencyOfNextBarcodeAfterTimeout() {
+        controller.handleRead(0);
+        controller.handleEmptyFrame(FocusMeteringController.BARCODE_TIMEOUT_MILLIS);
+        controller.handleRead(5000);
+        assertEquals(0, scanMetrics.getAverageDecodeLatencyMillis(), 0.001);
+        controller.handleEmptyFrame(7000);
+        controller.handleCandidate(1000, 1000, 0, 0, 100, 100, 0, 8000);
+        controller.handleRead(8100);
+        assertEquals(100, scanMetrics.getAverageFocusedDecodeLatencyMillis(), 0.001);
+    }
+
+    @Test
+    public void convertsUprightPointToSensorPoint() {
+        assertArrayEquals(new float[] { 0.2f, 0.7f }, FocusMeteringController.convertUprightPointToSensorPoint(0.3f, 0.2f, 90));
+        assertArrayEquals(new float[] { 0.7f, 0.8f }, FocusMeteringController.convertUprightPointToSensorPoint(0.3f, 0.2f, 180));
+        assertArrayEquals(new float[] { 0.8f, 0.3f }, FocusMeteringController.convertUprightPointToSensorPoint(0.3f, 0.2f, 270));
+        assertArrayEquals(new float[] { 0.3f, 0.2f }, FocusMeteringController.convertUprightPointToSensorPoint(0.3f, 0.2f, 0));
+    }
+
+    private static void assertArrayEquals(float[] expected, float[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual[i], 0.001f);
+        }
+    }
+
+    private static class RecordingFocusMeteringController extends FocusMeteringController {
+
+        private final List<float[]> points = new ArrayList<>();
+
+        RecordingFocusMeteringController(ScanMetrics scanMetrics) {
+            super(new FakeCameraControl(), scanMetrics);
+        }
+
+        @Override
+        protected void startFocusAndMetering(float x, float y, float size) {
+            points.add(new float[] { x, y, size });
+        }
+    }
+}
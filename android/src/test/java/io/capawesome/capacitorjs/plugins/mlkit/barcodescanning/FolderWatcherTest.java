@@ -0,0 +1,182 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FolderWatcherTest {
+
+    private File directory;
+    private File indexFile;
+    private FolderWatcher folderWatcher;
+    private FakeFolderEventSource folderEventSource;
+    private final List<String> scannedNames = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> failedNames = Collections.synchronizedList(new ArrayList<>());
+    private final List<Exception> indexErrors = Collections.synchronizedList(new ArrayList<>());
+    private volatile CountDownLatch currentLatch;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("watch-folder").toFile();
+        indexFile = Files.createTempFile("watch-folder", ".index").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        if (folderWatcher != null) {
+            folderWatcher.stop();
+        }
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+        indexFile.delete();
+    }
+
+    @Test
+    public void onlyAcceptsImageFileNames() {
+        assertTrue(FolderWatcher.isImageFileName("IMG_0001.JPG"));
+        assertTrue(FolderWatcher.isImageFileName("scan.png"));
+        assertFalse(FolderWatcher.isImageFileName("scan.png.tmp"));
+        assertFalse(FolderWatcher.isImageFileName(".pending.jpg"));
+        assertFalse(FolderWatcher.isImageFileName("README"));
+    }
+
+    @Test
+    public void scansExistingImagesOnlyOnce() throws Exception {
+        writeFile("a.jpg", 10);
+        writeFile("b.png", 20);
+        writeFile("notes.txt", 30);
+
+        CountDownLatch latch = new CountDownLatch(2);
+        startFolderWatcher(latch, null);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        folderWatcher.stop();
+        folderWatcher = null;
+        Collections.sort(scannedNames);
+        assertEquals(Arrays.asList("a.jpg", "b.png"), scannedNames);
+
+        // A restarted watcher only scans images it has not seen
+        scannedNames.clear();
+        writeFile("c.jpg", 40);
+        latch = new CountDownLatch(1);
+        startFolderWatcher(latch, null);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        folderWatcher.stop();
+        folderWatcher = null;
+        assertEquals(Collections.singletonList("c.jpg"), scannedNames);
+    }
+
+    @Test
+    public void scansImagesAgainOnceTheyChange() throws Exception {
+        File file = writeFile("a.jpg", 10);
+        CountDownLatch latch = new CountDownLatch(1);
+        startFolderWatcher(latch, null);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        writeFile("a.jpg", 20);
+        file.setLastModified(file.lastModified() + 1000);
+        latch = new CountDownLatch(1);
+        currentLatch = latch;
+        folderEventSource.emitFileChanged("a.jpg");
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(2, scannedNames.size());
+        assertTrue(indexErrors.isEmpty());
+    }
+
+    @Test
+    public void scansImagesReportedBySource() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        startFolderWatcher(latch, null);
+        writeFile("notes.txt", 10);
+        folderEventSource.emitFileChanged("notes.txt");
+        writeFile("a.jpg", 10);
+        folderEventSource.emitFileChanged("a.jpg");
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList("a.jpg"), scannedNames);
+
+        FakeFolderEventSource stoppedFolderEventSource = folderEventSource;
+        folderWatcher.stop();
+        folderWatcher = null;
+        assertTrue(stoppedFolderEventSource.isClosed);
+    }
+
+    @Test
+    public void retriesFailedImages() throws Exception {
+        writeFile("a.jpg", 10);
+        CountDownLatch latch = new CountDownLatch(1);
+        startFolderWatcher(latch, "a.jpg");
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        folderWatcher.stop();
+        folderWatcher = null;
+        assertEquals(Collections.singletonList("a.jpg"), failedNames);
+
+        latch = new CountDownLatch(1);
+        startFolderWatcher(latch, null);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList("a.jpg"), scannedNames);
+    }
+
+    private void startFolderWatcher(CountDownLatch latch, @Nullable String failingName) throws Exception {
+        currentLatch = latch;
+        folderEventSource = new FakeFolderEventSource();
+        folderWatcher =
+            new FolderWatcher(
+                directory,
+                folderEventSource,
+                new ProcessedFileIndex(indexFile),
+                2,
+                (file, callback) -> {
+                    if (file.getName().equals(failingName)) {
+                        callback.error(new Exception("The image could not be loaded."));
+                    } else {
+                        callback.success(Collections.emptyList(), null);
+                    }
+                },
+                new FolderWatcher.Listener() {
+                    @Override
+                    public void onImageScanned(
+                        @NonNull File file,
+                        @NonNull List<DecodedBarcode> barcodes,
+                        @Nullable List<Gs1ParseResult> gs1ParseResults
+                    ) {
+                        scannedNames.add(file.getName());
+                        currentLatch.countDown();
+                    }
+
+                    @Override
+                    public void onImageScanFailed(@NonNull File file, @NonNull Exception exception) {
+                        failedNames.add(file.getName());
+                        currentLatch.countDown();
+                    }
+
+                    @Override
+                    public void onIndexFailed(@NonNull Exception exception) {
+                        indexErrors.add(exception);
+                    }
+                }
+            );
+        folderWatcher.start();
+    }
+
+    private File writeFile(String name, int size) throws Exception {
+        File file = new File(directory, name);
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(new byte[size]);
+        }
+        return file;
+    }
+}
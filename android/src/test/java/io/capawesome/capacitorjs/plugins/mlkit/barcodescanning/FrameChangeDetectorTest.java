@@ -0,0 +1,73 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.Test;
+
+public class FrameChangeDetectorTest {
+
+    private static final int WIDTH = 640;
+    private static final int HEIGHT = 480;
+    private static final long FRAME_INTERVAL_NANOS = 33_000_000;
+
+    @Test
+    public void analyzesTheFirstFrame() {
+        FrameChangeDetector detector = new FrameChangeDetector(FrameChangeDetector.DEFAULT_THRESHOLD, 1000);
+        assertTrue(detector.shouldAnalyze(createFrame(0, 0), WIDTH, 1, WIDTH, HEIGHT, 0));
+    }
+
+    @Test
+    public void skipsNoisyCopiesOfTheSameScene() {
+        FrameChangeDetector detector = new FrameChangeDetector(FrameChangeDetector.DEFAULT_THRESHOLD, 1000);
+        assertTrue(detector.shouldAnalyze(createFrame(0, 1), WIDTH, 1, WIDTH, HEIGHT, 0));
+        for (int i = 1; i < 10; i++) {
+            assertFalse(detector.shouldAnalyze(createFrame(0, i + 1), WIDTH, 1, WIDTH, HEIGHT, i * FRAME_INTERVAL_NANOS));
+            assertTrue(detector.getDifference() <= FrameChangeDetector.DEFAULT_THRESHOLD);
+        }
+    }
+
+    @Test
+    public void analyzesMovedScenes() {
+        FrameChangeDetector detector = new FrameChangeDetector(FrameChangeDetector.DEFAULT_THRESHOLD, 1000);
+        assertTrue(detector.shouldAnalyze(createFrame(0, 1), WIDTH, 1, WIDTH, HEIGHT, 0));
+        assertTrue(detector.shouldAnalyze(createFrame(24, 2), WIDTH, 1, WIDTH, HEIGHT, FRAME_INTERVAL_NANOS));
+        assertTrue(detector.getDifference() > FrameChangeDetector.DEFAULT_THRESHOLD);
+        // The moved scene is the new reference
+        assertFalse(detector.shouldAnalyze(createFrame(24, 3), WIDTH, 1, WIDTH, HEIGHT, 2 * FRAME_INTERVAL_NANOS));
+    }
+
+    @Test
+    public void forcesAnAnalysisOncePerInterval() {
+        FrameChangeDetector detector = new FrameChangeDetector(FrameChangeDetector.DEFAULT_THRESHOLD, 100);
+        assertTrue(detector.shouldAnalyze(createFrame(0, 1), WIDTH, 1, WIDTH, HEIGHT, 0));
+        assertFalse(detector.shouldAnalyze(createFrame(0, 2), WIDTH, 1, WIDTH, HEIGHT, 99_000_000));
+        assertTrue(detector.shouldAnalyze(createFrame(0, 3), WIDTH, 1, WIDTH, HEIGHT, 100_000_000));
+        assertFalse(detector.shouldAnalyze(createFrame(0, 4), WIDTH, 1, WIDTH, HEIGHT, 150_000_000));
+    }
+
+    @Test
+    public void analyzesFramesOfOtherDimensionsAndAfterReset() {
+        FrameChangeDetector detector = new FrameChangeDetector(FrameChangeDetector.DEFAULT_THRESHOLD, 1000);
+        assertTrue(detector.shouldAnalyze(createFrame(0, 1), WIDTH, 1, WIDTH, HEIGHT, 0));
+        assertTrue(detector.shouldAnalyze(createFrame(0, 1), WIDTH, 1, WIDTH / 2, HEIGHT / 2, FRAME_INTERVAL_NANOS));
+        detector.reset();
+        assertTrue(detector.shouldAnalyze(createFrame(0, 1), WIDTH, 1, WIDTH / 2, HEIGHT / 2, 2 * FRAME_INTERVAL_NANOS));
+    }
+
+    /**
+     * A barcode-like pattern of vertical bars shifted by `offset` pixels, with sensor noise of +-4.
+     */
+    private static ByteBuffer createFrame(int offset, long seed) {
+        Random random = new Random(seed);
+        byte[] luma = new byte[WIDTH * HEIGHT];
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int value = ((x + offset) / 40) % 2 == 0 ? 40 : 200;
+                luma[y * WIDTH + x] = (byte) (value + random.nextInt(9) - 4);
+            }
+        }
+        return ByteBuffer.wrap(luma);
+    }
+}
@@ -0,0 +1,113 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import org.junit.Test;
+
+public class FrameQualityGateTest {
+
+    private static final int WIDTH = 640;
+    private static final int HEIGHT = 480;
+
+    @Test
+    public void passesSharpFrames() {
+        FrameQualityGate gate = new FrameQualityGate();
+        int result = gate.evaluate(createFrame(WIDTH, HEIGHT, WIDTH, 1, (x, y) -> stripes(x, 40, 200)), WIDTH, 1, WIDTH, HEIGHT);
+        assertEquals(FrameQualityGate.RESULT_PASSED, result);
+        assertTrue(gate.getSharpness() > FrameQualityGate.DEFAULT_MIN_SHARPNESS);
+        assertEquals(0f, gate.getClippingRatio(), 0f);
+    }
+
+    @Test
+    public void skipsBlurryFrames() {
+        FrameQualityGate gate = new FrameQualityGate();
+        // A smooth gradient has no edges
+        int result = gate.evaluate(createFrame(WIDTH, HEIGHT, WIDTH, 1, (x, y) -> 60 + x * 100 / WIDTH), WIDTH, 1, WIDTH, HEIGHT);
+        assertEquals(FrameQualityGate.RESULT_TOO_BLURRY, result);
+        assertTrue(gate.getSharpness() < 1f);
+    }
+
+    @Test
+    public void skipsDarkFrames() {
+        FrameQualityGate gate = new FrameQualityGate();
+        int result = gate.evaluate(createFrame(WIDTH, HEIGHT, WIDTH, 1, (x, y) -> stripes(x, 0, 40)), WIDTH, 1, WIDTH, HEIGHT);
+        assertEquals(FrameQualityGate.RESULT_TOO_DARK, result);
+        assertTrue(gate.getLuma() < FrameQualityGate.DEFAULT_MIN_LUMA);
+    }
+
+    @Test
+    public void skipsBrightFrames() {
+        FrameQualityGate gate = new FrameQualityGate();
+        int result = gate.evaluate(createFrame(WIDTH, HEIGHT, WIDTH, 1, (x, y) -> stripes(x, 220, 255)), WIDTH, 1, WIDTH, HEIGHT);
+        assertEquals(FrameQualityGate.RESULT_TOO_BRIGHT, result);
+    }
+
+    @Test
+    public void skipsClippedFrames() {
+        FrameQualityGate gate = new FrameQualityGate();
+        // Glare over the left half of a sharp frame
+        int result = gate.evaluate(
+            createFrame(WIDTH, HEIGHT, WIDTH, 1, (x, y) -> x < WIDTH / 2 ? 255 : stripes(x, 0, 120)),
+            WIDTH,
+            1,
+            WIDTH,
+            HEIGHT
+        );
+        assertEquals(FrameQualityGate.RESULT_TOO_CLIPPED, result);
+        assertEquals(0.5f, gate.getClippingRatio(), 0.02f);
+    }
+
+    @Test
+    public void appliesCustomThresholds() {
+        FrameQualityGate gate = new FrameQualityGate();
+        gate.setMinLuma(0);
+        gate.setMinSharpness(0);
+        int result = gate.evaluate(createFrame(WIDTH, HEIGHT, WIDTH, 1, (x, y) -> 10), WIDTH, 1, WIDTH, HEIGHT);
+        assertEquals(FrameQualityGate.RESULT_PASSED, result);
+    }
+
+    @Test
+    public void respectsRowAndPixelStrides() {
+        FrameQualityGate gate = new FrameQualityGate();
+        int rowStride = WIDTH * 2 + 64;
+        ByteBuffer frame = createFrame(WIDTH, HEIGHT, rowStride, 2, (x, y) -> stripes(x, 40, 200));
+        assertEquals(FrameQualityGate.RESULT_PASSED, gate.evaluate(frame, rowStride, 2, WIDTH, HEIGHT));
+        float sharpness = gate.getSharpness();
+        gate.evaluate(createFrame(WIDTH, HEIGHT, WIDTH, 1, (x, y) -> stripes(x, 40, 200)), WIDTH, 1, WIDTH, HEIGHT);
+        assertEquals(gate.getSharpness(), sharpness, 0.001f);
+    }
+
+    @Test
+    public void keepsBufferPosition() {
+        FrameQualityGate gate = new FrameQualityGate();
+        ByteBuffer frame = createFrame(WIDTH, HEIGHT, WIDTH, 1, (x, y) -> stripes(x, 40, 200));
+        gate.evaluate(frame, WIDTH, 1, WIDTH, HEIGHT);
+        assertEquals(0, frame.position());
+    }
+
+    @Test
+    public void passesTinyFrames() {
+        FrameQualityGate gate = new FrameQualityGate();
+        assertEquals(FrameQualityGate.RESULT_PASSED, gate.evaluate(ByteBuffer.allocate(4), 2, 1, 2, 2));
+    }
+
+    private interface LumaFunction {
+        int getLuma(int x, int y);
+    }
+
+    private static int stripes(int x, int dark, int light) {
+        return (x / 3) % 2 == 0 ? dark : light;
+    }
+
+    private static ByteBuffer createFrame(int width, int height, int rowStride, int pixelStride, LumaFunction lumaFunction) {
+        // The last row is not padded, like in camera frames
+        ByteBuffer buffer = ByteBuffer.allocateDirect((height - 1) * rowStride + (width - 1) * pixelStride + 1);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                buffer.put(y * rowStride + x * pixelStride, (byte) lumaFunction.getLuma(x, y));
+            }
+        }
+        return buffer;
+    }
+}
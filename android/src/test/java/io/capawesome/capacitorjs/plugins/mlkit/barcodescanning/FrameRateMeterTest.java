@@ -0,0 +1,47 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FrameRateMeterTest {
+
+    @Test
+    public void reportsZeroWithoutEnoughFrames() {
+        FrameRateMeter meter = new FrameRateMeter();
+        assertEquals(0, meter.getFrameRate(), 0);
+        meter.recordFrame(0);
+        assertEquals(0, meter.getFrameRate(), 0);
+    }
+
+    @Test
+    public void measuresSteadyFrameRates() {
+        FrameRateMeter meter = new FrameRateMeter();
+        for (int i = 0; i < 120; i++) {
+            meter.recordFrame(i * 1_000_000_000L / 60);
+        }
+        assertEquals(60, meter.getFrameRate(), 0.5);
+    }
+
+    @Test
+    public void onlyCountsTheLastSecond() {
+        FrameRateMeter meter = new FrameRateMeter();
+        for (int i = 0; i < 30; i++) {
+            meter.recordFrame(i * 1_000_000_000L / 30);
+        }
+        long start = 2_000_000_000L;
+        for (int i = 0; i < 240; i++) {
+            meter.recordFrame(start + i * 1_000_000_000L / 120);
+        }
+        assertEquals(120, meter.getFrameRate(), 1);
+    }
+
+    @Test
+    public void resets() {
+        FrameRateMeter meter = new FrameRateMeter();
+        meter.recordFrame(0);
+        meter.recordFrame(33_000_000L);
+        meter.reset();
+        assertEquals(0, meter.getFrameRate(), 0);
+    }
+}
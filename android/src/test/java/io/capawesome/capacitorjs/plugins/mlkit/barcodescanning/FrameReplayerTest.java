@@ -0,0 +1,227 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FrameReplayerTest {
+
+    private static final long FRAME_INTERVAL = 33_333_333;
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("frames", ".yuv").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void recordingRoundTrips() throws Exception {
+        List<Frame> frames = readAll(createSource(5));
+        try (FrameRecordingWriter writer = new FrameRecordingWriter(file, 10)) {
+            for (Frame frame : frames) {
+                assertTrue(writer.write(frame));
+            }
+            assertEquals(5, writer.getFrameCount());
+        }
+
+        List<Frame> replayedFrames = readAll(new FrameRecordingReader(file));
+        assertEquals(frames.size(), replayedFrames.size());
+        for (int i = 0; i < frames.size(); i++) {
+            Frame frame = frames.get(i);
+            Frame replayedFrame = replayedFrames.get(i);
+            assertArrayEquals(frame.getNv21(), replayedFrame.getNv21());
+            assertEquals(frame.getWidth(), replayedFrame.getWidth());
+            assertEquals(frame.getHeight(), replayedFrame.getHeight());
+            assertEquals(frame.getTimestampNanos(), replayedFrame.getTimestampNanos());
+        }
+    }
+
+    @Test
+    public void stopsRecordingAtMaxFrames() throws Exception {
+        try (FrameRecordingWriter writer = new FrameRecordingWriter(file, 2)) {
+            FrameSource source = createSource(3);
+            assertTrue(writer.write(source.nextFrame()));
+            assertTrue(writer.write(source.nextFrame()));
+            assertFalse(writer.isAcceptingFrames());
+            assertFalse(writer.write(source.nextFrame()));
+        }
+        assertEquals(2, readAll(new FrameRecordingReader(file)).size());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOtherFiles() throws Exception {
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(new byte[] { 'B', 'S', 'F', 'R', 0, 0, 0, 1 });
+        }
+        new FrameRecordingReader(file);
+    }
+
+    @Test
+    public void replaysDeterministically() throws Exception {
+        try (FrameRecordingWriter writer = new FrameRecordingWriter(file, 100)) {
+            FrameSource source = createSource(20);
+            Frame frame;
+            while ((frame = source.nextFrame()) != null) {
+                writer.write(frame);
+            }
+        }
+
+        List<Integer> firstResults = replayQualityGate(new FrameRecordingReader(file));
+        List<Integer> secondResults = replayQualityGate(new FrameRecordingReader(file));
+        assertEquals(20, firstResults.size());
+        assertEquals(firstResults, secondResults);
+        assertEquals(firstResults, replayQualityGate(createSource(20)));
+        // Every other frame is blank
+        assertEquals(FrameQualityGate.RESULT_PASSED, (int) firstResults.get(0));
+        assertEquals(FrameQualityGate.RESULT_TOO_BLURRY, (int) firstResults.get(1));
+    }
+
+    @Test
+    public void skipsFollowingStagesOfRejectedFrames() throws Exception {
+        FrameQualityGate frameQualityGate = new FrameQualityGate();
+        List<Long> decodedTimestamps = new ArrayList<>();
+        FrameReplayer replayer = new FrameReplayer();
+        replayer.addStage("qualityGate", frame -> frameQualityGate.evaluate(frame) == FrameQualityGate.RESULT_PASSED);
+        replayer.addStage(
+            "decode",
+            frame -> {
+                decodedTimestamps.add(frame.getTimestampNanos());
+                return true;
+            }
+        );
+
+        FrameReplayReport report = replayer.replay(createSource(6));
+
+        assertEquals(6, report.getFrameCount());
+        assertEquals(Arrays.asList(0L, 2 * FRAME_INTERVAL, 4 * FRAME_INTERVAL), decodedTimestamps);
+        assertEquals(6, report.getStageTimings().get(0).getCount());
+        assertEquals(3, report.getStageTimings().get(1).getCount());
+        assertTrue(report.toString().contains("qualityGate"));
+    }
+
+    @Test
+    public void pacesByTimestamps() throws Exception {
+        FakeClockReplayer replayer = new FakeClockReplayer();
+        replayer.setSpeed(FrameReplayer.SPEED_RECORDED);
+        replayer.addStage("work", frame -> replayer.advance(10_000_000));
+
+        FrameReplayReport report = replayer.replay(createSource(4));
+
+        assertEquals(3, replayer.sleeps.size());
+        for (long sleep : replayer.sleeps) {
+            assertEquals(FRAME_INTERVAL - 10_000_000, sleep);
+        }
+        assertEquals(0, report.getLateFrameCount());
+        assertEquals(3 * FRAME_INTERVAL + 10_000_000, report.getElapsedTime());
+        assertEquals(10_000_000, report.getStageTimings().get(0).getPercentile(95));
+    }
+
+    @Test
+    public void countsLateFramesAtFixedSpeed() throws Exception {
+        FakeClockReplayer replayer = new FakeClockReplayer();
+        replayer.setSpeed(FrameReplayer.SPEED_FIXED);
+        replayer.setFps(100);
+        // 15 ms per frame at a 10 ms interval
+        replayer.addStage("work", frame -> replayer.advance(15_000_000));
+
+        FrameReplayReport report = replayer.replay(createSource(5));
+
+        assertTrue(replayer.sleeps.isEmpty());
+        assertEquals(4, report.getLateFrameCount());
+        assertEquals(5 * 15_000_000, report.getElapsedTime());
+    }
+
+    @Test
+    public void computesPercentiles() {
+        FrameReplayReport.StageTiming timing = new FrameReplayReport.StageTiming("stage", new long[] { 50, 10, 40, 20, 30 });
+        assertEquals(10, timing.getMin());
+        assertEquals(50, timing.getMax());
+        assertEquals(30, timing.getAverage());
+        assertEquals(30, timing.getPercentile(50));
+        assertEquals(50, timing.getPercentile(95));
+        assertEquals(0, new FrameReplayReport.StageTiming("empty", new long[0]).getPercentile(95));
+    }
+
+    /**
+     * Alternates between a checkerboard and a blank frame.
+     */
+    private static FrameSource createSource(int frameCount) {
+        return new SyntheticFrameSource(
+            64,
+            48,
+            frameCount,
+            FRAME_INTERVAL,
+            (frameIndex, luma, width, height) -> {
+                for (int y = 0; y < height; y++) {
+                    for (int x = 0; x < width; x++) {
+                        boolean isDark = frameIndex % 2 == 0 && ((x / 4 + y / 4) % 2 == 0);
+                        luma[y * width + x] = (byte) (isDark ? 40 : 200);
+                    }
+                }
+            }
+        );
+    }
+
+    private static List<Frame> readAll(FrameSource source) throws IOException {
+        List<Frame> frames = new ArrayList<>();
+        try (FrameSource frameSource = source) {
+            Frame frame;
+            while ((frame = frameSource.nextFrame()) != null) {
+                frames.add(frame);
+            }
+        }
+        return frames;
+    }
+
+    private static List<Integer> replayQualityGate(FrameSource source) throws Exception {
+        FrameQualityGate frameQualityGate = new FrameQualityGate();
+        List<Integer> results = new ArrayList<>();
+        FrameReplayer replayer = new FrameReplayer();
+        replayer.addStage(
+            "qualityGate",
+            frame -> {
+                results.add(frameQualityGate.evaluate(frame));
+                return true;
+            }
+        );
+        replayer.replay(source);
+        return results;
+    }
+
+    private static class FakeClockReplayer extends FrameReplayer {
+
+        final List<Long> sleeps = new ArrayList<>();
+        long time = 1_000;
+
+        boolean advance(long nanos) {
+            time += nanos;
+            return true;
+        }
+
+        @Override
+        protected long nanoTime() {
+            return time;
+        }
+
+        @Override
+        protected void sleep(long nanos) {
+            sleeps.add(nanos);
+            time += nanos;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import org.junit.Test;
+
+public class FrameTest {
+
+    @Test
+    public void copiesPlanarPlanesWithRowPadding() {
+        int width = 4;
+        int height = 2;
+        int yRowStride = 6;
+        ByteBuffer yPlane = ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 0, 0, 5, 6, 7, 8, 0, 0 });
+        ByteBuffer uPlane = ByteBuffer.wrap(new byte[] { 10, 11, 0, 0 });
+        ByteBuffer vPlane = ByteBuffer.wrap(new byte[] { 20, 21, 0, 0 });
+
+        Frame frame = Frame.fromYuv420(yPlane, yRowStride, uPlane, vPlane, 4, 1, width, height, 90, 42, null);
+
+        assertArrayEquals(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 20, 10, 21, 11 }, frame.getNv21());
+        assertEquals(90, frame.getRotationDegrees());
+        assertEquals(42, frame.getTimestampNanos());
+        assertEquals(0, yPlane.position());
+    }
+
+    @Test
+    public void copiesSemiPlanarPlanes() {
+        int width = 4;
+        int height = 4;
+        byte[] y = new byte[16];
+        for (int i = 0; i < y.length; i++) {
+            y[i] = (byte) i;
+        }
+        // Interleaved chroma as in NV21, where the U plane starts one byte after the V plane
+        byte[] vu = new byte[] { 20, 10, 21, 11, 22, 12, 23, 13 };
+        ByteBuffer vPlane = ByteBuffer.wrap(vu, 0, 7).slice();
+        ByteBuffer uPlane = ByteBuffer.wrap(vu, 1, 7).slice();
+
+        Frame frame = Frame.fromYuv420(ByteBuffer.wrap(y), width, uPlane, vPlane, 4, 2, width, height, 0, 0, null);
+
+        byte[] expected = new byte[24];
+        System.arraycopy(y, 0, expected, 0, 16);
+        System.arraycopy(vu, 0, expected, 16, 8);
+        assertArrayEquals(expected, frame.getNv21());
+    }
+
+    @Test
+    public void handlesOddSizes() {
+        assertEquals(3 * 3 + 2 * 2 * 2, Frame.getNv21Length(3, 3));
+        ByteBuffer yPlane = ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+        ByteBuffer uPlane = ByteBuffer.wrap(new byte[] { 10, 11, 12, 13 });
+        ByteBuffer vPlane = ByteBuffer.wrap(new byte[] { 20, 21, 22, 23 });
+
+        Frame frame = Frame.fromYuv420(yPlane, 3, uPlane, vPlane, 2, 1, 3, 3, 0, 0, null);
+
+        assertArrayEquals(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 20, 10, 21, 11, 22, 12, 23, 13 }, frame.getNv21());
+    }
+
+    @Test
+    public void reusesLargeEnoughBuffers() {
+        ByteBuffer yPlane = ByteBuffer.wrap(new byte[4]);
+        ByteBuffer chromaPlane = ByteBuffer.wrap(new byte[1]);
+        byte[] buffer = new byte[6];
+        assertSame(buffer, Frame.fromYuv420(yPlane, 2, chromaPlane, chromaPlane, 1, 1, 2, 2, 0, 0, buffer).getNv21());
+        assertNotSame(buffer, Frame.fromYuv420(yPlane, 2, chromaPlane, chromaPlane, 1, 1, 2, 2, 0, 0, new byte[5]).getNv21());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTooSmallBuffers() {
+        new Frame(new byte[5], 2, 2, 0, 0);
+    }
+}
@@ -0,0 +1,219 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import com.google.mlkit.vision.barcode.common.Barcode;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.Test;
+
+public class Gs1ParserTest {
+
+    private static final String GS = "\u001D";
+
+    @Test
+    public void validatesEanCheckDigits() {
+        assertTrue(isCheckDigitValid(Barcode.FORMAT_EAN_13, "4006381333931"));
+        assertTrue(isCheckDigitValid(Barcode.FORMAT_EAN_13, "5901234123457"));
+        assertTrue(isCheckDigitValid(Barcode.FORMAT_EAN_13, "9780306406157"));
+        assertFalse(isCheckDigitValid(Barcode.FORMAT_EAN_13, "4006381333932"));
+        assertFalse(isCheckDigitValid(Barcode.FORMAT_EAN_13, "5901234123475"));
+        assertTrue(isCheckDigitValid(Barcode.FORMAT_EAN_8, "96385074"));
+        assertFalse(isCheckDigitValid(Barcode.FORMAT_EAN_8, "96385075"));
+    }
+
+    @Test
+    public void rejectsMalformedEanValues() {
+        assertFalse(isCheckDigitValid(Barcode.FORMAT_EAN_13, ""));
+        assertFalse(isCheckDigitValid(Barcode.FORMAT_EAN_13, "1234567"));
+        assertFalse(isCheckDigitValid(Barcode.FORMAT_EAN_13, "400638133393A"));
+        assertFalse(isCheckDigitValid(Barcode.FORMAT_EAN_8, "9638 074"));
+    }
+
+    @Test
+    public void validatesUpcACheckDigits() {
+        assertTrue(isCheckDigitValid(Barcode.FORMAT_UPC_A, "036000291452"));
+        assertTrue(isCheckDigitValid(Barcode.FORMAT_UPC_A, "012345678905"));
+        assertFalse(isCheckDigitValid(Barcode.FORMAT_UPC_A, "036000291453"));
+    }
+
+    @Test
+    public void validatesUpcECheckDigitsByExpansion() {
+        // 0 425261 4 expands to 042100005264
+        assertTrue(isCheckDigitValid(Barcode.FORMAT_UPC_E, "04252614"));
+        assertFalse(isCheckDigitValid(Barcode.FORMAT_UPC_E, "04252615"));
+        // 0 123456 5 expands to 012345000065
+        assertTrue(isCheckDigitValid(Barcode.FORMAT_UPC_E, "01234565"));
+        assertTrue(isCheckDigitValid(Barcode.FORMAT_UPC_E, "1234565"));
+        assertFalse(isCheckDigitValid(Barcode.FORMAT_UPC_E, "01234566"));
+        // Only the number systems 0 and 1 exist
+        assertFalse(isCheckDigitValid(Barcode.FORMAT_UPC_E, "21234565"));
+        // Without check digit there is nothing to validate
+        assertTrue(isCheckDigitValid(Barcode.FORMAT_UPC_E, "123456"));
+        assertFalse(isCheckDigitValid(Barcode.FORMAT_UPC_E, "12345"));
+    }
+
+    @Test
+    public void validatesUpcEExpansionRules() {
+        // Last digit 3: 0 123 00 000 45
+        assertTrue(isCheckDigitValid(Barcode.FORMAT_UPC_E, "0" + "123453" + checkDigit("01230000045")));
+        // Last digit 4: 0 1234 0 0000 5
+        assertTrue(isCheckDigitValid(Barcode.FORMAT_UPC_E, "0" + "123454" + checkDigit("01234000005")));
+        // Last digits 0 to 2: 0 12 x 00 00 345
+        assertTrue(isCheckDigitValid(Barcode.FORMAT_UPC_E, "0" + "123450" + checkDigit("01200000345")));
+        assertTrue(isCheckDigitValid(Barcode.FORMAT_UPC_E, "1" + "123452" + checkDigit("11220000345")));
+    }
+
+    @Test
+    public void validatesItf14CheckDigits() {
+        assertTrue(isCheckDigitValid(Barcode.FORMAT_ITF, "15400141288763"));
+        assertTrue(isCheckDigitValid(Barcode.FORMAT_ITF, "10012345678902"));
+        assertFalse(isCheckDigitValid(Barcode.FORMAT_ITF, "15400141288764"));
+        // Other ITF lengths carry no mandatory check digit
+        assertTrue(isCheckDigitValid(Barcode.FORMAT_ITF, "123456"));
+    }
+
+    @Test
+    public void acceptsOtherFormats() {
+        assertTrue(isCheckDigitValid(Barcode.FORMAT_QR_CODE, "hello"));
+        assertTrue(isCheckDigitValid(Barcode.FORMAT_CODE_128, "4006381333932"));
+    }
+
+    @Test
+    public void detectsElementStrings() {
+        assertTrue(isElementString(GS + "0109506000134352"));
+        assertTrue(isElementString("]C10109506000134352"));
+        assertTrue(isElementString("]d2" + GS + "0109506000134352"));
+        assertTrue(isElementString("]Q30109506000134352"));
+        assertTrue(isElementString("]e00109506000134352"));
+        assertTrue(isElementString("]J10109506000134352"));
+        assertFalse(isElementString("0109506000134352"));
+        assertFalse(isElementString("]C00109506000134352"));
+        assertFalse(isElementString("]X10109506000134352"));
+        assertFalse(isElementString(GS));
+        assertFalse(isElementString("]C1"));
+        assertFalse(isElementString(""));
+    }
+
+    @Test
+    public void parsesPredefinedLengthElementsWithoutSeparators() {
+        List<Gs1Element> elements = parse("]C1" + "0109506000134352" + "17201231" + "3103000185");
+        assertElements(elements, "01", "09506000134352", "17", "201231", "3103", "000185");
+    }
+
+    @Test
+    public void parsesVariableLengthElementsUntilSeparator() {
+        List<Gs1Element> elements = parse(GS + "0109506000134352" + "10ABC123" + GS + "21XYZ-9" + GS + "7003" + "2012311230");
+        assertElements(elements, "01", "09506000134352", "10", "ABC123", "21", "XYZ-9", "7003", "2012311230");
+    }
+
+    @Test
+    public void acceptsSeparatorsAfterPredefinedLengthElements() {
+        List<Gs1Element> elements = parse("]d2" + GS + "0109506000134352" + GS + "15251231" + GS);
+        assertElements(elements, "01", "09506000134352", "15", "251231");
+    }
+
+    @Test
+    public void parsesThreeAndFourDigitApplicationIdentifiers() {
+        List<Gs1Element> elements = parse("]C1" + "4101234567890128" + "400PO-42" + GS + "8004ABC" + GS + "2411");
+        assertElements(elements, "410", "1234567890128", "400", "PO-42", "8004", "ABC", "241", "1");
+    }
+
+    @Test
+    public void validatesCheckDigitsOfIdentificationKeys() {
+        assertNotNull(parse("]C1" + "00106141412345678908"));
+        assertNull(parse("]C1" + "00106141412345678909"));
+        assertNull(parse("]C1" + "0109506000134353"));
+        assertNull(parse("]C1" + "4101234567890129"));
+    }
+
+    @Test
+    public void validatesDates() {
+        assertNotNull(parse("]C1" + "17201200"));
+        assertNull(parse("]C1" + "17201301"));
+        assertNull(parse("]C1" + "17200001"));
+        assertNull(parse("]C1" + "11200132"));
+    }
+
+    @Test
+    public void rejectsMalformedElementStrings() {
+        // Truncated predefined length value
+        assertNull(parse("]C1" + "010950600013"));
+        // Non-numeric predefined length value
+        assertNull(parse("]C1" + "0109506000A34352"));
+        // Unassigned application identifier
+        assertNull(parse("]C1" + "05123"));
+        assertNull(parse("]C1" + "5012"));
+        // Empty variable length value
+        assertNull(parse("]C1" + "10" + GS + "21ABC"));
+        // Incomplete application identifier
+        assertNull(parse("]C1" + "0109506000134352" + "3"));
+        assertNull(parse("]C1" + "0109506000134352" + "310"));
+        // Consecutive separators
+        assertNull(parse("]C1" + "10ABC" + GS + GS + "21XYZ"));
+        // Not an element string at all
+        assertNull(parse("0109506000134352"));
+    }
+
+    @Test
+    public void keepsUtf8Values() {
+        List<Gs1Element> elements = parse(GS + "10Gr\u00fc\u00dfe");
+        assertElements(elements, "10", "Gr\u00fc\u00dfe");
+    }
+
+    @Test
+    public void parseCombinesCheckDigitsAndElementStrings() {
+        Gs1ParseResult result = Gs1Parser.parse(Barcode.FORMAT_EAN_13, bytes("4006381333931"));
+        assertTrue(result.isValid());
+        assertNull(result.getElements());
+
+        assertFalse(Gs1Parser.parse(Barcode.FORMAT_EAN_13, bytes("4006381333932")).isValid());
+
+        result = Gs1Parser.parse(Barcode.FORMAT_CODE_128, bytes("]C1" + "0109506000134352" + "10ABC"));
+        assertTrue(result.isValid());
+        assertElements(result.getElements(), "01", "09506000134352", "10", "ABC");
+
+        assertFalse(Gs1Parser.parse(Barcode.FORMAT_DATA_MATRIX, bytes(GS + "0109506000134353")).isValid());
+
+        result = Gs1Parser.parse(Barcode.FORMAT_QR_CODE, bytes("https://example.com"));
+        assertTrue(result.isValid());
+        assertNull(result.getElements());
+    }
+
+    private static boolean isCheckDigitValid(int format, String value) {
+        return Gs1Parser.isCheckDigitValid(format, bytes(value));
+    }
+
+    private static boolean isElementString(String value) {
+        return Gs1Parser.isElementString(bytes(value));
+    }
+
+    private static List<Gs1Element> parse(String value) {
+        return Gs1Parser.parseElementString(bytes(value));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Independent GS1 modulo 10 implementation to build test data.
+     */
+    private static String checkDigit(String digits) {
+        int sum = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            int digit = digits.charAt(digits.length() - 1 - i) - '0';
+            sum += i % 2 == 0 ? digit * 3 : digit;
+        }
+        return String.valueOf((10 - sum % 10) % 10);
+    }
+
+    private static void assertElements(List<Gs1Element> elements, String... expected) {
+        assertNotNull(elements);
+        assertEquals(expected.length / 2, elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            assertEquals(expected[i * 2], elements.get(i).getApplicationIdentifier());
+            assertEquals(expected[i * 2 + 1], elements.get(i).getValue());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import java.util.Base64;
+import org.junit.Test;
+
+public class ImageDataConverterTest {
+
+    @Test
+    public void computesTheSizes() {
+        assertEquals(4 * 6 * 4, ImageDataConverter.getPixelDataSize(ImageDataConverter.DATA_FORMAT_RGBA, 4, 6));
+        assertEquals(4 * 6, ImageDataConverter.getPixelDataSize(ImageDataConverter.DATA_FORMAT_GRAY, 4, 6));
+        assertEquals(4 * 6 * 3 / 2, ImageDataConverter.getNv21Size(4, 6));
+        // The chroma planes are rounded up
+        assertEquals(9 + 2 * 2 * 2, ImageDataConverter.getNv21Size(3, 3));
+    }
+
+    @Test
+    public void convertsRgbaToLumaWithNeutralChroma() {
+        byte[] rgba = new byte[] {
+            (byte) 255, (byte) 255, (byte) 255, (byte) 255,
+            0, 0, 0, (byte) 255,
+            (byte) 255, 0, 0, (byte) 255,
+            0, (byte) 255, 0, (byte) 255,
+        };
+        byte[] nv21 = new byte[ImageDataConverter.getNv21Size(2, 2)];
+        ImageDataConverter.convertToNv21(rgba, ImageDataConverter.DATA_FORMAT_RGBA, 2, 2, nv21);
+        assertEquals(255, nv21[0] & 0xFF);
+        assertEquals(0, nv21[1] & 0xFF);
+        assertEquals(76, nv21[2] & 0xFF);
+        assertEquals(149, nv21[3] & 0xFF);
+        assertEquals(128, nv21[4] & 0xFF);
+        assertEquals(128, nv21[5] & 0xFF);
+    }
+
+    @Test
+    public void copiesGrayIntoTheLumaPlane() {
+        byte[] gray = new byte[] { 10, 20, 30, 40, 50, 60 };
+        byte[] nv21 = new byte[ImageDataConverter.getNv21Size(3, 2)];
+        ImageDataConverter.convertToNv21(gray, ImageDataConverter.DATA_FORMAT_GRAY, 3, 2, nv21);
+        for (int i = 0; i < gray.length; i++) {
+            assertEquals(gray[i], nv21[i]);
+        }
+        for (int i = gray.length; i < nv21.length; i++) {
+            assertEquals(128, nv21[i] & 0xFF);
+        }
+    }
+
+    @Test
+    public void stripsTheDataUrlPrefix() {
+        assertEquals("iVBORw0KGgo=", ImageDataConverter.stripDataUrlPrefix("data:image/png;base64,iVBORw0KGgo="));
+        assertEquals("iVBORw0KGgo=", ImageDataConverter.stripDataUrlPrefix("iVBORw0KGgo="));
+    }
+
+    @Test
+    public void decodesBase64IntoBuffer() {
+        for (int length = 0; length < 8; length++) {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) (i * 73 + 200);
+            }
+            String data = "data:image/png;base64," + Base64.getMimeEncoder(8, new byte[] { '\r', '\n' }).encodeToString(bytes);
+            int start = ImageDataConverter.getDataStart(data);
+            byte[] decoded = new byte[ImageDataConverter.getBase64DecodedSize(data, start)];
+            ImageDataConverter.decodeBase64(data, start, decoded);
+            assertArrayEquals(bytes, decoded);
+        }
+        byte[] decoded = new byte[ImageDataConverter.getBase64DecodedSize("AQID", 0)];
+        ImageDataConverter.decodeBase64("AQID", 0, decoded);
+        assertArrayEquals(new byte[] { 1, 2, 3 }, decoded);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidBase64Length() {
+        ImageDataConverter.getBase64DecodedSize("AQIDB", 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsDataAfterBase64Padding() {
+        ImageDataConverter.decodeBase64("AQ==AQ", 0, new byte[1]);
+    }
+}
@@ -0,0 +1,56 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import android.content.ComponentCallbacks2;
+import org.junit.Test;
+
+public class MemoryDegradationTest {
+
+    @Test
+    public void mapsTrimLevelsToSteps() {
+        assertEquals(MemoryDegradation.LEVEL_NONE, MemoryDegradation.getLevelForTrimLevel(0));
+        assertEquals(
+            MemoryDegradation.LEVEL_RELEASE_BUFFERS,
+            MemoryDegradation.getLevelForTrimLevel(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE)
+        );
+        assertEquals(
+            MemoryDegradation.LEVEL_REDUCE_RESOLUTION,
+            MemoryDegradation.getLevelForTrimLevel(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW)
+        );
+        assertEquals(
+            MemoryDegradation.LEVEL_PAUSE_ANALYSIS,
+            MemoryDegradation.getLevelForTrimLevel(ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL)
+        );
+        assertEquals(MemoryDegradation.LEVEL_RELEASE_CLIENTS, MemoryDegradation.getLevelForTrimLevel(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN));
+        assertEquals(MemoryDegradation.LEVEL_PAUSE_ANALYSIS, MemoryDegradation.getLevelForTrimLevel(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND));
+        assertEquals(MemoryDegradation.LEVEL_PAUSE_ANALYSIS, MemoryDegradation.getLevelForTrimLevel(ComponentCallbacks2.TRIM_MEMORY_COMPLETE));
+    }
+
+    @Test
+    public void onlyRaisesTheLevel() {
+        MemoryDegradation memoryDegradation = new MemoryDegradation();
+        assertEquals(MemoryDegradation.LEVEL_NONE, memoryDegradation.raise(MemoryDegradation.LEVEL_REDUCE_RESOLUTION));
+        assertEquals(MemoryDegradation.LEVEL_REDUCE_RESOLUTION, memoryDegradation.raise(MemoryDegradation.LEVEL_RELEASE_BUFFERS));
+        assertEquals(MemoryDegradation.LEVEL_REDUCE_RESOLUTION, memoryDegradation.getLevel());
+        assertEquals(MemoryDegradation.LEVEL_REDUCE_RESOLUTION, memoryDegradation.raise(MemoryDegradation.LEVEL_PAUSE_ANALYSIS));
+        assertEquals(MemoryDegradation.LEVEL_PAUSE_ANALYSIS, memoryDegradation.getLevel());
+    }
+
+    @Test
+    public void resetsForTheNextSession() {
+        MemoryDegradation memoryDegradation = new MemoryDegradation();
+        memoryDegradation.raise(MemoryDegradation.LEVEL_PAUSE_ANALYSIS);
+        memoryDegradation.reset();
+        assertEquals(MemoryDegradation.LEVEL_NONE, memoryDegradation.getLevel());
+    }
+
+    @Test
+    public void namesEveryStep() {
+        assertNull(MemoryDegradation.getLevelName(MemoryDegradation.LEVEL_NONE));
+        assertEquals("RELEASE_BUFFERS", MemoryDegradation.getLevelName(MemoryDegradation.LEVEL_RELEASE_BUFFERS));
+        assertEquals("RELEASE_CLIENTS", MemoryDegradation.getLevelName(MemoryDegradation.LEVEL_RELEASE_CLIENTS));
+        assertEquals("REDUCE_RESOLUTION", MemoryDegradation.getLevelName(MemoryDegradation.LEVEL_REDUCE_RESOLUTION));
+        assertEquals("PAUSE_ANALYSIS", MemoryDegradation.getLevelName(MemoryDegradation.LEVEL_PAUSE_ANALYSIS));
+    }
+}
@@ -0,0 +1,98 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class MotionEstimatorTest {
+
+    private static final long MILLIS = 1_000_000;
+    private static final float GRAVITY = 9.81f;
+
+    private FakeMotionSource motionSource;
+    private MotionEstimator motionEstimator;
+
+    @Before
+    public void setUp() {
+        motionSource = new FakeMotionSource();
+        motionEstimator = new MotionEstimator(MotionEstimator.DEFAULT_MAX_ANGULAR_VELOCITY, MotionEstimator.DEFAULT_MAX_LINEAR_ACCELERATION);
+        motionSource.start(motionEstimator);
+    }
+
+    @Test
+    public void analyzesFramesWithoutSamples() {
+        assertFalse(motionEstimator.isMoving(100 * MILLIS));
+        assertEquals(0f, motionEstimator.getAngularVelocity(), 0f);
+    }
+
+    @Test
+    public void analyzesFramesWhileTheDeviceIsHeldStill() {
+        for (int i = 0; i < 10; i++) {
+            motionSource.emitGyroscope(i * 20 * MILLIS, 0.05f, -0.02f, 0.01f);
+            motionSource.emitAccelerometer(i * 20 * MILLIS, 0.1f, GRAVITY, 0.2f);
+        }
+        assertFalse(motionEstimator.isMoving(190 * MILLIS));
+        assertTrue(motionEstimator.getLinearAcceleration() < 0.1f);
+    }
+
+    @Test
+    public void skipsFramesWhileTheDeviceRotates() {
+        motionSource.emitGyroscope(0, 0, 0, 0);
+        motionSource.emitGyroscope(20 * MILLIS, 0, 2f, 0);
+        motionSource.emitGyroscope(40 * MILLIS, 0, 0, 0);
+        // A single fast sample during the exposure is enough
+        assertTrue(motionEstimator.isMoving(50 * MILLIS));
+        assertEquals(2f, motionEstimator.getAngularVelocity(), 0.001f);
+        // Once the sample is older than the exposure window the frame is analyzed again
+        assertFalse(motionEstimator.isMoving(100 * MILLIS));
+    }
+
+    @Test
+    public void skipsFramesWhileTheDeviceShakes() {
+        for (int i = 0; i < 10; i++) {
+            motionSource.emitAccelerometer(i * 20 * MILLIS, 0, GRAVITY, 0);
+        }
+        motionSource.emitAccelerometer(200 * MILLIS, 8f, GRAVITY, 0);
+        assertTrue(motionEstimator.isMoving(210 * MILLIS));
+        assertTrue(motionEstimator.getLinearAcceleration() > MotionEstimator.DEFAULT_MAX_LINEAR_ACCELERATION);
+        assertEquals(0f, motionEstimator.getAngularVelocity(), 0f);
+    }
+
+    @Test
+    public void usesTheLatestSampleIfTheClocksDiffer() {
+        motionSource.emitGyroscope(10 * MILLIS, 3f, 0, 0);
+        assertTrue(motionEstimator.isMoving(5_000_000 * MILLIS));
+        motionSource.emitGyroscope(30 * MILLIS, 0, 0, 0);
+        assertFalse(motionEstimator.isMoving(5_000_000 * MILLIS));
+    }
+
+    @Test
+    public void resetDropsTheSamples() {
+        motionSource.emitGyroscope(10 * MILLIS, 3f, 0, 0);
+        motionEstimator.reset();
+        assertFalse(motionEstimator.isMoving(20 * MILLIS));
+    }
+
+    @Test
+    public void stopsDeliveringSamplesOnceClosed() {
+        motionSource.close();
+        motionSource.emitGyroscope(10 * MILLIS, 3f, 0, 0);
+        assertTrue(motionSource.isClosed);
+        assertFalse(motionEstimator.isMoving(20 * MILLIS));
+    }
+
+    @Test
+    public void estimatesTheSensorCharge() {
+        ScanMetrics scanMetrics = new ScanMetrics();
+        scanMetrics.startMotionSensor(2f, 0);
+        scanMetrics.recordMotionCheck(true, 2f);
+        scanMetrics.recordMotionCheck(false, 0f);
+        // 2 mA for half an hour
+        assertEquals(1.0, scanMetrics.getMotionSensorCharge(1_800_000 * MILLIS), 0.0001);
+        scanMetrics.stopMotionSensor(1_800_000 * MILLIS);
+        assertEquals(1.0, scanMetrics.getMotionSensorCharge(3_600_000 * MILLIS), 0.0001);
+        assertEquals(1, scanMetrics.getMotionSkippedFrameCount());
+        assertEquals(1.0, scanMetrics.getAverageAngularVelocity(), 0.0001);
+    }
+}
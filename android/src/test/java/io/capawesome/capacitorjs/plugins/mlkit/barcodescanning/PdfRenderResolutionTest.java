@@ -0,0 +1,44 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class PdfRenderResolutionTest {
+
+    // A4 and A0 in PDF points
+    private static final int A4_WIDTH = 595;
+    private static final int A4_HEIGHT = 842;
+    private static final int A0_WIDTH = 2384;
+    private static final int A0_HEIGHT = 3370;
+
+    @Test
+    public void keepsRequestedDpiForSmallPages() {
+        assertEquals(200, PdfRenderResolution.getDpi(A4_WIDTH, A4_HEIGHT, 200, 4_000_000));
+        assertEquals(1653, PdfRenderResolution.getPixelSize(A4_WIDTH, 200));
+        assertEquals(2339, PdfRenderResolution.getPixelSize(A4_HEIGHT, 200));
+    }
+
+    @Test
+    public void lowersDpiForLargePages() {
+        int dpi = PdfRenderResolution.getDpi(A0_WIDTH, A0_HEIGHT, 200, 4_000_000);
+        assertTrue(dpi < 200);
+        long pixelCount = (long) PdfRenderResolution.getPixelSize(A0_WIDTH, dpi) * PdfRenderResolution.getPixelSize(A0_HEIGHT, dpi);
+        assertTrue(pixelCount <= 4_000_000);
+        // The next higher DPI would exceed the limit
+        long nextPixelCount =
+            (long) PdfRenderResolution.getPixelSize(A0_WIDTH, dpi + 1) * PdfRenderResolution.getPixelSize(A0_HEIGHT, dpi + 1);
+        assertTrue(nextPixelCount > 4_000_000);
+    }
+
+    @Test
+    public void neverReturnsLessThanOneDpi() {
+        assertEquals(1, PdfRenderResolution.getDpi(14400, 14400, 300, 1));
+        assertEquals(1, PdfRenderResolution.getPixelSize(1, 1));
+    }
+
+    @Test
+    public void keepsRequestedDpiForEmptyPages() {
+        assertEquals(150, PdfRenderResolution.getDpi(0, A4_HEIGHT, 150, 4_000_000));
+    }
+}
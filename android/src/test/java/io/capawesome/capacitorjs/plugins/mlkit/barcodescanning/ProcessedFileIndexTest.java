@@ -0,0 +1,103 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProcessedFileIndexTest {
+
+    private File directory;
+    private File file;
+    private ProcessedFileIndex processedFileIndex;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("processed-file-index").toFile();
+        file = new File(directory, "folder.index");
+        processedFileIndex = new ProcessedFileIndex(file);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        processedFileIndex.close();
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void identifiesFilesBySizeAndModifiedTime() throws Exception {
+        processedFileIndex.markProcessed("a.jpg", 100, 1000);
+        assertTrue(processedFileIndex.isProcessed("a.jpg", 100, 1000));
+        assertFalse(processedFileIndex.isProcessed("a.jpg", 101, 1000));
+        assertFalse(processedFileIndex.isProcessed("a.jpg", 100, 2000));
+        assertFalse(processedFileIndex.isProcessed("b.jpg", 100, 1000));
+    }
+
+    @Test
+    public void persistsTheLatestRecordOfAFile() throws Exception {
+        processedFileIndex.markProcessed("a.jpg", 100, 1000);
+        processedFileIndex.markProcessed("a.jpg", 200, 2000);
+        processedFileIndex.markProcessed("b.jpg", 300, 3000);
+        processedFileIndex.close();
+
+        processedFileIndex = new ProcessedFileIndex(file);
+        assertEquals(2, processedFileIndex.size());
+        assertTrue(processedFileIndex.isProcessed("a.jpg", 200, 2000));
+        assertFalse(processedFileIndex.isProcessed("a.jpg", 100, 1000));
+        assertTrue(processedFileIndex.isProcessed("b.jpg", 300, 3000));
+    }
+
+    @Test
+    public void dropsFilesThatAreNoLongerInTheFolder() throws Exception {
+        processedFileIndex.markProcessed("a.jpg", 100, 1000);
+        processedFileIndex.markProcessed("b.jpg", 200, 2000);
+        assertEquals(1, processedFileIndex.retainAll(Arrays.asList("b.jpg", "c.jpg")));
+        processedFileIndex.close();
+
+        processedFileIndex = new ProcessedFileIndex(file);
+        assertEquals(1, processedFileIndex.size());
+        assertFalse(processedFileIndex.isProcessed("a.jpg", 100, 1000));
+        assertTrue(processedFileIndex.isProcessed("b.jpg", 200, 2000));
+    }
+
+    @Test
+    public void compactsSupersededRecordsOnOpen() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            processedFileIndex.markProcessed("a.jpg", i, i);
+        }
+        long length = file.length();
+        processedFileIndex.close();
+
+        processedFileIndex = new ProcessedFileIndex(file);
+        assertTrue(file.length() < length);
+        assertTrue(processedFileIndex.isProcessed("a.jpg", 9, 9));
+    }
+
+    @Test
+    public void discardsTruncatedRecords() throws Exception {
+        processedFileIndex.markProcessed("a.jpg", 100, 1000);
+        processedFileIndex.markProcessed("b.jpg", 200, 2000);
+        processedFileIndex.close();
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(randomAccessFile.length() - 3);
+        }
+
+        processedFileIndex = new ProcessedFileIndex(file);
+        assertEquals(1, processedFileIndex.size());
+        assertTrue(processedFileIndex.isProcessed("a.jpg", 100, 1000));
+        processedFileIndex.markProcessed("c.jpg", 300, 3000);
+        processedFileIndex.close();
+
+        processedFileIndex = new ProcessedFileIndex(file);
+        assertEquals(2, processedFileIndex.size());
+        assertTrue(processedFileIndex.isProcessed("c.jpg", 300, 3000));
+    }
+}
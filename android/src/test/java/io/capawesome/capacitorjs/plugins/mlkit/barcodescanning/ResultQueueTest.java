@@ -0,0 +1,105 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class ResultQueueTest {
+
+    @Test
+    public void pollsInOrderUpToMax() throws Exception {
+        ResultQueue<Integer> resultQueue = new ResultQueue<>(4, ResultQueue.OVERFLOW_POLICY_DROP_OLDEST);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(resultQueue.offer(i));
+        }
+        assertEquals(Arrays.asList(0, 1), resultQueue.poll(2, 0));
+        assertEquals(1, resultQueue.size());
+        assertEquals(Collections.singletonList(2), resultQueue.poll(8, 0));
+        assertTrue(resultQueue.poll(8, 0).isEmpty());
+    }
+
+    @Test
+    public void wrapsAroundTheRing() throws Exception {
+        ResultQueue<Integer> resultQueue = new ResultQueue<>(3, ResultQueue.OVERFLOW_POLICY_DROP_OLDEST);
+        for (int i = 0; i < 10; i++) {
+            resultQueue.offer(i);
+            assertEquals(Collections.singletonList(i), resultQueue.poll(1, 0));
+        }
+    }
+
+    @Test
+    public void dropsTheOldestResultWhenFull() throws Exception {
+        ResultQueue<Integer> resultQueue = new ResultQueue<>(2, ResultQueue.OVERFLOW_POLICY_DROP_OLDEST);
+        resultQueue.offer(0);
+        resultQueue.offer(1);
+        assertFalse(resultQueue.offer(2));
+        assertEquals(Arrays.asList(1, 2), resultQueue.poll(8, 0));
+    }
+
+    @Test
+    public void dropsTheNewestResultWhenFull() throws Exception {
+        ResultQueue<Integer> resultQueue = new ResultQueue<>(2, ResultQueue.OVERFLOW_POLICY_DROP_NEWEST);
+        resultQueue.offer(0);
+        resultQueue.offer(1);
+        assertFalse(resultQueue.offer(2));
+        assertEquals(Arrays.asList(0, 1), resultQueue.poll(8, 0));
+    }
+
+    @Test
+    public void waitsForTheFirstResult() throws Exception {
+        ResultQueue<Integer> resultQueue = new ResultQueue<>(4, ResultQueue.OVERFLOW_POLICY_DROP_OLDEST);
+        AtomicReference<List<Integer>> polledItems = new AtomicReference<>();
+        Thread consumer = new Thread(
+            () -> {
+                try {
+                    polledItems.set(resultQueue.poll(4, 10_000));
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        );
+        consumer.start();
+        Thread.sleep(50);
+        resultQueue.offer(7);
+        consumer.join(5_000);
+        assertFalse(consumer.isAlive());
+        assertEquals(Collections.singletonList(7), polledItems.get());
+    }
+
+    @Test
+    public void returnsEmptyAfterTheWaitTime() throws Exception {
+        ResultQueue<Integer> resultQueue = new ResultQueue<>(4, ResultQueue.OVERFLOW_POLICY_DROP_OLDEST);
+        long startedAt = System.nanoTime();
+        assertTrue(resultQueue.poll(4, 30).isEmpty());
+        assertTrue(System.nanoTime() - startedAt >= 30_000_000L);
+    }
+
+    @Test
+    public void closingWakesUpWaitingPollsAndKeepsQueuedResults() throws Exception {
+        ResultQueue<Integer> resultQueue = new ResultQueue<>(4, ResultQueue.OVERFLOW_POLICY_DROP_OLDEST);
+        Thread consumer = new Thread(
+            () -> {
+                try {
+                    resultQueue.poll(4, 10_000);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        );
+        consumer.start();
+        Thread.sleep(50);
+        resultQueue.close();
+        consumer.join(5_000);
+        assertFalse(consumer.isAlive());
+
+        ResultQueue<Integer> closedQueue = new ResultQueue<>(4, ResultQueue.OVERFLOW_POLICY_DROP_OLDEST);
+        closedQueue.offer(1);
+        closedQueue.close();
+        assertFalse(closedQueue.offer(2));
+        assertEquals(Collections.singletonList(1), closedQueue.poll(4, 10_000));
+    }
+}
@@ -0,0 +1,131 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ScanHistoryTest {
+
+    private File directory;
+    private ScanHistory scanHistory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("scan-history").toFile();
+        scanHistory = new ScanHistory(directory);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        scanHistory.close();
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void appendsAndQueriesAllEntries() throws Exception {
+        scanHistory.append("4006381333931", 32, 1000, null);
+        scanHistory.append("https://capawesome.io", 256, 2000, "file:///image.jpg");
+
+        ScanHistoryPage page = scanHistory.query(null, 0, Long.MAX_VALUE, 0, 10);
+        assertEquals(2, page.getTotal());
+        assertEquals("4006381333931", page.getEntries().get(0).getValue());
+        assertEquals(32, page.getEntries().get(0).getFormat());
+        assertEquals(1000, page.getEntries().get(0).getTimestamp());
+        assertNull(page.getEntries().get(0).getImagePath());
+        assertEquals("file:///image.jpg", page.getEntries().get(1).getImagePath());
+    }
+
+    @Test
+    public void queriesByTimeRangeWithPaging() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            scanHistory.append("value" + i, 1, i * 10L, null);
+        }
+        ScanHistoryPage page = scanHistory.query(null, 200, 500, 5, 10);
+        assertEquals(30, page.getTotal());
+        assertEquals(10, page.getEntries().size());
+        assertEquals("value25", page.getEntries().get(0).getValue());
+    }
+
+    @Test
+    public void queriesByValueAcrossSortedIndexAndTail() throws Exception {
+        for (int i = 0; i < 3000; i++) {
+            scanHistory.append(i % 100 == 0 ? "needle" : "value" + i, 1, i, null);
+        }
+        ScanHistoryPage page = scanHistory.query("needle", 0, Long.MAX_VALUE, 0, 100);
+        assertEquals(30, page.getTotal());
+        for (int i = 0; i < 30; i++) {
+            assertEquals(i * 100L, page.getEntries().get(i).getTimestamp());
+        }
+        page = scanHistory.query("needle", 1000, 2000, 2, 100);
+        assertEquals(10, page.getTotal());
+        assertEquals(8, page.getEntries().size());
+        assertEquals(1200, page.getEntries().get(0).getTimestamp());
+        assertEquals(0, scanHistory.query("missing", 0, Long.MAX_VALUE, 0, 100).getTotal());
+    }
+
+    @Test
+    public void keepsTimestampsMonotonic() throws Exception {
+        scanHistory.append("a", 1, 2000, null);
+        scanHistory.append("b", 1, 1000, null);
+        assertEquals(2000, scanHistory.query("b", 0, Long.MAX_VALUE, 0, 1).getEntries().get(0).getTimestamp());
+    }
+
+    @Test
+    public void persistsAcrossReopen() throws Exception {
+        for (int i = 0; i < 2000; i++) {
+            scanHistory.append("value" + (i % 10), 1, i, null);
+        }
+        scanHistory.close();
+        scanHistory = new ScanHistory(directory);
+        assertEquals(2000, scanHistory.size());
+        assertEquals(200, scanHistory.query("value3", 0, Long.MAX_VALUE, 0, 1).getTotal());
+        scanHistory.append("value3", 1, 5000, null);
+        assertEquals(201, scanHistory.query("value3", 0, Long.MAX_VALUE, 0, 1).getTotal());
+    }
+
+    @Test
+    public void discardsUncommittedDataOnOpen() throws Exception {
+        scanHistory.append("committed", 1, 1000, null);
+        scanHistory.close();
+        // Simulate a crash after the log record was written but before the entry was committed
+        try (RandomAccessFile logFile = new RandomAccessFile(new File(directory, ScanHistory.LOG_FILE_NAME), "rw")) {
+            logFile.seek(8 + "committed".length());
+            logFile.writeInt(7);
+            logFile.writeInt(-1);
+            logFile.write("garbage".getBytes());
+        }
+        scanHistory = new ScanHistory(directory);
+        assertEquals(1, scanHistory.size());
+        scanHistory.append("next", 1, 2000, null);
+        ScanHistoryPage page = scanHistory.query(null, 0, Long.MAX_VALUE, 0, 10);
+        assertEquals("committed", page.getEntries().get(0).getValue());
+        assertEquals("next", page.getEntries().get(1).getValue());
+    }
+
+    @Test
+    public void growsBeyondInitialCapacity() throws Exception {
+        String value = new String(new char[1000]).replace('\0', 'x');
+        for (int i = 0; i < 500; i++) {
+            scanHistory.append(value + i, 1, i, null);
+        }
+        assertEquals(value + 499, scanHistory.query(value + 499, 0, Long.MAX_VALUE, 0, 1).getEntries().get(0).getValue());
+    }
+
+    @Test
+    public void clearsAllEntries() throws Exception {
+        scanHistory.append("a", 1, 1000, null);
+        scanHistory.clear();
+        assertEquals(0, scanHistory.size());
+        assertEquals(0, scanHistory.query("a", 0, Long.MAX_VALUE, 0, 1).getTotal());
+        scanHistory.append("b", 1, 500, null);
+        assertEquals(500, scanHistory.query(null, 0, Long.MAX_VALUE, 0, 1).getEntries().get(0).getTimestamp());
+    }
+}
@@ -0,0 +1,135 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class ScanSessionTest {
+
+    @Test
+    public void isOnlyCurrentWhileRunning() {
+        ScanSession scanSession = new ScanSession();
+        long generation = scanSession.start();
+        assertEquals(ScanSession.STATE_STARTING, scanSession.getState());
+        assertFalse(scanSession.isCurrent(generation));
+
+        assertTrue(scanSession.markRunning(generation));
+        assertEquals(ScanSession.STATE_RUNNING, scanSession.getState());
+        assertTrue(scanSession.isCurrent(generation));
+
+        scanSession.stop();
+        assertEquals(ScanSession.STATE_STOPPED, scanSession.getState());
+        assertFalse(scanSession.isCurrent(generation));
+    }
+
+    @Test
+    public void makesPreviousGenerationsStale() {
+        ScanSession scanSession = new ScanSession();
+        long firstGeneration = scanSession.start();
+        scanSession.markRunning(firstGeneration);
+        scanSession.stop();
+        long secondGeneration = scanSession.start();
+        assertTrue(secondGeneration > firstGeneration);
+
+        // A camera provider callback of the first session must not start the second one
+        assertFalse(scanSession.markRunning(firstGeneration));
+        assertTrue(scanSession.markRunning(secondGeneration));
+        assertFalse(scanSession.isCurrent(firstGeneration));
+        assertTrue(scanSession.isCurrent(secondGeneration));
+    }
+
+    @Test
+    public void cannotRunAfterStoppingWhileStarting() {
+        ScanSession scanSession = new ScanSession();
+        long generation = scanSession.start();
+        scanSession.stop();
+        assertFalse(scanSession.markRunning(generation));
+        assertFalse(scanSession.isCurrent(generation));
+    }
+
+    @Test
+    public void handsOutUniqueGenerationsUnderContention() throws Exception {
+        ScanSession scanSession = new ScanSession();
+        int threadCount = 8;
+        int startCount = 10_000;
+        Set<Long> generations = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        try {
+            Future<?>[] futures = new Future<?>[threadCount];
+            for (int i = 0; i < threadCount; i++) {
+                futures[i] =
+                    executor.submit(
+                        () -> {
+                            startLatch.await();
+                            for (int j = 0; j < startCount; j++) {
+                                generations.add(scanSession.start());
+                            }
+                            return null;
+                        }
+                    );
+            }
+            startLatch.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(threadCount * startCount, generations.size());
+        assertEquals(threadCount * startCount, scanSession.getGeneration());
+    }
+
+    @Test
+    public void neverReportsAStoppedGenerationAsCurrent() throws Exception {
+        ScanSession scanSession = new ScanSession();
+        AtomicLong stoppedGeneration = new AtomicLong(-1);
+        AtomicBoolean isDone = new AtomicBoolean(false);
+        AtomicLong violationCount = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 3; i++) {
+                executor.execute(
+                    () -> {
+                        while (!isDone.get()) {
+                            // Like a frame: the generation is captured first and checked before results are delivered
+                            long lastStoppedGeneration = stoppedGeneration.get();
+                            long generation = scanSession.getGeneration();
+                            if (scanSession.isCurrent(generation)) {
+                                if (generation <= lastStoppedGeneration) {
+                                    violationCount.incrementAndGet();
+                                }
+                            }
+                        }
+                    }
+                );
+            }
+            Future<?> writer = executor.submit(
+                () -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        long generation = scanSession.start();
+                        scanSession.markRunning(generation);
+                        Thread.yield();
+                        scanSession.stop();
+                        stoppedGeneration.set(generation);
+                    }
+                }
+            );
+            writer.get(60, TimeUnit.SECONDS);
+        } finally {
+            isDone.set(true);
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(0, violationCount.get());
+    }
+}
@@ -0,0 +1,239 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import androidx.annotation.NonNull;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class StripBarcodeDecoderTest {
+
+    private static final String[] L_CODES = new String[] {
+        "0001101",
+        "0011001",
+        "0010011",
+        "0111101",
+        "0100011",
+        "0110001",
+        "0101111",
+        "0111011",
+        "0110111",
+        "0001011"
+    };
+    private static final String[] FIRST_DIGIT_PARITIES = new String[] {
+        "LLLLLL",
+        "LLGLGG",
+        "LLGGLG",
+        "LLGGGL",
+        "LGLLGG",
+        "LGGLLG",
+        "LGGGLL",
+        "LGLGLG",
+        "LGLGGL",
+        "LGGLGL"
+    };
+
+    private final StripBarcodeDecoder decoder = new StripBarcodeDecoder();
+
+    @Test
+    public void decodesEan13() {
+        List<DecodedBarcode> barcodes = decode(render(encodeEan13("4006381333931"), 3, 400, 300, false, false), 0, Barcode.FORMAT_ALL_FORMATS);
+        assertEquals(1, barcodes.size());
+        DecodedBarcode barcode = barcodes.get(0);
+        assertEquals(Barcode.FORMAT_EAN_13, barcode.getFormat());
+        assertEquals(Barcode.TYPE_PRODUCT, barcode.getValueType());
+        assertEquals("4006381333931", barcode.getRawValue());
+        assertArrayEquals("4006381333931".getBytes(), barcode.getRawBytes());
+        int[] bounds = barcode.getBounds();
+        // 95 modules of 3 pixels, centered
+        assertEquals((400 - 95 * 3) / 2, bounds[0]);
+        assertEquals((400 - 95 * 3) / 2 + 95 * 3, bounds[2]);
+        assertTrue(bounds[1] < 150 && bounds[3] > 150);
+    }
+
+    @Test
+    public void decodesEan8AndUpcA() {
+        List<DecodedBarcode> barcodes = decode(render(encodeEan8("96385074"), 3, 400, 300, false, false), 0, Barcode.FORMAT_ALL_FORMATS);
+        assertEquals(1, barcodes.size());
+        assertEquals(Barcode.FORMAT_EAN_8, barcodes.get(0).getFormat());
+        assertEquals("96385074", barcodes.get(0).getRawValue());
+
+        barcodes = decode(render(encodeEan13("0036000291452"), 3, 400, 300, false, false), 0, Barcode.FORMAT_ALL_FORMATS);
+        assertEquals(1, barcodes.size());
+        assertEquals(Barcode.FORMAT_UPC_A, barcodes.get(0).getFormat());
+        assertEquals("036000291452", barcodes.get(0).getRawValue());
+
+        barcodes = decode(render(encodeEan13("0036000291452"), 3, 400, 300, false, false), 0, Barcode.FORMAT_EAN_13);
+        assertEquals(1, barcodes.size());
+        assertEquals(Barcode.FORMAT_EAN_13, barcodes.get(0).getFormat());
+        assertEquals("0036000291452", barcodes.get(0).getRawValue());
+    }
+
+    @Test
+    public void decodesUpsideDownAndVerticalBarcodes() {
+        List<DecodedBarcode> barcodes = decode(render(encodeEan13("5901234123457"), 2, 300, 200, true, false), 0, Barcode.FORMAT_ALL_FORMATS);
+        assertEquals(1, barcodes.size());
+        assertEquals("5901234123457", barcodes.get(0).getRawValue());
+
+        // Bars along the rows, as a horizontal barcode in a portrait preview appears in the sensor image
+        LumaPlane plane = render(encodeEan13("5901234123457"), 2, 200, 300, false, true);
+        barcodes = decode(plane, 90, Barcode.FORMAT_ALL_FORMATS);
+        assertEquals(1, barcodes.size());
+        assertEquals("5901234123457", barcodes.get(0).getRawValue());
+        int[] bounds = barcodes.get(0).getBounds();
+        // Upright, the barcode spans the width of the 300 x 200 image
+        assertEquals(300 - ((300 - 95 * 2) / 2 + 95 * 2), bounds[0]);
+        assertEquals(300 - (300 - 95 * 2) / 2, bounds[2]);
+    }
+
+    @Test
+    public void toleratesBlurAndNoise() {
+        LumaPlane plane = render(encodeEan13("9780306406157"), 3, 400, 300, false, false);
+        byte[] luma = new byte[400 * 300];
+        long seed = 42;
+        for (int y = 0; y < 300; y++) {
+            for (int x = 0; x < 400; x++) {
+                int sum = plane.get(Math.max(0, x - 1), y) + plane.get(x, y) + plane.get(Math.min(399, x + 1), y);
+                seed = seed * 6364136223846793005L + 1442695040888963407L;
+                int noise = (int) ((seed >>> 33) % 31) - 15;
+                luma[y * 400 + x] = (byte) Math.max(0, Math.min(255, sum / 3 + noise));
+            }
+        }
+        List<DecodedBarcode> barcodes = decode(new LumaPlane(ByteBuffer.wrap(luma), 400, 1, 400, 300), 0, Barcode.FORMAT_ALL_FORMATS);
+        assertEquals(1, barcodes.size());
+        assertEquals("9780306406157", barcodes.get(0).getRawValue());
+    }
+
+    @Test
+    public void rejectsInvalidCheckDigitsAndOtherFormats() {
+        assertTrue(decode(render(encodeEan13("4006381333932"), 3, 400, 300, false, false), 0, Barcode.FORMAT_ALL_FORMATS).isEmpty());
+        assertTrue(decode(render(encodeEan13("4006381333931"), 3, 400, 300, false, false), 0, Barcode.FORMAT_QR_CODE).isEmpty());
+        assertTrue(decode(render(encodeEan13("4006381333931"), 3, 400, 300, false, false), 0, Barcode.FORMAT_EAN_8).isEmpty());
+    }
+
+    @Test
+    public void findsNothingInBlankOrUniformImages() {
+        byte[] luma = new byte[200 * 100];
+        Arrays.fill(luma, (byte) 180);
+        assertTrue(decode(new LumaPlane(ByteBuffer.wrap(luma), 200, 1, 200, 100), 0, Barcode.FORMAT_ALL_FORMATS).isEmpty());
+        for (int i = 0; i < luma.length; i++) {
+            luma[i] = (byte) ((i / 3) % 2 == 0 ? 20 : 230);
+        }
+        assertTrue(decode(new LumaPlane(ByteBuffer.wrap(luma), 200, 1, 200, 100), 0, Barcode.FORMAT_ALL_FORMATS).isEmpty());
+    }
+
+    @Test
+    public void rotatesBounds() {
+        // A 10 x 20 image with the rectangle (1, 2) - (4, 6)
+        assertArrayEquals(new int[] { 1, 2, 4, 6 }, StripBarcodeDecoder.rotateBounds(1, 2, 4, 6, 10, 20, 0));
+        assertArrayEquals(new int[] { 14, 1, 18, 4 }, StripBarcodeDecoder.rotateBounds(1, 2, 4, 6, 10, 20, 90));
+        assertArrayEquals(new int[] { 6, 14, 9, 18 }, StripBarcodeDecoder.rotateBounds(1, 2, 4, 6, 10, 20, 180));
+        assertArrayEquals(new int[] { 2, 6, 6, 9 }, StripBarcodeDecoder.rotateBounds(1, 2, 4, 6, 10, 20, 270));
+    }
+
+    @Test
+    public void engineWithoutFormatsDecodesAllFormats() {
+        LumaPlane plane = render(encodeEan13("4006381333931"), 3, 400, 300, false, false);
+        List<DecodedBarcode> barcodes = new ArrayList<>();
+        StripDecoderEngine.fromFormats(new int[] {}).decode(
+            new DecoderInput(null, plane, 0),
+            new DecoderEngine.Callback() {
+                @Override
+                public void success(@NonNull List<DecodedBarcode> decodedBarcodes) {
+                    barcodes.addAll(decodedBarcodes);
+                }
+
+                @Override
+                public void error(@NonNull Exception exception) {
+                    fail(exception.getMessage());
+                }
+            }
+        );
+        assertEquals(1, barcodes.size());
+        assertEquals("4006381333931", barcodes.get(0).getRawValue());
+
+        List<DecodedBarcode> filteredBarcodes = new ArrayList<>();
+        StripDecoderEngine.fromFormats(new int[] { Barcode.FORMAT_EAN_8 }).decode(
+            new DecoderInput(null, plane, 0),
+            new DecoderEngine.Callback() {
+                @Override
+                public void success(@NonNull List<DecodedBarcode> decodedBarcodes) {
+                    filteredBarcodes.addAll(decodedBarcodes);
+                }
+
+                @Override
+                public void error(@NonNull Exception exception) {
+                    fail(exception.getMessage());
+                }
+            }
+        );
+        assertTrue(filteredBarcodes.isEmpty());
+    }
+
+    private List<DecodedBarcode> decode(LumaPlane plane, int rotationDegrees, int formats) {
+        return decoder.decode(plane, rotationDegrees, formats);
+    }
+
+    /**
+     * Returns the modules of the barcode, `1` for bars.
+     */
+    private static String encodeEan13(String digits) {
+        StringBuilder modules = new StringBuilder("101");
+        String parities = FIRST_DIGIT_PARITIES[digits.charAt(0) - '0'];
+        for (int i = 1; i <= 6; i++) {
+            String code = L_CODES[digits.charAt(i) - '0'];
+            modules.append(parities.charAt(i - 1) == 'L' ? code : new StringBuilder(invert(code)).reverse().toString());
+        }
+        modules.append("01010");
+        for (int i = 7; i <= 12; i++) {
+            modules.append(invert(L_CODES[digits.charAt(i) - '0']));
+        }
+        return modules.append("101").toString();
+    }
+
+    private static String encodeEan8(String digits) {
+        StringBuilder modules = new StringBuilder("101");
+        for (int i = 0; i < 4; i++) {
+            modules.append(L_CODES[digits.charAt(i) - '0']);
+        }
+        modules.append("01010");
+        for (int i = 4; i < 8; i++) {
+            modules.append(invert(L_CODES[digits.charAt(i) - '0']));
+        }
+        return modules.append("101").toString();
+    }
+
+    private static String invert(String code) {
+        return code.replace('0', 'x').replace('1', '0').replace('x', '1');
+    }
+
+    /**
+     * Renders the modules centered on a light background, with bars across the full height (or width if `isVertical`).
+     */
+    private static LumaPlane render(String modules, int moduleWidth, int width, int height, boolean isReversed, boolean isVertical) {
+        byte[] luma = new byte[width * height];
+        Arrays.fill(luma, (byte) 220);
+        int length = isVertical ? height : width;
+        int offset = (length - modules.length() * moduleWidth) / 2;
+        for (int i = 0; i < modules.length(); i++) {
+            char module = modules.charAt(isReversed ? modules.length() - 1 - i : i);
+            if (module != '1') {
+                continue;
+            }
+            for (int p = offset + i * moduleWidth; p < offset + (i + 1) * moduleWidth; p++) {
+                if (isVertical) {
+                    Arrays.fill(luma, p * width, (p + 1) * width, (byte) 30);
+                } else {
+                    for (int y = 0; y < height; y++) {
+                        luma[y * width + p] = 30;
+                    }
+                }
+            }
+        }
+        return new LumaPlane(ByteBuffer.wrap(luma), width, 1, width, height);
+    }
+}
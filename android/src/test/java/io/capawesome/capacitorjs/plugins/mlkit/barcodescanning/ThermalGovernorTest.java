@@ -0,0 +1,105 @@
+package io.capawesome.capacitorjs.plugins.mlkit.barcodescanning;
+
+import static org.junit.Assert.*;
+
+import android.os.PowerManager;
+import org.junit.Test;
+
+public class ThermalGovernorTest {
+
+    private static final long MILLIS = 1_000_000L;
+    private static final long SECONDS = 1_000_000_000L;
+
+    @Test
+    public void stepsDownOneLevelPerDelayWhileHot() {
+        FakeThermalSource thermalSource = new FakeThermalSource();
+        thermalSource.thermalStatus = PowerManager.THERMAL_STATUS_SEVERE;
+        ThermalGovernor governor = new ThermalGovernor(thermalSource, new ThermalPolicy());
+        assertFalse(governor.handleFrameAnalyzed(10 * MILLIS, 0));
+        assertFalse(governor.handleFrameAnalyzed(10 * MILLIS, SECONDS));
+        assertTrue(governor.handleFrameAnalyzed(10 * MILLIS, 2 * SECONDS));
+        assertEquals(ThermalGovernor.LEVEL_REDUCE_FRAME_RATE, governor.getLevel());
+        assertFalse(governor.handleFrameAnalyzed(10 * MILLIS, 3 * SECONDS));
+        assertTrue(governor.handleFrameAnalyzed(10 * MILLIS, 4 * SECONDS));
+        assertTrue(governor.handleFrameAnalyzed(10 * MILLIS, 6 * SECONDS));
+        assertEquals(ThermalGovernor.LEVEL_REDUCE_RESOLUTION, governor.getLevel());
+        assertFalse(governor.handleFrameAnalyzed(10 * MILLIS, 8 * SECONDS));
+        assertEquals(3, governor.getLevelChangeCount());
+    }
+
+    @Test
+    public void stepsDownWhileTheAnalysisIsSlow() {
+        ThermalGovernor governor = new ThermalGovernor(new FakeThermalSource(), new ThermalPolicy());
+        governor.handleFrameAnalyzed(120 * MILLIS, 0);
+        assertTrue(governor.handleFrameAnalyzed(120 * MILLIS, 2 * SECONDS));
+        assertEquals(ThermalGovernor.LEVEL_REDUCE_FRAME_RATE, governor.getLevel());
+        // Within the hysteresis band the level is kept
+        for (int i = 0; i < 20; i++) {
+            assertFalse(governor.handleFrameAnalyzed(60 * MILLIS, 3 * SECONDS + i * SECONDS));
+        }
+        assertEquals(ThermalGovernor.LEVEL_REDUCE_FRAME_RATE, governor.getLevel());
+    }
+
+    @Test
+    public void stepsBackUpAfterRecovering() {
+        FakeThermalSource thermalSource = new FakeThermalSource();
+        thermalSource.thermalStatus = PowerManager.THERMAL_STATUS_MODERATE;
+        ThermalGovernor governor = new ThermalGovernor(thermalSource, new ThermalPolicy());
+        governor.handleFrameAnalyzed(10 * MILLIS, 0);
+        governor.handleFrameAnalyzed(10 * MILLIS, 2 * SECONDS);
+        governor.handleFrameAnalyzed(10 * MILLIS, 4 * SECONDS);
+        assertEquals(ThermalGovernor.LEVEL_SKIP_IMAGES, governor.getLevel());
+        thermalSource.thermalStatus = PowerManager.THERMAL_STATUS_NONE;
+        assertFalse(governor.handleFrameAnalyzed(10 * MILLIS, 10 * SECONDS));
+        assertTrue(governor.handleFrameAnalyzed(10 * MILLIS, 19 * SECONDS));
+        assertEquals(ThermalGovernor.LEVEL_REDUCE_FRAME_RATE, governor.getLevel());
+        assertTrue(governor.handleFrameAnalyzed(10 * MILLIS, 34 * SECONDS));
+        assertEquals(ThermalGovernor.LEVEL_NORMAL, governor.getLevel());
+    }
+
+    @Test
+    public void thermalStatusKeepsTheLevelDespiteFastAnalysis() {
+        FakeThermalSource thermalSource = new FakeThermalSource();
+        thermalSource.thermalStatus = PowerManager.THERMAL_STATUS_LIGHT;
+        ThermalGovernor governor = new ThermalGovernor(thermalSource, new ThermalPolicy());
+        governor.handleFrameAnalyzed(MILLIS, 0);
+        governor.handleFrameAnalyzed(MILLIS, 2 * SECONDS);
+        for (int i = 0; i < 10; i++) {
+            governor.handleFrameAnalyzed(MILLIS, 20 * SECONDS * (i + 1));
+        }
+        assertEquals(ThermalGovernor.LEVEL_REDUCE_FRAME_RATE, governor.getLevel());
+    }
+
+    @Test
+    public void reducesTheFrameRate() {
+        FakeThermalSource thermalSource = new FakeThermalSource();
+        thermalSource.thermalStatus = PowerManager.THERMAL_STATUS_LIGHT;
+        ThermalGovernor governor = new ThermalGovernor(thermalSource, new ThermalPolicy());
+        assertTrue(governor.shouldAnalyzeFrame(0));
+        assertTrue(governor.shouldAnalyzeFrame(33 * MILLIS));
+        governor.handleFrameAnalyzed(10 * MILLIS, 0);
+        governor.handleFrameAnalyzed(10 * MILLIS, 2 * SECONDS);
+        assertEquals(ThermalGovernor.LEVEL_REDUCE_FRAME_RATE, governor.getLevel());
+        int analyzedFrameCount = 0;
+        for (int i = 0; i < 30; i++) {
+            if (governor.shouldAnalyzeFrame(SECONDS + i * 33_333_333L)) {
+                analyzedFrameCount++;
+            }
+        }
+        // About 10 of 30 frames per second
+        assertTrue(analyzedFrameCount >= 9 && analyzedFrameCount <= 11);
+    }
+
+    @Test
+    public void clampsUnknownThermalStatuses() {
+        FakeThermalSource thermalSource = new FakeThermalSource();
+        thermalSource.thermalStatus = 42;
+        ThermalPolicy policy = new ThermalPolicy();
+        policy.stepDownDelayNanos = 0;
+        ThermalGovernor governor = new ThermalGovernor(thermalSource, policy);
+        for (int i = 0; i < 10; i++) {
+            governor.handleFrameAnalyzed(MILLIS, i);
+        }
+        assertEquals(ThermalGovernor.MAX_LEVEL, governor.getLevel());
+    }
+}